@@ -55,7 +55,7 @@ public class BenchPerformance {
 	long start, end;
 
 	static enum Measures {
-		MEMORY, NODE_BY_ID, EDGE_BY_ID, GRAPH_NODE_IT, GRAPH_EDGE_IT, NODE_EDGE_IT, NODE_ENTERING_EDGE_IT, NODE_LEAVING_EDGE_IT, NODE_NEIGHBOR_IT, NODE_GET_EDGE, BFS_IT, DFS_IT, EDGE_BETWEEN, EDGE_FROM, EDGE_TOWARD, TRIANGLE, ADD_NODE, ADD_EDGE, REMOVE_NODE, REMOVE_EDGE
+		MEMORY, NODE_BY_ID, EDGE_BY_ID, GRAPH_NODE_IT, GRAPH_EDGE_IT, NODE_EDGE_IT, NODE_ENTERING_EDGE_IT, NODE_LEAVING_EDGE_IT, NODE_NEIGHBOR_IT, NODE_GET_EDGE, BFS_IT, DFS_IT, EDGE_BETWEEN, EDGE_FROM, EDGE_TOWARD, TRIANGLE, SET_ATTRIBUTE, ADD_NODE, ADD_EDGE, REMOVE_NODE, REMOVE_EDGE
 	}
 
 	EnumMap<Measures, Long> measureValues;
@@ -395,6 +395,32 @@ public class BenchPerformance {
 		return foo;
 	}
 
+	public void testSetAttribute() {
+		// change 10 attributes of each element, 10 times
+		String[] keys = new String[10];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = "attr" + i;
+
+		start = System.currentTimeMillis();
+		for (int k = 0; k < 10; k++) {
+			for (String id : nodeIds) {
+				Node n = g.getNode(id);
+				for (int i = 0; i < keys.length; i++)
+					n.setAttribute(keys[i], k);
+			}
+			for (String id : edgeIds) {
+				Edge e = g.getEdge(id);
+				for (int i = 0; i < keys.length; i++)
+					e.setAttribute(keys[i], k);
+			}
+		}
+		end = System.currentTimeMillis();
+		measureValues.put(Measures.SET_ATTRIBUTE, end - start);
+
+		g.nodes().forEach(Node::clearAttributes);
+		g.edges().forEach(Edge::clearAttributes);
+	}
+
 	public void testAddRemove() {
 		// add 10000 new nodes
 		start = System.currentTimeMillis();
@@ -493,6 +519,8 @@ public class BenchPerformance {
 			tests[i].testFindEdge();
 			System.out.println("  Testing triangles");
 			tests[i].testTriangleCount();
+			System.out.println("  Testing attributes");
+			tests[i].testSetAttribute();
 			System.out.println("  Testing add / remove");
 			tests[i].testAddRemove();
 			tests[i].g.clear();
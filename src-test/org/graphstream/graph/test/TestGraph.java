@@ -749,6 +749,25 @@ public class TestGraph {
 		
 	}
 
+	@Test
+	public void testFirstSink() {
+		Graph input = new SingleGraph("input");
+		Graph output = new SingleGraph("output", false, true);
+
+		// Nothing is sent while there is no sink, the following events are:
+		// the output only knows A through the edge, created on the fly.
+		input.addNode("A").setAttribute("foo", "bar");
+		input.addSink(output);
+		input.addNode("B").setAttribute("foo", "bar");
+		input.addEdge("AB", "A", "B");
+		input.getNode("A").setAttribute("foo", "baz");
+
+		assertEquals(2, output.getNodeCount());
+		assertEquals(1, output.getEdgeCount());
+		assertEquals("baz", output.getNode("A").getAttribute("foo"));
+		assertEquals("bar", output.getNode("B").getAttribute("foo"));
+	}
+
 	@Test
 	public void testGraphListener() {
 		testGraphListener(new SingleGraph("sg"));
@@ -0,0 +1,151 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.graph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Random;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.graph.implementations.Graphs;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.graphstream.stream.thread.ThreadProxyPipe;
+import org.junit.Test;
+
+public class TestGraphFingerprint {
+
+	@Test
+	public void testOrderIndependence() {
+		AbstractGraph g1 = new SingleGraph("g1");
+		AbstractGraph g2 = new AdjacencyListGraph("g2");
+
+		g1.addNode("A").setAttribute("x", 1);
+		g1.addNode("B");
+		g1.addEdge("AB", "A", "B", true).setAttribute("w", 2.0);
+		g1.setAttribute("title", "t");
+
+		g2.setAttribute("title", "t");
+		g2.addNode("B");
+		g2.addNode("A");
+		g2.addEdge("AB", "A", "B", true);
+		g2.getEdge("AB").setAttribute("w", 2.0);
+		g2.getNode("A").setAttribute("x", 1);
+
+		assertEquals(g1.fingerprint(), g2.fingerprint());
+
+		g2.getNode("A").setAttribute("x", 2);
+		assertNotEquals(g1.fingerprint(), g2.fingerprint());
+
+		g2.getNode("A").setAttribute("x", 1);
+		assertEquals(g1.fingerprint(), g2.fingerprint());
+
+		// Direction matters, hidden attributes do not.
+		g2.getNode("A").setAttribute(".hidden", 1);
+		g2.removeEdge("AB");
+		g2.addEdge("AB", "B", "A", true).setAttribute("w", 2.0);
+		assertNotEquals(g1.fingerprint(), g2.fingerprint());
+
+		g2.removeEdge("AB");
+		g2.addEdge("AB", "A", "B", true).setAttribute("w", 2.0);
+		assertEquals(g1.fingerprint(), g2.fingerprint());
+	}
+
+	@Test
+	public void testIncremental() {
+		Random random = new Random(7);
+		AbstractGraph g = new MultiGraph("g");
+		long empty = g.fingerprint();
+		int edges = 0;
+
+		for (int i = 0; i < 2000; i++) {
+			String n = "n" + random.nextInt(50);
+
+			switch (random.nextInt(6)) {
+			case 0:
+				if (g.getNode(n) == null)
+					g.addNode(n);
+				break;
+			case 1:
+				if (g.getNode(n) != null)
+					g.removeNode(n);
+				break;
+			case 2:
+				String m = "n" + random.nextInt(50);
+				if (g.getNode(n) != null && g.getNode(m) != null)
+					g.addEdge("e" + edges++, n, m, random.nextBoolean());
+				break;
+			case 3:
+				if (g.getEdgeCount() > 0)
+					g.removeEdge(random.nextInt(g.getEdgeCount()));
+				break;
+			case 4:
+				if (g.getNode(n) != null)
+					g.getNode(n).setAttribute("a" + random.nextInt(3), random.nextInt(4));
+				break;
+			default:
+				if (g.getEdgeCount() > 0)
+					g.getEdge(random.nextInt(g.getEdgeCount())).removeAttribute("a" + random.nextInt(3));
+				break;
+			}
+		}
+
+		AbstractGraph copy = (AbstractGraph) Graphs.clone(g);
+		assertEquals(copy.fingerprint(), g.fingerprint());
+
+		g.clear();
+		assertEquals(empty, g.fingerprint());
+	}
+
+	@Test
+	public void testReplica() {
+		AbstractGraph source = new AdjacencyListGraph("source");
+		AbstractGraph replica = new AdjacencyListGraph("replica");
+		ThreadProxyPipe pipe = new ThreadProxyPipe();
+
+		replica.fingerprint();
+		pipe.init(source);
+		pipe.addSink(replica);
+
+		for (int i = 0; i < 20; i++)
+			source.addNode("n" + i).setAttribute("i", i);
+		for (int i = 0; i < 19; i++)
+			source.addEdge("e" + i, "n" + i, "n" + (i + 1));
+
+		source.removeNode("n5");
+		source.getEdge("e10").setAttribute("w", 1.5);
+		source.setAttribute("ui.label", "x");
+
+		pipe.pump();
+
+		assertEquals(source.fingerprint(), replica.fingerprint());
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.graph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.AbstractGraph.GraphReplayController;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.Test;
+
+public class TestGraphReplay {
+
+	private static AbstractGraph randomGraph(int nodes, int edges) {
+		Random random = new Random(nodes);
+		AbstractGraph g = new MultiGraph("g");
+
+		g.setAttribute("title", "random");
+
+		for (int i = 0; i < nodes; i++)
+			g.addNode("n" + i).setAttribute("x", random.nextDouble());
+
+		for (int i = 0; i < edges; i++)
+			g.addEdge("e" + i, random.nextInt(nodes), random.nextInt(nodes), random.nextBoolean())
+					.setAttribute("w", i);
+
+		return g;
+	}
+
+	@Test
+	public void testChunked() {
+		AbstractGraph g = randomGraph(100, 300);
+		AbstractGraph target = new MultiGraph("target");
+		GraphReplayController controller = g.getReplayController();
+		int calls = 0;
+
+		controller.addSink(target);
+		controller.begin();
+		assertTrue(controller.isReplaying());
+		assertEquals("random", target.getAttribute("title"));
+
+		while (controller.next(16))
+			calls++;
+
+		assertEquals(400 / 16, calls);
+		assertFalse(controller.isReplaying());
+		assertEquals(g.fingerprint(), target.fingerprint());
+
+		target.clear();
+		controller.begin("timed");
+
+		while (controller.next(1, TimeUnit.MILLISECONDS))
+			;
+
+		assertEquals(g.fingerprint(), target.fingerprint());
+	}
+
+	@Test
+	public void testChunkedWithChanges() {
+		AbstractGraph g = randomGraph(50, 100);
+		AbstractGraph target = new MultiGraph("target", false, true);
+		GraphReplayController controller = g.getReplayController();
+
+		controller.addSink(target);
+		controller.begin();
+		controller.next(10);
+
+		// Live events are forwarded while the replay is in progress.
+		g.addSink(target);
+		g.removeNode("n20");
+		g.removeEdge(0);
+		g.addNode("new");
+		g.getNode("n30").setAttribute("x", -1);
+
+		while (controller.next(10))
+			;
+
+		assertEquals(g.fingerprint(), target.fingerprint());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNextWithoutBegin() {
+		randomGraph(10, 10).getReplayController().next(10);
+	}
+
+	@Test
+	public void testEmpty() {
+		AbstractGraph g = new SingleGraph("g");
+		AbstractGraph target = new SingleGraph("target");
+		GraphReplayController controller = g.getReplayController();
+
+		controller.addSink(target);
+		controller.begin();
+		assertFalse(controller.next(10));
+		assertEquals(0, target.getNodeCount());
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.graph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.TransactionListener;
+import org.junit.Test;
+
+public class TestGraphTransaction {
+
+	static class Counter extends SinkAdapter {
+		int events;
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			events++;
+		}
+
+		@Override
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			events++;
+		}
+
+		@Override
+		public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) {
+			events++;
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+			events++;
+		}
+	}
+
+	@Test
+	public void testCommit() {
+		testCommit(new SingleGraph("g"), new SingleGraph("mirror"));
+		testCommit(new MultiGraph("g"), new MultiGraph("mirror"));
+		testCommit(new AdjacencyListGraph("g"), new AdjacencyListGraph("mirror"));
+	}
+
+	protected void testCommit(AbstractGraph g, AbstractGraph mirror) {
+		Counter counter = new Counter();
+
+		g.addSink(mirror);
+		g.addSink(counter);
+
+		g.beginTransaction();
+		assertTrue(g.isInTransaction());
+
+		g.addNode("A").setAttribute("x", 1);
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+
+		// Changes are visible in the graph, not in its sinks.
+		assertEquals(2, g.getNodeCount());
+		assertEquals(0, mirror.getNodeCount());
+		assertEquals(0, counter.events);
+
+		g.commit();
+		assertFalse(g.isInTransaction());
+
+		assertEquals(4, counter.events);
+		assertEquals(2, mirror.getNodeCount());
+		assertNotNull(mirror.getEdge("AB"));
+		assertEquals(1, mirror.getNode("A").getAttribute("x"));
+
+		// Back to immediate events.
+		g.addNode("C");
+		assertEquals(5, counter.events);
+		assertEquals(3, mirror.getNodeCount());
+	}
+
+	@Test
+	public void testRollback() {
+		AbstractGraph g = new AdjacencyListGraph("g");
+		AbstractGraph mirror = new AdjacencyListGraph("mirror");
+		Counter counter = new Counter();
+
+		g.addNode("A").setAttribute("x", 1);
+		g.addNode("B").setAttribute("y", "b");
+		g.addEdge("AB", "A", "B", true).setAttribute("w", 2.0);
+		g.setAttribute("title", "before");
+		g.stepBegins(3);
+
+		g.addSink(mirror);
+		g.addSink(counter);
+
+		g.beginTransaction();
+
+		g.addNode("C");
+		g.addEdge("AC", "A", "C");
+		g.getNode("A").setAttribute("x", 10);
+		g.getNode("A").setAttribute("z", true);
+		g.removeNode("B");
+		g.setAttribute("title", "after");
+		g.stepBegins(4);
+
+		assertNull(g.getNode("B"));
+		assertEquals(10, g.getNode("A").getAttribute("x"));
+
+		g.rollback();
+		assertFalse(g.isInTransaction());
+
+		assertEquals(0, counter.events);
+		assertEquals(0, mirror.getNodeCount());
+
+		assertEquals(2, g.getNodeCount());
+		assertEquals(1, g.getEdgeCount());
+		assertNull(g.getNode("C"));
+
+		Node a = g.getNode("A");
+		assertEquals(1, a.getAttribute("x"));
+		assertFalse(a.hasAttribute("z"));
+		assertEquals("b", g.getNode("B").getAttribute("y"));
+
+		Edge ab = g.getEdge("AB");
+		assertNotNull(ab);
+		assertTrue(ab.isDirected());
+		assertEquals(2.0, ab.getAttribute("w"));
+
+		assertEquals("before", g.getAttribute("title"));
+		assertEquals(3, g.getStep(), 0);
+
+		// Sinks still receive the following events.
+		g.addNode("D");
+		assertEquals(1, counter.events);
+	}
+
+	@Test
+	public void testRollbackWithoutSinks() {
+		AbstractGraph g = new SingleGraph("g");
+
+		g.addNode("A").setAttribute("x", 1);
+
+		// Without sinks the graph produces no event, but a transaction still
+		// has to record its changes.
+		g.beginTransaction();
+		g.addNode("B");
+		g.getNode("A").setAttribute("x", 2);
+		g.rollback();
+
+		assertEquals(1, g.getNodeCount());
+		assertEquals(1, g.getNode("A").getAttribute("x"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNestedTransaction() {
+		AbstractGraph g = new SingleGraph("g");
+		g.beginTransaction();
+		g.beginTransaction();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCommitWithoutTransaction() {
+		new SingleGraph("g").commit();
+	}
+
+	@Test
+	public void testSynchronizedGraphs() {
+		AbstractGraph g1 = new MultiGraph("g1");
+		AbstractGraph g2 = new MultiGraph("g2");
+
+		g1.addSink(g2);
+		g2.addSink(g1);
+
+		g1.beginTransaction();
+		g1.addNode("A");
+		g1.addNode("B");
+		g1.addEdge("AB", "A", "B");
+		g1.commit();
+
+		assertEquals(2, g2.getNodeCount());
+		assertEquals(1, g2.getEdgeCount());
+
+		g2.addNode("C");
+		assertNotNull(g1.getNode("C"));
+	}
+
+	static class TransactionCounter extends Counter implements TransactionListener {
+		StringBuilder log = new StringBuilder();
+
+		@Override
+		public void transactionBegins(String sourceId, int eventCount) {
+			log.append(String.format("begin(%s,%d)@%d ", sourceId, eventCount, events));
+		}
+
+		@Override
+		public void transactionEnds(String sourceId) {
+			log.append(String.format("end(%s)@%d ", sourceId, events));
+		}
+	}
+
+	@Test
+	public void testTransactionListener() {
+		AbstractGraph g = new AdjacencyListGraph("g");
+		TransactionCounter counter = new TransactionCounter();
+
+		g.addSink(counter);
+		g.addNode("A");
+
+		g.beginTransaction();
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+		g.commit();
+
+		// Rolled back transactions are not seen.
+		g.beginTransaction();
+		g.addNode("C");
+		g.rollback();
+
+		assertEquals("begin(g,2)@1 end(g)@3 ", counter.log.toString());
+	}
+}
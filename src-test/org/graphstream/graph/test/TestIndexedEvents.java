@@ -0,0 +1,225 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.graph.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.thread.ThreadProxyPipe;
+import org.junit.Test;
+
+public class TestIndexedEvents {
+
+	static class IndexSink extends SinkAdapter {
+		List<String> events = new ArrayList<String>();
+
+		public void nodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
+			events.add("DN " + nodeId + " " + nodeIndex);
+		}
+
+		public void edgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+				String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+			events.add("AE " + edgeId + " " + edgeIndex + " " + fromNodeIndex + " " + toNodeIndex);
+		}
+
+		public void edgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
+			events.add("DE " + edgeId + " " + edgeIndex);
+		}
+
+		public void nodeAttributeAdded(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+				Object value) {
+			events.add("CN " + nodeId + " " + nodeIndex);
+		}
+
+		public void edgeAttributeChanged(String sourceId, long timeId, int edgeIndex, String edgeId,
+				String attribute, Object oldValue, Object newValue) {
+			events.add("CE " + edgeId + " " + edgeIndex);
+		}
+	}
+
+	@Test
+	public void testIndices() {
+		Graph g = new SingleGraph("g");
+		IndexSink sink = new IndexSink();
+
+		g.addNode("A");
+		g.addNode("B");
+		g.addNode("C");
+		g.addEdge("AB", "A", "B").setAttribute("w", 1);
+		g.addSink(sink);
+
+		g.addEdge("BC", "B", "C");
+		g.getNode("C").setAttribute("x", 1);
+		g.getEdge("AB").setAttribute("w", 2);
+		g.removeNode("A");
+
+		assertEquals("AE BC 1 1 2", sink.events.get(0));
+		assertEquals("CN C 2", sink.events.get(1));
+		assertEquals("CE AB 0", sink.events.get(2));
+		assertEquals("DE AB 0", sink.events.get(3));
+		assertEquals("DN A 0", sink.events.get(4));
+	}
+
+	@Test
+	public void testMirror() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph mirror = new AdjacencyListGraph("mirror");
+		IndexSink sink = new IndexSink();
+
+		source.addSink(mirror);
+		mirror.addSink(sink);
+
+		for (int i = 0; i < 10; i++)
+			source.addNode("n" + i);
+		for (int i = 0; i < 9; i++)
+			source.addEdge("e" + i, "n" + i, "n" + (i + 1));
+
+		// Removals move the last elements, the mirror must follow.
+		source.removeNode("n3");
+		source.removeEdge("e0");
+		source.getNode("n9").setAttribute("x", 1);
+
+		assertEquals(source.getNodeCount(), mirror.getNodeCount());
+		assertEquals(source.getEdgeCount(), mirror.getEdgeCount());
+
+		for (Node n : source) {
+			assertEquals(n.getId(), mirror.getNode(n.getIndex()).getId());
+			assertEquals(n.getDegree(), mirror.getNode(n.getId()).getDegree());
+		}
+
+		assertNull(mirror.getNode("n3"));
+		assertNull(mirror.getEdge("e0"));
+		assertNotNull(mirror.getEdge("e4"));
+		assertEquals(1, mirror.getNode("n9").getAttribute("x"));
+
+		// The mirror forwards its own indices.
+		assertEquals("CN n9 " + mirror.getNode("n9").getIndex(), sink.events.get(sink.events.size() - 1));
+	}
+
+	@Test
+	public void testWrongIndex() {
+		Graph g = new SingleGraph("g");
+
+		g.addNode("A");
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+
+		// The index is only a hint.
+		g.nodeAttributeAdded("other", 1, 0, "B", "x", 1);
+		g.edgeRemoved("other", 2, 5, "AB");
+		g.nodeRemoved("other", 3, 1, "A");
+
+		assertEquals(1, g.getNode("B").getAttribute("x"));
+		assertNull(g.getEdge("AB"));
+		assertNull(g.getNode("A"));
+		assertEquals(1, g.getNodeCount());
+	}
+
+	@Test
+	public void testThreadProxyPipe() {
+		Graph source = new AdjacencyListGraph("source");
+		ThreadProxyPipe pipe = new ThreadProxyPipe();
+		IndexSink sink = new IndexSink();
+
+		source.addNode("A");
+		source.addNode("B");
+		pipe.init(source);
+		pipe.addSink(sink);
+
+		source.addEdge("AB", "A", "B");
+		source.removeNode("A");
+		pipe.pump();
+
+		assertEquals("AE AB 0 0 1", sink.events.get(0));
+		assertEquals("DE AB 0", sink.events.get(1));
+		assertEquals("DN A 0", sink.events.get(2));
+	}
+
+	/**
+	 * Graph overriding the identifier-only sink callbacks.
+	 */
+	static class OverridingGraph extends AdjacencyListGraph {
+		List<String> events = new ArrayList<String>();
+
+		OverridingGraph(String id) {
+			super(id);
+		}
+
+		@Override
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			events.add("DN " + nodeId);
+			super.nodeRemoved(sourceId, timeId, nodeId);
+		}
+
+		@Override
+		public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) {
+			events.add("AE " + edgeId);
+			super.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+			events.add("CNA " + nodeId + " " + attribute);
+			super.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+		}
+	}
+
+	@Test
+	public void testOverriddenCallbacks() {
+		Graph source = new AdjacencyListGraph("source");
+		OverridingGraph mirror = new OverridingGraph("mirror");
+		IndexSink sink = new IndexSink();
+
+		source.addSink(mirror);
+		mirror.addSink(sink);
+
+		source.addNode("A").setAttribute("x", 1);
+		source.addNode("B");
+		source.addEdge("AB", "A", "B");
+		source.removeNode("A");
+
+		assertEquals(3, mirror.events.size());
+		assertEquals("CNA A x", mirror.events.get(0));
+		assertEquals("AE AB", mirror.events.get(1));
+		assertEquals("DN A", mirror.events.get(2));
+		assertEquals(1, mirror.getNodeCount());
+		assertEquals(0, mirror.getEdgeCount());
+		assertEquals("AE AB 0 0 1", sink.events.get(1));
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyCapabilities.pump;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.ByteDecoder;
+import org.graphstream.stream.binary.ByteEncoder;
+import org.graphstream.stream.binary.ByteFactory;
+import org.graphstream.stream.Replayable;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.binary.test.TestByteProxyCapabilities.LocalProxy;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxyBootstrap {
+	/**
+	 * Factory whose decoders record the end of the snapshots.
+	 */
+	static class SnapshotFactory implements ByteFactory {
+		final AtomicReference<String> snapshot = new AtomicReference<>();
+
+		@Override
+		public ByteEncoder createByteEncoder() {
+			return NetStreamUtils.getDefaultNetStreamFactory().createByteEncoder();
+		}
+
+		@Override
+		public ByteDecoder createByteDecoder() {
+			NetStreamDecoder decoder = new NetStreamDecoder();
+			decoder.setSnapshotListener((sourceId, timeId) -> snapshot.set(sourceId + "@" + timeId));
+			return decoder;
+		}
+	}
+
+	static void populate(AbstractGraph g, int count) {
+		for (int i = 0; i < count; i++) {
+			g.addNode("n" + i).setAttribute("i", i);
+
+			if (i > 0)
+				g.addEdge("e" + i, "n" + (i - 1), "n" + i);
+		}
+	}
+
+	@Test
+	public void testSnapshotThenDeltas() throws Exception {
+		// Replays are held, then run by another thread.
+		ConcurrentLinkedQueue<Runnable> bootstraps = new ConcurrentLinkedQueue<>();
+		ExecutorService replayer = Executors.newSingleThreadExecutor();
+		SnapshotFactory factory = new SnapshotFactory();
+		AbstractGraph g = new MultiGraph("g");
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client1 = new LocalProxy(factory, ByteProxy.Mode.CLIENT, server.localPort());
+		LocalProxy client2 = null;
+
+		try {
+			// Events received twice are ignored.
+			AbstractGraph replica1 = new MultiGraph("replica1", false, true);
+			AbstractGraph replica2 = new MultiGraph("replica2", false, true);
+
+			server.setReplayable(g);
+			server.setBootstrapExecutor(bootstraps::add);
+			g.addSink(server);
+			client1.addSink(replica1);
+
+			pump(() -> bootstraps.size() == 1, server, client1);
+			replayer.execute(bootstraps.poll());
+
+			// The peer announced its capabilities before the replay was encoded.
+			pump(() -> factory.snapshot.get() != null, server, client1);
+			assertEquals("@0", factory.snapshot.getAndSet(null));
+
+			populate(g, 500);
+			pump(() -> replica1.getEdgeCount() == 499, server, client1);
+			assertEquals(g.fingerprint(), replica1.fingerprint());
+
+			client2 = new LocalProxy(factory, ByteProxy.Mode.CLIENT, server.localPort());
+			client2.addSink(replica2);
+			LocalProxy joining = client2;
+
+			pump(() -> bootstraps.size() == 1 && server.peers() == 2, server, client1, client2);
+			assertEquals(1, bootstraps.size());
+
+			// The replay is waiting, but the other peer keeps receiving events.
+			g.addNode("live").setAttribute("i", -1);
+			pump(() -> replica1.getNode("live") != null && replica1.getNode("live").hasAttribute("i"), server,
+					client1, client2);
+			assertNotNull(replica1.getNode("live"));
+			assertEquals(0, replica2.getNodeCount());
+			assertNull(factory.snapshot.get());
+
+			replayer.execute(bootstraps.poll());
+			g.addNode("after");
+			g.getNode("n0").setAttribute("i", 1000);
+
+			pump(() -> replica2.getNode("after") != null && (int) replica2.getNode("n0").getAttribute("i") == 1000,
+					server, client1, joining);
+
+			assertEquals(g.fingerprint(), replica1.fingerprint());
+			assertEquals(g.fingerprint(), replica2.fingerprint());
+			// The 1499 events of populate(), numbered from 1, were sent before the peer joined.
+			assertEquals("g@" + 1499, factory.snapshot.get());
+		} finally {
+			replayer.shutdown();
+			server.shutdown();
+			client1.shutdown();
+
+			if (client2 != null)
+				client2.shutdown();
+		}
+	}
+
+	@Test
+	public void testDisconnectWhileReplaying() throws Exception {
+		ConcurrentLinkedQueue<Runnable> bootstraps = new ConcurrentLinkedQueue<>();
+		AbstractGraph g = new MultiGraph("g");
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+
+		try {
+			server.setReplayable(g);
+			server.setBootstrapExecutor(bootstraps::add);
+			server.setHighWaterMark(4096, ByteProxy.SlowPeerPolicy.DISCONNECT);
+			g.addSink(server);
+
+			pump(() -> bootstraps.size() == 1, server, client);
+			assertEquals(1, server.peers());
+
+			// The events kept for the peer exceed the high water mark.
+			populate(g, 500);
+			assertEquals(0, server.peers());
+
+			Thread replay = new Thread(bootstraps.poll());
+			replay.start();
+			replay.join();
+			assertEquals(0, server.getPendingBytes());
+		} finally {
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+
+	@Test
+	public void testSnapshotOnGraphThread() throws Exception {
+		AbstractGraph g = new MultiGraph("g");
+		List<Thread> snapshotThreads = new CopyOnWriteArrayList<>();
+		Replayable replayable = () -> {
+			snapshotThreads.add(Thread.currentThread());
+			return g.getReplayController();
+		};
+		ExecutorService replayer = Executors.newSingleThreadExecutor();
+		AtomicBoolean writing = new AtomicBoolean(true);
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client = null;
+
+		// The graph keeps changing on its own thread while the peer joins.
+		Thread writer = new Thread(() -> {
+			for (int i = 0; writing.get(); i++) {
+				g.addNode("n" + i).setAttribute("i", i);
+
+				if (i > 0)
+					g.addEdge("e" + i, "n" + (i - 1), "n" + i);
+
+				if (i > 10)
+					g.removeNode("n" + (i - 10));
+
+				Thread.yield();
+			}
+		}, "graph");
+
+		try {
+			AbstractGraph replica = new MultiGraph("replica", false, true);
+
+			server.setReplayable(replayable);
+			server.setBootstrapExecutor(replayer);
+			g.addSink(server);
+			writer.start();
+
+			client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+					server.localPort());
+			client.addSink(replica);
+
+			pump(() -> !snapshotThreads.isEmpty() && replica.getNodeCount() > 0, server, client);
+			writing.set(false);
+			writer.join();
+
+			pump(() -> g.fingerprint() == replica.fingerprint(), server, client);
+
+			assertEquals(1, snapshotThreads.size());
+			assertEquals(writer, snapshotThreads.get(0));
+			assertEquals(g.fingerprint(), replica.fingerprint());
+		} finally {
+			writing.set(false);
+			writer.join();
+			replayer.shutdown();
+			server.shutdown();
+
+			if (client != null)
+				client.shutdown();
+		}
+	}
+}
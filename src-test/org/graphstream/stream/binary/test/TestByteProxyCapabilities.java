@@ -0,0 +1,303 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.ByteDecoder;
+import org.graphstream.stream.binary.ByteEncoder;
+import org.graphstream.stream.binary.ByteFactory;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxyCapabilities {
+	static class LocalProxy extends ByteProxy {
+		LocalProxy(ByteFactory factory, Mode mode, int port) throws IOException {
+			super(factory, mode, InetAddress.getLoopbackAddress(), port);
+		}
+
+		int localPort() {
+			return ((ServerSocketChannel) mainChannel).socket().getLocalPort();
+		}
+
+		int peers() {
+			return peerCapabilities.size();
+		}
+
+		boolean isBatching() {
+			return ((NetStreamEncoder) encoder).isBatching();
+		}
+
+		boolean isDictionaryActive() {
+			return ((NetStreamEncoder) encoder).isDictionaryActive();
+		}
+
+		void flush() {
+			encoder.flush();
+		}
+
+		void shutdown() throws IOException {
+			for (SocketChannel channel : new ArrayList<>(writableChannels))
+				close(channel);
+
+			mainChannel.close();
+			selector.close();
+		}
+	}
+
+	/**
+	 * Decoder of a peer which does not know batches.
+	 */
+	static class OldDecoder extends NetStreamDecoder {
+		boolean receivedBatch;
+
+		@Override
+		public ByteBuffer getCapabilities() {
+			return null;
+		}
+
+		@Override
+		protected void serve_EVENT_BATCH(ByteBuffer bb, int end) {
+			receivedBatch = true;
+			super.serve_EVENT_BATCH(bb, end);
+		}
+	}
+
+	static void pump(BooleanSupplier done, LocalProxy... proxies) throws InterruptedException {
+		for (int i = 0; i < 500 && !done.getAsBoolean(); i++) {
+			for (LocalProxy proxy : proxies) {
+				proxy.flush();
+				proxy.poll(false);
+			}
+
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	public void testNegotiation() throws Exception {
+		ByteFactory batching = new ByteFactory() {
+			@Override
+			public ByteEncoder createByteEncoder() {
+				NetStreamEncoder encoder = new NetStreamEncoder();
+				encoder.setBatching(4096, 0, TimeUnit.SECONDS);
+				return encoder;
+			}
+
+			@Override
+			public ByteDecoder createByteDecoder() {
+				return new NetStreamDecoder();
+			}
+		};
+
+		OldDecoder oldDecoder = new OldDecoder();
+		ByteFactory old = new ByteFactory() {
+			@Override
+			public ByteEncoder createByteEncoder() {
+				return new NetStreamEncoder();
+			}
+
+			@Override
+			public ByteDecoder createByteDecoder() {
+				return oldDecoder;
+			}
+		};
+
+		LocalProxy server = new LocalProxy(batching, ByteProxy.Mode.SERVER, 0);
+		LocalProxy client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+		LocalProxy oldClient = null;
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica");
+			// Joins late and misses A and B.
+			AbstractGraph oldReplica = new MultiGraph("old-replica", false, false);
+
+			g.addSink(server);
+			client.addSink(replica);
+
+			pump(() -> server.peers() == 1 && server.isBatching(), server, client);
+			assertTrue(server.isBatching());
+
+			g.addNode("A");
+			g.addNode("B").setAttribute("xy", (Object) new Double[] { 1.0, 2.0 });
+			pump(() -> replica.getNodeCount() == 2, server, client);
+			assertEquals(g.fingerprint(), replica.fingerprint());
+
+			// A peer which does not announce batches disables them.
+			oldClient = new LocalProxy(old, ByteProxy.Mode.CLIENT, server.localPort());
+			oldClient.addSink(oldReplica);
+			pump(() -> server.peers() == 2, server, client, oldClient);
+			assertFalse(server.isBatching());
+
+			g.addEdge("AB", "A", "B");
+			g.addNode("C");
+			pump(() -> replica.getNodeCount() == 3 && oldReplica.getNodeCount() == 1, server, client, oldClient);
+
+			assertEquals(g.fingerprint(), replica.fingerprint());
+			assertEquals(1, oldReplica.getNodeCount());
+			assertFalse(oldDecoder.receivedBatch);
+		} finally {
+			server.shutdown();
+			client.shutdown();
+
+			if (oldClient != null)
+				oldClient.shutdown();
+		}
+	}
+
+	@Test
+	public void testDictionaryPerChannel() throws Exception {
+		ByteFactory dictionary = new ByteFactory() {
+			@Override
+			public ByteEncoder createByteEncoder() {
+				NetStreamEncoder encoder = new NetStreamEncoder();
+				encoder.setDictionary(4);
+				return encoder;
+			}
+
+			@Override
+			public ByteDecoder createByteDecoder() {
+				return new NetStreamDecoder();
+			}
+		};
+
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client1 = new LocalProxy(dictionary, ByteProxy.Mode.CLIENT, server.localPort());
+		LocalProxy client2 = new LocalProxy(dictionary, ByteProxy.Mode.CLIENT, server.localPort());
+
+		try {
+			AbstractGraph merged = new MultiGraph("merged");
+
+			server.addSink(merged);
+			pump(() -> client1.isDictionaryActive() && client2.isDictionaryActive(), server, client1, client2);
+			assertTrue(client1.isDictionaryActive() && client2.isDictionaryActive());
+
+			// Both clients use the same codes for different strings.
+			for (int i = 0; i < 10; i++) {
+				client1.nodeAdded("c1", 2 * i, "a" + i);
+				client2.nodeAdded("c2", 2 * i, "b" + i);
+				client1.nodeAttributeAdded("c1", 2 * i + 1, "a" + i, "x", i);
+				client2.nodeAttributeAdded("c2", 2 * i + 1, "b" + i, "y", i);
+			}
+
+			pump(() -> merged.getNodeCount() == 20 && merged.getNode("b9") != null
+					&& merged.getNode("b9").hasAttribute("y"), server, client1, client2);
+
+			for (int i = 0; i < 10; i++) {
+				assertEquals(i, (int) merged.getNode("a" + i).getAttribute("x"));
+				assertEquals(i, (int) merged.getNode("b" + i).getAttribute("y"));
+			}
+		} finally {
+			server.shutdown();
+			client1.shutdown();
+			client2.shutdown();
+		}
+	}
+
+	@Test
+	public void testDictionaryLateJoiner() throws Exception {
+		ByteFactory dictionary = new ByteFactory() {
+			@Override
+			public ByteEncoder createByteEncoder() {
+				NetStreamEncoder encoder = new NetStreamEncoder();
+				encoder.setDictionary(1024);
+				return encoder;
+			}
+
+			@Override
+			public ByteDecoder createByteDecoder() {
+				return new NetStreamDecoder();
+			}
+		};
+
+		LocalProxy server = new LocalProxy(dictionary, ByteProxy.Mode.SERVER, 0);
+		LocalProxy client1 = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+		LocalProxy client2 = null;
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica1 = new MultiGraph("replica1", false, true);
+			AbstractGraph replica2 = new MultiGraph("replica2", false, true);
+
+			server.setReplayable(g);
+			g.addSink(server);
+			client1.addSink(replica1);
+
+			pump(() -> server.isDictionaryActive(), server, client1);
+			assertTrue(server.isDictionaryActive());
+
+			for (int i = 0; i < 20; i++)
+				g.addNode("n" + i).setAttribute("x", i);
+
+			pump(() -> replica1.getNodeCount() == 20, server, client1);
+
+			// Joins once the dictionary of the server holds the ids of the nodes.
+			LocalProxy late = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+					server.localPort());
+			client2 = late;
+			late.addSink(replica2);
+			pump(() -> replica2.getNodeCount() == 20, server, client1, late);
+
+			for (int i = 0; i < 20; i++)
+				g.getNode("n" + i).setAttribute("y", -i);
+
+			pump(() -> replica1.getNode("n19").hasAttribute("y") && replica2.getNode("n19") != null
+					&& replica2.getNode("n19").hasAttribute("y"), server, client1, late);
+
+			assertTrue(server.isDictionaryActive());
+			assertEquals(g.fingerprint(), replica1.fingerprint());
+			assertEquals(g.fingerprint(), replica2.fingerprint());
+		} finally {
+			server.shutdown();
+			client1.shutdown();
+
+			if (client2 != null)
+				client2.shutdown();
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyCapabilities.pump;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.binary.test.TestByteProxyCapabilities.LocalProxy;
+import org.graphstream.stream.netstream.NetStreamConstants;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxyFrames {
+	static NetStreamEncoder connect(SocketChannel raw) {
+		return new NetStreamEncoder(buffer -> {
+			try {
+				while (buffer.hasRemaining())
+					raw.write(buffer);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Test
+	public void testFramesOfAllSizes() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+		try {
+			AbstractGraph replica = new MultiGraph("replica");
+			NetStreamEncoder encoder = connect(raw);
+			StringBuilder value = new StringBuilder();
+
+			server.addSink(replica);
+			pump(() -> server.peers() == 1, server);
+
+			// Sizes growing past the initial buffer, mixed with small frames.
+			for (int i = 0; i < 18; i++) {
+				encoder.nodeAdded("raw", 2 * i, "n" + i);
+				encoder.nodeAttributeAdded("raw", 2 * i + 1, "n" + i, "value", value.toString());
+				value.append(value.length() == 0 ? "x" : value.toString());
+			}
+
+			pump(() -> replica.getNodeCount() == 18 && replica.getNode("n17").hasAttribute("value"), server);
+
+			for (int i = 0; i < 18; i++)
+				assertEquals(i == 0 ? 0 : 1 << (i - 1), ((String) replica.getNode("n" + i).getAttribute("value")).length());
+		} finally {
+			raw.close();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testMaxFrameSize() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+		SocketChannel malformed = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+		try {
+			AbstractGraph replica = new MultiGraph("replica");
+			NetStreamEncoder encoder = connect(raw);
+
+			server.setMaxFrameSize(16384);
+			server.addSink(replica);
+			pump(() -> server.peers() == 2, server);
+
+			// A frame announcing one gigabyte is rejected as soon as its size is read.
+			ByteBuffer header = ByteBuffer.allocate(4).putInt(1 << 30);
+			header.flip();
+			malformed.write(header);
+			pump(() -> server.peers() == 1, server);
+			assertEquals(1, server.peers());
+
+			// Frames smaller than their header are rejected as well.
+			for (int size : new int[] { 2, -1 }) {
+				SocketChannel tiny = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+				try {
+					pump(() -> server.peers() == 2, server);
+					header.clear();
+					header.putInt(size).flip();
+					tiny.write(header);
+					pump(() -> server.peers() == 1, server);
+					assertEquals(1, server.peers());
+				} finally {
+					tiny.close();
+				}
+			}
+
+			encoder.nodeAdded("raw", 0, "small");
+			encoder.nodeAttributeAdded("raw", 1, "small", "value", new String(new char[10000]));
+			encoder.nodeAttributeAdded("raw", 2, "small", "value", new String(new char[20000]));
+			pump(() -> server.peers() == 0, server);
+
+			assertEquals(0, server.peers());
+			assertEquals(10000, ((String) replica.getNode("small").getAttribute("value")).length());
+		} finally {
+			raw.close();
+			malformed.close();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testInvalidFrame() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+		try {
+			pump(() -> server.peers() == 1, server);
+
+			// A peer asking for a dictionary of a billion strings is disconnected.
+			ByteBuffer frame = ByteBuffer.allocate(16);
+			frame.putInt(0).put((byte) 0).put((byte) NetStreamConstants.EVENT_DICTIONARY_RESET);
+			NetStreamUtils.putUnsignedVarint(frame, 1 << 30);
+			frame.putInt(0, frame.position()).flip();
+			raw.write(frame);
+
+			pump(() -> server.peers() == 0, server);
+			assertEquals(0, server.peers());
+		} finally {
+			raw.close();
+			server.shutdown();
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyCapabilities.pump;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.binary.test.TestByteProxyCapabilities.LocalProxy;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxyOutbound {
+	static final String PAYLOAD = new String(new char[32768]).replace('\0', 'p');
+
+	static boolean received(AbstractGraph replica, int count) {
+		return replica.getNodeCount() == count && replica.getNode("n" + (count - 1)).hasAttribute("payload");
+	}
+
+	static void sendLargeNodes(AbstractGraph g, int count) {
+		for (int i = 0; i < count; i++)
+			g.addNode("n" + i).setAttribute("payload", PAYLOAD + i);
+	}
+
+	@Test
+	public void testQueueAndDrain() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica");
+
+			client.addSink(replica);
+			pump(() -> server.peers() == 1, server, client);
+			g.addSink(server);
+
+			// The client does not read, so what does not fit in the socket is queued.
+			sendLargeNodes(g, 200);
+			assertTrue(server.getPendingBytes() > 0);
+
+			pump(() -> received(replica, 200) && server.getPendingBytes() == 0, server, client);
+			assertEquals(0, server.getPendingBytes());
+			assertEquals(g.fingerprint(), replica.fingerprint());
+			assertEquals(PAYLOAD + 199, replica.getNode("n199").getAttribute("payload"));
+		} finally {
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+
+	@Test
+	public void testDisconnectSlowPeer() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel slow = SocketChannel.open();
+
+		try {
+			slow.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+			slow.connect(new InetSocketAddress("127.0.0.1", server.localPort()));
+			pump(() -> server.peers() == 1, server);
+			assertEquals(1, server.peers());
+
+			server.setHighWaterMark(1 << 20, ByteProxy.SlowPeerPolicy.DISCONNECT);
+
+			AbstractGraph g = new MultiGraph("g");
+			g.addSink(server);
+			sendLargeNodes(g, 200);
+
+			assertEquals(0, server.peers());
+			assertEquals(0, server.getPendingBytes());
+		} finally {
+			slow.close();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testBlockTimeout() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel stalled = SocketChannel.open();
+
+		try {
+			stalled.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+			stalled.connect(new InetSocketAddress("127.0.0.1", server.localPort()));
+			pump(() -> server.peers() == 1, server);
+
+			// The peer never reads: the sending thread gives up on it.
+			server.setHighWaterMark(1 << 16, ByteProxy.SlowPeerPolicy.BLOCK);
+			server.setBlockTimeout(100, TimeUnit.MILLISECONDS);
+
+			AbstractGraph g = new MultiGraph("g");
+			g.addSink(server);
+			sendLargeNodes(g, 200);
+
+			assertEquals(0, server.peers());
+			assertEquals(0, server.getPendingBytes());
+		} finally {
+			stalled.close();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testBlockSlowPeer() throws Exception {
+		LocalProxy server = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		LocalProxy client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+		AtomicBoolean reading = new AtomicBoolean(true);
+		Thread reader = new Thread(() -> {
+			while (reading.get())
+				client.poll(false);
+		});
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica");
+			int mark = 1 << 16;
+
+			client.addSink(replica);
+			pump(() -> server.peers() == 1, server, client);
+
+			server.setHighWaterMark(mark, ByteProxy.SlowPeerPolicy.BLOCK);
+			g.addSink(server);
+			reader.start();
+
+			for (int i = 0; i < 200; i++) {
+				g.addNode("n" + i).setAttribute("payload", PAYLOAD + i);
+				assertTrue(server.getPendingBytes() <= mark);
+			}
+
+			pump(() -> received(replica, 200) && server.getPendingBytes() == 0, server);
+			assertEquals(g.fingerprint(), replica.fingerprint());
+		} finally {
+			reading.set(false);
+			reader.join();
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyCapabilities.pump;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.binary.test.TestByteProxyCapabilities.LocalProxy;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxyReactorPool {
+	static final int CLIENTS = 6;
+	static final int EVENTS = 300;
+
+	/**
+	 * Records the node ids received from each source, and whether several events
+	 * were received at the same time.
+	 */
+	static class Recorder extends SinkAdapter {
+		final Map<String, List<String>> received = new ConcurrentHashMap<>();
+		final AtomicInteger receiving = new AtomicInteger();
+		volatile boolean overlapped;
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			if (receiving.incrementAndGet() > 1)
+				overlapped = true;
+
+			List<String> ids = received.computeIfAbsent(sourceId, s -> new ArrayList<>());
+
+			synchronized (ids) {
+				ids.add(nodeId);
+			}
+
+			Thread.yield();
+			receiving.decrementAndGet();
+		}
+
+		int count() {
+			int count = 0;
+
+			for (List<String> ids : received.values()) {
+				synchronized (ids) {
+					count += ids.size();
+				}
+			}
+
+			return count;
+		}
+	}
+
+	static class PoolProxy extends LocalProxy {
+		final AtomicBoolean failNextRead = new AtomicBoolean();
+		volatile boolean readPaused;
+
+		PoolProxy() throws IOException {
+			super(NetStreamUtils.getDefaultNetStreamFactory(), Mode.SERVER, 0);
+		}
+
+		@Override
+		protected void readForDispatch(SelectionKey key) {
+			if (failNextRead.compareAndSet(true, false))
+				throw new IllegalStateException("read failure");
+
+			super.readForDispatch(key);
+
+			if (key.isValid() && (key.interestOps() & SelectionKey.OP_READ) == 0)
+				readPaused = true;
+		}
+
+		int[] channelsPerReactor() {
+			int[] channels = new int[reactors.length];
+
+			for (int i = 0; i < reactors.length; i++) {
+				for (Object reactor : channelReactors.values())
+					channels[i] += reactor == reactors[i] ? 1 : 0;
+			}
+
+			return channels;
+		}
+	}
+
+	@Test
+	public void testOrderPerConnection() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		PoolProxy server = new PoolProxy();
+		List<LocalProxy> clients = new ArrayList<>();
+		Recorder recorder = new Recorder();
+
+		try {
+			server.setReactorPool(3, executor);
+			server.addSink(recorder);
+
+			for (int i = 0; i < CLIENTS; i++)
+				clients.add(new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+						server.localPort()));
+
+			pump(() -> server.peers() == CLIENTS, server);
+			assertEquals(CLIENTS, server.peers());
+
+			int[] channels = server.channelsPerReactor();
+
+			for (int c : channels)
+				assertEquals(CLIENTS / channels.length, c);
+
+			for (int e = 0; e < EVENTS; e++) {
+				for (int i = 0; i < CLIENTS; i++)
+					clients.get(i).nodeAdded("client" + i, e, "n" + e);
+			}
+
+			pump(() -> recorder.count() == CLIENTS * EVENTS, server);
+			assertEquals(CLIENTS, recorder.received.size());
+			assertFalse(recorder.overlapped);
+
+			for (List<String> ids : recorder.received.values()) {
+				synchronized (ids) {
+					assertEquals(EVENTS, ids.size());
+
+					for (int e = 0; e < EVENTS; e++)
+						assertEquals("n" + e, ids.get(e));
+				}
+			}
+		} finally {
+			server.stop();
+			server.shutdown();
+			executor.shutdown();
+
+			for (LocalProxy client : clients)
+				client.shutdown();
+		}
+	}
+
+	@Test
+	public void testWritesFromPool() throws Exception {
+		PoolProxy server = new PoolProxy();
+		LocalProxy client = new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+				server.localPort());
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica");
+
+			server.setReactorPool(2, null);
+			client.addSink(replica);
+			pump(() -> server.peers() == 1, server, client);
+			g.addSink(server);
+
+			// Large events are queued, then written by the I/O thread of the client.
+			TestByteProxyOutbound.sendLargeNodes(g, 100);
+			pump(() -> TestByteProxyOutbound.received(replica, 100) && server.getPendingBytes() == 0, client);
+
+			assertEquals(0, server.getPendingBytes());
+			assertEquals(g.fingerprint(), replica.fingerprint());
+		} finally {
+			server.stop();
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+
+	@Test
+	public void testInboundBacklog() throws Exception {
+		// The dispatch executor only runs when the test lets it.
+		ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		PoolProxy server = new PoolProxy();
+		Recorder recorder = new Recorder();
+		SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+		try {
+			server.setReactorPool(1, tasks::add);
+			server.setMaxInboundBacklog(1 << 16);
+			server.addSink(recorder);
+			pump(() -> server.peers() == 1, server);
+
+			// Far more than the backlog and the socket buffers hold.
+			int events = 32768;
+			char[] padding = new char[1000];
+			Arrays.fill(padding, 'x');
+			ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+			NetStreamEncoder encoder = new NetStreamEncoder(buffer -> {
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+				encoded.write(bytes, 0, bytes.length);
+			});
+
+			for (int i = 0; i < events; i++)
+				encoder.nodeAdded("raw", i, "n" + i + new String(padding));
+
+			ByteBuffer data = ByteBuffer.wrap(encoded.toByteArray());
+			raw.configureBlocking(false);
+
+			// The server stops reading while the executor is stalled.
+			for (int idle = 0; idle < 100 && data.hasRemaining(); idle++) {
+				if (raw.write(data) > 0)
+					idle = 0;
+
+				Thread.sleep(2);
+			}
+
+			assertTrue(data.hasRemaining());
+			assertTrue(server.readPaused);
+			assertEquals(0, recorder.count());
+
+			// Reading goes on as the executor catches up.
+			long timeout = System.currentTimeMillis() + 30000;
+
+			while (recorder.count() < events && System.currentTimeMillis() < timeout) {
+				Runnable task;
+
+				while ((task = tasks.poll()) != null)
+					task.run();
+
+				raw.write(data);
+				Thread.sleep(1);
+			}
+
+			assertEquals(events, recorder.count());
+			List<String> ids = recorder.received.get("raw");
+
+			for (int i = 0; i < events; i++)
+				assertEquals("n" + i + new String(padding), ids.get(i));
+		} finally {
+			raw.close();
+			server.stop();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailingChannel() throws Exception {
+		PoolProxy server = new PoolProxy();
+		List<LocalProxy> clients = new ArrayList<>();
+		Recorder recorder = new Recorder();
+
+		try {
+			server.setReactorPool(1, null);
+			server.addSink(recorder);
+
+			for (int i = 0; i < 2; i++)
+				clients.add(new LocalProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.CLIENT,
+						server.localPort()));
+
+			pump(() -> server.peers() == 2, server);
+
+			// The failing channel is closed, the I/O thread goes on with the other.
+			server.failNextRead.set(true);
+			clients.get(0).nodeAdded("client0", 0, "lost");
+			pump(() -> server.peers() == 1, server);
+			assertEquals(1, server.peers());
+
+			clients.get(1).nodeAdded("client1", 0, "received");
+			pump(() -> recorder.count() == 1, server);
+			assertEquals(Collections.singletonList("received"), recorder.received.get("client1"));
+		} finally {
+			server.stop();
+			server.shutdown();
+
+			for (LocalProxy client : clients)
+				client.shutdown();
+		}
+	}
+}
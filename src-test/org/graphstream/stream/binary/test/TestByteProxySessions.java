@@ -0,0 +1,398 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyCapabilities.pump;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.binary.ByteDecoder;
+import org.graphstream.stream.binary.ByteEncoder;
+import org.graphstream.stream.binary.ByteEventLog;
+import org.graphstream.stream.binary.ByteFactory;
+import org.graphstream.stream.binary.ByteProxy;
+import org.graphstream.stream.binary.test.TestByteProxyCapabilities.LocalProxy;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestByteProxySessions {
+	static class SessionProxy extends LocalProxy {
+		SessionProxy(ByteFactory factory, Mode mode, int port) throws IOException {
+			super(factory, mode, port);
+		}
+
+		/**
+		 * Loses the connection, without reconnecting.
+		 */
+		void disconnect() {
+			SelectableChannel channel = mainChannel;
+			mainChannel = null;
+			close(channel);
+		}
+	}
+
+	static class NodeCounter extends SinkAdapter {
+		int added;
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			added++;
+		}
+	}
+
+	static void populate(AbstractGraph g, int from, int to) {
+		for (int i = from; i < to; i++)
+			g.addNode("n" + i).setAttribute("i", i);
+	}
+
+	static void reconnect(SessionProxy server, SessionProxy client, AbstractGraph g, AbstractGraph replica)
+			throws Exception {
+		client.reconnect();
+		pump(() -> server.peers() == 1 && g.fingerprint() == replica.fingerprint(), server, client);
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		ByteFactory factory = NetStreamUtils.getDefaultNetStreamFactory();
+		SessionProxy server = new SessionProxy(factory, ByteProxy.Mode.SERVER, 0);
+		SessionProxy client = null;
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica", false, true);
+			NodeCounter counter = new NodeCounter();
+
+			server.setEventLog(1 << 20);
+			server.setReplayable(g);
+			g.addSink(server);
+			populate(g, 0, 100);
+
+			client = new SessionProxy(factory, ByteProxy.Mode.CLIENT, server.localPort());
+			client.addSink(replica);
+			client.addSink(counter);
+			SessionProxy c = client;
+
+			pump(() -> c.getSessionId() != null && replica.getNodeCount() == 100, server, client);
+			assertNotNull(client.getSessionId());
+			assertEquals(g.fingerprint(), replica.fingerprint());
+
+			String session = client.getSessionId();
+
+			g.addNode("live");
+			pump(() -> replica.getNode("live") != null, server, client);
+
+			client.disconnect();
+			pump(() -> server.peers() == 0, server);
+
+			populate(g, 100, 110);
+			g.getNode("n1").setAttribute("i", -1);
+			g.removeNode("n0");
+
+			counter.added = 0;
+			reconnect(server, client, g, replica);
+
+			assertEquals(g.fingerprint(), replica.fingerprint());
+			assertEquals(session, client.getSessionId());
+			// Only the missed nodes are received, not the whole graph.
+			assertEquals(10, counter.added);
+
+			// Events keep coming after the resume.
+			g.addNode("after");
+			pump(() -> replica.getNode("after") != null, server, client);
+			assertEquals(g.fingerprint(), replica.fingerprint());
+		} finally {
+			server.shutdown();
+
+			if (client != null)
+				client.shutdown();
+		}
+	}
+
+	@Test
+	public void testResumeTooLate() throws Exception {
+		ByteFactory factory = NetStreamUtils.getDefaultNetStreamFactory();
+		SessionProxy server = new SessionProxy(factory, ByteProxy.Mode.SERVER, 0);
+		SessionProxy client = new SessionProxy(factory, ByteProxy.Mode.CLIENT, server.localPort());
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica", false, true);
+
+			server.setEventLog(256);
+			server.setReplayable(g);
+			g.addSink(server);
+			client.addSink(replica);
+
+			pump(() -> client.getSessionId() != null, server, client);
+			populate(g, 0, 10);
+			pump(() -> replica.getNodeCount() == 10, server, client);
+
+			String session = client.getSessionId();
+
+			client.disconnect();
+			pump(() -> server.peers() == 0, server);
+
+			// More events than the log keeps.
+			populate(g, 10, 100);
+			g.removeNode("n0");
+
+			reconnect(server, client, g, replica);
+
+			assertEquals(g.fingerprint(), replica.fingerprint());
+			assertFalse(replica.getNode("n0") != null);
+			assertNotEquals(session, client.getSessionId());
+		} finally {
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+
+	@Test
+	public void testSilentPeer() throws Exception {
+		SessionProxy server = new SessionProxy(NetStreamUtils.getDefaultNetStreamFactory(), ByteProxy.Mode.SERVER, 0);
+		SocketChannel raw = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.localPort()));
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica", false, true);
+			NetStreamDecoder decoder = new NetStreamDecoder();
+			ByteBuffer received = ByteBuffer.allocate(1 << 16);
+
+			server.setEventLog(1 << 20);
+			server.setReplayable(g);
+			server.setPeerReadyTimeout(50, TimeUnit.MILLISECONDS);
+			g.addSink(server);
+			populate(g, 0, 100);
+			decoder.addSink(replica);
+			raw.configureBlocking(false);
+
+			// The peer never sends anything, not even its capabilities.
+			pump(() -> {
+				try {
+					raw.read(received);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+
+				received.flip();
+
+				while (decoder.hasEvent(received))
+					decoder.decode(received);
+
+				received.compact();
+				return replica.getNodeCount() == 100;
+			}, server);
+
+			assertEquals(g.fingerprint(), replica.fingerprint());
+		} finally {
+			raw.close();
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void testReplayOutsideOfIOThread() throws Exception {
+		ByteFactory netStream = NetStreamUtils.getDefaultNetStreamFactory();
+		List<Thread> replayThreads = new CopyOnWriteArrayList<>();
+		AtomicReference<Thread> ioThread = new AtomicReference<>();
+		ByteFactory factory = new ByteFactory() {
+			@Override
+			public ByteEncoder createByteEncoder() {
+				return netStream.createByteEncoder();
+			}
+
+			@Override
+			public ByteEncoder createSnapshotEncoder() {
+				replayThreads.add(Thread.currentThread());
+				return netStream.createSnapshotEncoder();
+			}
+
+			@Override
+			public ByteDecoder createByteDecoder() {
+				return netStream.createByteDecoder();
+			}
+		};
+		SessionProxy server = new SessionProxy(factory, ByteProxy.Mode.SERVER, 0) {
+			@Override
+			public void run() {
+				ioThread.set(Thread.currentThread());
+				super.run();
+			}
+		};
+		SessionProxy client = null;
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			AbstractGraph replica = new MultiGraph("replica", false, true);
+
+			// Sessions, but no bootstrap executor.
+			server.setEventLog(1 << 20);
+			server.setReplayable(g);
+			g.addSink(server);
+			populate(g, 0, 100);
+			server.start();
+
+			client = new SessionProxy(netStream, ByteProxy.Mode.CLIENT, server.localPort());
+			client.addSink(replica);
+			SessionProxy c = client;
+
+			pump(() -> c.getSessionId() != null && replica.getNodeCount() == 100, client);
+
+			assertEquals(g.fingerprint(), replica.fingerprint());
+			assertEquals(1, replayThreads.size());
+			assertNotNull(ioThread.get());
+			assertNotEquals(ioThread.get(), replayThreads.get(0));
+		} finally {
+			server.stop();
+			server.shutdown();
+
+			if (client != null)
+				client.shutdown();
+		}
+	}
+
+	@Test
+	public void testReconnectWhileSelecting() throws Exception {
+		ByteFactory factory = NetStreamUtils.getDefaultNetStreamFactory();
+		SessionProxy server = new SessionProxy(factory, ByteProxy.Mode.SERVER, 0);
+		SessionProxy client = new SessionProxy(factory, ByteProxy.Mode.CLIENT, server.localPort());
+
+		try {
+			AbstractGraph g = new MultiGraph("g");
+			List<String> added = new CopyOnWriteArrayList<>();
+
+			server.setEventLog(1 << 20);
+			server.setReplayable(g);
+			g.addSink(server);
+			populate(g, 0, 10);
+			client.addSink(new SinkAdapter() {
+				@Override
+				public void nodeAdded(String sourceId, long timeId, String nodeId) {
+					added.add(nodeId);
+				}
+			});
+
+			// The thread of the client waits in select() from now on.
+			client.start();
+			pump(() -> client.getSessionId() != null && added.size() == 10, server);
+
+			String session = client.getSessionId();
+
+			client.reconnect();
+			pump(() -> server.peers() == 1, server);
+
+			g.addNode("after");
+			pump(() -> added.contains("after"), server);
+
+			assertTrue(added.contains("after"));
+			assertEquals(session, client.getSessionId());
+		} finally {
+			client.stop();
+			server.shutdown();
+			client.shutdown();
+		}
+	}
+
+	@Test
+	public void testEventLog() {
+		ByteEventLog log = new ByteEventLog(new NetStreamEncoder(), 10000);
+
+		for (int i = 0; i < 10; i++) {
+			log.nodeAdded("a", i, "a" + i);
+			log.nodeAdded("b", i, "b" + i);
+		}
+
+		long end = log.getNextSequence();
+		log.nodeAdded("a", 10, "a10");
+
+		assertEquals(9L, (long) log.getLastTimeIds().get("b"));
+		assertEquals(10L, (long) log.getLastTimeIds().get("a"));
+
+		List<String> replayed = new ArrayList<>();
+		NetStreamDecoder decoder = new NetStreamDecoder();
+		decoder.addSink(new SinkAdapter() {
+			@Override
+			public void nodeAdded(String sourceId, long timeId, String nodeId) {
+				replayed.add(nodeId);
+			}
+		});
+
+		Map<String, Long> known = new HashMap<>();
+		known.put("a", 7L);
+
+		// Only the events after the known ones, and before the end, are sent.
+		assertTrue(log.replay(known, end, buffer -> decoder.decode(ByteBuffer.wrap(copy(buffer)))));
+		assertEquals(12, replayed.size());
+		assertEquals("b0", replayed.get(0));
+		assertEquals("a8", replayed.get(8));
+		assertEquals("b9", replayed.get(11));
+
+		// Once events are dropped, only peers which received them can be served.
+		ByteEventLog small = new ByteEventLog(new NetStreamEncoder(), 100);
+
+		for (int i = 0; i < 20; i++)
+			small.nodeAdded("a", i, "a" + i);
+
+		assertTrue(small.getSize() <= 100);
+		known.put("a", 2L);
+		assertFalse(small.replay(known, small.getNextSequence(), buffer -> {
+		}));
+		known.put("a", 17L);
+		assertTrue(small.replay(known, small.getNextSequence(), buffer -> {
+		}));
+	}
+
+	static byte[] copy(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary.test;
+
+import static org.graphstream.stream.binary.test.TestByteProxyBootstrap.populate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.MappedRingReceiver;
+import org.graphstream.stream.binary.MappedRingTransport;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMappedRing {
+	/**
+	 * Transport overwriting the length of the last frame, as a reader sees it
+	 * when the writer laps it.
+	 */
+	static class CorruptingTransport extends MappedRingTransport {
+		CorruptingTransport(Path file, int capacity) throws IOException {
+			super(file, capacity);
+		}
+
+		void corruptLastLength(int length, int frameSize) {
+			int index = (int) ((position - ((4 + frameSize + 7) & ~7)) & (capacity - 1));
+			data.putInt(index, length);
+		}
+	}
+
+	/**
+	 * Decoder failing on the frames starting with a given byte.
+	 */
+	static class FailingDecoder extends NetStreamDecoder {
+		@Override
+		public void decode(ByteBuffer buffer) {
+			if (buffer.get(buffer.position()) == (byte) 0xff)
+				throw new IllegalStateException("bad frame");
+
+			super.decode(buffer);
+		}
+	}
+
+	Path file;
+
+	@Before
+	public void createFile() throws Exception {
+		file = Files.createTempFile("gs-ring", ".bin");
+	}
+
+	@After
+	public void deleteFile() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testReceivers() throws Exception {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica1 = new MultiGraph("replica1");
+		AbstractGraph replica2 = new MultiGraph("replica2");
+		NetStreamDecoder decoder1 = new NetStreamDecoder();
+		NetStreamDecoder decoder2 = new NetStreamDecoder();
+
+		try (MappedRingTransport transport = new MappedRingTransport(file, 4096);
+				MappedRingReceiver receiver1 = new MappedRingReceiver(file, decoder1);
+				MappedRingReceiver receiver2 = new MappedRingReceiver(file, decoder2)) {
+			g.addSink(new NetStreamEncoder(transport));
+			decoder1.addSink(replica1);
+			decoder2.addSink(replica2);
+
+			// The ring wraps many times, each receiver reading at its own pace.
+			for (int i = 0; i < 20; i++) {
+				populate(g, 10);
+				receiver1.poll();
+
+				for (int j = 0; j < 10; j++)
+					g.removeNode("n" + j);
+
+				receiver1.poll();
+				receiver2.poll();
+			}
+
+			receiver2.start();
+
+			try {
+				populate(g, 20);
+				receiver1.poll();
+
+				long timeout = System.currentTimeMillis() + 10000;
+
+				while (replica2.getEdgeCount() < 19 && System.currentTimeMillis() < timeout)
+					Thread.sleep(10);
+			} finally {
+				receiver2.stop();
+			}
+
+			assertTrue(transport.getPosition() > 4 * transport.getCapacity());
+			assertEquals(0, receiver1.getLostBytes());
+			assertEquals(0, receiver2.getLostBytes());
+			assertEquals(g.fingerprint(), replica1.fingerprint());
+			assertEquals(g.fingerprint(), replica2.fingerprint());
+		}
+	}
+
+	@Test
+	public void testOverrun() throws Exception {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica", false, true);
+		NetStreamDecoder decoder = new NetStreamDecoder();
+		List<Long> overruns = new ArrayList<>();
+
+		try (MappedRingTransport transport = new MappedRingTransport(file, 4096);
+				MappedRingReceiver receiver = new MappedRingReceiver(file, decoder)) {
+			g.addSink(new NetStreamEncoder(transport));
+			decoder.addSink(replica);
+			receiver.setOverrunListener(overruns::add);
+
+			// Far more than the ring can hold.
+			populate(g, 500);
+			assertEquals(0, receiver.poll());
+			assertEquals(transport.getPosition(), receiver.getLostBytes());
+			assertEquals(0, replica.getNodeCount());
+			assertEquals(1, overruns.size());
+			assertEquals(receiver.getLostBytes(), (long) overruns.get(0));
+
+			// The receiver goes on with the next frames.
+			g.addNode("after");
+			assertEquals(1, receiver.poll());
+			assertEquals(1, replica.getNodeCount());
+			assertTrue(replica.getNode("after") != null);
+			assertEquals(1, overruns.size());
+		}
+	}
+
+	@Test
+	public void testGarbageLength() throws Exception {
+		NetStreamDecoder decoder = new NetStreamDecoder();
+
+		try (CorruptingTransport transport = new CorruptingTransport(file, 4096);
+				MappedRingReceiver receiver = new MappedRingReceiver(file, decoder)) {
+			AbstractGraph replica = new MultiGraph("replica");
+			decoder.addSink(replica);
+
+			// A length near the largest int must not be allocated.
+			transport.send(ByteBuffer.wrap(new byte[16]));
+			transport.corruptLastLength(Integer.MAX_VALUE - 2, 16);
+			assertEquals(0, receiver.poll());
+			assertTrue(receiver.getLostBytes() > 0);
+
+			new NetStreamEncoder(transport).nodeAdded("g", 0, "after");
+			assertEquals(1, receiver.poll());
+			assertTrue(replica.getNode("after") != null);
+		}
+	}
+
+	@Test
+	public void testFailingFrame() throws Exception {
+		AbstractGraph replica = new MultiGraph("replica");
+		FailingDecoder decoder = new FailingDecoder();
+
+		try (MappedRingTransport transport = new MappedRingTransport(file, 4096);
+				MappedRingReceiver receiver = new MappedRingReceiver(file, decoder)) {
+			decoder.addSink(replica);
+			receiver.start();
+
+			try {
+				// The thread of the receiver goes on after a frame it can not decode.
+				transport.send(ByteBuffer.wrap(new byte[] { (byte) 0xff, 0, 0, 0 }));
+				new NetStreamEncoder(transport).nodeAdded("g", 0, "after");
+
+				long timeout = System.currentTimeMillis() + 10000;
+
+				while (replica.getNode("after") == null && System.currentTimeMillis() < timeout)
+					Thread.sleep(10);
+			} finally {
+				receiver.stop();
+			}
+
+			assertTrue(replica.getNode("after") != null);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacity() throws Exception {
+		new MappedRingTransport(file, 5000);
+	}
+}
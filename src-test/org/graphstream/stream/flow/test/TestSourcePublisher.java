@@ -0,0 +1,182 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.flow.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.flow.GraphEvent;
+import org.graphstream.stream.flow.SourcePublisher;
+import org.graphstream.stream.flow.SubscriberPipe;
+import org.junit.Test;
+
+public class TestSourcePublisher {
+
+	static class ManualSubscriber implements Subscriber<GraphEvent> {
+		Subscription subscription;
+		List<GraphEvent> events = new ArrayList<GraphEvent>();
+		boolean completed;
+		Throwable error;
+
+		public synchronized void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		public synchronized void onNext(GraphEvent item) {
+			events.add(item);
+		}
+
+		public synchronized void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		public synchronized void onComplete() {
+			completed = true;
+		}
+
+		synchronized int count() {
+			return events.size();
+		}
+	}
+
+	@Test
+	public void testMirror() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		SourcePublisher publisher = new SourcePublisher(source, 4);
+		SubscriberPipe pipe = new SubscriberPipe(2);
+
+		pipe.addSink(target);
+		publisher.subscribe(pipe);
+
+		for (int i = 0; i < 20; i++)
+			source.addNode("N" + i).setAttribute("i", i);
+
+		source.addEdge("E", "N0", "N1", true);
+		source.stepBegins(2);
+
+		assertEquals(20, target.getNodeCount());
+		assertEquals(7, target.getNode("N7").getAttribute("i"));
+		assertTrue(target.getEdge("E").isDirected());
+		assertEquals(2, target.getStep(), 0);
+
+		publisher.close();
+		assertTrue(pipe.isCompleted());
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	@Test
+	public void testBackpressure() throws InterruptedException {
+		final Graph source = new AdjacencyListGraph("source");
+		SourcePublisher publisher = new SourcePublisher(source, 3);
+		ManualSubscriber subscriber = new ManualSubscriber();
+
+		publisher.subscribe(subscriber);
+		assertNotNull(subscriber.subscription);
+
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < 10; i++)
+				source.addNode("N" + i);
+		});
+
+		subscriber.subscription.request(2);
+		producer.start();
+
+		// 2 events delivered, 3 buffered, the producer waits for room.
+		waitFor(() -> producer.getState() == Thread.State.WAITING);
+		assertEquals(2, subscriber.count());
+		assertTrue(producer.isAlive());
+
+		subscriber.subscription.request(8);
+		producer.join(5000);
+
+		assertFalse(producer.isAlive());
+		assertEquals(10, subscriber.count());
+		assertEquals("N9", subscriber.events.get(9).getElementId());
+
+		publisher.close();
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testCancelReleasesProducer() throws InterruptedException {
+		final Graph source = new AdjacencyListGraph("source");
+		SourcePublisher publisher = new SourcePublisher(source, 1);
+		ManualSubscriber subscriber = new ManualSubscriber();
+
+		publisher.subscribe(subscriber);
+
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < 10; i++)
+				source.addNode("N" + i);
+		});
+
+		producer.start();
+		waitFor(() -> producer.getState() == Thread.State.WAITING);
+
+		subscriber.subscription.cancel();
+		producer.join(5000);
+
+		assertFalse(producer.isAlive());
+		assertEquals(10, source.getNodeCount());
+		assertEquals(0, subscriber.count());
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	@Test
+	public void testInvalidRequest() {
+		Graph source = new AdjacencyListGraph("source");
+		SourcePublisher publisher = new SourcePublisher(source);
+		ManualSubscriber subscriber = new ManualSubscriber();
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(0);
+
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	protected static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < end)
+			Thread.sleep(5);
+
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.metrics.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.metrics.MetricsPipe;
+import org.graphstream.stream.metrics.StreamMetrics;
+import org.graphstream.stream.thread.ThreadProxyPipe;
+import org.graphstream.stream.thread.ThreadProxyPipe.GraphEvents;
+import org.junit.Test;
+
+public class TestStreamMetrics {
+
+	protected void fill(Graph g) {
+		g.addNode("A");
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+		g.getNode("A").setAttribute("x", 1);
+		g.getNode("A").setAttribute("x", 2);
+		g.stepBegins(1);
+	}
+
+	@Test
+	public void testMetricsPipe() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		MetricsPipe pipe = new MetricsPipe();
+
+		source.addSink(pipe);
+		pipe.addSink(target);
+		fill(source);
+
+		StreamMetrics metrics = pipe.getMetrics();
+
+		assertEquals(2, target.getNodeCount());
+		assertEquals(6, metrics.getEventInCount());
+		assertEquals(6, metrics.getEventOutCount());
+		assertEquals(2, metrics.getEventInCount(GraphEvents.ADD_NODE));
+		assertEquals(1, metrics.getEventOutCount(GraphEvents.CHG_NODE_ATTR));
+		assertEquals(Long.valueOf(1), metrics.getEventsIn().get("ADD_EDGE"));
+
+		long callbacks = 0;
+		for (long c : metrics.getSinkCallbackHistogram())
+			callbacks += c;
+
+		assertEquals(6, callbacks);
+
+		metrics.reset();
+		assertEquals(0, metrics.getEventInCount());
+		assertEquals(0, metrics.getSinkCallbackHistogram().length);
+	}
+
+	@Test
+	public void testThreadProxyPipe() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		ThreadProxyPipe proxy = new ThreadProxyPipe();
+		StreamMetrics metrics = new StreamMetrics();
+
+		proxy.setMetrics(metrics);
+		proxy.init(source);
+		proxy.addSink(target);
+		fill(source);
+
+		assertEquals(6, metrics.getEventInCount());
+		assertEquals(0, metrics.getEventOutCount());
+		assertEquals(6, metrics.getQueueDepth());
+
+		proxy.pump();
+
+		assertEquals(2, target.getNodeCount());
+		assertEquals(6, metrics.getEventOutCount());
+		assertEquals(0, metrics.getQueueDepth());
+		assertEquals(6, metrics.getMaxQueueDepth());
+		assertTrue(metrics.getPumpLatencyHistogram().length > 0);
+
+		// Empty pumps are not recorded.
+		long[] before = metrics.getPumpLatencyHistogram();
+		proxy.pump();
+		assertEquals(sum(before), sum(metrics.getPumpLatencyHistogram()));
+	}
+
+	@Test
+	public void testJMX() throws JMException {
+		MetricsPipe pipe = new MetricsPipe();
+		Graph source = new AdjacencyListGraph("source");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = pipe.getMetrics().register("test");
+
+		try {
+			source.addSink(pipe);
+			fill(source);
+
+			assertTrue(server.isRegistered(name));
+			assertEquals(6L, server.getAttribute(name, "EventInCount"));
+			assertTrue(server.getAttribute(name, "EventsIn") instanceof javax.management.openmbean.TabularData);
+
+			server.invoke(name, "reset", null, null);
+			assertEquals(0L, server.getAttribute(name, "EventInCount"));
+		} finally {
+			pipe.getMetrics().unregister();
+		}
+
+		assertFalse(server.isRegistered(name));
+	}
+
+	protected static long sum(long[] counts) {
+		long s = 0;
+
+		for (long c : counts)
+			s += c;
+
+		return s;
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.netstream.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.netstream.NetStreamConstants;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.graphstream.stream.netstream.NetStreamUtils;
+import org.junit.Test;
+
+public class TestNetStreamBatch {
+	/**
+	 * Decodes the frames received from an encoder, and counts them.
+	 */
+	static class Loopback {
+		final NetStreamDecoder decoder = new NetStreamDecoder();
+		final List<Integer> commands = new ArrayList<>();
+		final NetStreamEncoder encoder = new NetStreamEncoder("stream", buffer -> {
+			commands.add((int) buffer.get(4 + 1 + "stream".length()));
+			decoder.decode(buffer);
+		});
+
+		{
+			// The decoder understands every extension.
+			encoder.setPeerCapabilities(
+					NetStreamConstants.CAPABILITY_BATCH | NetStreamConstants.CAPABILITY_DICTIONARY);
+		}
+	}
+
+	@Test
+	public void testBatch() {
+		Loopback loopback = new Loopback();
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica");
+		List<String> expected = new ArrayList<>();
+		List<String> times = new ArrayList<>();
+
+		loopback.encoder.setBatching(512, 0, TimeUnit.SECONDS);
+		loopback.decoder.addSink(replica);
+		loopback.decoder.addSink(new TimeRecorder(times));
+
+		g.addSink(loopback.encoder);
+		g.addSink(new TimeRecorder(expected));
+
+		for (int i = 0; i < 100; i++) {
+			g.addNode("n" + i).setAttribute("xy", (Object) new Double[] { (double) i, -i / 2.0 });
+
+			if (i > 0)
+				g.addEdge("e" + i, "n" + (i - 1), "n" + i).setAttribute("w", i);
+		}
+
+		loopback.encoder.flush();
+		assertEquals(g.fingerprint(), replica.fingerprint());
+
+		// Events of another source, with time ids going backward.
+		loopback.decoder.removeSink(replica);
+		loopback.encoder.nodeAdded("other", 1000, "x");
+		loopback.encoder.nodeAdded("other", 10, "y");
+		loopback.encoder.nodeAdded("g", 5, "z");
+		loopback.encoder.flush();
+
+		assertTrue(loopback.encoder.isBatching());
+		assertTrue(loopback.commands.size() < 20);
+		assertTrue(loopback.commands.stream().allMatch(c -> c == NetStreamConstants.EVENT_BATCH));
+		assertEquals(103, times.size());
+		assertEquals(expected, times.subList(0, 100));
+		assertEquals("other1000", times.get(100));
+		assertEquals("other10", times.get(101));
+		assertEquals("g5", times.get(102));
+	}
+
+	static class TimeRecorder extends SinkAdapter {
+		final List<String> times;
+
+		TimeRecorder(List<String> times) {
+			this.times = times;
+		}
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			times.add(sourceId + timeId);
+		}
+	}
+
+	@Test
+	public void testBatchingNeedsPeers() {
+		List<Integer> commands = new ArrayList<>();
+		NetStreamEncoder encoder = new NetStreamEncoder("stream",
+				buffer -> commands.add((int) buffer.get(4 + 1 + "stream".length())));
+
+		// Until the peers announce batches, events are sent one by one.
+		encoder.setBatching(1024, 0, TimeUnit.SECONDS);
+		assertFalse(encoder.isBatching());
+		encoder.nodeAdded("s", 0, "A");
+		assertEquals(1, commands.size());
+		assertEquals(NetStreamConstants.EVENT_ADD_NODE, (int) commands.get(0));
+
+		encoder.setPeerCapabilities(NetStreamConstants.CAPABILITY_BATCH);
+		assertTrue(encoder.isBatching());
+	}
+
+	@Test
+	public void testCapabilities() {
+		Loopback loopback = new Loopback();
+		NetStreamDecoder peer = new NetStreamDecoder();
+		List<Integer> announced = new ArrayList<>();
+
+		peer.setCapabilityListener(announced::add);
+		peer.decode(loopback.decoder.getCapabilities());
+		assertEquals(1, announced.size());
+		assertEquals(NetStreamConstants.CAPABILITY_BATCH, (int) announced.get(0));
+
+		loopback.encoder.setBatching(1024, 0, TimeUnit.SECONDS);
+		loopback.encoder.nodeAdded("s", 0, "A");
+		loopback.encoder.nodeAdded("s", 1, "B");
+		assertTrue(loopback.commands.isEmpty());
+
+		// A peer without batch support: the batch is sent, then single events.
+		loopback.encoder.setPeerCapabilities(0);
+		assertFalse(loopback.encoder.isBatching());
+		loopback.encoder.nodeAdded("s", 2, "C");
+
+		assertEquals(2, loopback.commands.size());
+		assertEquals(NetStreamConstants.EVENT_BATCH, (int) loopback.commands.get(0));
+		assertEquals(NetStreamConstants.EVENT_ADD_NODE, (int) loopback.commands.get(1));
+	}
+
+	@Test
+	public void testDelay() throws InterruptedException {
+		Loopback loopback = new Loopback();
+
+		loopback.encoder.setBatching(1 << 16, 5, TimeUnit.MILLISECONDS);
+		loopback.encoder.nodeAdded("s", 0, "A");
+
+		for (int i = 0; i < 500; i++) {
+			synchronized (loopback.encoder) {
+				if (!loopback.commands.isEmpty())
+					break;
+			}
+
+			Thread.sleep(10);
+		}
+
+		synchronized (loopback.encoder) {
+			assertEquals(1, loopback.commands.size());
+		}
+
+		loopback.encoder.disableBatching();
+	}
+
+	@Test
+	public void testSkipUnknownCommand() {
+		NetStreamDecoder decoder = new NetStreamDecoder();
+		ByteBuffer frame = ByteBuffer.allocate(64);
+
+		frame.putInt(0);
+		NetStreamUtils.putString(frame, "stream");
+		frame.put((byte) 0x7e);
+		NetStreamUtils.putString(frame, "some content of a future extension");
+		frame.putInt(0, frame.position());
+		frame.flip();
+
+		decoder.decode(frame);
+		assertEquals(frame.limit(), frame.position());
+	}
+}
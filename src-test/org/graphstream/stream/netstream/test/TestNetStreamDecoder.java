@@ -214,6 +214,38 @@ public class TestNetStreamDecoder {
 		Assert.assertTrue(sink.triggered);
 	}
 
+	@Test
+	public void testPrimitiveArrays() {
+		final String nodeId = "n\u00e9" + new String(new char[300]).replace('\0', 'x');
+		final NetStreamDecoder dec = new NetStreamDecoder();
+
+		// Strings of direct buffers go through the scratch array of the decoder.
+		NetStreamEncoder enc = new NetStreamEncoder("stream-test", true, new ByteEncoder.Transport() {
+			@Override
+			public void send(ByteBuffer buffer) {
+				dec.decode(buffer);
+			}
+		});
+
+		FailSink sink = new FailSink() {
+			public void nodeAttributeAdded(String sourceIdDec, long timeIdDec, String nodeIdDec, String attribute,
+					Object value) {
+				triggered = true;
+
+				Assert.assertEquals(nodeId, nodeIdDec);
+				Assert.assertEquals("xy", attribute);
+				Assert.assertArrayEquals(new double[] { 1.5, -2 }, (double[]) value, 0);
+			}
+		};
+
+		dec.setPrimitiveArrays(true);
+		dec.addSink(sink);
+
+		enc.nodeAttributeAdded("test", 1, nodeId, "xy", new Double[] { 1.5, -2.0 });
+
+		Assert.assertTrue(sink.triggered);
+	}
+
 	class FailSink implements Sink {
 		boolean triggered = false;
 
@@ -0,0 +1,212 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.netstream.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.binary.InvalidFrameException;
+import org.graphstream.stream.netstream.NetStreamConstants;
+import org.graphstream.stream.netstream.NetStreamDecoder;
+import org.graphstream.stream.netstream.NetStreamEncoder;
+import org.junit.Test;
+
+public class TestNetStreamDictionary {
+	/**
+	 * Decodes the frames received from an encoder, and records their commands and
+	 * sizes.
+	 */
+	static class Loopback {
+		final NetStreamDecoder decoder = new NetStreamDecoder();
+		final List<Integer> commands = new ArrayList<>();
+		int bytes;
+		final NetStreamEncoder encoder = new NetStreamEncoder("stream", buffer -> {
+			commands.add(buffer.get(4 + 1 + "stream".length()) & 0xFF);
+			bytes += buffer.remaining();
+			decoder.decode(buffer);
+		});
+
+		{
+			// The decoder understands every extension.
+			encoder.setPeerCapabilities(
+					NetStreamConstants.CAPABILITY_BATCH | NetStreamConstants.CAPABILITY_DICTIONARY);
+		}
+	}
+
+	static int build(Loopback loopback) {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica");
+
+		loopback.decoder.addSink(replica);
+		g.addSink(loopback.encoder);
+
+		for (int i = 0; i < 50; i++) {
+			g.addNode("node" + i).setAttribute("ui.label", "n" + i);
+
+			if (i > 0) {
+				g.addEdge("edge" + i, "node" + (i - 1), "node" + i).setAttribute("weight", i);
+				g.getNode("node" + (i - 1)).setAttribute("ui.label", "m" + i);
+			}
+		}
+
+		g.addEdge("loop", "node7", "node7");
+		g.setAttribute("ui.stylesheet", "node { fill-color: red; }");
+		g.removeNode("node3");
+		loopback.encoder.flush();
+
+		assertEquals(g.fingerprint(), replica.fingerprint());
+
+		return loopback.bytes;
+	}
+
+	@Test
+	public void testDictionary() {
+		Loopback plain = new Loopback();
+		Loopback coded = new Loopback();
+
+		coded.encoder.setDictionary(64);
+		assertTrue(coded.encoder.isDictionaryActive());
+		assertEquals(NetStreamConstants.EVENT_DICTIONARY_RESET, (int) coded.commands.get(0));
+
+		int plainBytes = build(plain);
+		int codedBytes = build(coded);
+
+		assertTrue(codedBytes < plainBytes);
+		assertTrue(coded.commands.subList(1, coded.commands.size()).stream()
+				.allMatch(c -> (c & NetStreamConstants.EVENT_FLAG_DICTIONARY) != 0));
+	}
+
+	@Test
+	public void testEviction() {
+		for (int size : new int[] { 1, 2, 3, 5 }) {
+			Loopback loopback = new Loopback();
+
+			loopback.encoder.setDictionary(size);
+			build(loopback);
+		}
+	}
+
+	@Test
+	public void testBatch() {
+		Loopback loopback = new Loopback();
+
+		loopback.encoder.setBatching(256, 0, TimeUnit.SECONDS);
+		loopback.encoder.setDictionary(3);
+		build(loopback);
+
+		assertTrue(loopback.commands.subList(1, loopback.commands.size()).stream()
+				.allMatch(c -> c == NetStreamConstants.EVENT_BATCH));
+	}
+
+	@Test
+	public void testNegotiation() {
+		Loopback loopback = new Loopback();
+		NetStreamDecoder peer = new NetStreamDecoder();
+		List<Integer> announced = new ArrayList<>();
+		ByteBuffer capabilities = loopback.decoder.getCapabilities();
+
+		peer.setCapabilityListener(announced::add);
+
+		peer.decode(capabilities);
+		peer.decode(capabilities);
+		assertFalse(capabilities.hasRemaining());
+
+		assertEquals(2, announced.size());
+		assertEquals(NetStreamConstants.CAPABILITY_DICTIONARY, (int) announced.get(1));
+
+		loopback.encoder.setPeerCapabilities(NetStreamConstants.CAPABILITY_BATCH);
+		loopback.encoder.setDictionary(16);
+		assertFalse(loopback.encoder.isDictionaryActive());
+		loopback.encoder.nodeAdded("s", 0, "A");
+
+		loopback.encoder.setPeerCapabilities(NetStreamConstants.CAPABILITY_DICTIONARY);
+		assertTrue(loopback.encoder.isDictionaryActive());
+		loopback.encoder.nodeAdded("s", 1, "B");
+		loopback.encoder.nodeAdded("s", 2, "B2");
+
+		// A new peer gets the dictionary from scratch.
+		loopback.encoder.setPeerCapabilities(0);
+		loopback.encoder.setPeerCapabilities(NetStreamConstants.CAPABILITY_DICTIONARY);
+		loopback.encoder.nodeRemoved("s", 3, "B");
+
+		assertEquals(6, loopback.commands.size());
+		assertEquals(NetStreamConstants.EVENT_ADD_NODE, (int) loopback.commands.get(0));
+		assertEquals(NetStreamConstants.EVENT_DICTIONARY_RESET, (int) loopback.commands.get(1));
+		assertEquals(NetStreamConstants.EVENT_ADD_NODE | NetStreamConstants.EVENT_FLAG_DICTIONARY,
+				(int) loopback.commands.get(2));
+		assertEquals(NetStreamConstants.EVENT_DICTIONARY_RESET, (int) loopback.commands.get(4));
+	}
+
+	@Test
+	public void testInvalidCodes() {
+		List<ByteBuffer> frames = new ArrayList<>();
+		NetStreamEncoder encoder = new NetStreamEncoder("stream", buffer -> {
+			ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+			copy.put(buffer).flip();
+			frames.add(copy);
+		});
+
+		encoder.setPeerCapabilities(NetStreamConstants.CAPABILITY_DICTIONARY);
+		encoder.setDictionary(4);
+		encoder.nodeAdded("s", 0, "A");
+		encoder.nodeRemoved("s", 1, "A");
+		assertEquals(3, frames.size());
+
+		// The code of "A" is used without the frame defining it.
+		NetStreamDecoder decoder = new NetStreamDecoder();
+		decoder.decode(frames.get(0));
+
+		try {
+			decoder.decode(frames.get(2));
+			fail();
+		} catch (InvalidFrameException e) {
+			assertFalse(frames.get(2).hasRemaining());
+		}
+
+		// A dictionary larger than the decoder allows is not allocated.
+		frames.get(0).rewind();
+		decoder.setMaxDictionaryEntries(3);
+
+		try {
+			decoder.decode(frames.get(0));
+			fail();
+		} catch (InvalidFrameException e) {
+			assertFalse(frames.get(0).hasRemaining());
+		}
+	}
+}
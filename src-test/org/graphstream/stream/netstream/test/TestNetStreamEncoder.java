@@ -31,8 +31,11 @@
  */
 package org.graphstream.stream.netstream.test;
 
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.MultiGraph;
 import org.graphstream.stream.binary.ByteEncoder;
 import org.graphstream.stream.netstream.NetStreamConstants;
+import org.graphstream.stream.netstream.NetStreamDecoder;
 import org.graphstream.stream.netstream.NetStreamEncoder;
 
 import static org.graphstream.stream.netstream.NetStreamUtils.*;
@@ -42,6 +45,10 @@ import org.junit.Test;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * @since 22/01/16.
@@ -220,4 +227,84 @@ public class TestNetStreamEncoder {
 
 		enc.graphCleared(sourceId, timeId);
 	}
+
+	@Test
+	public void testBufferReuse() {
+		for (boolean direct : new boolean[] { false, true }) {
+			final NetStreamDecoder dec = new NetStreamDecoder();
+			final Set<ByteBuffer> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+			Graph g = new MultiGraph("g");
+			Graph replica = new MultiGraph("replica");
+
+			NetStreamEncoder enc = new NetStreamEncoder("stream-test", direct, new ByteEncoder.Transport() {
+				@Override
+				public void send(ByteBuffer buffer) {
+					buffers.add(buffer);
+					dec.decode(buffer);
+				}
+			});
+
+			g.addSink(enc);
+			dec.addSink(replica);
+
+			char[] large = new char[1000];
+			Arrays.fill(large, '\u00e9');
+
+			g.setAttribute("title", "t");
+			g.addNode("A").setAttribute("xyz", (Object) new Double[] { 1.0, 2.0, 3.0 });
+			g.addNode("B").setAttribute("label", new String(large));
+			g.addEdge("AB", "A", "B", true).setAttribute("weight", 2);
+			g.getNode("A").setAttribute("xyz", (Object) new Double[] { 4.0, 5.0, 6.0 });
+			g.getEdge("AB").setAttribute("empty", new Object[0]);
+
+			int afterGrowth = buffers.size();
+
+			g.addNode("C");
+			g.removeEdge("AB");
+			g.getNode("B").removeAttribute("label");
+
+			// One growth for the large label, then the buffer is reused.
+			Assert.assertEquals(2, afterGrowth);
+			Assert.assertEquals(2, buffers.size());
+			Assert.assertEquals(direct, buffers.iterator().next().isDirect());
+
+			Assert.assertEquals(3, replica.getNodeCount());
+			Assert.assertEquals(0, replica.getEdgeCount());
+			Assert.assertFalse(replica.getNode("B").hasAttribute("label"));
+			Assert.assertArrayEquals(new Object[] { 4.0, 5.0, 6.0 },
+					(Object[]) replica.getNode("A").getAttribute("xyz"));
+			Assert.assertEquals("t", replica.getAttribute("title"));
+		}
+	}
+
+	@Test
+	public void testArrays() {
+		final NetStreamDecoder dec = new NetStreamDecoder();
+		Graph g = new MultiGraph("g");
+		Graph replica = new MultiGraph("replica");
+
+		NetStreamEncoder enc = new NetStreamEncoder("stream-test", new ByteEncoder.Transport() {
+			@Override
+			public void send(ByteBuffer buffer) {
+				dec.decode(buffer);
+			}
+		});
+
+		g.addSink(enc);
+		dec.addSink(replica);
+
+		g.addNode("A").setAttribute("mixed", (Object) new Object[] { 1, "two" });
+		g.getNode("A").setAttribute("holes", (Object) new Integer[] { 1, null });
+		g.getNode("A").setAttribute("xyz", (Object) new double[] { 1.5, -2.0, 3.25 });
+		g.getNode("A").setAttribute("ids", (Object) new int[] { 0, -1, 300 });
+		g.getNode("A").setAttribute("flags", (Object) new boolean[] { true, false });
+
+		Assert.assertArrayEquals(new Object[] { 1, "two" }, (Object[]) replica.getNode("A").getAttribute("mixed"));
+		Assert.assertArrayEquals(new Object[] { 1, null }, (Object[]) replica.getNode("A").getAttribute("holes"));
+		Assert.assertArrayEquals(new Object[] { 1.5, -2.0, 3.25 },
+				(Object[]) replica.getNode("A").getAttribute("xyz"));
+		Assert.assertArrayEquals(new Object[] { 0, -1, 300 }, (Object[]) replica.getNode("A").getAttribute("ids"));
+		Assert.assertArrayEquals(new Object[] { true, false },
+				(Object[]) replica.getNode("A").getAttribute("flags"));
+	}
 }
@@ -33,12 +33,15 @@ package org.graphstream.stream.netstream.test;
 
 import static org.graphstream.stream.netstream.NetStreamUtils.*;
 
+import org.graphstream.stream.binary.InvalidFrameException;
 import org.graphstream.stream.netstream.NetStreamConstants;
 import org.graphstream.stream.netstream.NetStreamUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.util.Objects;
 
 /**
  * @since 23/01/16.
@@ -205,4 +208,152 @@ public class TestNetStreamUtils {
 
 		Assert.assertEquals(i, r);
 	}
+
+	@Test
+	public void testPutValue() {
+		Object[] values = { true, (byte) -3, (short) 300, 0, -1, 123456, 0L, -(1L << 40), 1.5f, Math.PI, "ascii",
+				"\u00e9t\u00e9 \u4e2d\u6587 \ud83d\ude00", "unpaired \ud83d.", new Boolean[] { true, false },
+				new Byte[] { 1, -1 }, new Short[] { 0, -5 }, new Integer[] { 0, 1, -1, 1 << 20 },
+				new Long[] { 0L, -1L, 1L << 50 }, new Float[] { 0.5f }, new Double[] { 1.0, -2.5 },
+				new String[] { "a", "\u00e9" }, null };
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+
+		for (Object value : values) {
+			int type = getType(value);
+			ByteBuffer expected = encodeValue(value, type);
+
+			buffer.clear();
+			putValue(buffer, value, type);
+			buffer.flip();
+
+			Assert.assertEquals(expected.capacity(), getValueSize(value, type));
+			Assert.assertEquals(expected.rewind(), buffer);
+		}
+	}
+
+	@Test
+	public void testPutMixedArray() {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		Object[] mixed = { 1, "two", 3.0, new Object[] {} };
+
+		Assert.assertEquals(-1, getValueSize(new Object[] { new Object() }, NetStreamConstants.TYPE_ARRAY));
+
+		putValue(buffer, mixed, NetStreamConstants.TYPE_ARRAY);
+		Assert.assertEquals(getValueSize(mixed, NetStreamConstants.TYPE_ARRAY), buffer.position());
+
+		buffer.flip();
+		Object[] decoded = decodeArray(buffer);
+
+		Assert.assertEquals(4, decoded.length);
+		Assert.assertEquals(1, decoded[0]);
+		Assert.assertEquals("two", decoded[1]);
+		Assert.assertEquals(3.0, decoded[2]);
+		Assert.assertEquals(0, ((Object[]) decoded[3]).length);
+	}
+
+	@Test
+	public void testDecodePrimitiveValue() {
+		Object[] values = { new Boolean[] { true, false }, new Byte[] { 1, -1 }, new Short[] { 0, -5 },
+				new Integer[] { 0, 1, -1, 1 << 20 }, new Long[] { 0L, -1L, 1L << 50 }, new Float[] { 0.5f },
+				new Double[] { 1.0, -2.5 } };
+		Object[] expected = { new boolean[] { true, false }, new byte[] { 1, -1 }, new short[] { 0, -5 },
+				new int[] { 0, 1, -1, 1 << 20 }, new long[] { 0L, -1L, 1L << 50 }, new float[] { 0.5f },
+				new double[] { 1.0, -2.5 } };
+
+		for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+			for (int i = 0; i < values.length; i++) {
+				int type = getType(values[i]);
+
+				buffer.clear();
+				buffer.put((byte) 42);
+				putValue(buffer, values[i], type);
+				buffer.put((byte) 43);
+				buffer.flip();
+				buffer.get();
+
+				Assert.assertTrue(Objects.deepEquals(expected[i], decodePrimitiveValue(buffer, type)));
+				Assert.assertEquals(43, buffer.get());
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		putValue(buffer, "text", NetStreamConstants.TYPE_STRING);
+		buffer.flip();
+		Assert.assertEquals("text", decodePrimitiveValue(buffer, NetStreamConstants.TYPE_STRING));
+	}
+
+	@Test
+	public void testDecodeUTF8() {
+		String s = "\u00e9t\u00e9 \u4e2d\u6587";
+		ByteBuffer heap = ByteBuffer.allocate(64);
+		ByteBuffer direct = ByteBuffer.allocateDirect(64);
+
+		for (ByteBuffer buffer : new ByteBuffer[] { heap, direct }) {
+			buffer.put((byte) 0);
+			putString(buffer, s);
+			buffer.flip();
+			buffer.get();
+
+			// Strings of a slice start at the offset of the slice in the array.
+			ByteBuffer slice = buffer.slice();
+			int len = (int) decodeUnsignedVarint(slice);
+
+			Assert.assertEquals(s, decodeUTF8(slice, len, new byte[4]));
+			Assert.assertFalse(slice.hasRemaining());
+		}
+
+		heap.clear();
+		putString(heap, s);
+		heap.flip();
+		heap.limit(heap.limit() - 1);
+
+		try {
+			decodeUTF8(heap, (int) decodeUnsignedVarint(heap));
+			Assert.fail();
+		} catch (BufferUnderflowException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testDecodeInvalidLengths() {
+		ByteBuffer buffer = ByteBuffer.allocate(32);
+
+		// Lengths larger than the rest of the buffer, including negative ones once
+		// cast to int.
+		for (long length : new long[] { 9, 0xFFFFFFFFL, Long.MAX_VALUE }) {
+			buffer.clear();
+			putUnsignedVarint(buffer, length);
+			buffer.put(new byte[8]);
+			buffer.flip();
+
+			try {
+				decodePrimitiveDoubleArray(buffer);
+				Assert.fail();
+			} catch (InvalidFrameException e) {
+				// Expected.
+			}
+
+			buffer.rewind();
+
+			try {
+				decodePrimitiveValue(buffer, NetStreamConstants.TYPE_INT_ARRAY);
+				Assert.fail();
+			} catch (InvalidFrameException e) {
+				// Expected.
+			}
+		}
+
+		// A varint does not run past ten bytes.
+		buffer.clear();
+		buffer.put(new byte[] { -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1 });
+		buffer.flip();
+
+		try {
+			decodeUnsignedVarint(buffer);
+			Assert.fail();
+		} catch (InvalidFrameException e) {
+			Assert.assertEquals(10, buffer.position());
+		}
+	}
 }
@@ -0,0 +1,298 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.rmi.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.rmi.RemoteException;
+import java.rmi.server.RemoteObject;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.graphstream.graph.implementations.AbstractGraph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.rmi.RMIAdapterIn;
+import org.graphstream.stream.rmi.RMISink;
+import org.graphstream.stream.rmi.RMISource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRMIBatching {
+	RMISink sink;
+	RMISource source;
+	BatchCountingInput counter;
+
+	@Before
+	public void setUp() throws RemoteException {
+		sink = new RMISink();
+		source = new RMISource();
+		counter = new BatchCountingInput(source);
+
+		// Loopback through the stub of the source, without a registry.
+		sink.register("loopback", counter);
+	}
+
+	@After
+	public void tearDown() throws RemoteException {
+		sink.disableBatching();
+		UnicastRemoteObject.unexportObject(sink, true);
+		UnicastRemoteObject.unexportObject(source, true);
+	}
+
+	private static void populate(AbstractGraph g) {
+		g.setAttribute("title", "t");
+		g.setAttribute("title", "u");
+
+		for (int i = 0; i < 20; i++)
+			g.addNode("n" + i).setAttribute("x", i);
+
+		for (int i = 0; i < 19; i++)
+			g.addEdge("e" + i, "n" + i, "n" + (i + 1), i % 2 == 0).setAttribute("w", i * 0.5);
+
+		g.getNode("n3").setAttribute("x", -3);
+		g.getNode("n4").removeAttribute("x");
+		g.getEdge("e5").setAttribute("w", "five");
+		g.getEdge("e6").removeAttribute("w");
+		g.removeEdge("e7");
+		g.removeNode("n19");
+		g.removeAttribute("title");
+		g.stepBegins(1.5);
+	}
+
+	@Test
+	public void testBatching() {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph expected = new MultiGraph("expected");
+		AbstractGraph replica = new MultiGraph("replica");
+		List<String> steps = new ArrayList<>();
+
+		source.addSink(replica);
+		source.addElementSink(new SinkAdapter() {
+			@Override
+			public void stepBegins(String sourceId, long timeId, double step) {
+				steps.add(sourceId + " " + step);
+			}
+		});
+
+		sink.setBatching(16, 0, TimeUnit.SECONDS);
+		g.addSink(sink);
+		g.addSink(expected);
+
+		populate(g);
+		assertTrue(counter.batches > 0);
+
+		sink.flush();
+		assertEquals(0, counter.events);
+		assertEquals(expected.fingerprint(), replica.fingerprint());
+		assertEquals(1, steps.size());
+
+		g.clear();
+		sink.flush();
+		assertEquals(0, replica.getNodeCount());
+	}
+
+	@Test
+	public void testMixedModes() {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica");
+
+		source.addSink(replica);
+		g.addSink(sink);
+
+		g.addNode("A");
+		sink.setBatching(1000, 0, TimeUnit.SECONDS);
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+		assertFalse(replica.getNodeCount() == 2);
+
+		// Disabling the batching sends the pending events first.
+		sink.disableBatching();
+		g.getEdge("AB").setAttribute("w", 1);
+
+		assertEquals(2, replica.getNodeCount());
+		assertEquals(1, replica.getEdge("AB").getAttribute("w"));
+		assertEquals(g.fingerprint(), replica.fingerprint());
+	}
+
+	@Test
+	public void testDelay() throws InterruptedException {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica");
+
+		source.addSink(replica);
+		sink.setBatching(1000, 10, TimeUnit.MILLISECONDS);
+		g.addSink(sink);
+		g.addNode("A");
+
+		for (int i = 0; i < 500 && replica.getNodeCount() == 0; i++)
+			Thread.sleep(10);
+
+		assertEquals(1, replica.getNodeCount());
+	}
+
+	@Test
+	public void testInputWithoutBatches() throws RemoteException {
+		AbstractGraph g = new MultiGraph("g");
+		AbstractGraph replica = new MultiGraph("replica");
+		CountingInput input = new CountingInput(source);
+
+		// Inputs written before batches receive them one event at a time.
+		sink.unregister("loopback");
+		sink.register("legacy", input);
+		source.addSink(replica);
+		sink.setBatching(16, 0, TimeUnit.SECONDS);
+		g.addSink(sink);
+
+		populate(g);
+		sink.flush();
+
+		assertEquals(0, input.batches);
+		assertTrue(input.events > 16);
+		assertEquals(g.fingerprint(), replica.fingerprint());
+	}
+
+	/**
+	 * Counts the calls made on the stub of the source. Batches are received by
+	 * the default method of the interface.
+	 */
+	static class CountingInput implements RMIAdapterIn {
+		final RMIAdapterIn stub;
+		int events, batches;
+
+		CountingInput(RMISource source) throws RemoteException {
+			this.stub = (RMIAdapterIn) RemoteObject.toStub(source);
+		}
+
+		public void edgeAttributeAdded(String graphId, long timeId, String edgeId, String attribute, Object value)
+				throws RemoteException {
+			events++;
+			stub.edgeAttributeAdded(graphId, timeId, edgeId, attribute, value);
+		}
+
+		public void edgeAttributeChanged(String graphId, long timeId, String edgeId, String attribute,
+				Object oldValue, Object newValue) throws RemoteException {
+			events++;
+			stub.edgeAttributeChanged(graphId, timeId, edgeId, attribute, oldValue, newValue);
+		}
+
+		public void edgeAttributeRemoved(String graphId, long timeId, String edgeId, String attribute)
+				throws RemoteException {
+			events++;
+			stub.edgeAttributeRemoved(graphId, timeId, edgeId, attribute);
+		}
+
+		public void graphAttributeAdded(String graphId, long timeId, String attribute, Object value)
+				throws RemoteException {
+			events++;
+			stub.graphAttributeAdded(graphId, timeId, attribute, value);
+		}
+
+		public void graphAttributeChanged(String graphId, long timeId, String attribute, Object oldValue,
+				Object newValue) throws RemoteException {
+			events++;
+			stub.graphAttributeChanged(graphId, timeId, attribute, oldValue, newValue);
+		}
+
+		public void graphAttributeRemoved(String graphId, long timeId, String attribute) throws RemoteException {
+			events++;
+			stub.graphAttributeRemoved(graphId, timeId, attribute);
+		}
+
+		public void nodeAttributeAdded(String graphId, long timeId, String nodeId, String attribute, Object value)
+				throws RemoteException {
+			events++;
+			stub.nodeAttributeAdded(graphId, timeId, nodeId, attribute, value);
+		}
+
+		public void nodeAttributeChanged(String graphId, long timeId, String nodeId, String attribute,
+				Object oldValue, Object newValue) throws RemoteException {
+			events++;
+			stub.nodeAttributeChanged(graphId, timeId, nodeId, attribute, oldValue, newValue);
+		}
+
+		public void nodeAttributeRemoved(String graphId, long timeId, String nodeId, String attribute)
+				throws RemoteException {
+			events++;
+			stub.nodeAttributeRemoved(graphId, timeId, nodeId, attribute);
+		}
+
+		public void edgeAdded(String graphId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) throws RemoteException {
+			events++;
+			stub.edgeAdded(graphId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		}
+
+		public void edgeRemoved(String graphId, long timeId, String edgeId) throws RemoteException {
+			events++;
+			stub.edgeRemoved(graphId, timeId, edgeId);
+		}
+
+		public void graphCleared(String graphId, long timeId) throws RemoteException {
+			events++;
+			stub.graphCleared(graphId, timeId);
+		}
+
+		public void nodeAdded(String graphId, long timeId, String nodeId) throws RemoteException {
+			events++;
+			stub.nodeAdded(graphId, timeId, nodeId);
+		}
+
+		public void nodeRemoved(String graphId, long timeId, String nodeId) throws RemoteException {
+			events++;
+			stub.nodeRemoved(graphId, timeId, nodeId);
+		}
+
+		public void stepBegins(String graphId, long timeId, double step) throws RemoteException {
+			events++;
+			stub.stepBegins(graphId, timeId, step);
+		}
+
+	}
+
+	/**
+	 * Also counts the batches.
+	 */
+	static class BatchCountingInput extends CountingInput {
+		BatchCountingInput(RMISource source) throws RemoteException {
+			super(source);
+		}
+
+		@Override
+		public void events(Object[] events) throws RemoteException {
+			batches++;
+			stub.events(events);
+		}
+	}
+}
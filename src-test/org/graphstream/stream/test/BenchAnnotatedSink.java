@@ -0,0 +1,130 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.test;
+
+import org.graphstream.stream.AnnotatedSink;
+import org.graphstream.stream.Sink;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.SourceBase.ElementType;
+import org.junit.Ignore;
+
+/**
+ * Compare the cost of an {@link AnnotatedSink} with the one of an equivalent
+ * hand-written {@link SinkAdapter}.
+ */
+@Ignore
+public class BenchAnnotatedSink {
+	static final int NODES = 1000;
+	static final int ROUNDS = 5000;
+	static final String[] NODE_IDS = new String[NODES];
+
+	static {
+		for (int i = 0; i < NODES; i++)
+			NODE_IDS[i] = Integer.toString(i);
+	}
+
+	public static class Annotated extends AnnotatedSink {
+		double sum;
+
+		@Bind(value = "x", type = ElementType.NODE)
+		public void x(String nodeId, String attribute, Object value) {
+			sum += (Double) value;
+		}
+
+		@Bind("step")
+		public void step(String attribute, Object value) {
+			sum += 1;
+		}
+	}
+
+	public static class HandWritten extends SinkAdapter {
+		double sum;
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+			if (attribute.equals("x"))
+				sum += (Double) value;
+		}
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute,
+				Object oldValue, Object newValue) {
+			if (attribute.equals("x"))
+				sum += (Double) newValue;
+		}
+
+		@Override
+		public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+			if (attribute.equals("step"))
+				sum += 1;
+		}
+
+		@Override
+		public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+				Object newValue) {
+			if (attribute.equals("step"))
+				sum += 1;
+		}
+	}
+
+	/**
+	 * Feed the sink directly, so that only the dispatch is measured.
+	 */
+	static long run(Sink sink) {
+		long start = System.nanoTime();
+		Double value = 1.0;
+
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < NODES; i++) {
+				sink.nodeAttributeChanged("bench", 0, NODE_IDS[i], "x", null, value);
+				sink.nodeAttributeChanged("bench", 0, NODE_IDS[i], "y", null, value);
+			}
+
+			sink.graphAttributeChanged("bench", 0, "step", null, r);
+		}
+
+		return System.nanoTime() - start;
+	}
+
+	public static void main(String... args) {
+		for (int pass = 0; pass < 5; pass++) {
+			Annotated annotated = new Annotated();
+			HandWritten handWritten = new HandWritten();
+
+			long a = run(annotated);
+			long h = run(handWritten);
+
+			System.out.printf("pass %d: annotated %6d ms, hand-written %6d ms (%.2f)%n", pass, a / 1000000,
+					h / 1000000, a / (double) h);
+
+			if (annotated.sum != handWritten.sum)
+				throw new IllegalStateException("sinks disagree");
+		}
+	}
+}
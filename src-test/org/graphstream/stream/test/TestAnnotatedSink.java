@@ -72,6 +72,36 @@ public class TestAnnotatedSink {
 		}
 	}
 
+	static class PrivateObject extends AnnotatedSink {
+		double sum = 0;
+		int calls = 0;
+
+		@Bind(value = "weight", type = ElementType.NODE)
+		public void weight(String nodeId, String attribute, double value) {
+			sum += value;
+			calls++;
+		}
+
+		@Bind("ignored")
+		public void wrongSignature(String attribute) {
+		}
+	}
+
+	@Test
+	public void checkNonPublicClass() {
+		AdjacencyListGraph g = new AdjacencyListGraph("test");
+		PrivateObject obj = new PrivateObject();
+		g.addSink(obj);
+
+		g.addNode("A").setAttribute("weight", 1.5);
+		g.addNode("B").setAttribute("weight", 2.5);
+		g.getNode("A").setAttribute("other", 10.0);
+		g.setAttribute("ignored", 1);
+
+		assertEquals(2, obj.calls);
+		assertEquals(4.0, obj.sum, 0);
+	}
+
 	@Test
 	public void check() {
 		AdjacencyListGraph g = new AdjacencyListGraph("test");
@@ -0,0 +1,217 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.CompactingPipe;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.util.GraphDiff;
+import org.junit.Test;
+
+public class TestCompactingPipe {
+
+	static class Counter extends SinkAdapter {
+		int nodeAdded, nodeRemoved, edgeAdded, edgeRemoved, attributes, steps;
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			nodeAdded++;
+		}
+
+		@Override
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			nodeRemoved++;
+		}
+
+		@Override
+		public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) {
+			edgeAdded++;
+		}
+
+		@Override
+		public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+			edgeRemoved++;
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+			attributes++;
+		}
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute,
+				Object oldValue, Object newValue) {
+			attributes++;
+		}
+
+		@Override
+		public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+			attributes++;
+		}
+
+		@Override
+		public void stepBegins(String sourceId, long timeId, double step) {
+			steps++;
+		}
+	}
+
+	@Test
+	public void testNetEffect() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		CompactingPipe pipe = new CompactingPipe();
+		Counter counter = new Counter();
+
+		source.addNode("C").setAttribute("x", 0);
+		source.addNode("D");
+		source.addEdge("CD", "C", "D");
+
+		source.addSink(pipe);
+		pipe.addSink(target);
+		pipe.addSink(counter);
+		target.addNode("C").setAttribute("x", 0);
+		target.addNode("D");
+		target.addEdge("CD", "C", "D");
+
+		// Burst: a node which lives only during the step.
+		Node a = source.addNode("A");
+
+		for (int i = 0; i < 10; i++)
+			a.setAttribute("x", i);
+
+		source.addEdge("AC", "A", "C");
+		source.removeNode("A");
+
+		// A node which survives.
+		Node b = source.addNode("B");
+
+		for (int i = 0; i < 10; i++)
+			b.setAttribute("x", i);
+
+		b.setAttribute("tmp", 1);
+		b.removeAttribute("tmp");
+
+		// Changes on existing elements.
+		for (int i = 1; i <= 10; i++)
+			source.getNode("C").setAttribute("x", i);
+
+		source.removeEdge("CD");
+		source.addEdge("BD", "B", "D");
+
+		assertEquals(0, counter.nodeAdded);
+		assertTrue(pipe.getBufferedEventCount() > 0);
+
+		source.stepBegins(1);
+
+		assertEquals(0, pipe.getBufferedEventCount());
+		assertEquals(1, counter.nodeAdded);
+		assertEquals(0, counter.nodeRemoved);
+		assertEquals(1, counter.edgeAdded);
+		assertEquals(1, counter.edgeRemoved);
+		assertEquals(2, counter.attributes);
+		assertEquals(1, counter.steps);
+
+		assertNull(target.getNode("A"));
+		assertEquals(9, (int) target.getNode("B").getAttribute("x", Integer.class));
+		assertFalse(target.getNode("B").hasAttribute("tmp"));
+		assertEquals(10, (int) target.getNode("C").getAttribute("x", Integer.class));
+		assertNull(target.getEdge("CD"));
+		assertNotNull(target.getEdge("BD"));
+		assertEquals(1.0, target.getStep(), 0);
+	}
+
+	@Test
+	public void testMaxEvents() {
+		Graph source = new AdjacencyListGraph("source");
+		CompactingPipe pipe = new CompactingPipe();
+		Counter counter = new Counter();
+
+		source.addSink(pipe);
+		pipe.addSink(counter);
+		pipe.setMaxEvents(10);
+
+		for (int i = 0; i < 25; i++)
+			source.addNode(Integer.toString(i));
+
+		assertEquals(20, counter.nodeAdded);
+		assertEquals(5, pipe.getBufferedEventCount());
+
+		pipe.flush();
+		assertEquals(25, counter.nodeAdded);
+	}
+
+	@Test
+	public void testCompactedDiffIsReversible() {
+		Graph g = new AdjacencyListGraph("g");
+		g.addNode("A").setAttribute("x", 1);
+		g.addNode("B");
+		g.addEdge("AB", "A", "B");
+
+		Graph copy = new AdjacencyListGraph("copy");
+		copy.addNode("A").setAttribute("x", 1);
+		copy.addNode("B");
+		copy.addEdge("AB", "A", "B");
+
+		GraphDiff diff = new GraphDiff();
+		diff.start(g);
+
+		g.getNode("A").setAttribute("x", 2);
+		g.getNode("A").setAttribute("x", 3);
+		g.addNode("C").setAttribute("y", 1);
+		g.removeNode("C");
+		g.removeNode("A");
+		g.addNode("A").setAttribute("z", 1);
+
+		diff.end();
+
+		int size = diff.size();
+		diff.compact();
+		assertTrue(diff.size() < size);
+
+		diff.apply(copy);
+		assertEquals(1, (int) copy.getNode("A").getAttribute("z", Integer.class));
+		assertFalse(copy.getNode("A").hasAttribute("x"));
+		assertNull(copy.getEdge("AB"));
+		assertNull(copy.getNode("C"));
+
+		diff.reverse(copy);
+		assertEquals(1, (int) copy.getNode("A").getAttribute("x", Integer.class));
+		assertFalse(copy.getNode("A").hasAttribute("z"));
+		assertNotNull(copy.getEdge("AB"));
+	}
+}
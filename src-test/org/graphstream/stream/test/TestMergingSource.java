@@ -0,0 +1,141 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.MergingSource;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.file.FileSourceDGS;
+import org.junit.Test;
+
+public class TestMergingSource {
+
+	static final String DGS1 = "DGS004\n\"a\" 0 0\nan A\nst 1\nan B\nae AB A B\nst 4\nan C\nst 6\nae BC B C\n";
+	static final String DGS2 = "DGS004\n\"b\" 0 0\nan X\nst 2\nan Y\nst 4\nae XY X Y\nst 5\nan Z\n";
+
+	static class StepRecorder extends SinkAdapter {
+		List<Double> steps = new ArrayList<Double>();
+		HashSet<String> sources = new HashSet<String>();
+
+		@Override
+		public void stepBegins(String sourceId, long timeId, double step) {
+			steps.add(step);
+			sources.add(sourceId);
+		}
+	}
+
+	@Test
+	public void testStepOrder() throws IOException {
+		FileSourceDGS dgs1 = new FileSourceDGS();
+		FileSourceDGS dgs2 = new FileSourceDGS();
+		MergingSource merge = new MergingSource();
+		StepRecorder recorder = new StepRecorder();
+		Graph g = new AdjacencyListGraph("g");
+
+		dgs1.begin(new StringReader(DGS1));
+		dgs2.begin(new StringReader(DGS2));
+		merge.addSource(dgs1);
+		merge.addSource(dgs2);
+		merge.addSink(recorder);
+		merge.addSink(g);
+
+		merge.all();
+
+		dgs1.end();
+		dgs2.end();
+
+		List<Double> expected = new ArrayList<Double>();
+		for (double s : new double[] { 1, 2, 4, 4, 5, 6 })
+			expected.add(s);
+
+		assertEquals(expected, recorder.steps);
+		assertEquals(2, recorder.sources.size());
+		assertEquals(0, merge.getActiveSourceCount());
+
+		assertEquals(6, g.getNodeCount());
+		assertEquals(3, g.getEdgeCount());
+		assertNotNull(g.getEdge("XY"));
+		assertNotNull(g.getEdge("BC"));
+		assertEquals(6, g.getStep(), 0);
+	}
+
+	@Test
+	public void testStepByStep() throws IOException {
+		FileSourceDGS dgs1 = new FileSourceDGS();
+		FileSourceDGS dgs2 = new FileSourceDGS();
+		MergingSource merge = new MergingSource();
+		Graph g = new AdjacencyListGraph("g");
+
+		dgs1.begin(new StringReader(DGS1));
+		dgs2.begin(new StringReader(DGS2));
+		merge.addSource(dgs1);
+		merge.addSource(dgs2);
+		merge.addSink(g);
+
+		// Events before the first steps, and step 1 of the first source.
+		merge.nextStep();
+		assertEquals(1, g.getStep(), 0);
+		assertEquals(3, g.getNodeCount());
+		assertEquals(1, g.getEdgeCount());
+
+		// Step 2 of the second source.
+		merge.nextStep();
+		assertEquals(2, g.getStep(), 0);
+		assertEquals(4, g.getNodeCount());
+
+		// Step 4 of the first source, then of the second one.
+		merge.nextStep();
+		assertEquals(5, g.getNodeCount());
+		assertEquals(1, g.getEdgeCount());
+		merge.nextStep();
+		assertEquals(2, g.getEdgeCount());
+
+		merge.nextStep();
+		assertEquals(5, g.getStep(), 0);
+		assertEquals(6, g.getNodeCount());
+
+		assertFalse(merge.nextStep());
+		assertEquals(6, g.getStep(), 0);
+		assertEquals(3, g.getEdgeCount());
+
+		dgs1.end();
+		dgs2.end();
+	}
+}
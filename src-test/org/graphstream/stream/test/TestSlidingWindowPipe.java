@@ -0,0 +1,158 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.SlidingWindowPipe;
+import org.graphstream.stream.SlidingWindowPipe.Clock;
+import org.junit.Test;
+
+public class TestSlidingWindowPipe {
+	static class BucketCounter extends SlidingWindowPipe {
+		BucketCounter(double window) {
+			super(window, Clock.STEP, 1);
+		}
+
+		int bucketCount() {
+			return buckets.size();
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		SlidingWindowPipe window = new SlidingWindowPipe(10, Clock.STEP, 1);
+
+		source.addSink(window);
+		window.addSink(target);
+
+		source.stepBegins(0);
+		source.addNode("A");
+		source.addNode("B");
+		source.addEdge("AB", "A", "B");
+
+		source.stepBegins(5);
+		source.addNode("C");
+		source.addEdge("BC", "B", "C");
+
+		source.stepBegins(10);
+		assertEquals(3, target.getNodeCount());
+		assertEquals(2, target.getEdgeCount());
+
+		// A and AB have not been stamped since step 0, B was by BC.
+		source.stepBegins(11);
+		assertNull(target.getNode("A"));
+		assertNull(target.getEdge("AB"));
+		assertNotNull(target.getNode("B"));
+		assertEquals(2, window.getNodeCount());
+		assertEquals(1, window.getEdgeCount());
+
+		// An attribute change refreshes C.
+		source.getNode("C").setAttribute("x", 1);
+
+		source.stepBegins(16);
+		assertNull(target.getNode("B"));
+		assertNull(target.getEdge("BC"));
+		assertEquals(1, target.getNode("C").getAttribute("x"));
+
+		// Events on evicted elements are dropped.
+		source.getNode("A").setAttribute("x", 1);
+		source.removeEdge("AB");
+		assertNull(target.getNode("A"));
+
+		source.stepBegins(30);
+		assertEquals(0, target.getNodeCount());
+		assertEquals(0, window.getNodeCount());
+	}
+
+	@Test
+	public void testRevival() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		SlidingWindowPipe window = new SlidingWindowPipe(4, Clock.STEP);
+
+		source.addSink(window);
+		window.addSink(target);
+
+		source.addNode("A");
+		source.addNode("B");
+		source.stepBegins(2);
+		source.addNode("C");
+
+		source.stepBegins(5);
+		assertNull(target.getNode("A"));
+		assertNotNull(target.getNode("C"));
+
+		// Adding an edge brings back its extremities.
+		source.addEdge("AC", "A", "C");
+		assertNotNull(target.getNode("A"));
+		assertNotNull(target.getEdge("AC"));
+		assertEquals(2, target.getNodeCount());
+
+		source.removeNode("C");
+		assertEquals(1, target.getNodeCount());
+		assertEquals(0, target.getEdgeCount());
+		assertEquals(0, window.getEdgeCount());
+	}
+
+	@Test
+	public void testClockGoingBackwards() {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		BucketCounter window = new BucketCounter(4);
+
+		source.addSink(window);
+		window.addSink(target);
+
+		source.stepBegins(10);
+		source.addNode("A");
+
+		// Elements stamped in the past are kept in the most recent bucket.
+		source.stepBegins(3);
+		source.addNode("B");
+
+		for (int i = 0; i < 100; i++)
+			source.getNode("A").setAttribute("x", i);
+
+		assertEquals(1, window.bucketCount());
+
+		source.stepBegins(14);
+		assertEquals(2, target.getNodeCount());
+
+		source.stepBegins(15);
+		assertEquals(0, target.getNodeCount());
+		assertEquals(0, window.getNodeCount());
+	}
+}
@@ -34,11 +34,15 @@ package org.graphstream.stream.test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.LinkedList;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.graphstream.stream.Sink;
+import org.graphstream.stream.SinkAdapter;
 import org.graphstream.stream.SourceBase;
 import org.junit.Test;
 
@@ -141,6 +145,105 @@ public class TestSourceBase {
 			events.get(i).assertEventEquals(stack.get(i));
 	}
 
+	@Test
+	public void testRegistrationDuringDispatch() {
+		final SourceBase source = new TestSource();
+		final EventStack late = new EventStack();
+		final EventStack stack = new EventStack();
+
+		source.addSink(new SinkAdapter() {
+			public void nodeAdded(String sourceId, long timeId, String nodeId) {
+				source.removeSink(this);
+				source.addSink(late);
+			}
+		});
+
+		source.addSink(stack);
+		source.sendNodeAdded("src", 0, "A");
+		source.sendNodeAdded("src", 1, "B");
+
+		// The first dispatch iterates a snapshot: the removed sink is not called
+		// again, the late sink only sees the following events.
+		assertEquals(2, stack.size());
+		assertEquals(1, late.size());
+		assertEquals("B", late.get(0).args[0]);
+		assertEquals(2, count(source.elementSinks()));
+	}
+
+	@Test
+	public void testRegistrationWithDeferredEvents() {
+		final SourceBase source = new TestSource();
+		final EventStack late = new EventStack();
+
+		source.addSink(new SinkAdapter() {
+			public void nodeAdded(String sourceId, long timeId, String nodeId) {
+				if (nodeId.equals("A")) {
+					// Deferred until the end of the dispatch of A.
+					source.sendNodeAdded("src", 1, "B");
+					source.addSink(late);
+				}
+			}
+		});
+
+		source.sendNodeAdded("src", 0, "A");
+
+		// The late sink is registered when B is dispatched.
+		assertEquals(1, late.size());
+		assertEquals("B", late.get(0).args[0]);
+	}
+
+	@Test
+	public void testConcurrentRegistration() throws InterruptedException {
+		final SourceBase source = new TestSource();
+		final EventStack stack = new EventStack();
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		final int threads = 4, rounds = 1000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+
+		source.addSink(stack);
+
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				try {
+					start.await();
+
+					for (int i = 0; i < rounds; i++) {
+						Sink sink = new SinkAdapter();
+						source.addSink(sink);
+						source.removeSink(sink);
+					}
+				} catch (Throwable e) {
+					failed.set(true);
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+
+		start.countDown();
+
+		for (int i = 0; i < rounds; i++)
+			source.sendNodeAdded("src", i, "n" + i);
+
+		done.await();
+
+		assertFalse(failed.get());
+		assertEquals(rounds, stack.size());
+		assertEquals(1, count(source.elementSinks()));
+		assertEquals(1, count(source.attributeSinks()));
+		assertTrue(source.elementSinks().iterator().next() == stack);
+	}
+
+	protected static int count(Iterable<?> it) {
+		int c = 0;
+
+		for (Object o : it)
+			c++;
+
+		return c;
+	}
+
 	protected void send(SourceBase base, Event e) {
 		switch (e.type) {
 		case AN:
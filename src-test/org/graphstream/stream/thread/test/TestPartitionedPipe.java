@@ -0,0 +1,185 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.thread.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashSet;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.PipeBase;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.metrics.StreamMetrics;
+import org.graphstream.stream.thread.PartitionedPipe;
+import org.graphstream.stream.thread.ThreadProxyPipe.GraphEvents;
+import org.junit.Test;
+
+public class TestPartitionedPipe {
+
+	/**
+	 * Stage remembering the nodes it has seen, to check partitioning.
+	 */
+	public static class NodeCounter extends SinkAdapter {
+		HashSet<String> nodes = new HashSet<String>();
+		int steps = 0;
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			nodes.add(nodeId);
+		}
+
+		@Override
+		public void stepBegins(String sourceId, long timeId, double step) {
+			steps++;
+		}
+	}
+
+	@Test
+	public void testMirror() throws InterruptedException {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+
+		PartitionedPipe pipe = new PartitionedPipe(4, NodeCounter::new);
+		pipe.init(source);
+		pipe.addSink(target);
+		pipe.start();
+
+		Pumper pumper = new Pumper(pipe);
+		Thread t = new Thread(pumper);
+		t.start();
+
+		int size = 500;
+
+		for (int i = 0; i < size; i++)
+			source.addNode(Integer.toString(i)).setAttribute("value", i);
+
+		source.stepBegins(1);
+
+		for (int i = 0; i < size; i++) {
+			Edge e = source.addEdge("e" + i, Integer.toString(i), Integer.toString((i * 7 + 1) % size));
+			e.setAttribute("weight", i);
+			e.setAttribute("weight", i + 1);
+		}
+
+		source.setAttribute("graph.attribute", "ok");
+
+		for (int i = 0; i < size; i += 5)
+			source.removeNode(Integer.toString(i));
+
+		pipe.stop();
+		pumper.alive = false;
+		t.join();
+
+		assertEquals(source.getNodeCount(), target.getNodeCount());
+		assertEquals(source.getEdgeCount(), target.getEdgeCount());
+		assertEquals("ok", target.getAttribute("graph.attribute"));
+
+		for (Node n : source) {
+			Node m = target.getNode(n.getId());
+			assertNotNull(m);
+			assertEquals(n.getAttribute("value"), m.getAttribute("value"));
+		}
+
+		source.edges().forEach(e -> {
+			Edge f = target.getEdge(e.getId());
+			assertNotNull(f);
+			assertEquals(e.getSourceNode().getId(), f.getSourceNode().getId());
+			assertEquals(e.getTargetNode().getId(), f.getTargetNode().getId());
+			assertEquals(e.getAttribute("weight"), f.getAttribute("weight"));
+		});
+
+		assertNull(target.getNode("0"));
+
+		int seen = 0;
+
+		for (int i = 0; i < pipe.getPartitionCount(); i++) {
+			NodeCounter counter = (NodeCounter) pipe.getStage(i);
+			assertEquals(1, counter.steps);
+
+			for (String id : counter.nodes)
+				assertEquals(i, pipe.partitionOf(id));
+
+			seen += counter.nodes.size();
+		}
+
+		assertEquals(size, seen);
+	}
+
+	@Test
+	public void testMetrics() throws InterruptedException {
+		Graph source = new AdjacencyListGraph("source");
+		Graph target = new AdjacencyListGraph("target");
+		StreamMetrics metrics = new StreamMetrics();
+
+		PartitionedPipe pipe = new PartitionedPipe(3);
+		pipe.setMetrics(metrics);
+		pipe.init(source);
+		pipe.addSink(target);
+		pipe.start();
+
+		for (int i = 0; i < 50; i++)
+			source.addNode(Integer.toString(i));
+
+		source.stepBegins(1);
+		pipe.stop();
+		pipe.pump();
+
+		assertEquals(50, target.getNodeCount());
+		assertEquals(51, metrics.getEventInCount());
+		assertEquals(50, metrics.getEventOutCount(GraphEvents.ADD_NODE));
+		assertEquals(1, metrics.getEventOutCount(GraphEvents.STEP));
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testOutputOutsideWorker() {
+		PartitionedPipe pipe = new PartitionedPipe(2, PipeBase::new);
+		((PipeBase) pipe.getStage(0)).nodeAdded("stage", 0, "n");
+	}
+
+	static class Pumper implements Runnable {
+		PartitionedPipe pipe;
+		volatile boolean alive = true;
+
+		Pumper(PartitionedPipe pipe) {
+			this.pipe = pipe;
+		}
+
+		public void run() {
+			do
+				pipe.pump();
+			while (alive || pipe.hasPostRemaining());
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AdjacencyListGraph;
+import org.graphstream.stream.file.FileSourceDGS;
+import org.graphstream.stream.thread.ThreadProxyPipe;
+import org.graphstream.util.jfr.FlightEvents;
+import org.junit.Assume;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestFlightEvents {
+
+	@Test
+	public void testRecording() throws IOException {
+		Assume.assumeTrue(FlightEvents.AVAILABLE);
+
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		Path dump = Files.createTempFile("graphstream", ".jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable("org.graphstream.FileRead").withThreshold(java.time.Duration.ZERO);
+			recording.enable("org.graphstream.Pump").withThreshold(java.time.Duration.ZERO);
+			recording.enable("org.graphstream.EdgeBatch").withThreshold(java.time.Duration.ZERO);
+			recording.start();
+
+			Graph source = new AdjacencyListGraph("source");
+			Graph target = new AdjacencyListGraph("target");
+			ThreadProxyPipe proxy = new ThreadProxyPipe();
+			FileSourceDGS dgs = new FileSourceDGS();
+
+			proxy.init(source);
+			proxy.addSink(target);
+			dgs.addSink(source);
+			dgs.readAll(new StringReader("DGS004\n\"g\" 0 0\nan A\nan B\nae AB A B\n"));
+			proxy.pump();
+			proxy.pump();
+
+			Graph big = new AdjacencyListGraph("big");
+			big.addNode("A");
+
+			for (int i = 0; i < 3 * FlightEvents.EDGE_BATCH_SIZE + 10; i++)
+				big.addEdge("E" + i, "A", "A");
+
+			// The last batch is partial, and recorded on the next step.
+			big.stepBegins(1);
+
+			recording.stop();
+			recording.dump(dump);
+		}
+
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+			int edges = 0;
+
+			for (RecordedEvent e : events)
+				counts.merge(e.getEventType().getName(), 1, Integer::sum);
+
+			// The batches of the small graphs, and of slow machines, end when they get
+			// too old.
+			assertTrue(counts.get("org.graphstream.EdgeBatch") >= 4);
+			assertEquals(Integer.valueOf(1), counts.get("org.graphstream.Pump"));
+			assertTrue(counts.get("org.graphstream.FileRead") >= 1);
+
+			for (RecordedEvent e : events) {
+				if (e.getEventType().getName().equals("org.graphstream.Pump"))
+					assertEquals(3, e.getInt("events"));
+				else if (e.getEventType().getName().equals("org.graphstream.FileRead"))
+					assertEquals(3, e.getLong("events"));
+				else if (e.getEventType().getName().equals("org.graphstream.EdgeBatch")
+						&& e.getString("graph").equals("big")) {
+					edges += e.getInt("edges");
+					assertTrue(e.getLong("work") > 0);
+				}
+			}
+
+			assertEquals(3 * FlightEvents.EDGE_BATCH_SIZE + 10, edges);
+		} finally {
+			Files.delete(dump);
+		}
+	}
+
+	@Test
+	public void testIdleEdgeBatch() throws Exception {
+		Assume.assumeTrue(FlightEvents.AVAILABLE);
+
+		Path dump = Files.createTempFile("graphstream", ".jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable("org.graphstream.EdgeBatch").withThreshold(java.time.Duration.ZERO);
+			recording.start();
+
+			Graph g = new AdjacencyListGraph("idle");
+			g.addNode("A");
+
+			for (int i = 0; i < 500; i++)
+				g.addEdge("E" + i, "A", "A");
+
+			// The graph stays idle, the partial batch is recorded anyway.
+			Thread.sleep(5 * FlightEvents.EDGE_BATCH_MAX_MILLIS);
+
+			recording.stop();
+			recording.dump(dump);
+		}
+
+		try {
+			int edges = 0;
+
+			for (RecordedEvent e : RecordingFile.readAllEvents(dump)) {
+				if (e.getEventType().getName().equals("org.graphstream.EdgeBatch"))
+					edges += e.getInt("edges");
+			}
+
+			assertEquals(500, edges);
+		} finally {
+			Files.delete(dump);
+		}
+	}
+}
@@ -102,7 +102,11 @@ public class AbstractEdge extends AbstractElement implements Edge {
 
 	@Override
 	protected void attributeChanged(AttributeChangeEvent event, String attribute, Object oldValue, Object newValue) {
-		graph.listeners.sendAttributeChangedEvent(id, ElementType.EDGE, attribute, event, oldValue, newValue);
+		if (graph.fingerprinting)
+			graph.fingerprintAttribute(Fingerprint.edgeKey(id), event, attribute, oldValue, newValue);
+
+		graph.listeners.sendAttributeChangedEvent(getIndex(), id, ElementType.EDGE, attribute, event, oldValue,
+				newValue);
 	}
 
 	@Override
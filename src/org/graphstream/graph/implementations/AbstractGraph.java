@@ -37,6 +37,7 @@ package org.graphstream.graph.implementations;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.graphstream.graph.Edge;
@@ -56,6 +57,7 @@ import org.graphstream.ui.view.Viewer;
 import org.graphstream.util.Display;
 import org.graphstream.util.GraphListeners;
 import org.graphstream.util.MissingDisplayException;
+import org.graphstream.util.jfr.FlightEvents;
 
 /**
  * <p>
@@ -93,6 +95,26 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 
 	private long replayId = 0;
 
+	/**
+	 * Indices received by the indexed sink callbacks, for the identifier-only
+	 * callbacks they call. -1 if unknown.
+	 */
+	private int sinkIndex = -1, sinkFromIndex = -1, sinkToIndex = -1;
+
+	/**
+	 * Flight recorder batch of the edge additions, null if they are not
+	 * recorded, and the count of edges to add before checking again whether
+	 * they are.
+	 */
+	private Object edgeBatch = null;
+	private int edgeBatchProbe = 0;
+
+	/**
+	 * Fingerprint of the graph, maintained once it has been asked for.
+	 */
+	long fingerprint = 0;
+	boolean fingerprinting = false;
+
 	// *** Constructors ***
 
 	/**
@@ -126,9 +148,60 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 
 	@Override
 	protected void attributeChanged(AttributeChangeEvent event, String attribute, Object oldValue, Object newValue) {
+		if (fingerprinting)
+			fingerprintAttribute(0, event, attribute, oldValue, newValue);
+
 		listeners.sendAttributeChangedEvent(id, SourceBase.ElementType.GRAPH, attribute, event, oldValue, newValue);
 	}
 
+	/**
+	 * Structural hash of the graph, which does not depend on the order of its
+	 * elements. Two graphs with the same nodes, the same edges and the same
+	 * visible attributes, like a graph and its replicas, have the same
+	 * fingerprint.
+	 * 
+	 * <p>
+	 * The first call computes the fingerprint in O(n) time, the graph then
+	 * updates it in constant time at each change of a node, an edge or an
+	 * attribute. Attribute values mutated in place, without being set again,
+	 * are not taken into account.
+	 * </p>
+	 * 
+	 * @return the fingerprint of the graph
+	 */
+	public long fingerprint() {
+		if (!fingerprinting) {
+			long h = Fingerprint.attributes(0, this);
+
+			for (Node node : this)
+				h += Fingerprint.element(node);
+
+			h += edges().mapToLong(Fingerprint::element).sum();
+
+			fingerprint = h;
+			fingerprinting = true;
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Update the fingerprint after an attribute change.
+	 * 
+	 * @param owner
+	 *            key of the element whose attribute changed
+	 */
+	void fingerprintAttribute(long owner, AttributeChangeEvent event, String attribute, Object oldValue,
+			Object newValue) {
+		if (Fingerprint.hidden(attribute))
+			return;
+
+		if (event != AttributeChangeEvent.ADD)
+			fingerprint -= Fingerprint.attribute(owner, attribute, oldValue);
+		if (event != AttributeChangeEvent.REMOVE)
+			fingerprint += Fingerprint.attribute(owner, attribute, newValue);
+	}
+
 	// *** Inherited from graph ***
 
 	/**
@@ -194,10 +267,61 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 
 	@Override
 	public void stepBegins(double time) {
+		endEdgeBatch();
 		listeners.sendStepBegins(time);
 		this.step = time;
 	}
 
+	// transactions
+
+	/**
+	 * Start a transaction. Changes made to the graph until the transaction is
+	 * committed or rolled back are applied immediately, so that the graph can
+	 * be read as usual, but their events are held: sinks receive all of them on
+	 * {@link #commit()}, or none of them on {@link #rollback()}. Sinks
+	 * implementing {@link org.graphstream.stream.TransactionListener} are told
+	 * where the events of a committed transaction begin and end.
+	 * Changes of hidden attributes (whose name begins with a dot) are not
+	 * rolled back, as they do not produce events.
+	 *
+	 * @throws IllegalStateException
+	 *             if a transaction is already open, or if the graph is sending
+	 *             events to its sinks
+	 */
+	public void beginTransaction() {
+		listeners.beginTransaction();
+	}
+
+	/**
+	 * Send the events of the current transaction to the sinks.
+	 *
+	 * @throws IllegalStateException
+	 *             if there is no open transaction
+	 * @see #beginTransaction()
+	 */
+	public void commit() {
+		listeners.commit();
+	}
+
+	/**
+	 * Undo the changes made since the beginning of the current transaction,
+	 * without any event sent to the sinks.
+	 *
+	 * @throws IllegalStateException
+	 *             if there is no open transaction
+	 * @see #beginTransaction()
+	 */
+	public void rollback() {
+		listeners.rollback();
+	}
+
+	/**
+	 * @return true if a transaction is open
+	 */
+	public boolean isInTransaction() {
+		return listeners.isInTransaction();
+	}
+
 	// display, read, write
 
 	public Viewer display() {
@@ -220,12 +344,15 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 	 */
 	@Override
 	public void clear() {
+		endEdgeBatch();
 		listeners.sendGraphCleared();
 
 		nodes().forEach(n -> ((AbstractNode) n).clearCallback());
 
 		clearCallback();
 		clearAttributesWithNoEvent();
+
+		fingerprint = 0;
 	}
 
 	/*
@@ -246,6 +373,9 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		node = nodeFactory.newInstance(id, this);
 		addNodeCallback(node);
 
+		if (fingerprinting)
+			fingerprint += Fingerprint.node(id);
+
 		listeners.sendNodeAdded(id);
 
 		return node;
@@ -426,20 +556,50 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		listeners.removeSink(sink);
 	}
 
+	// The indexed sink callbacks go through the identifier-only ones, which
+	// subclasses may override, and leave them the indices of the elements.
+
+	private int takeSinkIndex() {
+		int index = sinkIndex;
+		sinkIndex = -1;
+
+		return index;
+	}
+
 	@Override
 	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
-		listeners.edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+		listeners.edgeAttributeAdded(sourceId, timeId, takeSinkIndex(), edgeId, attribute, value);
 	}
 
 	@Override
 	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
-		listeners.edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+		listeners.edgeAttributeChanged(sourceId, timeId, takeSinkIndex(), edgeId, attribute, oldValue, newValue);
 	}
 
 	@Override
 	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
-		listeners.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+		listeners.edgeAttributeRemoved(sourceId, timeId, takeSinkIndex(), edgeId, attribute);
+	}
+
+	@Override
+	public void edgeAttributeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object value) {
+		sinkIndex = edgeIndex;
+		edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+	}
+
+	@Override
+	public void edgeAttributeChanged(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
+		sinkIndex = edgeIndex;
+		edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public void edgeAttributeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute) {
+		sinkIndex = edgeIndex;
+		edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
 	}
 
 	@Override
@@ -460,29 +620,68 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 
 	@Override
 	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
-		listeners.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+		listeners.nodeAttributeAdded(sourceId, timeId, takeSinkIndex(), nodeId, attribute, value);
 	}
 
 	@Override
 	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
-		listeners.nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+		listeners.nodeAttributeChanged(sourceId, timeId, takeSinkIndex(), nodeId, attribute, oldValue, newValue);
 	}
 
 	@Override
 	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
-		listeners.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+		listeners.nodeAttributeRemoved(sourceId, timeId, takeSinkIndex(), nodeId, attribute);
+	}
+
+	@Override
+	public void nodeAttributeAdded(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object value) {
+		sinkIndex = nodeIndex;
+		nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+	}
+
+	@Override
+	public void nodeAttributeChanged(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
+		sinkIndex = nodeIndex;
+		nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public void nodeAttributeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute) {
+		sinkIndex = nodeIndex;
+		nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
 	}
 
 	@Override
 	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
-		listeners.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		int edgeIndex = takeSinkIndex(), fromNodeIndex = sinkFromIndex, toNodeIndex = sinkToIndex;
+		sinkFromIndex = sinkToIndex = -1;
+
+		listeners.edgeAdded(sourceId, timeId, edgeIndex, edgeId, fromNodeIndex, fromNodeId, toNodeIndex, toNodeId,
+				directed);
+	}
+
+	@Override
+	public void edgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+		sinkIndex = edgeIndex;
+		sinkFromIndex = fromNodeIndex;
+		sinkToIndex = toNodeIndex;
+		edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
 	}
 
 	@Override
 	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
-		listeners.edgeRemoved(sourceId, timeId, edgeId);
+		listeners.edgeRemoved(sourceId, timeId, takeSinkIndex(), edgeId);
+	}
+
+	@Override
+	public void edgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
+		sinkIndex = edgeIndex;
+		edgeRemoved(sourceId, timeId, edgeId);
 	}
 
 	@Override
@@ -497,11 +696,18 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 
 	@Override
 	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
-		listeners.nodeRemoved(sourceId, timeId, nodeId);
+		listeners.nodeRemoved(sourceId, timeId, takeSinkIndex(), nodeId);
+	}
+
+	@Override
+	public void nodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
+		sinkIndex = nodeIndex;
+		nodeRemoved(sourceId, timeId, nodeId);
 	}
 
 	@Override
 	public void stepBegins(String sourceId, long timeId, double step) {
+		endEdgeBatch();
 		listeners.stepBegins(sourceId, timeId, step);
 	}
 
@@ -511,7 +717,7 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 	 * @see org.graphstream.stream.Replayable#getReplayController()
 	 */
 	@Override
-	public Replayable.Controller getReplayController() {
+	public GraphReplayController getReplayController() {
 		return new GraphReplayController();
 	}
 
@@ -569,6 +775,14 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 	// And if autoCreate is on, we need also the id. Sad but true!
 	protected Edge addEdge(String edgeId, AbstractNode src, String srcId, AbstractNode dst, String dstId,
 			boolean directed) {
+		Object batch = edgeBatch;
+
+		if (batch == null && --edgeBatchProbe <= 0) {
+			batch = edgeBatch = FlightEvents.beginEdgeBatch(id);
+			edgeBatchProbe = FlightEvents.EDGE_BATCH_SIZE;
+		}
+
+		long batchStart = batch == null ? 0 : System.nanoTime();
 		AbstractEdge edge = (AbstractEdge) getEdge(edgeId);
 
 		if (edge != null) {
@@ -618,11 +832,33 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		// now we can finally add it
 		addEdgeCallback(edge);
 
-		listeners.sendEdgeAdded(edgeId, srcId, dstId, directed);
+		if (fingerprinting)
+			fingerprint += Fingerprint.edge(edgeId, src.getId(), dst.getId(), directed);
+
+		listeners.sendEdgeAdded(edge.getIndex(), edgeId, src.getIndex(), srcId, dst.getIndex(), dstId, directed);
+
+		if (batch != null) {
+			long nanos = System.nanoTime() - batchStart;
+
+			// The batch was recorded because it was full, or too old.
+			if (!FlightEvents.addToEdgeBatch(batch, nanos)) {
+				edgeBatch = FlightEvents.beginEdgeBatch(id);
+				FlightEvents.addToEdgeBatch(edgeBatch, nanos);
+			}
+		}
 
 		return edge;
 	}
 
+	/**
+	 * Record the current batch of edge additions, if any.
+	 */
+	private void endEdgeBatch() {
+		FlightEvents.endEdgeBatch(edgeBatch);
+		edgeBatch = null;
+		edgeBatchProbe = 0;
+	}
+
 	// helper for removeNode_
 	private void removeAllEdges(AbstractNode node) {
 		Collection<Edge> toRemove = node.edges().collect(Collectors.toList());
@@ -652,7 +888,10 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		
 
 		removeAllEdges(node);
-		listeners.sendNodeRemoved(node.getId());
+		listeners.sendNodeRemoved(node.getIndex(), node.getId());
+
+		if (fingerprinting)
+			fingerprint -= Fingerprint.element(node);
 
 		if (graphCallback)
 			removeNodeCallback(node);
@@ -691,7 +930,10 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 			throw new ElementNotFoundException( "Edge \""+edge.getId()+"\" does not belong to this graph");
 		}
 
-		listeners.sendEdgeRemoved(edge.getId());
+		listeners.sendEdgeRemoved(edge.getIndex(), edge.getId());
+
+		if (fingerprinting)
+			fingerprint -= Fingerprint.element(edge);
 
 		if (sourceCallback)
 			src.removeEdgeCallback(edge);
@@ -703,7 +945,34 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 			removeEdgeCallback(edge);
 	}
 
-	class GraphReplayController extends SourceBase implements Replayable.Controller {
+	/**
+	 * Replays the content of the graph to the sinks registered on it.
+	 *
+	 * Besides the one-shot {@link #replay(String)}, the controller can replay the
+	 * graph by chunks, see {@link #begin(String)} and {@link #next(int)}, so that
+	 * a large graph can be sent to a new sink without blocking the calling thread
+	 * for the whole replay.
+	 *
+	 * In all modes, graph attributes are sent first, then all nodes, then all
+	 * edges.
+	 */
+	public class GraphReplayController extends SourceBase implements Replayable.Controller {
+		/**
+		 * Source id of the chunked replay in progress, null if there is none.
+		 */
+		private String chunkSourceId;
+
+		/**
+		 * Nodes and edges of the graph when the chunked replay began.
+		 */
+		private Node[] chunkNodes;
+		private Edge[] chunkEdges;
+
+		/**
+		 * Position of the next element to replay, nodes are counted first.
+		 */
+		private int chunkPosition;
+
 		GraphReplayController() {
 			super(AbstractGraph.this.id + "replay");
 		}
@@ -715,8 +984,7 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		 */
 		@Override
 		public void replay() {
-			String sourceId = String.format("%s-replay-%x", id, replayId++);
-			replay(sourceId);
+			replay(newReplaySourceId());
 		}
 
 		/*
@@ -726,27 +994,161 @@ public abstract class AbstractGraph extends AbstractElement implements Graph, Re
 		 */
 		@Override
 		public void replay(String sourceId) {
-			attributeKeys().forEach(key -> sendGraphAttributeAdded(sourceId, key, getAttribute(key)));
+			replayGraphAttributes(sourceId);
 
-			for (int i = 0; i < getNodeCount(); i++) {
-				Node node = getNode(i);
-				String nodeId = node.getId();
+			for (int i = 0; i < getNodeCount(); i++)
+				replayNode(sourceId, getNode(i));
 
-				sendNodeAdded(sourceId, nodeId);
+			for (int i = 0; i < getEdgeCount(); i++)
+				replayEdge(sourceId, getEdge(i));
+		}
 
-				node.attributeKeys()
-						.forEach(key -> sendNodeAttributeAdded(sourceId, nodeId, key, node.getAttribute(key)));
-			}
+		/**
+		 * Begins a chunked replay with a generated source id.
+		 *
+		 * @see #begin(String)
+		 */
+		public void begin() {
+			begin(newReplaySourceId());
+		}
 
-			for (int i = 0; i < getEdgeCount(); i++) {
-				Edge edge = getEdge(i);
-				String edgeId = edge.getId();
+		/**
+		 * Begins a chunked replay. The graph attributes are sent immediately, the
+		 * elements are then sent by successive calls to {@link #next(int)} or
+		 * {@link #next(long, TimeUnit)}. Any replay in progress is abandoned.
+		 *
+		 * The elements replayed are the ones present when the replay begins. An
+		 * element removed in the meantime is skipped, and an element added in the
+		 * meantime is not replayed: sinks are expected to also listen to the graph
+		 * to receive these changes.
+		 *
+		 * @param sourceId
+		 *            the source id of the replayed events
+		 */
+		public void begin(String sourceId) {
+			chunkSourceId = sourceId;
+			chunkNodes = nodes().toArray(Node[]::new);
+			chunkEdges = edges().toArray(Edge[]::new);
+			chunkPosition = 0;
 
-				sendEdgeAdded(sourceId, edgeId, edge.getNode0().getId(), edge.getNode1().getId(), edge.isDirected());
+			replayGraphAttributes(sourceId);
+		}
 
-				edge.attributeKeys()
-						.forEach(key -> sendEdgeAttributeAdded(sourceId, edgeId, key, edge.getAttribute(key)));
+		/**
+		 * True if a chunked replay began and still has elements to send.
+		 */
+		public boolean isReplaying() {
+			return chunkSourceId != null;
+		}
+
+		/**
+		 * Sends at most the given number of elements of the chunked replay.
+		 *
+		 * @param maxElements
+		 *            maximum number of nodes and edges to send
+		 * @return true if elements remain to be sent
+		 */
+		public boolean next(int maxElements) {
+			checkReplaying();
+
+			for (int i = 0; i < maxElements && replayNext(); i++)
+				;
+
+			return isReplaying();
+		}
+
+		/**
+		 * Sends the elements of the chunked replay until the given time is elapsed.
+		 * At least one element is sent per call.
+		 *
+		 * @param time
+		 *            the time slice
+		 * @param unit
+		 *            unit of the time slice
+		 * @return true if elements remain to be sent
+		 */
+		public boolean next(long time, TimeUnit unit) {
+			checkReplaying();
+
+			long deadline = System.nanoTime() + unit.toNanos(time);
+
+			while (replayNext() && System.nanoTime() - deadline < 0)
+				;
+
+			return isReplaying();
+		}
+
+		private String newReplaySourceId() {
+			return String.format("%s-replay-%x", id, replayId++);
+		}
+
+		private void checkReplaying() {
+			if (chunkSourceId == null)
+				throw new IllegalStateException("no replay in progress, call begin() first");
+		}
+
+		/**
+		 * Sends the next element of the chunked replay still in the graph. Returns
+		 * false, and ends the replay, if there is none.
+		 */
+		private boolean replayNext() {
+			while (chunkSourceId != null) {
+				int position = chunkPosition++;
+
+				if (position < chunkNodes.length) {
+					Node node = chunkNodes[position];
+					chunkNodes[position] = null;
+
+					if (contains(node)) {
+						replayNode(chunkSourceId, node);
+						return true;
+					}
+				} else if (position - chunkNodes.length < chunkEdges.length) {
+					Edge edge = chunkEdges[position - chunkNodes.length];
+					chunkEdges[position - chunkNodes.length] = null;
+
+					if (contains(edge)) {
+						replayEdge(chunkSourceId, edge);
+						return true;
+					}
+				} else {
+					chunkSourceId = null;
+					chunkNodes = null;
+					chunkEdges = null;
+				}
 			}
+
+			return false;
+		}
+
+		private boolean contains(Node node) {
+			int index = node.getIndex();
+			return index < getNodeCount() && getNode(index) == node;
+		}
+
+		private boolean contains(Edge edge) {
+			int index = edge.getIndex();
+			return index < getEdgeCount() && getEdge(index) == edge;
+		}
+
+		private void replayGraphAttributes(String sourceId) {
+			attributeKeys().forEach(key -> sendGraphAttributeAdded(sourceId, key, getAttribute(key)));
+		}
+
+		private void replayNode(String sourceId, Node node) {
+			String nodeId = node.getId();
+
+			sendNodeAdded(sourceId, nodeId);
+
+			node.attributeKeys().forEach(key -> sendNodeAttributeAdded(sourceId, nodeId, key, node.getAttribute(key)));
+		}
+
+		private void replayEdge(String sourceId, Edge edge) {
+			String edgeId = edge.getId();
+
+			sendEdgeAdded(sourceId, edgeId, edge.getNode0().getId(), edge.getNode1().getId(), edge.isDirected());
+
+			edge.attributeKeys().forEach(key -> sendEdgeAttributeAdded(sourceId, edgeId, key, edge.getAttribute(key)));
 		}
 	}
 }
@@ -87,8 +87,11 @@ public abstract class AbstractNode extends AbstractElement implements Node {
 
 	@Override
 	protected void attributeChanged(AttributeChangeEvent event, String attribute, Object oldValue, Object newValue) {
-		graph.listeners.sendAttributeChangedEvent(id, SourceBase.ElementType.NODE, attribute, event, oldValue,
-				newValue);
+		if (graph.fingerprinting)
+			graph.fingerprintAttribute(Fingerprint.node(id), event, attribute, oldValue, newValue);
+
+		graph.listeners.sendAttributeChangedEvent(getIndex(), id, SourceBase.ElementType.NODE, attribute, event,
+				oldValue, newValue);
 	}
 
 	// *** Inherited from Node ***
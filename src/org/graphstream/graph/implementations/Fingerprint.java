@@ -0,0 +1,154 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.graph.implementations;
+
+import java.util.Arrays;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Element;
+import org.graphstream.graph.Node;
+
+/**
+ * Hash functions used to compute the fingerprint of a graph.
+ * 
+ * <p>
+ * The fingerprint of a graph is the sum, modulo 2<sup>64</sup>, of the hashes of
+ * its nodes, of its edges and of the attributes of all its elements. A sum does
+ * not depend on the order of the elements and can be updated in constant time
+ * each time an element or an attribute is added, changed or removed: the hash
+ * of the old state is subtracted, the one of the new state added.
+ * </p>
+ * 
+ * <p>
+ * Hidden attributes, whose name starts with a dot, are not sent to the sinks
+ * of a graph and are not part of its fingerprint. Attribute values are hashed
+ * with their {@link Object#hashCode()} method, or with
+ * {@link Arrays#deepHashCode(Object[])} for arrays, so replicas have the same
+ * fingerprint as long as their values are equal.
+ * </p>
+ */
+final class Fingerprint {
+	private static final long NODE = 0x6A09E667F3BCC908L;
+	private static final long EDGE = 0xBB67AE8584CAA73BL;
+	private static final long DIRECTED = 0x3C6EF372FE94F82BL;
+	private static final long GRAPH = 0xA54FF53A5F1D36F1L;
+	private static final long ATTRIBUTE = 0x510E527FADE682D1L;
+
+	private Fingerprint() {
+	}
+
+	/**
+	 * Finalizer of SplitMix64, which spreads the bits of its input.
+	 */
+	static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	static long hash(String s) {
+		return mix(((long) s.length() << 32) ^ (s.hashCode() & 0xFFFFFFFFL));
+	}
+
+	static long hash(Object value) {
+		if (value == null)
+			return 0;
+		if (value.getClass().isArray())
+			return Arrays.deepHashCode(new Object[] { value });
+
+		return value.hashCode();
+	}
+
+	static long node(String id) {
+		return mix(hash(id) + NODE);
+	}
+
+	static long edge(String id, String from, String to, boolean directed) {
+		long h = hash(id) + EDGE;
+
+		if (directed)
+			h += DIRECTED + hash(from) * 31 + hash(to);
+		else
+			h += hash(from) + hash(to);
+
+		return mix(h);
+	}
+
+	/**
+	 * Key of an edge, used to hash its attributes. Unlike the hash of the edge,
+	 * it only depends on its identifier.
+	 */
+	static long edgeKey(String id) {
+		return mix(hash(id) + EDGE);
+	}
+
+	/**
+	 * Hash of one attribute of an element.
+	 * 
+	 * @param owner
+	 *            key of the owner of the attribute: {@link #node(String)} for a
+	 *            node, {@link #edgeKey(String)} for an edge or 0 for the graph
+	 */
+	static long attribute(long owner, String attribute, Object value) {
+		return mix((owner + GRAPH) * 31 + hash(attribute) + mix(hash(value) + ATTRIBUTE));
+	}
+
+	static boolean hidden(String attribute) {
+		return attribute.charAt(0) == '.';
+	}
+
+	/**
+	 * Hash of all the visible attributes of an element.
+	 */
+	static long attributes(long owner, Element e) {
+		long h = 0;
+
+		for (String key : (Iterable<String>) e.attributeKeys()::iterator)
+			if (!hidden(key))
+				h += attribute(owner, key, e.getAttribute(key));
+
+		return h;
+	}
+
+	/**
+	 * Hash of a node and of its attributes.
+	 */
+	static long element(Node node) {
+		long h = node(node.getId());
+		return h + attributes(h, node);
+	}
+
+	/**
+	 * Hash of an edge and of its attributes.
+	 */
+	static long element(Edge edge) {
+		return edge(edge.getId(), edge.getSourceNode().getId(), edge.getTargetNode().getId(), edge.isDirected())
+				+ attributes(edgeKey(edge.getId()), edge);
+	}
+}
@@ -37,10 +37,14 @@ import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.logging.Logger;
 
 /**
  * A sink easily allowing a bind between attribute modifications and method
@@ -72,8 +76,19 @@ import java.util.HashMap;
  * 		}
  * }
  * </pre>
+ * 
+ * <p>
+ * Bound methods are discovered once per class. A direct dispatcher is then
+ * generated for each of them, so that calling a bound method costs the same as
+ * a call from a hand-written sink. Bound methods must be public.
+ * </p>
  */
 public abstract class AnnotatedSink implements Sink {
+	/**
+	 * class level logger
+	 */
+	private static final Logger logger = Logger.getLogger(AnnotatedSink.class.getSimpleName());
+
 	/**
 	 * Annotation used to bind an event to a method. This bind is composed of a name
 	 * (the attribute key) and an element type. For example, the annotation
@@ -104,35 +119,44 @@ public abstract class AnnotatedSink implements Sink {
 		ElementType type() default ElementType.GRAPH;
 	}
 
-	private final EnumMap<ElementType, MethodMap> methods;
+	/**
+	 * Bindings of each annotated class, computed on first use.
+	 */
+	private static final ClassValue<Bindings> BINDINGS = new ClassValue<Bindings>() {
+		@Override
+		protected Bindings computeValue(Class<?> type) {
+			return new Bindings(type);
+		}
+	};
+
+	/**
+	 * Bindings of this sink by element type, null if there is no binding for a
+	 * type.
+	 */
+	private final HashMap<String, GraphBinding> graphBindings;
+	private final HashMap<String, ElementBinding> nodeBindings;
+	private final HashMap<String, ElementBinding> edgeBindings;
 
 	protected AnnotatedSink() {
-		methods = new EnumMap<ElementType, MethodMap>(ElementType.class);
-		methods.put(ElementType.GRAPH, new MethodMap());
-		methods.put(ElementType.EDGE, new MethodMap());
-		methods.put(ElementType.NODE, new MethodMap());
-
-		Method[] ms = getClass().getMethods();
+		Bindings bindings = BINDINGS.get(getClass());
 
-		if (ms != null) {
-			for (int i = 0; i < ms.length; i++) {
-				Method m = ms[i];
-				Bind b = m.getAnnotation(Bind.class);
+		graphBindings = bindings.graph;
+		nodeBindings = bindings.node;
+		edgeBindings = bindings.edge;
+	}
 
-				if (b != null)
-					methods.get(b.type()).put(b.value(), m);
-			}
+	private void invoke(GraphBinding b, String attribute, Object value) {
+		try {
+			b.invoke(this, attribute, value);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
 		}
 	}
 
-	private void invoke(Method m, Object... args) {
+	private void invoke(ElementBinding b, String elementId, String attribute, Object value) {
 		try {
-			m.invoke(this, args);
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			e.printStackTrace();
-		} catch (InvocationTargetException e) {
+			b.invoke(this, elementId, attribute, value);
+		} catch (RuntimeException e) {
 			e.printStackTrace();
 		}
 	}
@@ -145,10 +169,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
 	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
-		Method m = methods.get(ElementType.EDGE).get(attribute);
+		ElementBinding b = edgeBindings == null ? null : edgeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, edgeId, attribute, value);
+		if (b != null)
+			invoke(b, edgeId, attribute, value);
 	}
 
 	/*
@@ -160,10 +184,10 @@ public abstract class AnnotatedSink implements Sink {
 	 */
 	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
-		Method m = methods.get(ElementType.EDGE).get(attribute);
+		ElementBinding b = edgeBindings == null ? null : edgeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, edgeId, attribute, newValue);
+		if (b != null)
+			invoke(b, edgeId, attribute, newValue);
 	}
 
 	/*
@@ -174,10 +198,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String, java.lang.String)
 	 */
 	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
-		Method m = methods.get(ElementType.EDGE).get(attribute);
+		ElementBinding b = edgeBindings == null ? null : edgeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, edgeId, attribute, null);
+		if (b != null)
+			invoke(b, edgeId, attribute, null);
 	}
 
 	/*
@@ -188,10 +212,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String, java.lang.Object)
 	 */
 	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
-		Method m = methods.get(ElementType.GRAPH).get(attribute);
+		GraphBinding b = graphBindings == null ? null : graphBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, attribute, value);
+		if (b != null)
+			invoke(b, attribute, value);
 	}
 
 	/*
@@ -203,10 +227,10 @@ public abstract class AnnotatedSink implements Sink {
 	 */
 	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
 			Object newValue) {
-		Method m = methods.get(ElementType.GRAPH).get(attribute);
+		GraphBinding b = graphBindings == null ? null : graphBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, attribute, newValue);
+		if (b != null)
+			invoke(b, attribute, newValue);
 	}
 
 	/*
@@ -217,10 +241,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String)
 	 */
 	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
-		Method m = methods.get(ElementType.GRAPH).get(attribute);
+		GraphBinding b = graphBindings == null ? null : graphBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, attribute, null);
+		if (b != null)
+			invoke(b, attribute, null);
 	}
 
 	/*
@@ -231,10 +255,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
 	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
-		Method m = methods.get(ElementType.NODE).get(attribute);
+		ElementBinding b = nodeBindings == null ? null : nodeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, nodeId, attribute, value);
+		if (b != null)
+			invoke(b, nodeId, attribute, value);
 	}
 
 	/*
@@ -246,10 +270,10 @@ public abstract class AnnotatedSink implements Sink {
 	 */
 	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
-		Method m = methods.get(ElementType.NODE).get(attribute);
+		ElementBinding b = nodeBindings == null ? null : nodeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, nodeId, attribute, newValue);
+		if (b != null)
+			invoke(b, nodeId, attribute, newValue);
 	}
 
 	/*
@@ -260,10 +284,10 @@ public abstract class AnnotatedSink implements Sink {
 	 * long, java.lang.String, java.lang.String)
 	 */
 	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
-		Method m = methods.get(ElementType.NODE).get(attribute);
+		ElementBinding b = nodeBindings == null ? null : nodeBindings.get(attribute);
 
-		if (m != null)
-			invoke(m, nodeId, attribute, null);
+		if (b != null)
+			invoke(b, nodeId, attribute, null);
 	}
 
 	/*
@@ -320,7 +344,137 @@ public abstract class AnnotatedSink implements Sink {
 	public void stepBegins(String sourceId, long timeId, double step) {
 	}
 
-	private static class MethodMap extends HashMap<String, Method> {
-		private static final long serialVersionUID = 1664854698109523697L;
+	/**
+	 * Direct call to a method bound to a graph attribute.
+	 */
+	@FunctionalInterface
+	interface GraphBinding {
+		void invoke(AnnotatedSink sink, String attribute, Object value);
+	}
+
+	/**
+	 * Direct call to a method bound to a node or edge attribute.
+	 */
+	@FunctionalInterface
+	interface ElementBinding {
+		void invoke(AnnotatedSink sink, String elementId, String attribute, Object value);
+	}
+
+	/**
+	 * Bindings of an annotated class.
+	 */
+	private static class Bindings {
+		static final MethodType GRAPH_TYPE = MethodType.methodType(void.class, AnnotatedSink.class, String.class,
+				Object.class);
+		static final MethodType ELEMENT_TYPE = MethodType.methodType(void.class, AnnotatedSink.class, String.class,
+				String.class, Object.class);
+
+		HashMap<String, GraphBinding> graph;
+		HashMap<String, ElementBinding> node;
+		HashMap<String, ElementBinding> edge;
+
+		Bindings(Class<?> type) {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+			for (Method m : type.getMethods()) {
+				Bind b = m.getAnnotation(Bind.class);
+
+				if (b == null)
+					continue;
+
+				try {
+					switch (b.type()) {
+					case GRAPH:
+						if (graph == null)
+							graph = new HashMap<String, GraphBinding>();
+
+						graph.put(b.value(), (GraphBinding) generate(lookup, m, GraphBinding.class, GRAPH_TYPE));
+						break;
+					case NODE:
+						if (node == null)
+							node = new HashMap<String, ElementBinding>();
+
+						node.put(b.value(), (ElementBinding) generate(lookup, m, ElementBinding.class, ELEMENT_TYPE));
+						break;
+					case EDGE:
+						if (edge == null)
+							edge = new HashMap<String, ElementBinding>();
+
+						edge.put(b.value(), (ElementBinding) generate(lookup, m, ElementBinding.class, ELEMENT_TYPE));
+						break;
+					}
+				} catch (Throwable t) {
+					logger.warning(String.format("Unable to bind method %s: %s", m, t));
+				}
+			}
+		}
+
+		/**
+		 * Generate an implementation of a binding interface calling directly the
+		 * given method. If the method can not be linked directly (for example if
+		 * its class is not accessible from here), a method handle is used.
+		 */
+		static Object generate(MethodHandles.Lookup lookup, Method m, Class<?> binding, MethodType samType)
+				throws Throwable {
+			MethodHandle handle;
+
+			try {
+				handle = lookup.unreflect(m);
+			} catch (IllegalAccessException e) {
+				m.setAccessible(true);
+				handle = lookup.unreflect(m);
+			}
+
+			MethodType generic = handle.type().changeReturnType(void.class);
+
+			if (generic.parameterCount() != samType.parameterCount())
+				throw new IllegalArgumentException(
+						String.format("bound method should have %d parameters", samType.parameterCount() - 1));
+
+			try {
+				Class<?>[] instantiated = new Class<?>[generic.parameterCount()];
+
+				for (int i = 0; i < instantiated.length; i++) {
+					Class<?> expected = samType.parameterType(i);
+					Class<?> declared = generic.wrap().parameterType(i);
+
+					instantiated[i] = declared.isAssignableFrom(expected) ? expected : declared;
+				}
+
+				CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(binding),
+						samType, handle, MethodType.methodType(void.class, instantiated));
+
+				return site.getTarget().invoke();
+			} catch (Throwable t) {
+				final MethodHandle h = handle.asType(samType);
+
+				if (binding == GraphBinding.class)
+					return (GraphBinding) (sink, attribute, value) -> invokeExact(h, sink, attribute, value);
+				else
+					return (ElementBinding) (sink, elementId, attribute, value) -> invokeExact(h, sink, elementId,
+							attribute, value);
+			}
+		}
+
+		static void invokeExact(MethodHandle h, AnnotatedSink sink, String attribute, Object value) {
+			try {
+				h.invokeExact(sink, attribute, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+		}
+
+		static void invokeExact(MethodHandle h, AnnotatedSink sink, String elementId, String attribute,
+				Object value) {
+			try {
+				h.invokeExact(sink, elementId, attribute, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+		}
 	}
 }
@@ -40,6 +40,13 @@ package org.graphstream.stream;
  * The graph attributes listener is called each time an attribute is added, or
  * removed, and each time its value is changed.
  * </p>
+ * 
+ * <p>
+ * Node and edge callbacks also exist in a variant carrying the index of the
+ * element in the source, called by sources that know it. As in
+ * {@link ElementSink}, the index is a hint that may be -1 and must be checked
+ * against the identifier; by default it is ignored.
+ * </p>
  */
 public interface AttributeSink {
 	/**
@@ -92,6 +99,18 @@ public interface AttributeSink {
 	 */
 	void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value);
 
+	/**
+	 * A node attribute was added.
+	 * 
+	 * @param nodeIndex
+	 *            Index of the node in the source, or -1.
+	 * @see #nodeAttributeAdded(String, long, String, String, Object)
+	 */
+	default void nodeAttributeAdded(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object value) {
+		nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+	}
+
 	/**
 	 * A node attribute was changed.
 	 * 
@@ -109,6 +128,18 @@ public interface AttributeSink {
 	void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue);
 
+	/**
+	 * A node attribute was changed.
+	 * 
+	 * @param nodeIndex
+	 *            Index of the node in the source, or -1.
+	 * @see #nodeAttributeChanged(String, long, String, String, Object, Object)
+	 */
+	default void nodeAttributeChanged(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
+		nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+	}
+
 	/**
 	 * A node attribute was removed.
 	 * 
@@ -121,6 +152,17 @@ public interface AttributeSink {
 	 */
 	void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute);
 
+	/**
+	 * A node attribute was removed.
+	 * 
+	 * @param nodeIndex
+	 *            Index of the node in the source, or -1.
+	 * @see #nodeAttributeRemoved(String, long, String, String)
+	 */
+	default void nodeAttributeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute) {
+		nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+	}
+
 	/**
 	 * A edge attribute was added.
 	 * 
@@ -135,6 +177,18 @@ public interface AttributeSink {
 	 */
 	void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value);
 
+	/**
+	 * A edge attribute was added.
+	 * 
+	 * @param edgeIndex
+	 *            Index of the edge in the source, or -1.
+	 * @see #edgeAttributeAdded(String, long, String, String, Object)
+	 */
+	default void edgeAttributeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object value) {
+		edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+	}
+
 	/**
 	 * A edge attribute was changed.
 	 * 
@@ -152,6 +206,18 @@ public interface AttributeSink {
 	void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue);
 
+	/**
+	 * A edge attribute was changed.
+	 * 
+	 * @param edgeIndex
+	 *            Index of the edge in the source, or -1.
+	 * @see #edgeAttributeChanged(String, long, String, String, Object, Object)
+	 */
+	default void edgeAttributeChanged(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
+		edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+	}
+
 	/**
 	 * A edge attribute was removed.
 	 * 
@@ -163,4 +229,15 @@ public interface AttributeSink {
 	 *            The removed attribute name.
 	 */
 	void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute);
+
+	/**
+	 * A edge attribute was removed.
+	 * 
+	 * @param edgeIndex
+	 *            Index of the edge in the source, or -1.
+	 * @see #edgeAttributeRemoved(String, long, String, String)
+	 */
+	default void edgeAttributeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute) {
+		edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+	}
 }
\ No newline at end of file
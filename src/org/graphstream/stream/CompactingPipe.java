@@ -0,0 +1,288 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream;
+
+import org.graphstream.util.GraphDiff;
+
+/**
+ * Pipe buffering events and forwarding only their net effect.
+ * 
+ * <p>
+ * Events are buffered in a {@link org.graphstream.util.GraphDiff} until the
+ * end of the current window, which is compacted before being forwarded:
+ * elements added and removed during the window are dropped with all their
+ * changes, and only the last value of each attribute is kept. See
+ * {@link org.graphstream.util.GraphDiff#compact()} for the details.
+ * </p>
+ * 
+ * <p>
+ * A window ends with each "step begins" event, which is forwarded after the
+ * window. A window can also be bounded by a count of events (see
+ * {@link #setMaxEvents(int)}) or by a delay (see {@link #setMaxDelay(long)}),
+ * and can be forced to end by calling {@link #flush()}. The delay is only
+ * checked when an event is received.
+ * </p>
+ * 
+ * <p>
+ * As the forwarded events are not the received ones, they are sent with the
+ * source id and time of this pipe.
+ * </p>
+ */
+public class CompactingPipe implements Pipe {
+	/**
+	 * Buffered events of the current window.
+	 */
+	protected final GraphDiff diff;
+
+	/**
+	 * Sink recording the events into the diff.
+	 */
+	protected final Sink recorder;
+
+	/**
+	 * Dispatch the compacted events to the sinks of this pipe.
+	 */
+	protected final PipeBase output;
+
+	/**
+	 * Maximum count of buffered events, 0 if unbounded.
+	 */
+	protected int maxEvents;
+
+	/**
+	 * Maximum duration of a window in milliseconds, 0 if unbounded.
+	 */
+	protected long maxDelay;
+
+	/**
+	 * Date of the first event of the current window.
+	 */
+	protected long windowStart;
+
+	public CompactingPipe() {
+		this.diff = new GraphDiff();
+		this.recorder = diff.start();
+		this.output = new PipeBase();
+		this.maxEvents = 0;
+		this.maxDelay = 0;
+		this.windowStart = 0;
+	}
+
+	/**
+	 * Bound the windows by a count of received events.
+	 * 
+	 * @param maxEvents
+	 *            maximum count of events in a window, 0 to disable
+	 */
+	public void setMaxEvents(int maxEvents) {
+		this.maxEvents = maxEvents;
+	}
+
+	/**
+	 * Bound the windows by a duration.
+	 * 
+	 * @param maxDelay
+	 *            maximum duration of a window in milliseconds, 0 to disable
+	 */
+	public void setMaxDelay(long maxDelay) {
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Count of events buffered in the current window.
+	 * 
+	 * @return the count of buffered events
+	 */
+	public int getBufferedEventCount() {
+		return diff.size();
+	}
+
+	/**
+	 * End the current window: forward the net effect of the buffered events.
+	 */
+	public void flush() {
+		if (diff.size() > 0) {
+			diff.compact();
+			diff.apply(output.sourceTime, output);
+			diff.reset();
+		}
+	}
+
+	protected void beforeEvent() {
+		if (diff.size() == 0 && maxDelay > 0)
+			windowStart = System.currentTimeMillis();
+	}
+
+	protected void afterEvent() {
+		if ((maxEvents > 0 && diff.size() >= maxEvents)
+				|| (maxDelay > 0 && System.currentTimeMillis() - windowStart >= maxDelay))
+			flush();
+	}
+
+	// Source
+
+	public void addSink(Sink sink) {
+		output.addSink(sink);
+	}
+
+	public void removeSink(Sink sink) {
+		output.removeSink(sink);
+	}
+
+	public void addAttributeSink(AttributeSink sink) {
+		output.addAttributeSink(sink);
+	}
+
+	public void removeAttributeSink(AttributeSink sink) {
+		output.removeAttributeSink(sink);
+	}
+
+	public void addElementSink(ElementSink sink) {
+		output.addElementSink(sink);
+	}
+
+	public void removeElementSink(ElementSink sink) {
+		output.removeElementSink(sink);
+	}
+
+	public void clearElementSinks() {
+		output.clearElementSinks();
+	}
+
+	public void clearAttributeSinks() {
+		output.clearAttributeSinks();
+	}
+
+	public void clearSinks() {
+		output.clearSinks();
+	}
+
+	// Sink
+
+	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+		beforeEvent();
+		recorder.graphAttributeAdded(sourceId, timeId, attribute, value);
+		afterEvent();
+	}
+
+	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+			Object newValue) {
+		beforeEvent();
+		recorder.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+		afterEvent();
+	}
+
+	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		beforeEvent();
+		recorder.graphAttributeRemoved(sourceId, timeId, attribute);
+		afterEvent();
+	}
+
+	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		beforeEvent();
+		recorder.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+		afterEvent();
+	}
+
+	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
+			Object newValue) {
+		beforeEvent();
+		recorder.nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+		afterEvent();
+	}
+
+	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		beforeEvent();
+		recorder.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+		afterEvent();
+	}
+
+	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		beforeEvent();
+		recorder.edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+		afterEvent();
+	}
+
+	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
+			Object newValue) {
+		beforeEvent();
+		recorder.edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+		afterEvent();
+	}
+
+	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		beforeEvent();
+		recorder.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+		afterEvent();
+	}
+
+	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		beforeEvent();
+		recorder.nodeAdded(sourceId, timeId, nodeId);
+		afterEvent();
+	}
+
+	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		beforeEvent();
+		recorder.nodeRemoved(sourceId, timeId, nodeId);
+		afterEvent();
+	}
+
+	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+			boolean directed) {
+		beforeEvent();
+		recorder.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		afterEvent();
+	}
+
+	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		beforeEvent();
+		recorder.edgeRemoved(sourceId, timeId, edgeId);
+		afterEvent();
+	}
+
+	/**
+	 * Everything buffered before a clear is useless, the window restarts with
+	 * the clear event.
+	 */
+	public void graphCleared(String sourceId, long timeId) {
+		diff.reset();
+		beforeEvent();
+		recorder.graphCleared(sourceId, timeId);
+		afterEvent();
+	}
+
+	/**
+	 * End the current window and forward the step.
+	 */
+	public void stepBegins(String sourceId, long timeId, double step) {
+		flush();
+		output.sendStepBegins(output.sourceId, output.sourceTime.newEvent(), step);
+	}
+}
@@ -41,6 +41,14 @@ package org.graphstream.stream;
  * or edge) is added or removed. It is also called for special events like
  * "steps" that introduce the notion of time in graphs.
  * </p>
+ * 
+ * <p>
+ * Sources that know the index of the elements they talk about, like graphs,
+ * call the variants of the removal and edge addition callbacks taking indices.
+ * Indices are only a hint: they are -1 when unknown, and a sink must check
+ * that the element found at an index has the expected identifier before using
+ * it. By default, these variants ignore indices.
+ * </p>
  */
 public interface ElementSink {
 	/**
@@ -63,6 +71,21 @@ public interface ElementSink {
 	 */
 	void nodeRemoved(String sourceId, long timeId, String nodeId);
 
+	/**
+	 * A node was removed from the graph.
+	 * 
+	 * @param sourceId
+	 *            Identifier of the graph where the node will be removed.
+	 * @param nodeIndex
+	 *            Index of the removed node in the source, or -1.
+	 * @param nodeId
+	 *            Identifier of the removed node.
+	 * @see #nodeRemoved(String, long, String)
+	 */
+	default void nodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
+		nodeRemoved(sourceId, timeId, nodeId);
+	}
+
 	/**
 	 * An edge was inserted in graph.
 	 * 
@@ -79,6 +102,32 @@ public interface ElementSink {
 	 */
 	void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId, boolean directed);
 
+	/**
+	 * An edge was inserted in graph.
+	 * 
+	 * @param sourceId
+	 *            Identifier of the graph where the edge was added.
+	 * @param edgeIndex
+	 *            Index of the added edge in the source, or -1.
+	 * @param edgeId
+	 *            Identifier of the added edge.
+	 * @param fromNodeIndex
+	 *            Index of the first node of the edge in the source, or -1.
+	 * @param fromNodeId
+	 *            Identifier of the first node of the edge.
+	 * @param toNodeIndex
+	 *            Index of the second node of the edge in the source, or -1.
+	 * @param toNodeId
+	 *            Identifier of the second node of the edge.
+	 * @param directed
+	 *            If true, the edge is directed.
+	 * @see #edgeAdded(String, long, String, String, String, boolean)
+	 */
+	default void edgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+		edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+	}
+
 	/**
 	 * An edge of graph was removed.The nodes the edge connects may already have
 	 * been removed from the graph.
@@ -90,6 +139,21 @@ public interface ElementSink {
 	 */
 	void edgeRemoved(String sourceId, long timeId, String edgeId);
 
+	/**
+	 * An edge of graph was removed.
+	 * 
+	 * @param sourceId
+	 *            The graph where the edge will be removed.
+	 * @param edgeIndex
+	 *            Index of the removed edge in the source, or -1.
+	 * @param edgeId
+	 *            The edge that will be removed.
+	 * @see #edgeRemoved(String, long, String)
+	 */
+	default void edgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
+		edgeRemoved(sourceId, timeId, edgeId);
+	}
+
 	/**
 	 * The whole graph was cleared. All the nodes, edges and attributes of the graph
 	 * are removed.
@@ -0,0 +1,373 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+
+import org.graphstream.stream.file.FileSource;
+import org.graphstream.stream.thread.ThreadProxyPipe.GraphEvents;
+
+/**
+ * Source merging the streams of several sources in the order of their steps.
+ * 
+ * <p>
+ * Each merged source is read on demand through a {@link Puller}, for example
+ * {@link FileSource#nextStep()} for file sources. Inputs are ordered in a
+ * priority queue by the value of their next step. Each call to
+ * {@link #nextStep()} forwards the step with the lowest value, and all the
+ * events following it in its source until the next step of this source.
+ * Steps of the same value are forwarded in the order the sources were added.
+ * </p>
+ * 
+ * <p>
+ * Only the beginning of the next step of each source has to be known, so the
+ * lookahead is bounded to one pull per source: the events of the current step
+ * are forwarded as they are pulled, and memory does not depend on the length
+ * of the streams. Events keep the source and time identifiers of the source
+ * they come from, so that sinks see each of these streams unchanged.
+ * </p>
+ * 
+ * <pre>
+ * MergingSource merge = new MergingSource();
+ * 
+ * dgs1.begin("a.dgs");
+ * dgs2.begin("b.dgs");
+ * merge.addSource(dgs1);
+ * merge.addSource(dgs2);
+ * merge.addSink(graph);
+ * 
+ * while (merge.nextStep())
+ * 	;
+ * </pre>
+ */
+public class MergingSource extends SourceBase {
+	/**
+	 * Read some events from a source.
+	 */
+	@FunctionalInterface
+	public static interface Puller {
+		/**
+		 * Make the source send some of its events.
+		 * 
+		 * @return false if the source has no more events
+		 * @throws IOException
+		 *             if the source cannot be read
+		 */
+		boolean pull() throws IOException;
+	}
+
+	protected final ArrayList<Input> inputs;
+
+	/**
+	 * Inputs waiting with a step, by order of step.
+	 */
+	protected final PriorityQueue<Input> queue;
+
+	/**
+	 * Inputs which have not yet been read.
+	 */
+	protected final ArrayDeque<Input> fresh;
+
+	public MergingSource() {
+		super();
+		inputs = new ArrayList<Input>();
+		queue = new PriorityQueue<Input>();
+		fresh = new ArrayDeque<Input>();
+	}
+
+	public MergingSource(String id) {
+		super(id);
+		inputs = new ArrayList<Input>();
+		queue = new PriorityQueue<Input>();
+		fresh = new ArrayDeque<Input>();
+	}
+
+	/**
+	 * Merge a file source. The reading should have been started with one of the
+	 * {@code begin()} methods of the source, and should be ended with
+	 * {@link FileSource#end()} once merged.
+	 * 
+	 * @param source
+	 *            the file source
+	 */
+	public void addSource(FileSource source) {
+		addSource(source, source::nextStep);
+	}
+
+	/**
+	 * Merge a source.
+	 * 
+	 * @param source
+	 *            the source
+	 * @param puller
+	 *            action making the source send its next events
+	 */
+	public void addSource(Source source, Puller puller) {
+		Input input = new Input(source, puller, inputs.size());
+		inputs.add(input);
+		fresh.add(input);
+		source.addSink(input);
+	}
+
+	/**
+	 * Forward the next step of the merged stream.
+	 * 
+	 * @return false if all the sources are exhausted
+	 * @throws IOException
+	 *             if one of the sources cannot be read
+	 */
+	public boolean nextStep() throws IOException {
+		// Events before the first step of each source come first.
+		while (!fresh.isEmpty()) {
+			Input input = fresh.poll();
+			input.forwardUntilStep();
+			input.enqueue();
+		}
+
+		Input input = queue.poll();
+
+		if (input == null)
+			return false;
+
+		input.forward(input.pending.poll());
+		input.forwardUntilStep();
+		input.enqueue();
+
+		return !queue.isEmpty();
+	}
+
+	/**
+	 * Forward all the merged stream.
+	 * 
+	 * @throws IOException
+	 *             if one of the sources cannot be read
+	 */
+	public void all() throws IOException {
+		while (nextStep())
+			;
+	}
+
+	/**
+	 * Count of sources which are not exhausted.
+	 * 
+	 * @return the count of sources with remaining events
+	 */
+	public int getActiveSourceCount() {
+		return fresh.size() + queue.size();
+	}
+
+	/**
+	 * A merged source, recording the events it sends until they are forwarded.
+	 */
+	protected class Input implements Sink, Comparable<Input> {
+		final Source source;
+		final Puller puller;
+		final int index;
+
+		/**
+		 * Events received and not yet forwarded.
+		 */
+		final ArrayDeque<Object[]> pending;
+
+		boolean exhausted;
+
+		Input(Source source, Puller puller, int index) {
+			this.source = source;
+			this.puller = puller;
+			this.index = index;
+			this.pending = new ArrayDeque<Object[]>();
+			this.exhausted = false;
+		}
+
+		/**
+		 * Forward events until the next step of the source, which is left
+		 * pending.
+		 */
+		void forwardUntilStep() throws IOException {
+			while (true) {
+				Object[] event = pending.peek();
+
+				if (event == null) {
+					if (exhausted)
+						return;
+
+					exhausted = !puller.pull();
+
+					if (exhausted)
+						source.removeSink(this);
+				} else if (event[0] == GraphEvents.STEP) {
+					return;
+				} else {
+					forward(pending.poll());
+				}
+			}
+		}
+
+		void enqueue() {
+			if (!pending.isEmpty())
+				queue.add(this);
+		}
+
+		double nextStepValue() {
+			return (Double) pending.peek()[4];
+		}
+
+		public int compareTo(Input other) {
+			int r = Double.compare(nextStepValue(), other.nextStepValue());
+			return r != 0 ? r : Integer.compare(index, other.index);
+		}
+
+		void post(Object... event) {
+			pending.add(event);
+		}
+
+		void forward(Object[] event) {
+			String sourceId = (String) event[1];
+			long timeId = (Long) event[2];
+
+			switch ((GraphEvents) event[0]) {
+			case ADD_NODE:
+				sendNodeAdded(sourceId, timeId, (String) event[3]);
+				break;
+			case DEL_NODE:
+				sendNodeRemoved(sourceId, timeId, (String) event[3]);
+				break;
+			case ADD_EDGE:
+				sendEdgeAdded(sourceId, timeId, (String) event[3], (String) event[4], (String) event[5],
+						(Boolean) event[6]);
+				break;
+			case DEL_EDGE:
+				sendEdgeRemoved(sourceId, timeId, (String) event[3]);
+				break;
+			case STEP:
+				sendStepBegins(sourceId, timeId, (Double) event[4]);
+				break;
+			case CLEARED:
+				sendGraphCleared(sourceId, timeId);
+				break;
+			case ADD_GRAPH_ATTR:
+				sendGraphAttributeAdded(sourceId, timeId, (String) event[4], event[5]);
+				break;
+			case CHG_GRAPH_ATTR:
+				sendGraphAttributeChanged(sourceId, timeId, (String) event[4], event[5], event[6]);
+				break;
+			case DEL_GRAPH_ATTR:
+				sendGraphAttributeRemoved(sourceId, timeId, (String) event[4]);
+				break;
+			case ADD_NODE_ATTR:
+				sendNodeAttributeAdded(sourceId, timeId, (String) event[3], (String) event[4], event[5]);
+				break;
+			case CHG_NODE_ATTR:
+				sendNodeAttributeChanged(sourceId, timeId, (String) event[3], (String) event[4], event[5],
+						event[6]);
+				break;
+			case DEL_NODE_ATTR:
+				sendNodeAttributeRemoved(sourceId, timeId, (String) event[3], (String) event[4]);
+				break;
+			case ADD_EDGE_ATTR:
+				sendEdgeAttributeAdded(sourceId, timeId, (String) event[3], (String) event[4], event[5]);
+				break;
+			case CHG_EDGE_ATTR:
+				sendEdgeAttributeChanged(sourceId, timeId, (String) event[3], (String) event[4], event[5],
+						event[6]);
+				break;
+			case DEL_EDGE_ATTR:
+				sendEdgeAttributeRemoved(sourceId, timeId, (String) event[3], (String) event[4]);
+				break;
+			}
+		}
+
+		public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+			post(GraphEvents.ADD_GRAPH_ATTR, sourceId, timeId, null, attribute, value);
+		}
+
+		public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+				Object newValue) {
+			post(GraphEvents.CHG_GRAPH_ATTR, sourceId, timeId, null, attribute, oldValue, newValue);
+		}
+
+		public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+			post(GraphEvents.DEL_GRAPH_ATTR, sourceId, timeId, null, attribute);
+		}
+
+		public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+			post(GraphEvents.ADD_NODE_ATTR, sourceId, timeId, nodeId, attribute, value);
+		}
+
+		public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute,
+				Object oldValue, Object newValue) {
+			post(GraphEvents.CHG_NODE_ATTR, sourceId, timeId, nodeId, attribute, oldValue, newValue);
+		}
+
+		public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+			post(GraphEvents.DEL_NODE_ATTR, sourceId, timeId, nodeId, attribute);
+		}
+
+		public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+			post(GraphEvents.ADD_EDGE_ATTR, sourceId, timeId, edgeId, attribute, value);
+		}
+
+		public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute,
+				Object oldValue, Object newValue) {
+			post(GraphEvents.CHG_EDGE_ATTR, sourceId, timeId, edgeId, attribute, oldValue, newValue);
+		}
+
+		public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+			post(GraphEvents.DEL_EDGE_ATTR, sourceId, timeId, edgeId, attribute);
+		}
+
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			post(GraphEvents.ADD_NODE, sourceId, timeId, nodeId);
+		}
+
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			post(GraphEvents.DEL_NODE, sourceId, timeId, nodeId);
+		}
+
+		public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) {
+			post(GraphEvents.ADD_EDGE, sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		}
+
+		public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+			post(GraphEvents.DEL_EDGE, sourceId, timeId, edgeId);
+		}
+
+		public void graphCleared(String sourceId, long timeId) {
+			post(GraphEvents.CLEARED, sourceId, timeId);
+		}
+
+		public void stepBegins(String sourceId, long timeId, double step) {
+			post(GraphEvents.STEP, sourceId, timeId, null, step);
+		}
+	}
+}
@@ -0,0 +1,457 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Pipe keeping only the recent part of a dynamic graph.
+ * 
+ * <p>
+ * Each node and edge is stamped with the time of the last event concerning it
+ * (its addition, a change of its attributes or, for nodes, the addition of an
+ * incident edge). Elements which have not been stamped for longer than the
+ * window are evicted: the pipe sends the corresponding removal events to its
+ * sinks (edges of a node are removed before the node), so that a graph
+ * listening to this pipe holds only the elements of the window, in constant
+ * memory.
+ * </p>
+ * 
+ * <p>
+ * Time is either the step of the stream (see
+ * {@link org.graphstream.stream.ElementSink#stepBegins(String, long, double)}),
+ * or the system time in milliseconds. Eviction is checked at each step in the
+ * first case, and at each received event in the second one. It can also be
+ * triggered by calling {@link #expire()}.
+ * </p>
+ * 
+ * <p>
+ * Elements are stored in buckets covering a fraction of the window, in the
+ * order of their stamps, so that eviction only looks at the oldest buckets.
+ * Eviction is thus accurate to a bucket width. Events concerning elements
+ * which have been evicted are dropped, except edge additions which bring back
+ * their extremities.
+ * </p>
+ */
+public class SlidingWindowPipe extends PipeBase {
+	/**
+	 * Reference used to stamp the elements.
+	 */
+	public static enum Clock {
+		/**
+		 * Time is the value of the last step.
+		 */
+		STEP,
+		/**
+		 * Time is the system time, in milliseconds.
+		 */
+		SYSTEM
+	}
+
+	/**
+	 * Default count of buckets used to cover a window.
+	 */
+	public static final int DEFAULT_BUCKET_COUNT = 16;
+
+	protected final Clock clock;
+	protected final double window;
+	protected final double bucketWidth;
+
+	/**
+	 * Elements of the window.
+	 */
+	protected final HashMap<String, Element> nodes;
+	protected final HashMap<String, Element> edges;
+
+	/**
+	 * Buckets, from the oldest to the most recent.
+	 */
+	protected final ArrayDeque<Bucket> buckets;
+
+	/**
+	 * Last step, used with the {@link Clock#STEP} clock.
+	 */
+	protected double step;
+
+	/**
+	 * Create a pipe evicting elements older than the given window.
+	 * 
+	 * @param window
+	 *            size of the window, in steps or milliseconds depending on the
+	 *            clock
+	 * @param clock
+	 *            reference of time
+	 */
+	public SlidingWindowPipe(double window, Clock clock) {
+		this(window, clock, window / DEFAULT_BUCKET_COUNT);
+	}
+
+	/**
+	 * Create a pipe evicting elements older than the given window.
+	 * 
+	 * @param window
+	 *            size of the window, in steps or milliseconds depending on the
+	 *            clock
+	 * @param clock
+	 *            reference of time
+	 * @param bucketWidth
+	 *            accuracy of the eviction
+	 */
+	public SlidingWindowPipe(double window, Clock clock, double bucketWidth) {
+		if (window <= 0 || bucketWidth <= 0)
+			throw new IllegalArgumentException("window and bucket width should be positive");
+
+		this.clock = clock;
+		this.window = window;
+		this.bucketWidth = bucketWidth;
+		this.nodes = new HashMap<String, Element>();
+		this.edges = new HashMap<String, Element>();
+		this.buckets = new ArrayDeque<Bucket>();
+		this.step = 0;
+	}
+
+	/**
+	 * Current time according to the clock of this pipe.
+	 * 
+	 * @return the current time
+	 */
+	public double now() {
+		return clock == Clock.STEP ? step : System.currentTimeMillis();
+	}
+
+	/**
+	 * Count of nodes in the window.
+	 * 
+	 * @return the count of nodes
+	 */
+	public int getNodeCount() {
+		return nodes.size();
+	}
+
+	/**
+	 * Count of edges in the window.
+	 * 
+	 * @return the count of edges
+	 */
+	public int getEdgeCount() {
+		return edges.size();
+	}
+
+	/**
+	 * Evict the elements which are out of the window.
+	 */
+	public void expire() {
+		double limit = now() - window;
+		Bucket b;
+
+		while ((b = buckets.peekFirst()) != null && (b.index + 1) * bucketWidth <= limit) {
+			buckets.pollFirst();
+
+			for (Element e : b.elements) {
+				// Elements stamped since they were put in this bucket are in a
+				// more recent bucket.
+				if (e.alive && e.bucket == b.index) {
+					if (e.edges == null)
+						evictEdge(e);
+					else
+						evictNode(e);
+				}
+			}
+		}
+	}
+
+	protected void stamp(Element e) {
+		long index = (long) Math.floor(now() / bucketWidth);
+		Bucket last = buckets.peekLast();
+
+		// If the clock went backwards, elements go to the most recent bucket.
+		if (last != null && index < last.index)
+			index = last.index;
+
+		if (index != e.bucket) {
+			if (last == null || last.index < index) {
+				last = new Bucket(index);
+				buckets.addLast(last);
+			}
+
+			e.bucket = index;
+			last.elements.add(e);
+		}
+	}
+
+	protected Element addNode(String nodeId) {
+		Element n = new Element(nodeId, true);
+		nodes.put(nodeId, n);
+		stamp(n);
+
+		return n;
+	}
+
+	protected void removeNode(Element n) {
+		n.alive = false;
+		nodes.remove(n.id);
+	}
+
+	protected Element addEdge(String edgeId, Element from, Element to) {
+		Element e = new Element(edgeId, false);
+		e.from = from;
+		e.to = to;
+		from.edges.add(edgeId);
+		to.edges.add(edgeId);
+		edges.put(edgeId, e);
+		stamp(e);
+
+		return e;
+	}
+
+	protected void removeEdge(Element e) {
+		e.alive = false;
+		e.from.edges.remove(e.id);
+		e.to.edges.remove(e.id);
+		edges.remove(e.id);
+	}
+
+	protected void evictEdge(Element e) {
+		removeEdge(e);
+		sendEdgeRemoved(sourceId, sourceTime.newEvent(), e.id);
+	}
+
+	protected void evictNode(Element n) {
+		for (String edgeId : new ArrayList<String>(n.edges))
+			evictEdge(edges.get(edgeId));
+
+		removeNode(n);
+		sendNodeRemoved(sourceId, sourceTime.newEvent(), n.id);
+	}
+
+	/**
+	 * With the system clock, eviction is checked at each event.
+	 */
+	protected void checkExpiry() {
+		if (clock == Clock.SYSTEM)
+			expire();
+	}
+
+	public void nodeAdded(String graphId, long timeId, String nodeId) {
+		checkExpiry();
+
+		Element n = nodes.get(nodeId);
+
+		if (n == null)
+			addNode(nodeId);
+		else
+			stamp(n);
+
+		sendNodeAdded(graphId, timeId, nodeId);
+	}
+
+	public void nodeRemoved(String graphId, long timeId, String nodeId) {
+		checkExpiry();
+
+		Element n = nodes.get(nodeId);
+
+		if (n != null) {
+			for (String edgeId : new ArrayList<String>(n.edges))
+				removeEdge(edges.get(edgeId));
+
+			removeNode(n);
+			sendNodeRemoved(graphId, timeId, nodeId);
+		}
+	}
+
+	public void edgeAdded(String graphId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+			boolean directed) {
+		checkExpiry();
+
+		Element from = nodes.get(fromNodeId);
+		Element to = nodes.get(toNodeId);
+
+		if (from == null) {
+			from = addNode(fromNodeId);
+			sendNodeAdded(sourceId, sourceTime.newEvent(), fromNodeId);
+		} else {
+			stamp(from);
+		}
+
+		if (to == null) {
+			to = addNode(toNodeId);
+			sendNodeAdded(sourceId, sourceTime.newEvent(), toNodeId);
+		} else {
+			stamp(to);
+		}
+
+		Element e = edges.get(edgeId);
+
+		if (e == null)
+			addEdge(edgeId, from, to);
+		else
+			stamp(e);
+
+		sendEdgeAdded(graphId, timeId, edgeId, fromNodeId, toNodeId, directed);
+	}
+
+	public void edgeRemoved(String graphId, long timeId, String edgeId) {
+		checkExpiry();
+
+		Element e = edges.get(edgeId);
+
+		if (e != null) {
+			removeEdge(e);
+			sendEdgeRemoved(graphId, timeId, edgeId);
+		}
+	}
+
+	public void graphCleared(String graphId, long timeId) {
+		nodes.clear();
+		edges.clear();
+		buckets.clear();
+
+		sendGraphCleared(graphId, timeId);
+	}
+
+	public void stepBegins(String graphId, long timeId, double step) {
+		this.step = step;
+		sendStepBegins(graphId, timeId, step);
+
+		expire();
+	}
+
+	public void nodeAttributeAdded(String graphId, long timeId, String nodeId, String attribute, Object value) {
+		if (touchNode(nodeId))
+			sendNodeAttributeAdded(graphId, timeId, nodeId, attribute, value);
+	}
+
+	public void nodeAttributeChanged(String graphId, long timeId, String nodeId, String attribute, Object oldValue,
+			Object newValue) {
+		if (touchNode(nodeId))
+			sendNodeAttributeChanged(graphId, timeId, nodeId, attribute, oldValue, newValue);
+	}
+
+	public void nodeAttributeRemoved(String graphId, long timeId, String nodeId, String attribute) {
+		if (touchNode(nodeId))
+			sendNodeAttributeRemoved(graphId, timeId, nodeId, attribute);
+	}
+
+	public void edgeAttributeAdded(String graphId, long timeId, String edgeId, String attribute, Object value) {
+		if (touchEdge(edgeId))
+			sendEdgeAttributeAdded(graphId, timeId, edgeId, attribute, value);
+	}
+
+	public void edgeAttributeChanged(String graphId, long timeId, String edgeId, String attribute, Object oldValue,
+			Object newValue) {
+		if (touchEdge(edgeId))
+			sendEdgeAttributeChanged(graphId, timeId, edgeId, attribute, oldValue, newValue);
+	}
+
+	public void edgeAttributeRemoved(String graphId, long timeId, String edgeId, String attribute) {
+		if (touchEdge(edgeId))
+			sendEdgeAttributeRemoved(graphId, timeId, edgeId, attribute);
+	}
+
+	/**
+	 * Stamp a node if it is in the window.
+	 * 
+	 * @return false if the node is not in the window
+	 */
+	protected boolean touchNode(String nodeId) {
+		checkExpiry();
+
+		Element n = nodes.get(nodeId);
+
+		if (n == null)
+			return false;
+
+		stamp(n);
+		return true;
+	}
+
+	/**
+	 * Stamp an edge if it is in the window.
+	 * 
+	 * @return false if the edge is not in the window
+	 */
+	protected boolean touchEdge(String edgeId) {
+		checkExpiry();
+
+		Element e = edges.get(edgeId);
+
+		if (e == null)
+			return false;
+
+		stamp(e);
+		return true;
+	}
+
+	/**
+	 * A node or an edge of the window.
+	 */
+	protected static class Element {
+		final String id;
+
+		/**
+		 * Index of the bucket of the last stamp.
+		 */
+		long bucket;
+
+		boolean alive;
+
+		/**
+		 * Incident edges, for nodes only.
+		 */
+		final LinkedHashSet<String> edges;
+
+		/**
+		 * Extremities, for edges only.
+		 */
+		Element from, to;
+
+		Element(String id, boolean node) {
+			this.id = id;
+			this.bucket = Long.MIN_VALUE;
+			this.alive = true;
+			this.edges = node ? new LinkedHashSet<String>() : null;
+		}
+	}
+
+	/**
+	 * Elements stamped during a time slice of a bucket width.
+	 */
+	protected static class Bucket {
+		final long index;
+		final ArrayList<Element> elements;
+
+		Bucket(long index) {
+			this.index = index;
+			this.elements = new ArrayList<Element>();
+		}
+	}
+}
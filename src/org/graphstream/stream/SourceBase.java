@@ -33,9 +33,10 @@
  */
 package org.graphstream.stream;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.graphstream.graph.implementations.AbstractElement.AttributeChangeEvent;
 import org.graphstream.stream.sync.SourceTime;
@@ -61,6 +62,14 @@ import org.graphstream.stream.sync.SourceTime;
  * deferred until the first send*() method is finished. This avoid recursive
  * loops if a sink modifies the input during event handling.
  * </p>
+ * 
+ * <p>
+ * Sinks are kept in arrays which are never modified: registering or removing
+ * a sink publishes a new array. Sinks can thus be registered from any thread,
+ * even while events are sent. Each event is sent to the sinks registered when
+ * its sending begins: an event deferred because it was sent during another
+ * one is thus also sent to the sinks registered after it was deferred.
+ * </p>
  */
 public abstract class SourceBase implements Source {
 	// Attribute
@@ -69,15 +78,23 @@ public abstract class SourceBase implements Source {
 		NODE, EDGE, GRAPH
 	};
 
+	private static final AttributeSink[] NO_ATTRIBUTE_SINK = new AttributeSink[0];
+	private static final ElementSink[] NO_ELEMENT_SINK = new ElementSink[0];
+
+	private static final AtomicReferenceFieldUpdater<SourceBase, AttributeSink[]> ATTR_SINKS = AtomicReferenceFieldUpdater
+			.newUpdater(SourceBase.class, AttributeSink[].class, "attrSinks");
+	private static final AtomicReferenceFieldUpdater<SourceBase, ElementSink[]> ELTS_SINKS = AtomicReferenceFieldUpdater
+			.newUpdater(SourceBase.class, ElementSink[].class, "eltsSinks");
+
 	/**
-	 * Set of graph attributes sinks.
+	 * Set of graph attributes sinks. This array must not be modified.
 	 */
-	protected ArrayList<AttributeSink> attrSinks = new ArrayList<AttributeSink>();
+	protected volatile AttributeSink[] attrSinks = NO_ATTRIBUTE_SINK;
 
 	/**
-	 * Set of graph elements sinks.
+	 * Set of graph elements sinks. This array must not be modified.
 	 */
-	protected ArrayList<ElementSink> eltsSinks = new ArrayList<ElementSink>();
+	protected volatile ElementSink[] eltsSinks = NO_ELEMENT_SINK;
 
 	/**
 	 * A queue that allow the management of events (nodes/edge add/delete/change) in
@@ -116,11 +133,11 @@ public abstract class SourceBase implements Source {
 	// Access
 
 	public Iterable<AttributeSink> attributeSinks() {
-		return attrSinks;
+		return Collections.unmodifiableList(Arrays.asList(attrSinks));
 	}
 
 	public Iterable<ElementSink> elementSinks() {
-		return eltsSinks;
+		return Collections.unmodifiableList(Arrays.asList(eltsSinks));
 	}
 
 	// Command
@@ -131,31 +148,23 @@ public abstract class SourceBase implements Source {
 	}
 
 	public void addAttributeSink(AttributeSink sink) {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
+		AttributeSink[] sinks, updated;
 
-			attrSinks.add(sink);
-
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new AddToListEvent<AttributeSink>(attrSinks, sink));
-		}
+		do {
+			sinks = attrSinks;
+			updated = Arrays.copyOf(sinks, sinks.length + 1);
+			updated[sinks.length] = sink;
+		} while (!ATTR_SINKS.compareAndSet(this, sinks, updated));
 	}
 
 	public void addElementSink(ElementSink sink) {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
+		ElementSink[] sinks, updated;
 
-			eltsSinks.add(sink);
-
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new AddToListEvent<ElementSink>(eltsSinks, sink));
-		}
+		do {
+			sinks = eltsSinks;
+			updated = Arrays.copyOf(sinks, sinks.length + 1);
+			updated[sinks.length] = sink;
+		} while (!ELTS_SINKS.compareAndSet(this, sinks, updated));
 	}
 
 	public void clearSinks() {
@@ -164,31 +173,11 @@ public abstract class SourceBase implements Source {
 	}
 
 	public void clearElementSinks() {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
-
-			eltsSinks.clear();
-
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new ClearListEvent<ElementSink>(eltsSinks));
-		}
+		eltsSinks = NO_ELEMENT_SINK;
 	}
 
 	public void clearAttributeSinks() {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
-
-			attrSinks.clear();
-
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new ClearListEvent<AttributeSink>(attrSinks));
-		}
+		attrSinks = NO_ATTRIBUTE_SINK;
 	}
 
 	public void removeSink(Sink sink) {
@@ -197,31 +186,46 @@ public abstract class SourceBase implements Source {
 	}
 
 	public void removeAttributeSink(AttributeSink sink) {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
+		AttributeSink[] sinks, updated;
 
-			attrSinks.remove(sink);
+		do {
+			sinks = attrSinks;
+			int index = indexOf(sinks, sink);
 
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new RemoveFromListEvent<AttributeSink>(attrSinks, sink));
-		}
+			if (index < 0)
+				return;
+
+			updated = without(sinks, index);
+		} while (!ATTR_SINKS.compareAndSet(this, sinks, updated));
 	}
 
 	public void removeElementSink(ElementSink sink) {
-		if (!eventProcessing) {
-			eventProcessing = true;
-			manageEvents();
+		ElementSink[] sinks, updated;
 
-			eltsSinks.remove(sink);
+		do {
+			sinks = eltsSinks;
+			int index = indexOf(sinks, sink);
 
-			manageEvents();
-			eventProcessing = false;
-		} else {
-			eventQueue.add(new RemoveFromListEvent<ElementSink>(eltsSinks, sink));
-		}
+			if (index < 0)
+				return;
+
+			updated = without(sinks, index);
+		} while (!ELTS_SINKS.compareAndSet(this, sinks, updated));
+	}
+
+	private static int indexOf(Object[] sinks, Object sink) {
+		for (int i = 0; i < sinks.length; i++)
+			if (sink == null ? sinks[i] == null : sink.equals(sinks[i]))
+				return i;
+
+		return -1;
+	}
+
+	private static <T> T[] without(T[] sinks, int index) {
+		T[] updated = Arrays.copyOf(sinks, sinks.length - 1);
+		System.arraycopy(sinks, index + 1, updated, index, sinks.length - index - 1);
+
+		return updated;
 	}
 
 	/**
@@ -246,8 +250,8 @@ public abstract class SourceBase implements Source {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).graphCleared(sourceId, timeId);
+			for (ElementSink sink : eltsSinks)
+				sink.graphCleared(sourceId, timeId);
 
 			manageEvents();
 			eventProcessing = false;
@@ -282,8 +286,8 @@ public abstract class SourceBase implements Source {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).stepBegins(sourceId, timeId, step);
+			for (ElementSink sink : eltsSinks)
+				sink.stepBegins(sourceId, timeId, step);
 
 			manageEvents();
 			eventProcessing = false;
@@ -318,8 +322,8 @@ public abstract class SourceBase implements Source {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).nodeAdded(sourceId, timeId, nodeId);
+			for (ElementSink sink : eltsSinks)
+				sink.nodeAdded(sourceId, timeId, nodeId);
 
 			manageEvents();
 			eventProcessing = false;
@@ -350,12 +354,28 @@ public abstract class SourceBase implements Source {
 	 *            The node identifier.
 	 */
 	public void sendNodeRemoved(String sourceId, long timeId, String nodeId) {
+		sendNodeRemoved(sourceId, timeId, -1, nodeId);
+	}
+
+	/**
+	 * Send a "node removed" event to all element sinks, with the index of the
+	 * node.
+	 * 
+	 * @param sourceId
+	 *            The graph identifier.
+	 * @param timeId
+	 * @param nodeIndex
+	 *            The node index, or -1 if unknown.
+	 * @param nodeId
+	 *            The node identifier.
+	 */
+	public void sendNodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
 		if (!eventProcessing) {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).nodeRemoved(sourceId, timeId, nodeId);
+			for (ElementSink sink : eltsSinks)
+				sink.nodeRemoved(sourceId, timeId, nodeIndex, nodeId);
 
 			manageEvents();
 			eventProcessing = false;
@@ -399,12 +419,40 @@ public abstract class SourceBase implements Source {
 	 */
 	public void sendEdgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
+		sendEdgeAdded(sourceId, timeId, -1, edgeId, -1, fromNodeId, -1, toNodeId, directed);
+	}
+
+	/**
+	 * Send an "edge added" event to all element sinks, with the indices of the
+	 * edge and of its nodes.
+	 * 
+	 * @param sourceId
+	 *            The source identifier.
+	 * @param timeId
+	 * @param edgeIndex
+	 *            The edge index, or -1 if unknown.
+	 * @param edgeId
+	 *            The edge identifier.
+	 * @param fromNodeIndex
+	 *            The edge start node index, or -1 if unknown.
+	 * @param fromNodeId
+	 *            The edge start node.
+	 * @param toNodeIndex
+	 *            The edge end node index, or -1 if unknown.
+	 * @param toNodeId
+	 *            The edge end node.
+	 * @param directed
+	 *            Is the edge directed?.
+	 */
+	public void sendEdgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
 		if (!eventProcessing) {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+			for (ElementSink sink : eltsSinks)
+				sink.edgeAdded(sourceId, timeId, edgeIndex, edgeId, fromNodeIndex, fromNodeId, toNodeIndex, toNodeId,
+						directed);
 
 			manageEvents();
 			eventProcessing = false;
@@ -435,12 +483,28 @@ public abstract class SourceBase implements Source {
 	 *            The edge identifier.
 	 */
 	public void sendEdgeRemoved(String sourceId, long timeId, String edgeId) {
+		sendEdgeRemoved(sourceId, timeId, -1, edgeId);
+	}
+
+	/**
+	 * Send a "edge removed" event to all element sinks, with the index of the
+	 * edge.
+	 * 
+	 * @param sourceId
+	 *            The source identifier.
+	 * @param timeId
+	 * @param edgeIndex
+	 *            The edge index, or -1 if unknown.
+	 * @param edgeId
+	 *            The edge identifier.
+	 */
+	public void sendEdgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
 		if (!eventProcessing) {
 			eventProcessing = true;
 			manageEvents();
 
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).edgeRemoved(sourceId, timeId, edgeId);
+			for (ElementSink sink : eltsSinks)
+				sink.edgeRemoved(sourceId, timeId, edgeIndex, edgeId);
 
 			manageEvents();
 			eventProcessing = false;
@@ -783,42 +847,57 @@ public abstract class SourceBase implements Source {
 
 	public void sendAttributeChangedEvent(String sourceId, long timeId, String eltId, ElementType eltType,
 			String attribute, AttributeChangeEvent event, Object oldValue, Object newValue) {
+		sendAttributeChangedEvent(sourceId, timeId, -1, eltId, eltType, attribute, event, oldValue, newValue);
+	}
+
+	/**
+	 * Send an attribute event to all attribute sinks, with the index of the node
+	 * or edge whose attribute changed.
+	 * 
+	 * @param eltIndex
+	 *            The element index, or -1 if unknown or if the element is the
+	 *            graph.
+	 */
+	public void sendAttributeChangedEvent(String sourceId, long timeId, int eltIndex, String eltId,
+			ElementType eltType, String attribute, AttributeChangeEvent event, Object oldValue, Object newValue) {
 		if (!eventProcessing) {
 			eventProcessing = true;
 			manageEvents();
 
 			if (event == AttributeChangeEvent.ADD) {
 				if (eltType == ElementType.NODE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeAdded(sourceId, timeId, eltIndex, eltId, attribute, newValue);
 				} else if (eltType == ElementType.EDGE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeAdded(sourceId, timeId, eltIndex, eltId, attribute, newValue);
 				} else {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeAdded(sourceId, timeId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeAdded(sourceId, timeId, attribute, newValue);
 				}
 			} else if (event == AttributeChangeEvent.REMOVE) {
 				if (eltType == ElementType.NODE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeRemoved(sourceId, timeId, eltId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeRemoved(sourceId, timeId, eltIndex, eltId, attribute);
 				} else if (eltType == ElementType.EDGE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeRemoved(sourceId, timeId, eltId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeRemoved(sourceId, timeId, eltIndex, eltId, attribute);
 				} else {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeRemoved(sourceId, timeId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeRemoved(sourceId, timeId, attribute);
 				}
 			} else {
 				if (eltType == ElementType.NODE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeChanged(sourceId, timeId, eltIndex, eltId, attribute, oldValue,
+								newValue);
 				} else if (eltType == ElementType.EDGE) {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeChanged(sourceId, timeId, eltIndex, eltId, attribute, oldValue,
+								newValue);
 				} else {
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
 				}
 			}
 
@@ -831,6 +910,9 @@ public abstract class SourceBase implements Source {
 	}
 
 	// Deferred event management
+	//
+	// Indices may have changed when a deferred event is triggered, so they are
+	// not kept in the queued events.
 
 	/**
 	 * If in "event processing mode", ensure all pending events are processed.
@@ -876,8 +958,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+			for (ElementSink sink : eltsSinks)
+				sink.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
 		}
 	}
 
@@ -890,8 +972,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).edgeRemoved(sourceId, timeId, edgeId);
+			for (ElementSink sink : eltsSinks)
+				sink.edgeRemoved(sourceId, timeId, edgeId);
 		}
 	}
 
@@ -904,8 +986,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).nodeAdded(sourceId, timeId, nodeId);
+			for (ElementSink sink : eltsSinks)
+				sink.nodeAdded(sourceId, timeId, nodeId);
 		}
 	}
 
@@ -918,8 +1000,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).nodeRemoved(sourceId, timeId, nodeId);
+			for (ElementSink sink : eltsSinks)
+				sink.nodeRemoved(sourceId, timeId, nodeId);
 		}
 	}
 
@@ -929,8 +1011,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).graphCleared(sourceId, timeId);
+			for (ElementSink sink : eltsSinks)
+				sink.graphCleared(sourceId, timeId);
 		}
 	}
 
@@ -943,8 +1025,8 @@ public abstract class SourceBase implements Source {
 		}
 
 		void trigger() {
-			for (int i = 0; i < eltsSinks.size(); i++)
-				eltsSinks.get(i).stepBegins(sourceId, timeId, step);
+			for (ElementSink sink : eltsSinks)
+				sink.stepBegins(sourceId, timeId, step);
 		}
 	}
 
@@ -977,91 +1059,48 @@ public abstract class SourceBase implements Source {
 			case ADD:
 				switch (eltType) {
 				case NODE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
 					break;
 				case EDGE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
 					break;
 				default:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeAdded(sourceId, timeId, attribute, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeAdded(sourceId, timeId, attribute, newValue);
 				}
 				break;
 			case REMOVE:
 				switch (eltType) {
 				case NODE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeRemoved(sourceId, timeId, eltId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeRemoved(sourceId, timeId, eltId, attribute);
 					break;
 				case EDGE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeRemoved(sourceId, timeId, eltId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeRemoved(sourceId, timeId, eltId, attribute);
 					break;
 				default:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeRemoved(sourceId, timeId, attribute);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeRemoved(sourceId, timeId, attribute);
 				}
 				break;
 			default:
 				switch (eltType) {
 				case NODE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).nodeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.nodeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
 					break;
 				case EDGE:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).edgeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.edgeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
 					break;
 				default:
-					for (int i = 0; i < attrSinks.size(); i++)
-						attrSinks.get(i).graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+					for (AttributeSink sink : attrSinks)
+						sink.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
 				}
 			}
 		}
 	}
-
-	class AddToListEvent<T> extends GraphEvent {
-		List<T> l;
-		T obj;
-
-		AddToListEvent(List<T> l, T obj) {
-			super(null, -1);
-			this.l = l;
-			this.obj = obj;
-		}
-
-		void trigger() {
-			l.add(obj);
-		}
-	}
-
-	class RemoveFromListEvent<T> extends GraphEvent {
-		List<T> l;
-		T obj;
-
-		RemoveFromListEvent(List<T> l, T obj) {
-			super(null, -1);
-			this.l = l;
-			this.obj = obj;
-		}
-
-		void trigger() {
-			l.remove(obj);
-		}
-	}
-
-	class ClearListEvent<T> extends GraphEvent {
-		List<T> l;
-
-		ClearListEvent(List<T> l) {
-			super(null, -1);
-			this.l = l;
-		}
-
-		void trigger() {
-			l.clear();
-		}
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream;
+
+/**
+ * Interface of the sinks which want to process the events of a transaction as
+ * a whole.
+ * 
+ * <p>
+ * When a transaction of a graph is committed (see
+ * {@link org.graphstream.graph.implementations.AbstractGraph#beginTransaction()}),
+ * each sink of the graph implementing this interface is told that a
+ * transaction begins, then receives the events of the transaction, then is
+ * told that the transaction ends. Only the sinks of the graph are told: pipes
+ * do not forward these calls.
+ * </p>
+ */
+public interface TransactionListener {
+	/**
+	 * The events of a transaction are about to be sent.
+	 * 
+	 * @param sourceId
+	 *            Identifier of the graph.
+	 * @param eventCount
+	 *            Count of events of the transaction.
+	 */
+	void transactionBegins(String sourceId, int eventCount);
+
+	/**
+	 * All the events of a transaction have been sent.
+	 * 
+	 * @param sourceId
+	 *            Identifier of the graph.
+	 */
+	void transactionEnds(String sourceId);
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A pool of byte buffers whose capacities are powers of two.
+ * <p/>
+ * Buffers are requested with a minimal capacity, and get the next power of two
+ * (at least {@link #MIN_CAPACITY}). Released buffers are kept for later
+ * requests, up to a number of buffers per capacity, so that the buffers of
+ * connections, which are often direct, are not allocated over and over. The
+ * pool can be used by several threads.
+ *
+ * @since 2026-10-19
+ */
+public class ByteBufferPool {
+	/**
+	 * Smallest capacity of the buffers of the pool.
+	 */
+	public static final int MIN_CAPACITY = 1 << 10;
+
+	private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_CAPACITY);
+	private static final int CLASSES = 31 - MIN_SHIFT;
+
+	protected final boolean direct;
+	protected final int maxPooled;
+
+	private final ConcurrentLinkedQueue<ByteBuffer>[] free;
+	private final AtomicIntegerArray freeCount;
+
+	/**
+	 * @param direct
+	 *            true to allocate direct buffers
+	 * @param maxPooled
+	 *            number of released buffers kept for each capacity
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public ByteBufferPool(boolean direct, int maxPooled) {
+		this.direct = direct;
+		this.maxPooled = maxPooled;
+
+		free = new ConcurrentLinkedQueue[CLASSES];
+		freeCount = new AtomicIntegerArray(CLASSES);
+
+		for (int i = 0; i < CLASSES; i++)
+			free[i] = new ConcurrentLinkedQueue<>();
+	}
+
+	/**
+	 * Capacity of the buffers returned for a requested capacity.
+	 */
+	public static int capacityFor(int minCapacity) {
+		if (minCapacity <= MIN_CAPACITY)
+			return MIN_CAPACITY;
+
+		if (minCapacity > 1 << 30)
+			throw new IllegalArgumentException("buffer too large: " + minCapacity);
+
+		return Integer.highestOneBit(minCapacity - 1) << 1;
+	}
+
+	/**
+	 * Gets a cleared buffer of at least the given capacity.
+	 */
+	public ByteBuffer acquire(int minCapacity) {
+		int capacity = capacityFor(minCapacity);
+		int index = Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT;
+		ByteBuffer buffer = free[index].poll();
+
+		if (buffer == null)
+			return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+
+		freeCount.decrementAndGet(index);
+		buffer.clear();
+
+		return buffer;
+	}
+
+	/**
+	 * Gives back a buffer obtained with {@link #acquire(int)}. The buffer must not
+	 * be used anymore by the caller.
+	 */
+	public void release(ByteBuffer buffer) {
+		int capacity = buffer.capacity();
+
+		if (buffer.isDirect() != direct || Integer.bitCount(capacity) != 1 || capacity < MIN_CAPACITY)
+			return;
+
+		int index = Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT;
+
+		if (index < CLASSES && freeCount.incrementAndGet(index) <= maxPooled)
+			free[index].offer(buffer);
+		else if (index < CLASSES)
+			freeCount.decrementAndGet(index);
+	}
+}
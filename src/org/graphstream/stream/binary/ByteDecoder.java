@@ -34,6 +34,8 @@ package org.graphstream.stream.binary;
 import org.graphstream.stream.Source;
 
 import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * Decode an event that has been encoded into a binary buffer and dispatch this
@@ -48,6 +50,8 @@ public interface ByteDecoder extends Source {
 	 *
 	 * @param buffer
 	 *            event as a binary buffer
+	 * @throws InvalidFrameException
+	 *             if the event breaks the protocol
 	 */
 	void decode(ByteBuffer buffer);
 
@@ -60,4 +64,105 @@ public interface ByteDecoder extends Source {
 	 * @return true if the buffer contains an event
 	 */
 	boolean validate(ByteBuffer buffer);
+
+	/**
+	 * Tells if a complete event starts at the position of a buffer ready to be
+	 * read, so that several events can be decoded before the buffer is
+	 * compacted. The position of the buffer SHOULD NOT be changed.
+	 *
+	 * @param buffer
+	 *            buffer in read mode
+	 * @return true if an event can be decoded from the position of the buffer
+	 */
+	default boolean hasEvent(ByteBuffer buffer) {
+		ByteBuffer view = buffer.slice();
+		view.position(view.limit());
+
+		return validate(view);
+	}
+
+	/**
+	 * Size of the event starting at the position of a buffer ready to be read,
+	 * used to allocate the buffer once and to reject too large events. The
+	 * position of the buffer SHOULD NOT be changed.
+	 *
+	 * @param buffer
+	 *            buffer in read mode
+	 * @return the size of the event, or -1 if it is not known yet; other values
+	 *         below four bytes are invalid
+	 */
+	default int getEventSize(ByteBuffer buffer) {
+		return -1;
+	}
+
+	/**
+	 * Message announcing to a peer the protocol extensions this decoder
+	 * understands. It is sent on each new connection, and must be skipped
+	 * without harm by decoders which do not know it.
+	 *
+	 * @return the message, or null if the decoder has nothing to announce
+	 */
+	default ByteBuffer getCapabilities() {
+		return null;
+	}
+
+	/**
+	 * Sets the listener called with the capability flags announced by a peer,
+	 * when the decoder receives them.
+	 *
+	 * @param listener
+	 *            the listener, or null
+	 */
+	default void setCapabilityListener(IntConsumer listener) {
+	}
+
+	/**
+	 * Sets the listener called when the decoder receives the end of a snapshot,
+	 * see {@link ByteEncoder#endSnapshot(String, long)}.
+	 *
+	 * @param listener
+	 *            the listener, or null
+	 */
+	default void setSnapshotListener(SnapshotListener listener) {
+	}
+
+	/**
+	 * Sets the listener called when the decoder receives session messages, see
+	 * {@link ByteEncoder#startSession(String, Map)}.
+	 *
+	 * @param listener
+	 *            the listener, or null
+	 */
+	default void setSessionListener(SessionListener listener) {
+	}
+
+	/**
+	 * Called when a snapshot of the stream has been decoded.
+	 */
+	interface SnapshotListener {
+		/**
+		 * @param sourceId
+		 *            source id of the last event included in the snapshot
+		 * @param timeId
+		 *            time id of this event
+		 */
+		void snapshotEnded(String sourceId, long timeId);
+	}
+
+	/**
+	 * Called when session messages have been decoded.
+	 */
+	interface SessionListener {
+		/**
+		 * The peer gave the id of the session, see
+		 * {@link ByteEncoder#startSession(String, Map)}.
+		 */
+		void sessionStarted(String sessionId, Map<String, Long> timeIds);
+
+		/**
+		 * The peer asks to resume a session, see
+		 * {@link ByteEncoder#resumeSession(String, Map)}.
+		 */
+		void resumeRequested(String sessionId, Map<String, Long> timeIds);
+	}
 }
@@ -34,6 +34,7 @@ package org.graphstream.stream.binary;
 import org.graphstream.stream.Sink;
 
 import java.nio.ByteBuffer;
+import java.util.Map;
 
 /**
  * Define an encoder that transform received events into a binary buffer.
@@ -65,6 +66,75 @@ public interface ByteEncoder extends Sink {
 	 */
 	void removeTransport(Transport transport);
 
+	/**
+	 * Tells the encoder which protocol extensions are understood by all the peers
+	 * it sends to, as announced by their decoders (see
+	 * {@link ByteDecoder#getCapabilities()}). The encoder must only use the
+	 * extensions whose flag is set. By default, encoders do not use any
+	 * extension and ignore this call.
+	 *
+	 * @param capabilities
+	 *            flags of the extensions supported by all peers
+	 */
+	default void setPeerCapabilities(int capabilities) {
+	}
+
+	/**
+	 * Sends the events the encoder may have buffered.
+	 */
+	default void flush() {
+	}
+
+	/**
+	 * Forgets the strings the encoder replaced by codes and tells the peers to do
+	 * the same, so that a peer which starts receiving the events now shares the
+	 * state of the encoder. By default, encoders have no such state and ignore
+	 * this call.
+	 */
+	default void resetDictionary() {
+	}
+
+	/**
+	 * Tells the peers that the events sent so far form a snapshot of the stream,
+	 * up to the event of the given source id and time id. The events which follow
+	 * are the ones sent after this event. By default, nothing is sent.
+	 *
+	 * @param sourceId
+	 *            source id of the last event included in the snapshot
+	 * @param timeId
+	 *            time id of this event
+	 * @see ByteDecoder#setSnapshotListener(ByteDecoder.SnapshotListener)
+	 */
+	default void endSnapshot(String sourceId, long timeId) {
+	}
+
+	/**
+	 * Gives the peers the id of their session, with which they can later resume
+	 * the stream, and the time id of the last event of each source they are up to
+	 * date with. By default, nothing is sent.
+	 *
+	 * @param sessionId
+	 *            id of the session
+	 * @param timeIds
+	 *            time id of the last event of each source
+	 * @see ByteDecoder.SessionListener#sessionStarted(String, Map)
+	 */
+	default void startSession(String sessionId, Map<String, Long> timeIds) {
+	}
+
+	/**
+	 * Asks the peers to resume a session, sending only the events which follow
+	 * the given time ids. By default, nothing is sent.
+	 *
+	 * @param sessionId
+	 *            id of the session, as given by the peer
+	 * @param timeIds
+	 *            time id of the last event received from each source
+	 * @see ByteDecoder.SessionListener#resumeRequested(String, Map)
+	 */
+	default void resumeSession(String sessionId, Map<String, Long> timeIds) {
+	}
+
 	/**
 	 * Define the object that will be called after an event has been transformed
 	 * into a binary buffer.
@@ -73,6 +143,8 @@ public interface ByteEncoder extends Sink {
 		/**
 		 * Called by the encoder once an event has been encoded. The buffer's position
 		 * and limit should be correctly set so the Transport just has to read it.
+		 * The encoder may reuse the buffer for the next event, so a transport that
+		 * keeps it after returning has to copy it.
 		 *
 		 * @param buffer
 		 *            buffer that has to be transported
@@ -0,0 +1,277 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary;
+
+import org.graphstream.stream.Sink;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bounded log of the last events of a stream, each encoded in its own frame,
+ * from which the events missed by a peer can be sent again.
+ * <p/>
+ * Events are encoded by the given encoder, which must not use protocol
+ * extensions whose frames depend on the previous ones, so that any part of the
+ * log can be sent. Once the frames exceed the size of the log, the oldest are
+ * dropped. Each event also gets a sequence number, so that the log can be cut
+ * at the point a peer joined.
+ *
+ * @since 2026-10-19
+ */
+public class ByteEventLog implements Sink {
+	protected final ByteEncoder encoder;
+	protected final long maxBytes;
+
+	private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+	private long bytes;
+	private long nextSequence;
+
+	/**
+	 * Time id of the last event of each source, logged and dropped.
+	 */
+	private final HashMap<String, Long> lastTimeIds = new HashMap<>();
+	private final HashMap<String, Long> droppedTimeIds = new HashMap<>();
+
+	/**
+	 * Event being encoded.
+	 */
+	private String sourceId;
+	private long timeId;
+
+	/**
+	 * @param encoder
+	 *            encoder of the events, which must send one frame per event
+	 * @param maxBytes
+	 *            maximum size of the logged frames
+	 */
+	public ByteEventLog(ByteEncoder encoder, long maxBytes) {
+		if (maxBytes < 0)
+			throw new IllegalArgumentException("log size can not be negative");
+
+		this.encoder = encoder;
+		this.maxBytes = maxBytes;
+
+		encoder.setPeerCapabilities(0);
+		encoder.addTransport(this::append);
+	}
+
+	/**
+	 * Sequence number of the next event.
+	 */
+	public synchronized long getNextSequence() {
+		return nextSequence;
+	}
+
+	/**
+	 * Time id of the last event logged for each source, including the dropped
+	 * events.
+	 *
+	 * @return a copy of the time ids
+	 */
+	public synchronized Map<String, Long> getLastTimeIds() {
+		return new HashMap<>(lastTimeIds);
+	}
+
+	/**
+	 * Size of the logged frames.
+	 */
+	public synchronized long getSize() {
+		return bytes;
+	}
+
+	/**
+	 * Sends the logged events which come after the given time ids and before the
+	 * given sequence number, in the order they were logged. Nothing is sent if
+	 * some of these events have been dropped.
+	 *
+	 * @param timeIds
+	 *            time id of the last event known of each source, an unknown
+	 *            source meaning none of its events is known
+	 * @param end
+	 *            sequence number of the first event not to send
+	 * @param transport
+	 *            receiver of the frames
+	 * @return false if events have been dropped, and could not be sent
+	 */
+	public synchronized boolean replay(Map<String, Long> timeIds, long end, ByteEncoder.Transport transport) {
+		for (Map.Entry<String, Long> dropped : droppedTimeIds.entrySet()) {
+			Long known = timeIds.get(dropped.getKey());
+
+			if (known == null || known < dropped.getValue())
+				return false;
+		}
+
+		for (Entry entry : entries) {
+			if (entry.sequence >= end)
+				break;
+
+			Long known = timeIds.get(entry.sourceId);
+
+			if (known == null || entry.timeId > known)
+				transport.send(ByteBuffer.wrap(entry.frame));
+		}
+
+		return true;
+	}
+
+	private void begin(String sourceId, long timeId) {
+		this.sourceId = sourceId;
+		this.timeId = timeId;
+
+		lastTimeIds.put(sourceId, timeId);
+	}
+
+	private void append(ByteBuffer frame) {
+		byte[] copy = new byte[frame.remaining()];
+		frame.get(copy);
+
+		entries.add(new Entry(nextSequence++, sourceId, timeId, copy));
+		bytes += copy.length;
+
+		while (bytes > maxBytes && !entries.isEmpty()) {
+			Entry dropped = entries.poll();
+
+			bytes -= dropped.frame.length;
+			droppedTimeIds.merge(dropped.sourceId, dropped.timeId, Math::max);
+		}
+	}
+
+	@Override
+	public synchronized void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+		begin(sourceId, timeId);
+		encoder.graphAttributeAdded(sourceId, timeId, attribute, value);
+	}
+
+	@Override
+	public synchronized void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+			Object newValue) {
+		begin(sourceId, timeId);
+		encoder.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public synchronized void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		begin(sourceId, timeId);
+		encoder.graphAttributeRemoved(sourceId, timeId, attribute);
+	}
+
+	@Override
+	public synchronized void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute,
+			Object value) {
+		begin(sourceId, timeId);
+		encoder.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+	}
+
+	@Override
+	public synchronized void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
+		begin(sourceId, timeId);
+		encoder.nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public synchronized void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		begin(sourceId, timeId);
+		encoder.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+	}
+
+	@Override
+	public synchronized void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute,
+			Object value) {
+		begin(sourceId, timeId);
+		encoder.edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+	}
+
+	@Override
+	public synchronized void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
+		begin(sourceId, timeId);
+		encoder.edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public synchronized void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		begin(sourceId, timeId);
+		encoder.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+	}
+
+	@Override
+	public synchronized void nodeAdded(String sourceId, long timeId, String nodeId) {
+		begin(sourceId, timeId);
+		encoder.nodeAdded(sourceId, timeId, nodeId);
+	}
+
+	@Override
+	public synchronized void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		begin(sourceId, timeId);
+		encoder.nodeRemoved(sourceId, timeId, nodeId);
+	}
+
+	@Override
+	public synchronized void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId,
+			String toNodeId, boolean directed) {
+		begin(sourceId, timeId);
+		encoder.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+	}
+
+	@Override
+	public synchronized void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		begin(sourceId, timeId);
+		encoder.edgeRemoved(sourceId, timeId, edgeId);
+	}
+
+	@Override
+	public synchronized void graphCleared(String sourceId, long timeId) {
+		begin(sourceId, timeId);
+		encoder.graphCleared(sourceId, timeId);
+	}
+
+	@Override
+	public synchronized void stepBegins(String sourceId, long timeId, double step) {
+		begin(sourceId, timeId);
+		encoder.stepBegins(sourceId, timeId, step);
+	}
+
+	private static final class Entry {
+		final long sequence;
+		final String sourceId;
+		final long timeId;
+		final byte[] frame;
+
+		Entry(long sequence, String sourceId, long timeId, byte[] frame) {
+			this.sequence = sequence;
+			this.sourceId = sourceId;
+			this.timeId = timeId;
+			this.frame = frame;
+		}
+	}
+}
@@ -42,6 +42,17 @@ public interface ByteFactory {
 	 */
 	ByteEncoder createByteEncoder();
 
+	/**
+	 * Create the encoder of a snapshot of the stream, replayed to a new peer. It
+	 * may be configured to favour compactness over latency, since the whole
+	 * snapshot is sent at once.
+	 *
+	 * @return the new created encoder
+	 */
+	default ByteEncoder createSnapshotEncoder() {
+		return createByteEncoder();
+	}
+
 	/**
 	 * Create a new binary decoder.
 	 *
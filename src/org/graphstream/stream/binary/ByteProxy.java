@@ -35,17 +35,36 @@ import org.graphstream.stream.Pipe;
 import org.graphstream.stream.Sink;
 import org.graphstream.stream.SourceBase;
 import org.graphstream.stream.Replayable;
+import org.graphstream.stream.sync.SinkTime;
+import org.graphstream.util.jfr.FlightEvents;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -61,6 +80,13 @@ import java.util.logging.Logger;
  * {@link ByteProxy#start()} method. It can be manually used with the
  * {@link ByteProxy#poll()} method that process available
  * {@link java.nio.channels.SelectionKey}.
+ * <p/>
+ * A server with many peers can spread them over several I/O threads, see
+ * {@link #setReactorPool(int, Executor)}. New peers of a server can receive
+ * the replayed stream without blocking the others, see
+ * {@link #setBootstrapExecutor(Executor)}. Peers losing their connection can
+ * resume their session with {@link #reconnect()}, see
+ * {@link #setEventLog(long)}.
  *
  * @since 31/01/16.
  */
@@ -83,8 +109,59 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 		CLIENT
 	}
 
+	/**
+	 * What to do when the data waiting to be written to a peer exceeds the high
+	 * water mark.
+	 */
+	public enum SlowPeerPolicy {
+		/**
+		 * The sending thread writes the waiting data itself, waiting for the peer
+		 * if needed, until it gets under the high water mark. The peer is
+		 * disconnected if this takes longer than the block timeout.
+		 */
+		BLOCK,
+		/**
+		 * The peer is disconnected.
+		 */
+		DISCONNECT
+	}
+
 	protected static final int BUFFER_INITIAL_SIZE = 8192;
 
+	/**
+	 * Default time a sending thread waits for a slow peer under the
+	 * {@link SlowPeerPolicy#BLOCK} policy, in nanoseconds.
+	 */
+	public static final long DEFAULT_BLOCK_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+	/**
+	 * Default time a new peer has to announce its capabilities before the stream
+	 * is replayed to it without protocol extension, in nanoseconds.
+	 */
+	public static final long DEFAULT_PEER_READY_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(500);
+
+	/**
+	 * Default maximum size of a received frame, see {@link #setMaxFrameSize(int)}.
+	 */
+	public static final int DEFAULT_MAX_FRAME_SIZE = 1 << 26;
+
+	/**
+	 * Default number of received bytes a channel of the reactor pool can have
+	 * waiting for the dispatch executor.
+	 */
+	public static final int DEFAULT_MAX_INBOUND_BACKLOG = 1 << 22;
+
+	/**
+	 * Size of the buffers holding the data not yet written to a channel.
+	 */
+	protected static final int OUTBOUND_CHUNK_SIZE = 16384;
+
+	/**
+	 * Time, in milliseconds, without event from the graph after which the
+	 * snapshot of a new peer is taken outside of the thread of the graph.
+	 */
+	protected static final long SNAPSHOT_IDLE_DELAY = 100;
+
 	protected final ByteFactory byteFactory;
 	protected final ByteEncoder encoder;
 	protected final ByteDecoder decoder;
@@ -127,7 +204,13 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 	 * The thread processing selection key when the proxy has been started. If the
 	 * proxy is not started, the field will be null.
 	 */
-	protected Thread thread;
+	protected volatile Thread thread;
+
+	/**
+	 * Tasks run by the thread of a started proxy before it processes the selected
+	 * keys, see {@link #register(SelectableChannel, int)}.
+	 */
+	protected final ConcurrentLinkedQueue<Runnable> selectorTasks;
 
 	/**
 	 * List of opened channels that can be written when new events are received by
@@ -140,6 +223,146 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 	 */
 	protected Replayable replayable;
 
+	/**
+	 * Protocol extensions announced by the peer of each writable channel.
+	 */
+	protected final Map<Channel, Integer> peerCapabilities;
+
+	/**
+	 * Decoder of each channel read by the proxy, since decoders may keep a state
+	 * specific to their peer.
+	 */
+	protected final Map<Channel, ByteDecoder> decoders;
+
+	/**
+	 * Forwards the decoded events to the sinks of the proxy.
+	 */
+	protected final Sink decodedEvents;
+
+	/**
+	 * Held while a decoded event is sent to the sinks of the proxy, so that the
+	 * events of channels decoded concurrently reach them one at a time.
+	 */
+	protected final Object dispatchLock = new Object();
+
+	/**
+	 * Data waiting to be written to each channel.
+	 */
+	protected final Map<Channel, Outbound> outbounds;
+
+	/**
+	 * Buffers of the data waiting to be written.
+	 */
+	protected final ByteBufferPool bufferPool;
+
+	/**
+	 * Number of bytes waiting to be written to a channel from which the
+	 * {@link #slowPeerPolicy} applies.
+	 */
+	protected long highWaterMark;
+	protected SlowPeerPolicy slowPeerPolicy;
+
+	/**
+	 * Time, in nanoseconds, after which a blocked sending thread gives up and
+	 * disconnects the peer.
+	 */
+	protected long blockTimeout;
+
+	/**
+	 * Time, in nanoseconds, a new peer has to announce its capabilities before
+	 * the stream is replayed to it.
+	 */
+	protected long peerReadyTimeout;
+
+	/**
+	 * Maximum size of a received frame.
+	 */
+	protected int maxFrameSize;
+
+	/**
+	 * Received bytes waiting for the dispatch executor from which a channel is no
+	 * longer read.
+	 */
+	protected int maxInboundBacklog;
+
+	/**
+	 * I/O threads of the server, each with its own selector, or null if the
+	 * selector of the proxy handles all channels.
+	 */
+	protected Reactor[] reactors;
+
+	/**
+	 * Executor decoding the received data in reactor pool mode, or null to decode
+	 * on the I/O threads.
+	 */
+	protected Executor dispatchExecutor;
+
+	/**
+	 * I/O thread of each channel, in reactor pool mode.
+	 */
+	protected final Map<Channel, Reactor> channelReactors;
+
+	/**
+	 * Executor replaying the stream to new peers, or null to replay it on the I/O
+	 * thread accepting them.
+	 */
+	protected Executor bootstrapExecutor;
+
+	/**
+	 * Bootstrap in progress of each new channel.
+	 */
+	protected final Map<Channel, Bootstrap> bootstraps;
+
+	/**
+	 * Last event sent by the proxy, which tags the snapshots sent to new peers,
+	 * null if none was sent.
+	 */
+	protected volatile EventId lastSent;
+
+	/**
+	 * Bootstraps waiting for their snapshot, and their number, which is only
+	 * decremented once the snapshot is taken.
+	 */
+	protected final ConcurrentLinkedQueue<Bootstrap> pendingSnapshots;
+	protected final AtomicInteger snapshotsPending;
+
+	/**
+	 * Held while snapshots are taken, so that the events of the graph wait for a
+	 * snapshot taken by the scheduler.
+	 */
+	protected final Object snapshotLock = new Object();
+
+	/**
+	 * Thread waiting for new peers and for the graph to be idle, which also
+	 * replays the stream if there is no {@link #bootstrapExecutor}. Created with
+	 * the first bootstrap.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Last events sent by a server, from which peers resume their session, or null
+	 * if sessions are disabled.
+	 */
+	protected volatile ByteEventLog eventLog;
+
+	/**
+	 * Prefix of the ids of the sessions opened by this proxy, and number of
+	 * sessions opened.
+	 */
+	protected final String sessionPrefix;
+	protected final AtomicLong sessions;
+
+	/**
+	 * Session given to a client by its server, or null if it has none.
+	 */
+	protected volatile String sessionId;
+
+	/**
+	 * Time id of the last event received from each source, once a client has a
+	 * session.
+	 */
+	protected final SinkTime receivedTimes;
+
 	/**
 	 * Create a new ByteProxy, in server mode, which will be bound to a local
 	 * address and the given port.
@@ -171,7 +394,25 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 	 */
 	public ByteProxy(ByteFactory factory, Mode mode, InetAddress address, int port) throws IOException {
 		running = new AtomicBoolean(false);
-		writableChannels = new LinkedList<>();
+		writableChannels = new CopyOnWriteArrayList<>();
+		peerCapabilities = new ConcurrentHashMap<>();
+		decoders = new ConcurrentHashMap<>();
+		outbounds = new ConcurrentHashMap<>();
+		channelReactors = new ConcurrentHashMap<>();
+		bootstraps = new ConcurrentHashMap<>();
+		pendingSnapshots = new ConcurrentLinkedQueue<>();
+		selectorTasks = new ConcurrentLinkedQueue<>();
+		snapshotsPending = new AtomicInteger();
+		sessionPrefix = UUID.randomUUID() + "-";
+		sessions = new AtomicLong();
+		receivedTimes = new SinkTime();
+		bufferPool = new ByteBufferPool(true, 64);
+		highWaterMark = Long.MAX_VALUE;
+		maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+		maxInboundBacklog = DEFAULT_MAX_INBOUND_BACKLOG;
+		slowPeerPolicy = SlowPeerPolicy.BLOCK;
+		blockTimeout = DEFAULT_BLOCK_TIMEOUT;
+		peerReadyTimeout = DEFAULT_PEER_READY_TIMEOUT;
 		replayable = null;
 		thread = null;
 
@@ -190,88 +431,135 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 			}
 		});
 
-		decoder.addSink(new Sink() {
+		decodedEvents = new Sink() {
 			@Override
 			public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
-				sendGraphAttributeAdded(sourceId, timeId, attribute, value);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendGraphAttributeAdded(sourceId, timeId, attribute, value);
+				}
 			}
 
 			@Override
 			public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
 					Object newValue) {
-				sendGraphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendGraphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+				}
 			}
 
 			@Override
 			public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
-				sendGraphAttributeRemoved(sourceId, timeId, attribute);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendGraphAttributeRemoved(sourceId, timeId, attribute);
+				}
 			}
 
 			@Override
 			public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute,
 					Object value) {
-				sendNodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendNodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+				}
 			}
 
 			@Override
 			public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute,
 					Object oldValue, Object newValue) {
-				sendNodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendNodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+				}
 			}
 
 			@Override
 			public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
-				sendNodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendNodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+				}
 			}
 
 			@Override
 			public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute,
 					Object value) {
-				sendEdgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendEdgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+				}
 			}
 
 			@Override
 			public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute,
 					Object oldValue, Object newValue) {
-				sendEdgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendEdgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+				}
 			}
 
 			@Override
 			public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
-				sendEdgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendEdgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+				}
 			}
 
 			@Override
 			public void nodeAdded(String sourceId, long timeId, String nodeId) {
-				sendNodeAdded(sourceId, timeId, nodeId);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendNodeAdded(sourceId, timeId, nodeId);
+				}
 			}
 
 			@Override
 			public void nodeRemoved(String sourceId, long timeId, String nodeId) {
-				sendNodeRemoved(sourceId, timeId, nodeId);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendNodeRemoved(sourceId, timeId, nodeId);
+				}
 			}
 
 			@Override
 			public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 					boolean directed) {
-				sendEdgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendEdgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+				}
 			}
 
 			@Override
 			public void edgeRemoved(String sourceId, long timeId, String edgeId) {
-				sendEdgeRemoved(sourceId, timeId, edgeId);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendEdgeRemoved(sourceId, timeId, edgeId);
+				}
 			}
 
 			@Override
 			public void graphCleared(String sourceId, long timeId) {
-				sendGraphCleared(sourceId, timeId);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendGraphCleared(sourceId, timeId);
+				}
 			}
 
 			@Override
 			public void stepBegins(String sourceId, long timeId, double step) {
-				sendStepBegins(sourceId, timeId, step);
+				synchronized (dispatchLock) {
+					received(sourceId, timeId);
+					sendStepBegins(sourceId, timeId, step);
+				}
 			}
-		});
+		};
+
+		decoder.addSink(decodedEvents);
 
 		init();
 	}
@@ -292,18 +580,101 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 
 			break;
 		case CLIENT:
-			SocketChannel socketChannel = SocketChannel.open();
-			socketChannel.connect(isa);
-			socketChannel.finishConnect();
-			socketChannel.configureBlocking(false);
-
-			mainChannel = socketChannel;
-			mainChannel.register(selector, SelectionKey.OP_READ + SelectionKey.OP_WRITE);
-			writableChannels.add(socketChannel);
+			connect(isa);
 			break;
 		}
 	}
 
+	/**
+	 * Connects a client to its server. A client having a session first asks to
+	 * resume it.
+	 */
+	protected void connect(InetSocketAddress isa) throws IOException {
+		SocketChannel socketChannel = SocketChannel.open();
+		socketChannel.connect(isa);
+		socketChannel.finishConnect();
+		socketChannel.configureBlocking(false);
+
+		mainChannel = socketChannel;
+		register(socketChannel, SelectionKey.OP_READ);
+		listenCapabilities(decoder, socketChannel);
+		listenSessions(decoder, socketChannel);
+		decoders.put(socketChannel, decoder);
+		requestResume(socketChannel);
+		announceCapabilities(socketChannel);
+		addPeer(socketChannel);
+		writableChannels.add(socketChannel);
+	}
+
+	/**
+	 * Closes the connection of a client, if it is still opened, and connects
+	 * again to the server. If the server gave a session to the client, the
+	 * session is resumed and the client only receives the events it missed, or
+	 * the whole stream again if the server no longer has them.
+	 * <p/>
+	 * A started proxy stops when it loses its connection, and has to be started
+	 * again.
+	 *
+	 * @throws IOException
+	 *             if the server can not be reached
+	 */
+	public synchronized void reconnect() throws IOException {
+		if (mode != Mode.CLIENT)
+			throw new IllegalStateException("only clients can reconnect");
+
+		SelectableChannel previous = mainChannel;
+
+		// Not the main channel anymore, so that closing it does not stop the proxy.
+		mainChannel = null;
+
+		if (previous != null)
+			close(previous);
+
+		connect(new InetSocketAddress(address, port));
+	}
+
+	/**
+	 * Adds operations to the interest set of a channel on the selector of the
+	 * proxy, registering the channel if needed. On Java 8, registering a channel
+	 * waits for a pending select() to return, so a started proxy registers it
+	 * with its own thread, and a proxy polled by another thread is woken up
+	 * first.
+	 */
+	protected void register(SelectableChannel channel, int ops) throws ClosedChannelException {
+		Thread t = thread;
+
+		if (t != null && t != Thread.currentThread()) {
+			selectorTasks.add(() -> {
+				try {
+					addInterest(channel, ops);
+				} catch (ClosedChannelException | CancelledKeyException e) {
+					LOGGER.warning("channel closed before being registered");
+				}
+			});
+
+			selector.wakeup();
+		} else {
+			selector.wakeup();
+			addInterest(channel, ops);
+		}
+	}
+
+	private void addInterest(SelectableChannel channel, int ops) throws ClosedChannelException {
+		SelectionKey key = channel.keyFor(selector);
+
+		if (key == null)
+			channel.register(selector, ops);
+		else
+			key.interestOps(key.interestOps() | ops);
+	}
+
+	/**
+	 * Id of the session given by the server, null if the server gave none.
+	 */
+	public String getSessionId() {
+		return sessionId;
+	}
+
 	/**
 	 * Set the stream that can be replayed on a new connection.
 	 *
@@ -314,6 +685,169 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 		this.replayable = replayable;
 	}
 
+	/**
+	 * Replays the stream to new peers with the given executor, so that the I/O
+	 * thread keeps serving the other peers meanwhile. Events sent while a peer
+	 * receives the replay are kept for it, and sent once the replay is over.
+	 * <p/>
+	 * Once the peer announced its capabilities, the snapshot of the stream is
+	 * taken by the thread sending the events of the graph to the proxy, with its
+	 * next event. If the graph sends none for a while, the snapshot is taken by
+	 * another thread, the events of the graph waiting for it. The snapshot is
+	 * then encoded by the encoder of {@link ByteFactory#createSnapshotEncoder()},
+	 * with the protocol extensions the peer announced, and ends with a mark
+	 * carrying the source id and the time id of the last event sent before the
+	 * snapshot, see {@link ByteEncoder#endSnapshot(String, long)}.
+	 * <p/>
+	 * When the snapshot is taken while the graph is idle, an event racing with it
+	 * may be both in the snapshot and sent after it. Replicas then receive it
+	 * twice, so they should not be strict, as for the chunked replay of
+	 * {@link org.graphstream.graph.implementations.AbstractGraph.GraphReplayController}.
+	 *
+	 * @param executor
+	 *            executor replaying the stream, or null to replay it on a thread
+	 *            of the proxy
+	 */
+	public void setBootstrapExecutor(Executor executor) {
+		bootstrapExecutor = executor;
+	}
+
+	/**
+	 * Keeps the last events sent by a server, so that peers which lost their
+	 * connection can resume their session and only receive the events they
+	 * missed, see {@link #reconnect()}. Peers get a session once the stream has
+	 * been replayed to them. When a peer comes back too late, the events it
+	 * missed having been dropped from the log, its graph is cleared and the
+	 * stream is replayed again.
+	 * <p/>
+	 * The stream is then replayed to a new peer once it announced its
+	 * capabilities, after the message telling whether it resumes a session, or
+	 * once the {@link #setPeerReadyTimeout(long, TimeUnit)} is over. It is never
+	 * replayed by the I/O threads.
+	 *
+	 * @param maxBytes
+	 *            size of the log, in encoded bytes
+	 */
+	public void setEventLog(long maxBytes) {
+		if (mode != Mode.SERVER)
+			throw new IllegalStateException("only servers keep an event log");
+
+		eventLog = new ByteEventLog(byteFactory.createByteEncoder(), maxBytes);
+	}
+
+	/**
+	 * Limits the data waiting to be written to each peer. By default, data is kept
+	 * until the peer can receive it, without limit.
+	 *
+	 * @param bytes
+	 *            number of waiting bytes from which the policy applies
+	 * @param policy
+	 *            what to do with peers which do not read fast enough
+	 */
+	public void setHighWaterMark(long bytes, SlowPeerPolicy policy) {
+		if (bytes < 0)
+			throw new IllegalArgumentException("high water mark can not be negative");
+
+		highWaterMark = bytes;
+		slowPeerPolicy = policy;
+	}
+
+	/**
+	 * Limits the time a sending thread waits for a peer under the
+	 * {@link SlowPeerPolicy#BLOCK} policy. Once it is over, the peer is
+	 * disconnected, so that a stalled peer does not block the sending thread and
+	 * the other peers forever. Ten seconds by default.
+	 *
+	 * @param timeout
+	 *            maximum waiting time, strictly positive
+	 * @param unit
+	 *            unit of the time
+	 */
+	public void setBlockTimeout(long timeout, TimeUnit unit) {
+		if (timeout <= 0)
+			throw new IllegalArgumentException("block timeout must be positive");
+
+		blockTimeout = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Limits the time a new peer has to announce its capabilities. Once it is
+	 * over, the stream is replayed to the peer without protocol extension, so
+	 * that peers which never send anything are still bootstrapped. Half a second
+	 * by default.
+	 *
+	 * @param timeout
+	 *            maximum waiting time, strictly positive
+	 * @param unit
+	 *            unit of the time
+	 */
+	public void setPeerReadyTimeout(long timeout, TimeUnit unit) {
+		if (timeout <= 0)
+			throw new IllegalArgumentException("peer ready timeout must be positive");
+
+		peerReadyTimeout = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Spreads the channels of a server over several I/O threads. The selector of
+	 * the proxy then only accepts connections, and each new channel is given to
+	 * the I/O thread having the fewest channels, which reads it and writes the
+	 * data waiting for it.
+	 * <p/>
+	 * The received data is decoded by the given executor, in the order it was
+	 * received for each channel. Channels are decoded concurrently, but their
+	 * events are sent to the sinks of the proxy one at a time. A channel whose
+	 * data waits too long for the executor is no longer read meanwhile, see
+	 * {@link #setMaxInboundBacklog(int)}.
+	 *
+	 * @param ioThreads
+	 *            number of I/O threads
+	 * @param dispatchExecutor
+	 *            executor decoding the received data, or null to decode it on
+	 *            the I/O threads
+	 * @throws IOException
+	 *             if the selectors of the I/O threads can not be opened
+	 */
+	public synchronized void setReactorPool(int ioThreads, Executor dispatchExecutor) throws IOException {
+		if (mode != Mode.SERVER)
+			throw new IllegalStateException("only servers can have a reactor pool");
+
+		if (reactors != null)
+			throw new IllegalStateException("reactor pool already set");
+
+		if (ioThreads < 1)
+			throw new IllegalArgumentException("at least one I/O thread is needed");
+
+		this.dispatchExecutor = dispatchExecutor;
+
+		Reactor[] pool = new Reactor[ioThreads];
+
+		for (int i = 0; i < ioThreads; i++) {
+			pool[i] = new Reactor(Selector.open());
+
+			Thread t = new Thread(pool[i], String.format("byte-proxy-io-%d-%d", port, i));
+			t.setDaemon(true);
+			t.start();
+		}
+
+		reactors = pool;
+	}
+
+	/**
+	 * Number of bytes waiting to be written, for all peers.
+	 */
+	public long getPendingBytes() {
+		long pending = 0;
+
+		for (Outbound outbound : outbounds.values()) {
+			synchronized (outbound) {
+				pending += outbound.pending;
+			}
+		}
+
+		return pending;
+	}
+
 	/**
 	 * Starts the proxy worker.
 	 */
@@ -337,9 +871,31 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 		if (thread != null) {
 			Thread t = thread;
 			running.set(false);
+			selector.wakeup();
 
 			t.join();
 		}
+
+		stopReactors();
+
+		synchronized (this) {
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+				scheduler = null;
+			}
+		}
+	}
+
+	/**
+	 * Stops the I/O threads of the reactor pool, if any.
+	 */
+	protected synchronized void stopReactors() {
+		if (reactors != null) {
+			for (Reactor reactor : reactors)
+				reactor.shutdown();
+
+			reactors = null;
+		}
 	}
 
 	@Override
@@ -357,6 +913,10 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 	}
 
 	protected void processSelectedKeys() throws IOException {
+		processSelectedKeys(selector);
+	}
+
+	protected void processSelectedKeys(Selector selector) throws IOException {
 		Set<?> readyKeys = selector.selectedKeys();
 		Iterator<?> i = readyKeys.iterator();
 
@@ -365,78 +925,199 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 
 			i.remove();
 
-			if (key.isAcceptable()) {
-				//
-				// If a new connection occurs, register the new socket
-				// in the multiplexer.
-				//
-
-				assert mode == Mode.SERVER;
-
-				ServerSocketChannel ssocket = (ServerSocketChannel) key.channel();
-				SocketChannel socketChannel = ssocket.accept();
+			try {
+				processKey(key);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE, "error while processing a channel, closing it", e);
 
-				LOGGER.info(String.format("accepting socket %s:%d", socketChannel.socket().getInetAddress(),
-						socketChannel.socket().getPort()));
+				if (!(key.channel() instanceof ServerSocketChannel))
+					close(key.channel());
+			}
+		}
+	}
 
-				socketChannel.finishConnect();
-				socketChannel.configureBlocking(false);
+	/**
+	 * Accepts, reads or writes a channel according to the operations it is ready
+	 * for.
+	 */
+	protected void processKey(SelectionKey key) throws IOException {
+		if (key.isAcceptable()) {
+			//
+			// If a new connection occurs, register the new socket
+			// in the multiplexer.
+			//
 
-				if (decoder != null)
-					socketChannel.register(selector, SelectionKey.OP_READ);
+			assert mode == Mode.SERVER;
 
-				replay(socketChannel);
-				writableChannels.add(socketChannel);
-			} else if (key.isReadable()) {
+			accept((ServerSocketChannel) key.channel());
+		} else {
+			if (key.isReadable()) {
 				//
 				// If a message arrives, read it.
 				//
 
 				readDataChunk(key);
-			} else if (key.isWritable() && key.attachment() != null) {
-				ByteBuffer buffer = (ByteBuffer) key.attachment();
-				WritableByteChannel out = (WritableByteChannel) key.channel();
+			}
 
-				try {
-					out.write(buffer);
-				} catch (IOException e) {
-					LOGGER.severe("I/O error while writing to channel.");
-					close(out);
-				} finally {
-					key.cancel();
-				}
+			if (key.isValid() && key.isWritable()) {
+				//
+				// If a channel can receive data again, send what is waiting.
+				//
+
+				drain(key);
 			}
 		}
 	}
 
 	/**
-	 * Same as calling {@link #poll(boolean)} with blocking flag set to true.
+	 * Accepts a new connection and registers the new socket in the multiplexer,
+	 * or in the one of an I/O thread in reactor pool mode.
 	 */
-	public void poll() {
-		poll(true);
-	}
+	protected void accept(ServerSocketChannel ssocket) throws IOException {
+		SocketChannel socketChannel = ssocket.accept();
 
-	/**
-	 * Wait until one or several chunks of message are acceptable. This method
-	 * should be called in a loop. It can be used to block a program until some data
-	 * is available.
-	 *
-	 * @param blocking
-	 *            flag true if method has to wait for some keys to be ready. If
-	 *            false, just process the available keys.
-	 */
-	public void poll(boolean blocking) {
-		try {
-			if (blocking) {
-				if (selector.select() > 0) {
-					processSelectedKeys();
-				}
-			} else {
-				if (selector.selectNow() > 0) {
-					processSelectedKeys();
-				}
-			}
-		} catch (IOException e) {
+		if (socketChannel == null)
+			return;
+
+		LOGGER.info(String.format("accepting socket %s:%d", socketChannel.socket().getInetAddress(),
+				socketChannel.socket().getPort()));
+
+		socketChannel.finishConnect();
+		socketChannel.configureBlocking(false);
+
+		Reactor reactor = leastLoadedReactor();
+
+		if (reactor != null) {
+			reactor.channels.incrementAndGet();
+			channelReactors.put(socketChannel, reactor);
+		}
+
+		if (decoder != null) {
+			decoders.put(socketChannel, createDecoder(socketChannel));
+
+			if (reactor == null) {
+				socketChannel.register(selector, SelectionKey.OP_READ);
+			} else {
+				Inbound inbound = new Inbound(socketChannel);
+
+				reactor.execute(socketChannel, () -> {
+					try {
+						socketChannel.register(reactor.selector, SelectionKey.OP_READ, inbound);
+					} catch (ClosedChannelException e) {
+						LOGGER.warning("channel closed before being registered");
+					}
+				});
+			}
+
+			announceCapabilities(socketChannel);
+		}
+
+		addPeer(socketChannel);
+
+		if ((eventLog != null && decoder != null) || replayable != null)
+			bootstrap(socketChannel);
+		else
+			writableChannels.add(socketChannel);
+	}
+
+	/**
+	 * Replays the stream to a new channel once its peer announced its
+	 * capabilities, or after {@link #setPeerReadyTimeout(long, TimeUnit)}, see
+	 * {@link #setBootstrapExecutor(Executor)}. The channel becomes writable once
+	 * the snapshot is taken, the events sent after it being kept until the replay
+	 * is over.
+	 */
+	protected void bootstrap(SocketChannel channel) {
+		Bootstrap bootstrap = new Bootstrap(channel);
+
+		bootstraps.put(channel, bootstrap);
+
+		try {
+			scheduler().schedule(bootstrap::ready, peerReadyTimeout, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			LOGGER.warning("can not replay the stream to the new peer: " + e.getMessage());
+			close(channel);
+		}
+	}
+
+	/**
+	 * Takes the snapshots the new peers are waiting for. Called by the thread of
+	 * the graph with its events, or by the scheduler once the graph is idle.
+	 */
+	protected void takeSnapshots() {
+		synchronized (snapshotLock) {
+			Bootstrap bootstrap;
+
+			while ((bootstrap = pendingSnapshots.poll()) != null) {
+				try {
+					bootstrap.snapshot();
+				} finally {
+					snapshotsPending.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Thread waiting for new peers and for the graph to be idle, created when
+	 * first needed.
+	 */
+	protected synchronized ScheduledExecutorService scheduler() {
+		if (scheduler == null) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+				Thread t = new Thread(task, String.format("byte-proxy-bootstrap-%d", port));
+				t.setDaemon(true);
+				return t;
+			});
+
+			executor.setRemoveOnCancelPolicy(true);
+			scheduler = executor;
+		}
+
+		return scheduler;
+	}
+
+	protected synchronized Reactor leastLoadedReactor() {
+		Reactor least = null;
+
+		if (reactors != null) {
+			for (Reactor reactor : reactors) {
+				if (least == null || reactor.channels.get() < least.channels.get())
+					least = reactor;
+			}
+		}
+
+		return least;
+	}
+
+	/**
+	 * Same as calling {@link #poll(boolean)} with blocking flag set to true.
+	 */
+	public void poll() {
+		poll(true);
+	}
+
+	/**
+	 * Wait until one or several chunks of message are acceptable. This method
+	 * should be called in a loop. It can be used to block a program until some data
+	 * is available.
+	 *
+	 * @param blocking
+	 *            flag true if method has to wait for some keys to be ready. If
+	 *            false, just process the available keys.
+	 */
+	public void poll(boolean blocking) {
+		try {
+			int selected = blocking ? selector.select() : selector.selectNow();
+			Runnable task;
+
+			while ((task = selectorTasks.poll()) != null)
+				task.run();
+
+			if (selected > 0) {
+				processSelectedKeys();
+			}
+		} catch (IOException e) {
 			LOGGER.severe(String.format("I/O error in receiver //:%d thread: aborting: %s", port, e.getMessage()));
 			running.set(false);
 		} catch (Throwable e) {
@@ -448,22 +1129,31 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 
 	/**
 	 * When data is readable on a socket, send it to the appropriate buffer
-	 * (creating it if needed).
+	 * (creating it if needed). Buffers come from the pool and double in size when
+	 * a frame does not fit.
 	 */
 	protected void readDataChunk(SelectionKey key) throws IOException {
+		if (key.attachment() instanceof Inbound) {
+			readForDispatch(key);
+			return;
+		}
+
 		ByteBuffer buffer = (ByteBuffer) key.attachment();
 		SocketChannel socket = (SocketChannel) key.channel();
 
 		if (buffer == null) {
-			buffer = ByteBuffer.allocate(BUFFER_INITIAL_SIZE);
+			buffer = bufferPool.acquire(BUFFER_INITIAL_SIZE);
 			key.attach(buffer);
 
 			LOGGER.info(String.format("creating buffer for new connection from %s:%d", socket.socket().getInetAddress(),
 					socket.socket().getPort()));
 		}
 
+		Object flight = FlightEvents.beginTransfer("receive");
+		int r = 0;
+
 		try {
-			int r = socket.read(buffer);
+			r = socket.read(buffer);
 
 			if (r < 0) {
 				//
@@ -471,82 +1161,571 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 				//
 
 				LOGGER.info("end-of-stream reached. Closing the mainChannel.");
-				close(socket);
+				key.attach(dropReadBuffer(socket, buffer));
 			} else if (r == 0) {
 				LOGGER.warning("Strange, no binary read.");
 			} else {
-				while (decoder.validate(buffer)) {
-					buffer.flip();
-					decoder.decode(buffer);
-					buffer.compact();
-				}
-
-				if (!buffer.hasRemaining()) {
-					ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() + BUFFER_INITIAL_SIZE);
-					bigger.put(buffer);
-					key.attach(bigger);
-				}
+				key.attach(decodeFrames(socket, buffer));
 			}
 		} catch (IOException e) {
 			LOGGER.severe(String.format("receiver //%s:%d cannot read object socket mainChannel (I/O error): %s",
 					address.getHostName(), port, e.getMessage()));
 
 			close(key.channel());
+		} finally {
+			FlightEvents.endTransfer(flight, Math.max(r, 0), 1);
 		}
 	}
 
-	protected void doSend(ByteBuffer buffer) {
-		ByteBuffer sendBuffer = ByteBuffer.allocate(buffer.remaining());
-		sendBuffer.put(buffer);
-		sendBuffer.rewind();
+	/**
+	 * Decodes the complete frames of a buffer received from a channel. The buffer
+	 * is in write mode. It is compacted once all complete frames are decoded, and
+	 * replaced by a larger one if the next frame does not fit.
+	 *
+	 * @return the buffer to read the next data in, or null if the channel was
+	 *         closed
+	 */
+	protected ByteBuffer decodeFrames(SocketChannel channel, ByteBuffer buffer) {
+		ByteDecoder channelDecoder = decoders.get(channel);
+
+		if (channelDecoder == null)
+			return buffer;
+
+		int needed = -1;
+
+		buffer.flip();
 
-		Iterator<SocketChannel> channels = writableChannels.iterator();
+		while (buffer.hasRemaining()) {
+			int size = channelDecoder.getEventSize(buffer);
+
+			// A frame holds at least its size, and -1 tells the size is not known yet.
+			if (size > maxFrameSize || (size < 4 && size != -1)) {
+				LOGGER.warning(String.format("invalid frame size %d, closing the channel", size));
+				return dropReadBuffer(channel, buffer);
+			}
+
+			if (!channelDecoder.hasEvent(buffer)) {
+				needed = size;
+				break;
+			}
 
-		while (channels.hasNext()) {
-			SocketChannel writableChannel = channels.next();
+			int position = buffer.position();
 
 			try {
-				try {
-					writableChannel.write(sendBuffer.duplicate());
-				} catch (NotYetConnectedException e) {
-					writableChannel.register(selector, SelectionKey.OP_WRITE, sendBuffer.duplicate());
+				channelDecoder.decode(buffer);
+			} catch (InvalidFrameException e) {
+				LOGGER.warning(String.format("invalid frame: %s, closing the channel", e.getMessage()));
+				return dropReadBuffer(channel, buffer);
+			}
+
+			if (buffer.position() == position) {
+				LOGGER.warning("decoder does not progress, closing the channel");
+				return dropReadBuffer(channel, buffer);
+			}
+
+		}
+
+		// A new peer is ready once it announced its capabilities, after asking to
+		// resume its session if it has one.
+		if (!bootstraps.isEmpty()) {
+			Bootstrap bootstrap = bootstraps.get(channel);
+
+			if (bootstrap != null && bootstrap.announced)
+				bootstrap.ready();
+		}
+
+		// All complete frames are decoded, the rest is moved once.
+		buffer.compact();
+
+		if (needed > buffer.capacity() || (needed < 0 && !buffer.hasRemaining())) {
+			int capacity = needed > 0 ? needed : 2 * buffer.capacity();
+
+			if (capacity > maxFrameSize && needed < 0) {
+				LOGGER.warning(String.format("frame larger than %d bytes, closing the channel", maxFrameSize));
+				return dropReadBuffer(channel, buffer);
+			}
+
+			buffer = growReadBuffer(buffer, capacity);
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * Replaces a read buffer in write mode by a larger one of the pool, keeping its
+	 * content.
+	 */
+	protected ByteBuffer growReadBuffer(ByteBuffer buffer, int minCapacity) {
+		ByteBuffer bigger = bufferPool.acquire(minCapacity);
+
+		buffer.flip();
+		bigger.put(buffer);
+		bufferPool.release(buffer);
+
+		return bigger;
+	}
+
+	private ByteBuffer dropReadBuffer(SocketChannel channel, ByteBuffer buffer) {
+		close(channel);
+		bufferPool.release(buffer);
+
+		return null;
+	}
+
+	/**
+	 * Limits the size of the frames received from peers, so that a malformed or
+	 * malicious frame can not make the proxy allocate too much memory. Channels
+	 * receiving larger frames are closed.
+	 *
+	 * @param maxFrameSize
+	 *            maximum size of a frame, in bytes
+	 */
+	public void setMaxFrameSize(int maxFrameSize) {
+		if (maxFrameSize < BUFFER_INITIAL_SIZE)
+			throw new IllegalArgumentException("maximum frame size must be at least " + BUFFER_INITIAL_SIZE);
+
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	/**
+	 * Limits the data received from each channel of the reactor pool that waits
+	 * for the dispatch executor. Once it is reached, the channel is no longer
+	 * read until half of it has been decoded, so that a fast peer can not fill
+	 * the memory when the executor falls behind. Four megabytes by default.
+	 *
+	 * @param bytes
+	 *            maximum number of bytes waiting to be decoded, for each channel
+	 */
+	public void setMaxInboundBacklog(int bytes) {
+		if (bytes <= 0)
+			throw new IllegalArgumentException("maximum inbound backlog must be positive");
+
+		maxInboundBacklog = bytes;
+	}
+
+	/**
+	 * Reads a channel of an I/O thread of the reactor pool, and hands the data to
+	 * the decoding executor.
+	 */
+	protected void readForDispatch(SelectionKey key) {
+		SocketChannel socket = (SocketChannel) key.channel();
+		Inbound inbound = (Inbound) key.attachment();
+		Reactor reactor = channelReactors.get(socket);
+
+		if (reactor == null) {
+			close(socket);
+			return;
+		}
+
+		Object flight = FlightEvents.beginTransfer("receive");
+		ByteBuffer readBuffer = reactor.readBuffer;
+		int r = 0;
+
+		try {
+			readBuffer.clear();
+			r = socket.read(readBuffer);
+
+			if (r < 0) {
+				LOGGER.info("end-of-stream reached. Closing the channel.");
+				close(socket);
+			} else if (r > 0) {
+				readBuffer.flip();
+
+				if (dispatchExecutor == null) {
+					// Decoded by this thread, straight from the read buffer.
+					inbound.decode(readBuffer);
+				} else {
+					// Copied in a pooled buffer, released once decoded.
+					ByteBuffer chunk = bufferPool.acquire(r);
+					chunk.put(readBuffer);
+					chunk.flip();
+
+					inbound.receive(chunk, key);
 				}
-			} catch (IOException e) {
-				LOGGER.severe("I/O error while writing to channel : " + e.getMessage());
+			}
+		} catch (IOException e) {
+			LOGGER.severe(String.format("receiver //%s:%d cannot read channel (I/O error): %s",
+					address.getHostName(), port, e.getMessage()));
+
+			close(socket);
+		} finally {
+			FlightEvents.endTransfer(flight, Math.max(r, 0), 1);
+		}
+	}
+
+	protected void doSend(ByteBuffer buffer) {
+		Object flight = FlightEvents.beginTransfer("send");
+		int size = buffer.remaining();
+
+		for (SocketChannel writableChannel : writableChannels) {
+			Bootstrap bootstrap = bootstraps.isEmpty() ? null : bootstraps.get(writableChannel);
 
-				channels.remove();
+			if (bootstrap != null && bootstrap.defer(buffer.duplicate())) {
+				if (bootstrap.overflows())
+					close(writableChannel);
+			} else if (!send(writableChannel, buffer.duplicate())) {
 				close(writableChannel);
 			}
 		}
+
+		FlightEvents.endTransfer(flight, size, writableChannels.size());
 	}
 
-	protected void replay(final SocketChannel channel) {
-		if (replayable != null) {
-			final Replayable.Controller controller = replayable.getReplayController();
-			final ByteEncoder encoder = byteFactory.createByteEncoder();
+	/**
+	 * Sends data to a channel. The data is written directly if nothing is waiting
+	 * for this channel, otherwise, or if the channel can not take all of it, the
+	 * rest is copied in the queue of the channel and written when the channel is
+	 * writable again.
+	 *
+	 * @return false if the channel has to be closed
+	 */
+	protected boolean send(SocketChannel channel, ByteBuffer data) {
+		Outbound outbound = outbounds.computeIfAbsent(channel, c -> new Outbound());
 
-			encoder.addTransport(new ByteEncoder.Transport() {
-				@Override
-				public void send(ByteBuffer buffer) {
+		synchronized (outbound) {
+			try {
+				if (outbound.pending == 0) {
 					try {
-						channel.write(buffer);
-					} catch (IOException e) {
-						LOGGER.severe("Failled to replay : " + e.getMessage());
-						controller.removeSink(encoder);
+						channel.write(data);
+					} catch (NotYetConnectedException e) {
+						// Queued until the channel is writable.
 					}
 				}
+
+				if (data.hasRemaining()) {
+					outbound.append(data, bufferPool);
+
+					if (outbound.pending > highWaterMark && !relieve(channel, outbound))
+						return false;
+
+					if (outbound.pending > 0)
+						requestWrite(channel);
+				}
+
+				return true;
+			} catch (IOException e) {
+				LOGGER.severe("I/O error while writing to channel : " + e.getMessage());
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Applies the {@link SlowPeerPolicy} to a channel over the high water mark.
+	 *
+	 * @return false if the channel has to be closed
+	 */
+	protected boolean relieve(SocketChannel channel, Outbound outbound) throws IOException {
+		if (slowPeerPolicy == SlowPeerPolicy.DISCONNECT) {
+			LOGGER.warning(String.format("peer too slow, %d bytes waiting: disconnecting", outbound.pending));
+			return false;
+		}
+
+		long deadline = System.nanoTime() + blockTimeout;
+
+		while (outbound.pending > highWaterMark) {
+			if (outbound.write(channel, bufferPool) == 0) {
+				if (System.nanoTime() - deadline > 0) {
+					LOGGER.warning(String.format("peer blocked for %d ms, %d bytes waiting: disconnecting",
+							TimeUnit.NANOSECONDS.toMillis(blockTimeout), outbound.pending));
+					return false;
+				}
+
+				LockSupport.parkNanos(100000);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Asks the selector to tell when a channel becomes writable.
+	 */
+	protected void requestWrite(SocketChannel channel) throws IOException {
+		Reactor reactor = channelReactors.get(channel);
+
+		if (reactor != null) {
+			// Keys of I/O threads are only changed by their thread.
+			reactor.execute(channel, () -> {
+				try {
+					enableWrite(channel, reactor.selector);
+				} catch (IOException | CancelledKeyException e) {
+					LOGGER.warning("can not wait for channel to be writable: " + e.getMessage());
+				}
 			});
+		} else {
+			enableWrite(channel, selector);
+		}
+	}
+
+	private void enableWrite(SocketChannel channel, Selector selector) throws IOException {
+		SelectionKey key = channel.keyFor(selector);
+
+		if (key == null) {
+			// Channels of the I/O threads are registered by their thread.
+			if (selector == this.selector) {
+				register(channel, SelectionKey.OP_WRITE);
+			} else {
+				channel.register(selector, SelectionKey.OP_WRITE);
+				selector.wakeup();
+			}
+		} else if ((key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+			key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+			selector.wakeup();
+		}
+	}
+
+	/**
+	 * Writes the data waiting for a writable channel.
+	 */
+	protected void drain(SelectionKey key) {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Outbound outbound = outbounds.get(channel);
+
+		if (outbound == null) {
+			key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+			return;
+		}
+
+		synchronized (outbound) {
+			try {
+				outbound.write(channel, bufferPool);
+
+				if (outbound.pending == 0)
+					key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+			} catch (IOException e) {
+				LOGGER.severe("I/O error while writing to channel : " + e.getMessage());
+				close(channel);
+			}
+		}
+	}
+
+	/**
+	 * Creates the decoder of a new channel, whose events are forwarded to the sinks
+	 * of the proxy.
+	 */
+	protected ByteDecoder createDecoder(SocketChannel channel) {
+		ByteDecoder channelDecoder = byteFactory.createByteDecoder();
+
+		channelDecoder.addSink(decodedEvents);
+		listenCapabilities(channelDecoder, channel);
+		listenSessions(channelDecoder, channel);
+
+		return channelDecoder;
+	}
+
+	/**
+	 * Records the extensions announced by the peer of a channel, read by the given
+	 * decoder.
+	 */
+	protected void listenCapabilities(ByteDecoder channelDecoder, SocketChannel channel) {
+		channelDecoder.setCapabilityListener(capabilities -> {
+			if (peerCapabilities.containsKey(channel)) {
+				peerCapabilities.merge(channel, capabilities, (a, b) -> a | b);
+				updatePeerCapabilities();
+
+				Bootstrap bootstrap = bootstraps.get(channel);
+
+				if (bootstrap != null)
+					bootstrap.announced = true;
+			}
+		});
+	}
+
+	/**
+	 * Records the session given to a client, and the requests of the peers of a
+	 * server to resume their session.
+	 */
+	protected void listenSessions(ByteDecoder channelDecoder, SocketChannel channel) {
+		channelDecoder.setSessionListener(new ByteDecoder.SessionListener() {
+			@Override
+			public void sessionStarted(String id, Map<String, Long> timeIds) {
+				if (mode == Mode.CLIENT) {
+					synchronized (receivedTimes) {
+						timeIds.forEach(receivedTimes::isNewEvent);
+						sessionId = id;
+					}
+				}
+			}
+
+			@Override
+			public void resumeRequested(String id, Map<String, Long> timeIds) {
+				Bootstrap bootstrap = bootstraps.get(channel);
+
+				if (bootstrap != null)
+					bootstrap.resume(id, timeIds);
+			}
+		});
+	}
+
+	/**
+	 * Asks the server to resume the session of a client, if it has one.
+	 */
+	protected void requestResume(SocketChannel channel) throws IOException {
+		String session = sessionId;
+
+		if (session == null)
+			return;
+
+		Map<String, Long> timeIds;
+
+		synchronized (receivedTimes) {
+			timeIds = new HashMap<>(receivedTimes.getTimes());
+		}
+
+		ByteEncoder resumeEncoder = byteFactory.createByteEncoder();
+		ChannelTransport transport = attach(channel, resumeEncoder, 0);
+
+		resumeEncoder.resumeSession(session, timeIds);
+
+		if (transport.failed)
+			throw new IOException("can not resume the session");
+	}
+
+	/**
+	 * Sends the capabilities of the decoder to a new peer.
+	 */
+	protected void announceCapabilities(SocketChannel channel) throws IOException {
+		ByteBuffer capabilities = decoder.getCapabilities();
+
+		if (capabilities != null && !send(channel, capabilities))
+			throw new IOException("can not announce capabilities");
+	}
+
+	/**
+	 * Registers the peer of a new channel, before it becomes writable. The peer is
+	 * considered to support no protocol extension until it announces otherwise, so
+	 * events buffered by the encoder are sent to the other channels first.
+	 */
+	protected void addPeer(SocketChannel channel) {
+		peerCapabilities.put(channel, 0);
+		updatePeerCapabilities();
+	}
+
+	/**
+	 * Tells the encoder which extensions are supported by all peers.
+	 */
+	protected void updatePeerCapabilities() {
+		int capabilities = -1;
+
+		for (int c : peerCapabilities.values())
+			capabilities &= c;
+
+		encoder.setPeerCapabilities(capabilities);
+	}
+
+	/**
+	 * Replays the stream to an encoder.
+	 */
+	protected void replay(ByteEncoder encoder) {
+		Replayable.Controller controller = replayable.getReplayController();
+
+		controller.addSink(encoder);
+		controller.replay();
+		controller.removeSink(encoder);
+		encoder.flush();
+	}
+
+	/**
+	 * Replays the stream to a list of frames, encoded without protocol extension.
+	 */
+	protected List<ByteBuffer> record() {
+		List<ByteBuffer> frames = new ArrayList<>();
+		ByteEncoder recorder = byteFactory.createByteEncoder();
+
+		recorder.addTransport(buffer -> {
+			ByteBuffer frame = ByteBuffer.allocate(buffer.remaining());
+			frame.put(buffer).flip();
+			frames.add(frame);
+		});
+
+		replay(recorder);
+
+		return frames;
+	}
+
+	/**
+	 * Source id and time id of an event.
+	 */
+	protected static final class EventId {
+		public final String sourceId;
+		public final long timeId;
+
+		public EventId(String sourceId, long timeId) {
+			this.sourceId = sourceId;
+			this.timeId = timeId;
+		}
+	}
+
+	/**
+	 * Makes an encoder send to a channel only.
+	 *
+	 * @param capabilities
+	 *            protocol extensions the encoder may use
+	 * @return the transport added to the encoder
+	 */
+	protected ChannelTransport attach(SocketChannel channel, ByteEncoder encoder, int capabilities) {
+		ChannelTransport transport = new ChannelTransport(channel);
+
+		// Extensions are enabled once the transport is added, so that their setup,
+		// such as a dictionary reset, reaches the channel.
+		encoder.setPeerCapabilities(0);
+		encoder.addTransport(transport);
+		encoder.setPeerCapabilities(capabilities);
+
+		return transport;
+	}
+
+	/**
+	 * Takes the snapshots waiting for the next event, then remembers this event,
+	 * see {@link #lastSent}.
+	 */
+	protected void sent(String sourceId, long timeId) {
+		if (snapshotsPending.get() > 0)
+			takeSnapshots();
+
+		lastSent = new EventId(sourceId, timeId);
+	}
 
-			controller.addSink(encoder);
-			controller.replay();
+	/**
+	 * Remembers the last event received by a client having a session.
+	 */
+	protected void received(String sourceId, long timeId) {
+		if (sessionId != null) {
+			synchronized (receivedTimes) {
+				receivedTimes.isNewEvent(sourceId, timeId);
+			}
 		}
 	}
 
 	protected void close(Channel channel) {
 		writableChannels.remove(channel);
+		decoders.remove(channel);
+
+		Reactor reactor = channelReactors.remove(channel);
+
+		if (reactor != null)
+			reactor.channels.decrementAndGet();
+
+		Bootstrap bootstrap = bootstraps.remove(channel);
+
+		if (bootstrap != null)
+			bootstrap.cancel();
+
+		Outbound outbound = outbounds.remove(channel);
+
+		if (outbound != null) {
+			synchronized (outbound) {
+				outbound.release(bufferPool);
+			}
+		}
+
+		if (peerCapabilities.remove(channel) != null)
+			updatePeerCapabilities();
 
 		if (channel == mainChannel) {
 			LOGGER.warning("Closing main channel.");
+			stopReactors();
 
 			if (running.get()) {
 				try {
@@ -566,80 +1745,673 @@ public class ByteProxy extends SourceBase implements Pipe, Runnable {
 
 	@Override
 	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.graphAttributeAdded(sourceId, timeId, attribute, value);
+
 		encoder.graphAttributeAdded(sourceId, timeId, attribute, value);
 	}
 
 	@Override
 	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
 			Object newValue) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+
 		encoder.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
 	}
 
 	@Override
 	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.graphAttributeRemoved(sourceId, timeId, attribute);
+
 		encoder.graphAttributeRemoved(sourceId, timeId, attribute);
 	}
 
 	@Override
 	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+
 		encoder.nodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
 	}
 
 	@Override
 	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+
 		encoder.nodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
 	}
 
 	@Override
 	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+
 		encoder.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
 	}
 
 	@Override
 	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+
 		encoder.edgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
 	}
 
 	@Override
 	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+
 		encoder.edgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
 	}
 
 	@Override
 	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+
 		encoder.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
 	}
 
 	@Override
 	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.nodeAdded(sourceId, timeId, nodeId);
+
 		encoder.nodeAdded(sourceId, timeId, nodeId);
 	}
 
 	@Override
 	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.nodeRemoved(sourceId, timeId, nodeId);
+
 		encoder.nodeRemoved(sourceId, timeId, nodeId);
 	}
 
 	@Override
 	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+
 		encoder.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
 	}
 
 	@Override
 	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.edgeRemoved(sourceId, timeId, edgeId);
+
 		encoder.edgeRemoved(sourceId, timeId, edgeId);
 	}
 
 	@Override
 	public void graphCleared(String sourceId, long timeId) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.graphCleared(sourceId, timeId);
+
 		encoder.graphCleared(sourceId, timeId);
 	}
 
 	@Override
 	public void stepBegins(String sourceId, long timeId, double step) {
+		sent(sourceId, timeId);
+
+		if (eventLog != null)
+			eventLog.stepBegins(sourceId, timeId, step);
+
 		encoder.stepBegins(sourceId, timeId, step);
 	}
+
+	/**
+	 * Data waiting to be written to a channel, in buffers of the pool ready to be
+	 * read. The last buffer is filled with new data before another one is taken.
+	 */
+	protected static class Outbound {
+		protected final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+		protected long pending;
+		private ByteBuffer[] gather = new ByteBuffer[4];
+
+		protected void append(ByteBuffer data, ByteBufferPool pool) {
+			pending += data.remaining();
+
+			ByteBuffer tail = chunks.peekLast();
+
+			if (tail != null && tail.limit() < tail.capacity()) {
+				int readPosition = tail.position();
+
+				tail.position(tail.limit()).limit(tail.capacity());
+				copy(data, tail);
+				tail.limit(tail.position()).position(readPosition);
+			}
+
+			while (data.hasRemaining()) {
+				ByteBuffer chunk = pool.acquire(OUTBOUND_CHUNK_SIZE);
+
+				copy(data, chunk);
+				chunk.flip();
+				chunks.add(chunk);
+			}
+		}
+
+		/**
+		 * Writes as much data as the channel takes, in a single gathering write.
+		 *
+		 * @return the number of bytes written
+		 */
+		protected long write(GatheringByteChannel channel, ByteBufferPool pool) throws IOException {
+			int count = chunks.size();
+
+			if (count == 0)
+				return 0;
+
+			gather = chunks.toArray(gather);
+
+			long written = channel.write(gather, 0, count);
+			pending -= written;
+
+			while (!chunks.isEmpty() && !chunks.peekFirst().hasRemaining())
+				pool.release(chunks.pollFirst());
+
+			return written;
+		}
+
+		protected void release(ByteBufferPool pool) {
+			while (!chunks.isEmpty())
+				pool.release(chunks.pollFirst());
+
+			pending = 0;
+		}
+
+		private static void copy(ByteBuffer from, ByteBuffer to) {
+			int n = Math.min(from.remaining(), to.remaining());
+			ByteBuffer part = from.duplicate();
+
+			part.limit(part.position() + n);
+			to.put(part);
+			from.position(from.position() + n);
+		}
+	}
+
+	/**
+	 * Sends encoded data to a channel, until it fails.
+	 */
+	protected class ChannelTransport implements ByteEncoder.Transport {
+		protected final SocketChannel channel;
+		protected boolean failed;
+
+		protected ChannelTransport(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public void send(ByteBuffer buffer) {
+			if (!failed && !ByteProxy.this.send(channel, buffer))
+				failed = true;
+		}
+	}
+
+	/**
+	 * Replay of the stream to a new channel, and events sent to the channel
+	 * meanwhile.
+	 */
+	protected class Bootstrap implements Runnable {
+		protected final SocketChannel channel;
+
+		/**
+		 * Last event sent when the snapshot was taken.
+		 */
+		protected String sourceId;
+		protected long timeId;
+
+		/**
+		 * Frames of the replayed stream, encoded without protocol extension when
+		 * the snapshot was taken, null if there is no stream to replay.
+		 */
+		protected List<ByteBuffer> frames;
+
+		/**
+		 * Event log, its first event sent to the channel, and the time id of the
+		 * last events it had when the channel became writable.
+		 */
+		protected ByteEventLog log;
+		protected long logSequence;
+		protected Map<String, Long> logTimeIds;
+
+		/**
+		 * Session the peer asked to resume, if any.
+		 */
+		protected volatile String resumeSessionId;
+		protected volatile Map<String, Long> resumeTimeIds;
+
+		/**
+		 * True once the peer announced its capabilities.
+		 */
+		protected volatile boolean announced;
+
+		private final Outbound deltas = new Outbound();
+		private boolean ready, done;
+
+		protected Bootstrap(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Records the last event sent and the state of the log, when the snapshot
+		 * is taken.
+		 */
+		protected void mark() {
+			EventId last = lastSent;
+			sourceId = last == null ? "" : last.sourceId;
+			timeId = last == null ? 0 : last.timeId;
+			log = eventLog;
+
+			if (log != null) {
+				synchronized (log) {
+					logSequence = log.getNextSequence();
+					logTimeIds = log.getLastTimeIds();
+				}
+			}
+		}
+
+		/**
+		 * Asks for the snapshot, once the peer announced its capabilities or had
+		 * the time to. It is taken with the next event of the graph, or by the
+		 * scheduler if the graph stays idle. Only the first call has an effect.
+		 */
+		protected void ready() {
+			synchronized (this) {
+				if (ready || done)
+					return;
+
+				ready = true;
+			}
+
+			snapshotsPending.incrementAndGet();
+			pendingSnapshots.add(this);
+
+			try {
+				scheduler().schedule(ByteProxy.this::takeSnapshots, SNAPSHOT_IDLE_DELAY, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				LOGGER.warning("can not wait for the graph to be idle: " + e.getMessage());
+			}
+		}
+
+		/**
+		 * Records the stream and makes the channel writable, then replays the
+		 * recorded stream with the {@link #bootstrapExecutor}, or with the
+		 * scheduler if there is none.
+		 */
+		protected void snapshot() {
+			synchronized (this) {
+				if (done || !channel.isOpen())
+					return;
+			}
+
+			try {
+				mark();
+
+				if (replayable != null)
+					frames = record();
+
+				// The events sent from now on are kept until the replay is over. They
+				// start with a dictionary reset, since the peer decoder gets the
+				// dictionary of the snapshot encoder and not the one of the encoder.
+				synchronized (encoder) {
+					encoder.flush();
+					writableChannels.add(channel);
+					encoder.resetDictionary();
+				}
+
+				Executor executor = bootstrapExecutor;
+				(executor != null ? executor : scheduler()).execute(this);
+			} catch (RuntimeException e) {
+				LOGGER.warning("can not replay the stream to the new peer: " + e);
+				close(channel);
+			}
+		}
+
+		/**
+		 * Records the request of the peer to resume a session.
+		 */
+		protected void resume(String sessionId, Map<String, Long> timeIds) {
+			resumeTimeIds = timeIds;
+			resumeSessionId = sessionId;
+		}
+
+		/**
+		 * Keeps an event until the replay is over.
+		 *
+		 * @return false if the replay is over, so the event has to be sent
+		 */
+		protected synchronized boolean defer(ByteBuffer data) {
+			if (done)
+				return false;
+
+			deltas.append(data, bufferPool);
+			return true;
+		}
+
+		/**
+		 * True if the kept events exceed the high water mark of a proxy
+		 * disconnecting slow peers.
+		 */
+		protected synchronized boolean overflows() {
+			if (slowPeerPolicy == SlowPeerPolicy.DISCONNECT && deltas.pending > highWaterMark) {
+				LOGGER.warning(String.format("%d bytes kept during the replay: disconnecting", deltas.pending));
+				return true;
+			}
+
+			return false;
+		}
+
+		@Override
+		public void run() {
+			if (!channel.isOpen())
+				return;
+
+			ByteEncoder snapshot = byteFactory.createSnapshotEncoder();
+			ChannelTransport transport = attach(channel, snapshot, peerCapabilities.getOrDefault(channel, 0));
+
+			try {
+				String session = resumeSessionId;
+
+				if (session == null || !resumeSession(session, transport)) {
+					String previous = session;
+					String next = sessionPrefix + sessions.incrementAndGet();
+					session = log == null ? null : next;
+
+					// The graph of a peer which can not resume is outdated.
+					if (previous != null)
+						snapshot.graphCleared(next, 0);
+
+					if (frames != null) {
+						ByteDecoder recorded = byteFactory.createByteDecoder();
+						recorded.addSink(snapshot);
+
+						for (ByteBuffer frame : frames)
+							recorded.decode(frame);
+
+						snapshot.endSnapshot(sourceId, timeId);
+					}
+				}
+
+				if (session != null)
+					snapshot.startSession(session, logTimeIds);
+
+				snapshot.flush();
+
+				if (!transport.failed && finish())
+					return;
+
+				LOGGER.severe("Failled to replay");
+			} catch (RuntimeException e) {
+				LOGGER.severe("replay failed: " + e);
+			}
+
+			close(channel);
+		}
+
+		/**
+		 * Sends the events the peer missed since it lost its connection.
+		 *
+		 * @return false if the session is unknown or if these events were dropped
+		 */
+		protected boolean resumeSession(String session, ChannelTransport transport) {
+			if (log == null || !session.startsWith(sessionPrefix))
+				return false;
+
+			if (!log.replay(resumeTimeIds, logSequence, transport)) {
+				LOGGER.info(String.format("session %s resumed too late, replaying the stream", session));
+				return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * Sends the kept events, after which events are sent directly.
+		 *
+		 * @return false if the channel has to be closed
+		 */
+		protected synchronized boolean finish() {
+			if (done)
+				return false;
+
+			boolean sent = true;
+
+			for (ByteBuffer chunk : deltas.chunks) {
+				if (sent)
+					sent = send(channel, chunk);
+			}
+
+			deltas.release(bufferPool);
+			frames = null;
+			done = true;
+			bootstraps.remove(channel, this);
+
+			return sent;
+		}
+
+		/**
+		 * Drops the kept events of a closed channel.
+		 */
+		protected synchronized void cancel() {
+			deltas.release(bufferPool);
+			frames = null;
+			done = true;
+		}
+	}
+
+	/**
+	 * An I/O thread of the reactor pool, with its own selector.
+	 */
+	protected class Reactor implements Runnable {
+		protected final Selector selector;
+		protected final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		protected final AtomicInteger channels = new AtomicInteger();
+
+		/**
+		 * Receives the data of the channels, before it is copied for the decoder.
+		 */
+		protected final ByteBuffer readBuffer = ByteBuffer.allocateDirect(8 * BUFFER_INITIAL_SIZE);
+
+		private volatile boolean active = true;
+
+		protected Reactor(Selector selector) {
+			this.selector = selector;
+		}
+
+		/**
+		 * Runs a task about a channel on the thread of this reactor. The channel is
+		 * closed if the task fails.
+		 */
+		protected void execute(SocketChannel channel, Runnable task) {
+			tasks.add(() -> {
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.SEVERE, "error in a task of an I/O thread, closing its channel", e);
+					close(channel);
+				}
+			});
+
+			selector.wakeup();
+		}
+
+		protected void shutdown() {
+			active = false;
+			selector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (active) {
+					selector.select();
+
+					Runnable task;
+
+					while ((task = tasks.poll()) != null)
+						task.run();
+
+					processSelectedKeys(selector);
+				}
+			} catch (IOException | ClosedSelectorException e) {
+				LOGGER.severe("I/O error in reactor thread: " + e.getMessage());
+			} finally {
+				try {
+					selector.close();
+				} catch (IOException e) {
+					LOGGER.warning("closing selector: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Data received from a channel of the reactor pool, decoded in order by the
+	 * dispatch executor.
+	 */
+	protected class Inbound {
+		protected final SocketChannel channel;
+		private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+		private boolean scheduled, paused;
+		private long queued;
+		private ByteBuffer buffer = bufferPool.acquire(BUFFER_INITIAL_SIZE);
+
+		protected Inbound(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Queues a chunk of received data, taken from the buffer pool, and makes
+		 * sure the dispatch executor will decode it. Called by the I/O thread,
+		 * which stops reading the channel once the backlog is too large.
+		 */
+		protected void receive(ByteBuffer chunk, SelectionKey key) {
+			synchronized (this) {
+				chunks.add(chunk);
+				queued += chunk.remaining();
+
+				if (!paused && queued >= maxInboundBacklog) {
+					paused = true;
+					key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+				}
+
+				if (scheduled)
+					return;
+
+				scheduled = true;
+			}
+
+			dispatchExecutor.execute(this::decodeQueued);
+		}
+
+		private void decodeQueued() {
+			while (true) {
+				ByteBuffer chunk;
+
+				synchronized (this) {
+					chunk = chunks.poll();
+
+					if (chunk == null) {
+						scheduled = false;
+						return;
+					}
+				}
+
+				int size = chunk.remaining();
+
+				decode(chunk);
+				bufferPool.release(chunk);
+				drained(size);
+			}
+		}
+
+		/**
+		 * Reads the channel again once half of the backlog has been decoded. The
+		 * interest set is changed by the I/O thread, unless the channel was
+		 * paused again meanwhile.
+		 */
+		private void drained(int size) {
+			synchronized (this) {
+				queued -= size;
+
+				if (!paused || queued > maxInboundBacklog / 2)
+					return;
+
+				paused = false;
+			}
+
+			Reactor reactor = channelReactors.get(channel);
+
+			if (reactor == null)
+				return;
+
+			reactor.execute(channel, () -> {
+				synchronized (this) {
+					SelectionKey key = channel.keyFor(reactor.selector);
+
+					if (!paused && key != null && key.isValid())
+						key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+				}
+			});
+		}
+
+		/**
+		 * Appends received data to the buffer of the channel, and decodes its
+		 * complete frames.
+		 */
+		protected void decode(ByteBuffer chunk) {
+			if (buffer == null)
+				return;
+
+			if (buffer.remaining() < chunk.remaining())
+				buffer = growReadBuffer(buffer, buffer.position() + chunk.remaining());
+
+			buffer.put(chunk);
+
+			try {
+				buffer = decodeFrames(channel, buffer);
+			} catch (RuntimeException e) {
+				LOGGER.severe("error while decoding data: " + e.getMessage());
+				buffer = dropReadBuffer(channel, buffer);
+			}
+		}
+	}
 }
@@ -0,0 +1,167 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A ring buffer in a memory-mapped file, through which encoded events are sent
+ * to other processes of the same host. It is written by one
+ * {@link MappedRingTransport} and read by any number of
+ * {@link MappedRingReceiver}, each with its own position.
+ * <p/>
+ * The file starts with a header holding the capacity of the ring and two
+ * positions, counted in bytes since the ring was created: the end of the data
+ * the writer may be writing, and the end of the data it has written. Each
+ * frame is then stored as its length followed by its bytes, aligned on 8
+ * bytes. A frame which does not fit before the end of the ring is preceded by
+ * a padding marker, and written at its start. The writer never waits for the
+ * readers: a reader which falls behind by more than the capacity loses the
+ * frames it missed.
+ *
+ * @since 2026-10-19
+ */
+public abstract class MappedRing implements Closeable {
+	/**
+	 * First bytes of a ring file.
+	 */
+	public static final int MAGIC = 0x47535249;
+
+	/**
+	 * Smallest and largest capacities of a ring.
+	 */
+	public static final int MIN_CAPACITY = 1 << 12;
+	public static final int MAX_CAPACITY = 1 << 30;
+
+	protected static final int CAPACITY_OFFSET = 4;
+
+	/**
+	 * The positions are on their own cache lines, as they are written and read
+	 * by different processes.
+	 */
+	protected static final int CLAIM_OFFSET = 64;
+	protected static final int WRITE_OFFSET = 128;
+	protected static final int DATA_OFFSET = 192;
+
+	/**
+	 * Length of the marker telling that the next frame is at the start of the
+	 * ring.
+	 */
+	protected static final int PADDING = -1;
+
+	protected static final VarHandle POSITIONS = MethodHandles.byteBufferViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	protected final FileChannel channel;
+	protected final MappedByteBuffer header;
+
+	/**
+	 * The frames of the ring.
+	 */
+	protected final ByteBuffer data;
+	protected final int capacity;
+
+	/**
+	 * Creates a ring, replacing the content of the file, or opens an existing
+	 * one.
+	 *
+	 * @param file
+	 *            the file of the ring
+	 * @param capacity
+	 *            capacity of a new ring, ignored when opening a ring
+	 * @param create
+	 *            true to create the ring
+	 * @throws IOException
+	 *             if the file can not be mapped, or is not a ring
+	 */
+	protected MappedRing(Path file, int capacity, boolean create) throws IOException {
+		if (create) {
+			if (Integer.bitCount(capacity) != 1 || capacity < MIN_CAPACITY || capacity > MAX_CAPACITY)
+				throw new IllegalArgumentException(String.format("capacity must be a power of two between %d and %d",
+						MIN_CAPACITY, MAX_CAPACITY));
+
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + (long) capacity);
+			header.putInt(CAPACITY_OFFSET, capacity);
+			POSITIONS.setVolatile(header, CLAIM_OFFSET, 0L);
+			POSITIONS.setVolatile(header, WRITE_OFFSET, 0L);
+			header.putInt(0, MAGIC);
+		} else {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+
+			if (channel.size() < DATA_OFFSET) {
+				channel.close();
+				throw new IOException("not a ring: " + file);
+			}
+
+			header = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			capacity = header.getInt(CAPACITY_OFFSET);
+
+			if (header.getInt(0) != MAGIC || channel.size() != DATA_OFFSET + (long) capacity) {
+				channel.close();
+				throw new IOException("not a ring: " + file);
+			}
+		}
+
+		this.capacity = capacity;
+
+		header.position(DATA_OFFSET);
+		data = header.slice();
+		header.position(0);
+	}
+
+	/**
+	 * Capacity of the ring, in bytes.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Size of a frame in the ring, with its length and alignment.
+	 */
+	protected static int recordSize(int length) {
+		return (4 + length + 7) & ~7;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
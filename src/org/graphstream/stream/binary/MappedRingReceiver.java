@@ -0,0 +1,250 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the frames written in a {@link MappedRing} by a
+ * {@link MappedRingTransport}, and gives them to a decoder.
+ * <p/>
+ * Each receiver has its own position in the ring, starting at the end of the
+ * data written when it is created. Frames are copied out of the ring before
+ * being decoded, and dropped if the writer overwrote them meanwhile, the
+ * receiver going on with the next frame written. The receiver can be polled,
+ * or run in its own thread with {@link #start()}.
+ *
+ * @since 2026-10-19
+ */
+public class MappedRingReceiver extends MappedRing implements Runnable {
+	private static final Logger LOGGER = Logger.getLogger(MappedRingReceiver.class.getName());
+
+	/**
+	 * Time the thread of the receiver waits when there is nothing to read.
+	 */
+	public static final long IDLE_NANOS = 50000;
+
+	protected final ByteDecoder decoder;
+
+	/**
+	 * Position of the next frame to read.
+	 */
+	protected long cursor;
+
+	/**
+	 * Bytes written in the ring but not decoded, because the receiver fell behind.
+	 */
+	protected long lostBytes;
+
+	/**
+	 * Told when the receiver falls behind, or null.
+	 */
+	protected OverrunListener overrunListener;
+
+	private final ByteBuffer view;
+	private ByteBuffer frame = ByteBuffer.allocate(1024);
+
+	protected final AtomicBoolean running = new AtomicBoolean(false);
+	protected Thread thread;
+
+	/**
+	 * Opens a ring created by a {@link MappedRingTransport}.
+	 *
+	 * @param file
+	 *            the file of the ring
+	 * @param decoder
+	 *            decoder of the frames
+	 * @throws IOException
+	 *             if the file can not be mapped, or is not a ring
+	 */
+	public MappedRingReceiver(Path file, ByteDecoder decoder) throws IOException {
+		super(file, 0, false);
+
+		this.decoder = decoder;
+		view = data.duplicate();
+		cursor = (long) POSITIONS.getAcquire(header, WRITE_OFFSET);
+	}
+
+	/**
+	 * Decodes the frames written since the last call.
+	 *
+	 * @return the number of frames decoded
+	 */
+	public synchronized int poll() {
+		long written = (long) POSITIONS.getAcquire(header, WRITE_OFFSET);
+		int frames = 0;
+
+		if (written < cursor) {
+			LOGGER.warning("the ring was created again, reading it from the start");
+			cursor = 0;
+		}
+
+		while (cursor < written) {
+			int index = (int) (cursor & (capacity - 1));
+			int length = data.getInt(index);
+			long next;
+
+			if (length == PADDING) {
+				next = cursor + capacity - index;
+			} else if (length >= 0 && length <= capacity - index - 4) {
+				// The length is checked before sizing anything, as the writer may be
+				// overwriting it.
+				next = cursor + recordSize(length);
+
+				if (frame.capacity() < length)
+					frame = ByteBuffer.allocate(Math.max(length, 2 * frame.capacity()));
+
+				view.clear();
+				view.position(index + 4);
+				view.limit(index + 4 + length);
+				frame.clear();
+				frame.put(view);
+				frame.flip();
+			} else {
+				next = -1;
+			}
+
+			// The copy is only valid if the writer did not reach it meanwhile.
+			VarHandle.loadLoadFence();
+			long claimed = (long) POSITIONS.getVolatile(header, CLAIM_OFFSET);
+
+			if (next < 0 || claimed - capacity > cursor) {
+				written = (long) POSITIONS.getAcquire(header, WRITE_OFFSET);
+				long lost = written - cursor;
+				lostBytes += lost;
+				LOGGER.warning(String.format("receiver too slow, %d bytes lost", lost));
+				cursor = written;
+
+				if (overrunListener != null)
+					overrunListener.overrun(lost);
+
+				continue;
+			}
+
+			cursor = next;
+
+			if (length != PADDING) {
+				decoder.decode(frame);
+				frames++;
+			}
+		}
+
+		return frames;
+	}
+
+	/**
+	 * Number of bytes the receiver missed because it fell behind the writer.
+	 */
+	public synchronized long getLostBytes() {
+		return lostBytes;
+	}
+
+	/**
+	 * Sets the listener told when the receiver falls behind the writer, so that
+	 * it can resynchronize the replica, for example by asking for a snapshot.
+	 *
+	 * @param listener
+	 *            the listener, or null to remove it
+	 */
+	public synchronized void setOverrunListener(OverrunListener listener) {
+		overrunListener = listener;
+	}
+
+	/**
+	 * Starts a thread decoding the frames as soon as they are written.
+	 */
+	public synchronized void start() {
+		if (thread != null) {
+			LOGGER.warning("Already started.");
+		} else {
+			running.set(true);
+			thread = new Thread(this, "mapped-ring-receiver");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stops the thread of the receiver, if running, and waits for its end.
+	 *
+	 * @throws InterruptedException
+	 *             if an interruption occurred while waiting
+	 */
+	public void stop() throws InterruptedException {
+		Thread t;
+
+		synchronized (this) {
+			t = thread;
+			thread = null;
+		}
+
+		if (t != null) {
+			running.set(false);
+			t.join();
+		}
+	}
+
+	@Override
+	public void run() {
+		while (running.get()) {
+			int frames;
+
+			try {
+				frames = poll();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE, "error while decoding a frame, skipping it", e);
+				continue;
+			}
+
+			if (frames == 0)
+				LockSupport.parkNanos(IDLE_NANOS);
+		}
+	}
+
+	/**
+	 * Called when a receiver fell behind the writer, and lost frames.
+	 */
+	public interface OverrunListener {
+		/**
+		 * Called by the thread polling the receiver, before the frames written
+		 * after the lost ones are decoded.
+		 *
+		 * @param lostBytes
+		 *            bytes of the frames lost
+		 */
+		void overrun(long lostBytes);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.binary;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * Writes the frames of an encoder in a {@link MappedRing}, for the
+ * {@link MappedRingReceiver} of other processes.
+ * <p/>
+ * There must be only one writer per ring. Each frame is copied once in the
+ * ring, and is visible to the readers once entirely written.
+ *
+ * @since 2026-10-19
+ */
+public class MappedRingTransport extends MappedRing implements ByteEncoder.Transport {
+	private static final Logger LOGGER = Logger.getLogger(MappedRingTransport.class.getName());
+
+	/**
+	 * End of the data written, since the ring was created.
+	 */
+	protected long position;
+
+	private final ByteBuffer view;
+
+	/**
+	 * Creates a ring in a file, replacing its content.
+	 *
+	 * @param file
+	 *            the file of the ring
+	 * @param capacity
+	 *            size of the ring, a power of two
+	 * @throws IOException
+	 *             if the file can not be mapped
+	 */
+	public MappedRingTransport(Path file, int capacity) throws IOException {
+		super(file, capacity, true);
+		view = data.duplicate();
+	}
+
+	/**
+	 * Copies a frame in the ring. Frames larger than the ring are dropped.
+	 */
+	@Override
+	public synchronized void send(ByteBuffer buffer) {
+		int length = buffer.remaining();
+		int size = recordSize(length);
+
+		if (size > capacity) {
+			LOGGER.warning(String.format("frame of %d bytes larger than the ring, dropped", length));
+			return;
+		}
+
+		int index = (int) (position & (capacity - 1));
+		int padding = index + size > capacity ? capacity - index : 0;
+		long end = position + padding + size;
+
+		// Readers check this after reading, to know if the writer overwrote
+		// their data meanwhile.
+		POSITIONS.setVolatile(header, CLAIM_OFFSET, end);
+		// A volatile store does not keep the following plain stores after it.
+		VarHandle.storeStoreFence();
+
+		if (padding > 0) {
+			data.putInt(index, PADDING);
+			index = 0;
+		}
+
+		int start = buffer.position();
+
+		data.putInt(index, length);
+		view.clear();
+		view.position(index + 4);
+		view.put(buffer);
+		buffer.position(start);
+
+		position = end;
+		POSITIONS.setRelease(header, WRITE_OFFSET, end);
+	}
+
+	/**
+	 * Number of bytes written since the ring was created.
+	 */
+	public synchronized long getPosition() {
+		return position;
+	}
+}
@@ -50,6 +50,7 @@ import java.util.HashMap;
 
 import org.graphstream.stream.SourceBase;
 import org.graphstream.ui.geom.Point3;
+import org.graphstream.util.jfr.FlightEvents;
 
 /**
  * Base for various graph file input.
@@ -154,31 +155,59 @@ public abstract class FileSourceBase extends SourceBase implements FileSource {
 	// Command -- Complete modeField.
 
 	public void readAll(String filename) throws IOException {
-		begin(filename);
-		while (nextEvents())
-			;
-		end();
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
+		try {
+			begin(filename);
+			while (nextEvents())
+				;
+			end();
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
+		}
 	}
 
 	public void readAll(URL url) throws IOException {
-		begin(url);
-		while (nextEvents())
-			;
-		end();
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
+		try {
+			begin(url);
+			while (nextEvents())
+				;
+			end();
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
+		}
 	}
 
 	public void readAll(InputStream stream) throws IOException {
-		begin(stream);
-		while (nextEvents())
-			;
-		end();
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
+		try {
+			begin(stream);
+			while (nextEvents())
+				;
+			end();
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
+		}
 	}
 
 	public void readAll(Reader reader) throws IOException {
-		begin(reader);
-		while (nextEvents())
-			;
-		end();
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
+		try {
+			begin(reader);
+			while (nextEvents())
+				;
+			end();
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
+		}
 	}
 
 	// Commands -- By-event modeField.
@@ -42,6 +42,7 @@ import java.io.Reader;
 import java.util.zip.GZIPInputStream;
 
 import org.graphstream.stream.file.dgs.DGSParser;
+import org.graphstream.util.jfr.FlightEvents;
 import org.graphstream.util.parser.ParseException;
 import org.graphstream.util.parser.Parser;
 import org.graphstream.util.parser.ParserFactory;
@@ -76,10 +77,15 @@ public class FileSourceDGS extends FileSourceParser {
 
 	@Override
 	public boolean nextStep() throws IOException {
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "nextStep");
+
 		try {
 			return ((DGSParser) parser).nextStep();
 		} catch (ParseException e) {
 			throw new IOException(e);
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
 		}
 	}
 
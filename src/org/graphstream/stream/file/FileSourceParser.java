@@ -39,6 +39,7 @@ import java.io.Reader;
 import java.net.URL;
 
 import org.graphstream.stream.SourceBase;
+import org.graphstream.util.jfr.FlightEvents;
 import org.graphstream.util.parser.ParseException;
 import org.graphstream.util.parser.Parser;
 import org.graphstream.util.parser.ParserFactory;
@@ -78,11 +79,16 @@ public abstract class FileSourceParser extends SourceBase implements FileSource
 	public void readAll(String fileName) throws IOException {
 		Parser parser = factory.newParser(createReaderForFile(fileName));
 
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
 		try {
 			parser.all();
 			parser.close();
 		} catch (ParseException e) {
 			throw new IOException(e);
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
 		}
 	}
 
@@ -94,11 +100,16 @@ public abstract class FileSourceParser extends SourceBase implements FileSource
 	public void readAll(URL url) throws IOException {
 		Parser parser = factory.newParser(new InputStreamReader(url.openStream()));
 
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
 		try {
 			parser.all();
 			parser.close();
 		} catch (ParseException e) {
 			throw new IOException(e);
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
 		}
 	}
 
@@ -110,11 +121,16 @@ public abstract class FileSourceParser extends SourceBase implements FileSource
 	public void readAll(InputStream stream) throws IOException {
 		Parser parser = factory.newParser(new InputStreamReader(stream));
 
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
 		try {
 			parser.all();
 			parser.close();
 		} catch (ParseException e) {
 			throw new IOException(e);
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
 		}
 	}
 
@@ -126,11 +142,16 @@ public abstract class FileSourceParser extends SourceBase implements FileSource
 	public void readAll(Reader reader) throws IOException {
 		Parser parser = factory.newParser(reader);
 
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "readAll");
+
 		try {
 			parser.all();
 			parser.close();
 		} catch (ParseException e) {
 			throw new IOException(e);
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
 		}
 	}
 
@@ -215,7 +236,14 @@ public abstract class FileSourceParser extends SourceBase implements FileSource
 	 * {@link #nextEvents()}.
 	 */
 	public boolean nextStep() throws IOException {
-		return nextEvents();
+		long firstEvent = sourceTime.getCurrentTimeId();
+		Object flight = FlightEvents.beginFileRead(this, "nextStep");
+
+		try {
+			return nextEvents();
+		} finally {
+			FlightEvents.endFileRead(flight, sourceTime.getCurrentTimeId() - firstEvent);
+		}
 	}
 
 	/*
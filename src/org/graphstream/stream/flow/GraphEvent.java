@@ -0,0 +1,247 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.flow;
+
+import org.graphstream.stream.Sink;
+
+/**
+ * An event of a graph stream, as an immutable object.
+ * 
+ * <p>
+ * Events keep the source and time identifiers they were sent with, so that
+ * replaying them with {@link #sendTo(Sink)} is equivalent to the original
+ * call.
+ * </p>
+ */
+public final class GraphEvent {
+	/**
+	 * Types of events.
+	 */
+	public static enum Type {
+		NODE_ADDED, NODE_REMOVED, EDGE_ADDED, EDGE_REMOVED, STEP_BEGINS, GRAPH_CLEARED, GRAPH_ATTRIBUTE_ADDED, GRAPH_ATTRIBUTE_CHANGED, GRAPH_ATTRIBUTE_REMOVED, NODE_ATTRIBUTE_ADDED, NODE_ATTRIBUTE_CHANGED, NODE_ATTRIBUTE_REMOVED, EDGE_ATTRIBUTE_ADDED, EDGE_ATTRIBUTE_CHANGED, EDGE_ATTRIBUTE_REMOVED
+	}
+
+	private final Type type;
+	private final String sourceId;
+	private final long timeId;
+	private final String elementId;
+	private final String attribute;
+	private final Object oldValue;
+	private final Object newValue;
+	private final String fromNodeId;
+	private final String toNodeId;
+	private final boolean directed;
+	private final double step;
+
+	private GraphEvent(Type type, String sourceId, long timeId, String elementId, String attribute, Object oldValue,
+			Object newValue, String fromNodeId, String toNodeId, boolean directed, double step) {
+		this.type = type;
+		this.sourceId = sourceId;
+		this.timeId = timeId;
+		this.elementId = elementId;
+		this.attribute = attribute;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+		this.fromNodeId = fromNodeId;
+		this.toNodeId = toNodeId;
+		this.directed = directed;
+		this.step = step;
+	}
+
+	public static GraphEvent nodeAdded(String sourceId, long timeId, String nodeId) {
+		return new GraphEvent(Type.NODE_ADDED, sourceId, timeId, nodeId, null, null, null, null, null, false, 0);
+	}
+
+	public static GraphEvent nodeRemoved(String sourceId, long timeId, String nodeId) {
+		return new GraphEvent(Type.NODE_REMOVED, sourceId, timeId, nodeId, null, null, null, null, null, false, 0);
+	}
+
+	public static GraphEvent edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId,
+			String toNodeId, boolean directed) {
+		return new GraphEvent(Type.EDGE_ADDED, sourceId, timeId, edgeId, null, null, null, fromNodeId, toNodeId,
+				directed, 0);
+	}
+
+	public static GraphEvent edgeRemoved(String sourceId, long timeId, String edgeId) {
+		return new GraphEvent(Type.EDGE_REMOVED, sourceId, timeId, edgeId, null, null, null, null, null, false, 0);
+	}
+
+	public static GraphEvent stepBegins(String sourceId, long timeId, double step) {
+		return new GraphEvent(Type.STEP_BEGINS, sourceId, timeId, null, null, null, null, null, null, false, step);
+	}
+
+	public static GraphEvent graphCleared(String sourceId, long timeId) {
+		return new GraphEvent(Type.GRAPH_CLEARED, sourceId, timeId, null, null, null, null, null, null, false, 0);
+	}
+
+	/**
+	 * Event of an attribute of the graph ({@code elementId} is null), of a node
+	 * or of an edge.
+	 * 
+	 * @param type
+	 *            one of the attribute event types
+	 */
+	public static GraphEvent attribute(Type type, String sourceId, long timeId, String elementId, String attribute,
+			Object oldValue, Object newValue) {
+		switch (type) {
+		case NODE_ADDED:
+		case NODE_REMOVED:
+		case EDGE_ADDED:
+		case EDGE_REMOVED:
+		case STEP_BEGINS:
+		case GRAPH_CLEARED:
+			throw new IllegalArgumentException("not an attribute event: " + type);
+		default:
+			return new GraphEvent(type, sourceId, timeId, elementId, attribute, oldValue, newValue, null, null, false,
+					0);
+		}
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getSourceId() {
+		return sourceId;
+	}
+
+	public long getTimeId() {
+		return timeId;
+	}
+
+	/**
+	 * Identifier of the node or edge, null for events of the graph.
+	 */
+	public String getElementId() {
+		return elementId;
+	}
+
+	public String getAttribute() {
+		return attribute;
+	}
+
+	public Object getOldValue() {
+		return oldValue;
+	}
+
+	public Object getNewValue() {
+		return newValue;
+	}
+
+	public String getFromNodeId() {
+		return fromNodeId;
+	}
+
+	public String getToNodeId() {
+		return toNodeId;
+	}
+
+	public boolean isDirected() {
+		return directed;
+	}
+
+	public double getStep() {
+		return step;
+	}
+
+	/**
+	 * Send this event to a sink.
+	 * 
+	 * @param sink
+	 *            the sink
+	 */
+	public void sendTo(Sink sink) {
+		switch (type) {
+		case NODE_ADDED:
+			sink.nodeAdded(sourceId, timeId, elementId);
+			break;
+		case NODE_REMOVED:
+			sink.nodeRemoved(sourceId, timeId, elementId);
+			break;
+		case EDGE_ADDED:
+			sink.edgeAdded(sourceId, timeId, elementId, fromNodeId, toNodeId, directed);
+			break;
+		case EDGE_REMOVED:
+			sink.edgeRemoved(sourceId, timeId, elementId);
+			break;
+		case STEP_BEGINS:
+			sink.stepBegins(sourceId, timeId, step);
+			break;
+		case GRAPH_CLEARED:
+			sink.graphCleared(sourceId, timeId);
+			break;
+		case GRAPH_ATTRIBUTE_ADDED:
+			sink.graphAttributeAdded(sourceId, timeId, attribute, newValue);
+			break;
+		case GRAPH_ATTRIBUTE_CHANGED:
+			sink.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+			break;
+		case GRAPH_ATTRIBUTE_REMOVED:
+			sink.graphAttributeRemoved(sourceId, timeId, attribute);
+			break;
+		case NODE_ATTRIBUTE_ADDED:
+			sink.nodeAttributeAdded(sourceId, timeId, elementId, attribute, newValue);
+			break;
+		case NODE_ATTRIBUTE_CHANGED:
+			sink.nodeAttributeChanged(sourceId, timeId, elementId, attribute, oldValue, newValue);
+			break;
+		case NODE_ATTRIBUTE_REMOVED:
+			sink.nodeAttributeRemoved(sourceId, timeId, elementId, attribute);
+			break;
+		case EDGE_ATTRIBUTE_ADDED:
+			sink.edgeAttributeAdded(sourceId, timeId, elementId, attribute, newValue);
+			break;
+		case EDGE_ATTRIBUTE_CHANGED:
+			sink.edgeAttributeChanged(sourceId, timeId, elementId, attribute, oldValue, newValue);
+			break;
+		case EDGE_ATTRIBUTE_REMOVED:
+			sink.edgeAttributeRemoved(sourceId, timeId, elementId, attribute);
+			break;
+		}
+	}
+
+	@Override
+	public String toString() {
+		switch (type) {
+		case NODE_ADDED:
+		case NODE_REMOVED:
+		case EDGE_REMOVED:
+			return String.format("%s[%s]", type, elementId);
+		case EDGE_ADDED:
+			return String.format("%s[%s %s%s%s]", type, elementId, fromNodeId, directed ? ">" : "-", toNodeId);
+		case STEP_BEGINS:
+			return String.format("%s[%f]", type, step);
+		case GRAPH_CLEARED:
+			return type.toString();
+		default:
+			return String.format("%s[%s.%s=%s]", type, elementId == null ? "graph" : elementId, attribute,
+					newValue);
+		}
+	}
+}
@@ -0,0 +1,391 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.flow;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.graphstream.stream.Sink;
+import org.graphstream.stream.Source;
+import org.graphstream.stream.flow.GraphEvent.Type;
+
+/**
+ * Publisher of the events of a source, to any {@link Flow.Subscriber} such as
+ * those of reactive libraries.
+ * 
+ * <p>
+ * The publisher listens to a source and sends its events to each subscriber
+ * according to its demand. Each subscription has a bounded buffer: when it is
+ * full, the thread of the source is blocked until the subscriber requests
+ * more events (or cancels its subscription). Slow subscribers thus throttle
+ * the source instead of growing queues.
+ * </p>
+ * 
+ * <p>
+ * Events are sent to subscribers from the thread of the source, or from the
+ * thread requesting them if they were buffered. A subscriber running in the
+ * thread of the source must request events from
+ * {@link Subscriber#onNext(Object)}, otherwise the source blocks forever once
+ * the buffer is full.
+ * </p>
+ */
+public class SourcePublisher implements Flow.Publisher<GraphEvent>, Sink {
+	private static final Logger logger = Logger.getLogger(SourcePublisher.class.getSimpleName());
+
+	/**
+	 * Default count of events buffered for each subscriber.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256;
+
+	protected final Source source;
+	protected final int bufferSize;
+	protected final CopyOnWriteArrayList<BufferedSubscription> subscriptions;
+	protected volatile boolean closed;
+
+	public SourcePublisher(Source source) {
+		this(source, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create a publisher of the events of a source.
+	 * 
+	 * @param source
+	 *            the source
+	 * @param bufferSize
+	 *            count of events buffered for each subscriber
+	 */
+	public SourcePublisher(Source source, int bufferSize) {
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException("buffer size should be positive");
+
+		this.source = source;
+		this.bufferSize = bufferSize;
+		this.subscriptions = new CopyOnWriteArrayList<BufferedSubscription>();
+		this.closed = false;
+
+		source.addSink(this);
+	}
+
+	public void subscribe(Subscriber<? super GraphEvent> subscriber) {
+		Objects.requireNonNull(subscriber);
+
+		BufferedSubscription s = new BufferedSubscription(subscriber);
+
+		if (!closed)
+			subscriptions.add(s);
+
+		subscriber.onSubscribe(s);
+
+		if (closed)
+			s.complete();
+	}
+
+	/**
+	 * Stop listening to the source. Subscribers are completed once they have
+	 * received the events buffered for them.
+	 */
+	public void close() {
+		if (!closed) {
+			closed = true;
+			source.removeSink(this);
+
+			for (BufferedSubscription s : subscriptions)
+				s.complete();
+		}
+	}
+
+	/**
+	 * Count of active subscriptions.
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	protected void publish(GraphEvent e) {
+		for (BufferedSubscription s : subscriptions)
+			s.offer(e);
+	}
+
+	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+		publish(GraphEvent.attribute(Type.GRAPH_ATTRIBUTE_ADDED, sourceId, timeId, null, attribute, null, value));
+	}
+
+	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+			Object newValue) {
+		publish(GraphEvent.attribute(Type.GRAPH_ATTRIBUTE_CHANGED, sourceId, timeId, null, attribute, oldValue,
+				newValue));
+	}
+
+	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		publish(GraphEvent.attribute(Type.GRAPH_ATTRIBUTE_REMOVED, sourceId, timeId, null, attribute, null, null));
+	}
+
+	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		publish(GraphEvent.attribute(Type.NODE_ATTRIBUTE_ADDED, sourceId, timeId, nodeId, attribute, null, value));
+	}
+
+	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
+			Object newValue) {
+		publish(GraphEvent.attribute(Type.NODE_ATTRIBUTE_CHANGED, sourceId, timeId, nodeId, attribute, oldValue,
+				newValue));
+	}
+
+	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		publish(GraphEvent.attribute(Type.NODE_ATTRIBUTE_REMOVED, sourceId, timeId, nodeId, attribute, null, null));
+	}
+
+	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		publish(GraphEvent.attribute(Type.EDGE_ATTRIBUTE_ADDED, sourceId, timeId, edgeId, attribute, null, value));
+	}
+
+	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
+			Object newValue) {
+		publish(GraphEvent.attribute(Type.EDGE_ATTRIBUTE_CHANGED, sourceId, timeId, edgeId, attribute, oldValue,
+				newValue));
+	}
+
+	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		publish(GraphEvent.attribute(Type.EDGE_ATTRIBUTE_REMOVED, sourceId, timeId, edgeId, attribute, null, null));
+	}
+
+	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		publish(GraphEvent.nodeAdded(sourceId, timeId, nodeId));
+	}
+
+	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		publish(GraphEvent.nodeRemoved(sourceId, timeId, nodeId));
+	}
+
+	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+			boolean directed) {
+		publish(GraphEvent.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed));
+	}
+
+	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		publish(GraphEvent.edgeRemoved(sourceId, timeId, edgeId));
+	}
+
+	public void graphCleared(String sourceId, long timeId) {
+		publish(GraphEvent.graphCleared(sourceId, timeId));
+	}
+
+	public void stepBegins(String sourceId, long timeId, double step) {
+		publish(GraphEvent.stepBegins(sourceId, timeId, step));
+	}
+
+	/**
+	 * Subscription with a bounded buffer of events.
+	 * 
+	 * <p>
+	 * A single thread at a time delivers events to the subscriber: a thread
+	 * finding another one delivering marks that there is more to do, and the
+	 * delivering thread checks again before leaving.
+	 * </p>
+	 */
+	protected class BufferedSubscription implements Subscription {
+		final Subscriber<? super GraphEvent> subscriber;
+		final ArrayDeque<GraphEvent> buffer;
+		final ReentrantLock lock;
+		final Condition notFull;
+
+		long demand = 0;
+		boolean emitting = false;
+		boolean missed = false;
+		boolean cancelled = false;
+		boolean completed = false;
+		boolean terminated = false;
+		Throwable error = null;
+
+		BufferedSubscription(Subscriber<? super GraphEvent> subscriber) {
+			this.subscriber = subscriber;
+			this.buffer = new ArrayDeque<GraphEvent>();
+			this.lock = new ReentrantLock();
+			this.notFull = lock.newCondition();
+		}
+
+		/**
+		 * Buffer an event, waiting for room if needed.
+		 */
+		void offer(GraphEvent e) {
+			lock.lock();
+
+			try {
+				while (buffer.size() >= bufferSize && !cancelled && !terminated)
+					notFull.await();
+
+				if (!cancelled && !terminated)
+					buffer.add(e);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+
+				if (error == null)
+					error = ex;
+			} finally {
+				lock.unlock();
+			}
+
+			drain();
+		}
+
+		public void request(long n) {
+			lock.lock();
+
+			try {
+				if (n <= 0) {
+					if (error == null)
+						error = new IllegalArgumentException("non-positive request: " + n);
+				} else {
+					demand += n;
+
+					if (demand < 0)
+						demand = Long.MAX_VALUE;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			drain();
+		}
+
+		public void cancel() {
+			lock.lock();
+
+			try {
+				cancelled = true;
+				buffer.clear();
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
+
+			subscriptions.remove(this);
+		}
+
+		void complete() {
+			lock.lock();
+
+			try {
+				completed = true;
+			} finally {
+				lock.unlock();
+			}
+
+			drain();
+		}
+
+		void drain() {
+			lock.lock();
+
+			try {
+				if (emitting) {
+					missed = true;
+					return;
+				}
+
+				emitting = true;
+
+				do {
+					missed = false;
+
+					while (!cancelled && !terminated) {
+						if (error != null) {
+							terminate();
+
+							lock.unlock();
+
+							try {
+								subscriber.onError(error);
+							} finally {
+								lock.lock();
+							}
+						} else if (demand > 0 && !buffer.isEmpty()) {
+							GraphEvent e = buffer.poll();
+
+							if (demand != Long.MAX_VALUE)
+								demand--;
+
+							boolean failed = false;
+
+							notFull.signal();
+							lock.unlock();
+
+							try {
+								subscriber.onNext(e);
+							} catch (RuntimeException ex) {
+								logger.log(Level.WARNING, "subscriber failed, cancelling its subscription", ex);
+								failed = true;
+							} finally {
+								lock.lock();
+							}
+
+							if (failed) {
+								cancelled = true;
+								terminate();
+							}
+						} else if (completed && buffer.isEmpty()) {
+							terminate();
+
+							lock.unlock();
+
+							try {
+								subscriber.onComplete();
+							} finally {
+								lock.lock();
+							}
+						} else {
+							break;
+						}
+					}
+				} while (missed);
+
+				emitting = false;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * No more events for this subscription. Called with the lock held.
+		 */
+		private void terminate() {
+			terminated = true;
+			buffer.clear();
+			notFull.signalAll();
+			subscriptions.remove(this);
+		}
+	}
+}
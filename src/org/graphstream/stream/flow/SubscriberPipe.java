@@ -0,0 +1,125 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.flow;
+
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.graphstream.stream.PipeBase;
+
+/**
+ * Subscriber sending the events it receives to its sinks.
+ * 
+ * <p>
+ * This pipe requests events by batches, and requests a new batch once half of
+ * the previous one has been received, so that it never holds more than a
+ * batch. Events are sent to the sinks in the thread calling
+ * {@link #onNext(GraphEvent)}. As any pipe, events it receives as a sink are
+ * also forwarded.
+ * </p>
+ */
+public class SubscriberPipe extends PipeBase implements Subscriber<GraphEvent> {
+	private static final Logger logger = Logger.getLogger(SubscriberPipe.class.getSimpleName());
+
+	/**
+	 * Default count of events requested at once.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	protected final int batchSize;
+	protected volatile Subscription subscription;
+	protected int received;
+	protected volatile boolean completed;
+
+	public SubscriberPipe() {
+		this(DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param batchSize
+	 *            count of events requested at once
+	 */
+	public SubscriberPipe(int batchSize) {
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("batch size should be positive");
+
+		this.batchSize = batchSize;
+		this.subscription = null;
+		this.received = 0;
+		this.completed = false;
+	}
+
+	public void onSubscribe(Subscription subscription) {
+		if (this.subscription != null) {
+			subscription.cancel();
+			return;
+		}
+
+		this.subscription = subscription;
+		subscription.request(batchSize);
+	}
+
+	public void onNext(GraphEvent event) {
+		event.sendTo(this);
+
+		if (++received >= (batchSize + 1) / 2) {
+			int n = received;
+			received = 0;
+			subscription.request(n);
+		}
+	}
+
+	public void onError(Throwable throwable) {
+		logger.log(Level.WARNING, "subscription failed", throwable);
+		completed = true;
+	}
+
+	public void onComplete() {
+		completed = true;
+	}
+
+	/**
+	 * Stop receiving events.
+	 */
+	public void cancel() {
+		Subscription s = subscription;
+
+		if (s != null)
+			s.cancel();
+	}
+
+	/**
+	 * @return true once the subscription is over
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.metrics;
+
+import org.graphstream.stream.PipeBase;
+import org.graphstream.stream.thread.ThreadProxyPipe.GraphEvents;
+
+/**
+ * Pipe measuring the events going through it.
+ * 
+ * <p>
+ * This pipe forwards events unchanged, counting them by type and measuring
+ * the time taken by its sinks to process each of them. Inserting it between a
+ * source and some sinks measures what the source sends, and what the sinks
+ * cost:
+ * </p>
+ * 
+ * <pre>
+ * MetricsPipe metrics = new MetricsPipe();
+ * graph.addSink(metrics);
+ * metrics.addSink(fileSink);
+ * metrics.getMetrics().register("dgs-output");
+ * </pre>
+ * 
+ * <p>
+ * Pipelines where this pipe is not inserted are not measured and pay nothing.
+ * </p>
+ */
+public class MetricsPipe extends PipeBase {
+	protected final StreamMetrics metrics;
+
+	public MetricsPipe() {
+		this(new StreamMetrics());
+	}
+
+	public MetricsPipe(StreamMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public StreamMetrics getMetrics() {
+		return metrics;
+	}
+
+	protected long begin(GraphEvents type) {
+		metrics.eventIn(type);
+		return System.nanoTime();
+	}
+
+	protected void end(GraphEvents type, long start) {
+		metrics.sinkCallback(System.nanoTime() - start);
+		metrics.eventOut(type);
+	}
+
+	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		long start = begin(GraphEvents.ADD_EDGE_ATTR);
+		sendEdgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+		end(GraphEvents.ADD_EDGE_ATTR, start);
+	}
+
+	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
+			Object newValue) {
+		long start = begin(GraphEvents.CHG_EDGE_ATTR);
+		sendEdgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+		end(GraphEvents.CHG_EDGE_ATTR, start);
+	}
+
+	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		long start = begin(GraphEvents.DEL_EDGE_ATTR);
+		sendEdgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+		end(GraphEvents.DEL_EDGE_ATTR, start);
+	}
+
+	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
+		long start = begin(GraphEvents.ADD_GRAPH_ATTR);
+		sendGraphAttributeAdded(sourceId, timeId, attribute, value);
+		end(GraphEvents.ADD_GRAPH_ATTR, start);
+	}
+
+	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+			Object newValue) {
+		long start = begin(GraphEvents.CHG_GRAPH_ATTR);
+		sendGraphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+		end(GraphEvents.CHG_GRAPH_ATTR, start);
+	}
+
+	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		long start = begin(GraphEvents.DEL_GRAPH_ATTR);
+		sendGraphAttributeRemoved(sourceId, timeId, attribute);
+		end(GraphEvents.DEL_GRAPH_ATTR, start);
+	}
+
+	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		long start = begin(GraphEvents.ADD_NODE_ATTR);
+		sendNodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+		end(GraphEvents.ADD_NODE_ATTR, start);
+	}
+
+	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
+			Object newValue) {
+		long start = begin(GraphEvents.CHG_NODE_ATTR);
+		sendNodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+		end(GraphEvents.CHG_NODE_ATTR, start);
+	}
+
+	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		long start = begin(GraphEvents.DEL_NODE_ATTR);
+		sendNodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+		end(GraphEvents.DEL_NODE_ATTR, start);
+	}
+
+	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+			boolean directed) {
+		long start = begin(GraphEvents.ADD_EDGE);
+		sendEdgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		end(GraphEvents.ADD_EDGE, start);
+	}
+
+	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		long start = begin(GraphEvents.DEL_EDGE);
+		sendEdgeRemoved(sourceId, timeId, edgeId);
+		end(GraphEvents.DEL_EDGE, start);
+	}
+
+	public void graphCleared(String sourceId, long timeId) {
+		long start = begin(GraphEvents.CLEARED);
+		sendGraphCleared(sourceId, timeId);
+		end(GraphEvents.CLEARED, start);
+	}
+
+	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		long start = begin(GraphEvents.ADD_NODE);
+		sendNodeAdded(sourceId, timeId, nodeId);
+		end(GraphEvents.ADD_NODE, start);
+	}
+
+	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		long start = begin(GraphEvents.DEL_NODE);
+		sendNodeRemoved(sourceId, timeId, nodeId);
+		end(GraphEvents.DEL_NODE, start);
+	}
+
+	public void stepBegins(String sourceId, long timeId, double step) {
+		long start = begin(GraphEvents.STEP);
+		sendStepBegins(sourceId, timeId, step);
+		end(GraphEvents.STEP, start);
+	}
+}
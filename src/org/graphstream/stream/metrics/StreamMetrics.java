@@ -0,0 +1,303 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.graphstream.stream.thread.ThreadProxyPipe.GraphEvents;
+
+/**
+ * Counters describing the activity of a part of a pipeline.
+ * 
+ * <p>
+ * Metrics are opt-in: nothing is measured until a metrics object is attached,
+ * either with a {@link MetricsPipe} inserted between a source and its sinks
+ * (which can be used for any source, graph or file sink), or with
+ * {@link org.graphstream.stream.thread.ThreadProxyPipe#setMetrics(StreamMetrics)}
+ * which also measures the queue and the pumps of a thread proxy. Counters can
+ * be updated from several threads.
+ * </p>
+ * 
+ * <p>
+ * Metrics can be read directly, or exposed as a JMX MBean with
+ * {@link #register(String)}, under the name
+ * {@code org.graphstream:type=StreamMetrics,name=<name>}.
+ * </p>
+ */
+public class StreamMetrics implements StreamMetricsMXBean {
+	protected static final GraphEvents[] TYPES = GraphEvents.values();
+
+	protected final LongAdder[] eventsIn;
+	protected final LongAdder[] eventsOut;
+
+	protected final AtomicLong queueDepth;
+	protected final AtomicLong maxQueueDepth;
+
+	protected final Histogram pumpLatency;
+	protected final Histogram sinkCallback;
+
+	/**
+	 * Name under which these metrics are registered, if any.
+	 */
+	protected ObjectName objectName;
+
+	public StreamMetrics() {
+		eventsIn = new LongAdder[TYPES.length];
+		eventsOut = new LongAdder[TYPES.length];
+
+		for (int i = 0; i < TYPES.length; i++) {
+			eventsIn[i] = new LongAdder();
+			eventsOut[i] = new LongAdder();
+		}
+
+		queueDepth = new AtomicLong();
+		maxQueueDepth = new AtomicLong();
+		pumpLatency = new Histogram();
+		sinkCallback = new Histogram();
+	}
+
+	/**
+	 * Register these metrics in the platform MBean server.
+	 * 
+	 * @param name
+	 *            name of the metrics, used as the "name" key of the object name
+	 * @return the object name of the MBean
+	 * @throws JMException
+	 *             if the name is invalid or already registered
+	 */
+	public ObjectName register(String name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName on = new ObjectName(
+				String.format("org.graphstream:type=StreamMetrics,name=%s", ObjectName.quote(name)));
+
+		server.registerMBean(this, on);
+		objectName = on;
+
+		return on;
+	}
+
+	/**
+	 * Unregister these metrics from the platform MBean server, if they have been
+	 * registered.
+	 * 
+	 * @throws JMException
+	 *             if the MBean cannot be unregistered
+	 */
+	public void unregister() throws JMException {
+		if (objectName != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Count an event received.
+	 */
+	public void eventIn(GraphEvents type) {
+		eventsIn[type.ordinal()].increment();
+	}
+
+	/**
+	 * Count an event forwarded.
+	 */
+	public void eventOut(GraphEvents type) {
+		eventsOut[type.ordinal()].increment();
+	}
+
+	/**
+	 * Update the count of events waiting in a queue.
+	 */
+	public void queueDepth(long depth) {
+		queueDepth.set(depth);
+
+		long max;
+
+		while (depth > (max = maxQueueDepth.get()))
+			if (maxQueueDepth.compareAndSet(max, depth))
+				break;
+	}
+
+	/**
+	 * Record the duration of a pump.
+	 */
+	public void pumped(long nanos) {
+		pumpLatency.record(nanos);
+	}
+
+	/**
+	 * Record the duration of the calls to the sinks for one event.
+	 */
+	public void sinkCallback(long nanos) {
+		sinkCallback.record(nanos);
+	}
+
+	public long getEventInCount() {
+		return sum(eventsIn);
+	}
+
+	public long getEventOutCount() {
+		return sum(eventsOut);
+	}
+
+	public long getEventInCount(GraphEvents type) {
+		return eventsIn[type.ordinal()].sum();
+	}
+
+	public long getEventOutCount(GraphEvents type) {
+		return eventsOut[type.ordinal()].sum();
+	}
+
+	public Map<String, Long> getEventsIn() {
+		return byType(eventsIn);
+	}
+
+	public Map<String, Long> getEventsOut() {
+		return byType(eventsOut);
+	}
+
+	public long getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	public long getMaxQueueDepth() {
+		return maxQueueDepth.get();
+	}
+
+	public long[] getPumpLatencyHistogram() {
+		return pumpLatency.counts();
+	}
+
+	public double getMeanPumpLatency() {
+		return pumpLatency.mean() / 1000.0;
+	}
+
+	public long[] getSinkCallbackHistogram() {
+		return sinkCallback.counts();
+	}
+
+	public double getMeanSinkCallbackTime() {
+		return sinkCallback.mean() / 1000.0;
+	}
+
+	public void reset() {
+		for (int i = 0; i < TYPES.length; i++) {
+			eventsIn[i].reset();
+			eventsOut[i].reset();
+		}
+
+		queueDepth.set(0);
+		maxQueueDepth.set(0);
+		pumpLatency.reset();
+		sinkCallback.reset();
+	}
+
+	protected static long sum(LongAdder[] counters) {
+		long s = 0;
+
+		for (int i = 0; i < counters.length; i++)
+			s += counters[i].sum();
+
+		return s;
+	}
+
+	protected static Map<String, Long> byType(LongAdder[] counters) {
+		Map<String, Long> m = new TreeMap<String, Long>();
+
+		for (int i = 0; i < counters.length; i++)
+			m.put(TYPES[i].name(), counters[i].sum());
+
+		return m;
+	}
+
+	/**
+	 * Histogram of durations with buckets growing as powers of two.
+	 */
+	protected static class Histogram {
+		final LongAdder[] buckets;
+		final LongAdder total;
+		final LongAdder count;
+
+		Histogram() {
+			buckets = new LongAdder[64];
+
+			for (int i = 0; i < buckets.length; i++)
+				buckets[i] = new LongAdder();
+
+			total = new LongAdder();
+			count = new LongAdder();
+		}
+
+		void record(long nanos) {
+			if (nanos < 0)
+				nanos = 0;
+
+			buckets[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+			total.add(nanos);
+			count.increment();
+		}
+
+		/**
+		 * Counts, up to the last non-empty bucket.
+		 */
+		long[] counts() {
+			int n = buckets.length;
+
+			while (n > 0 && buckets[n - 1].sum() == 0)
+				n--;
+
+			long[] c = new long[n];
+
+			for (int i = 0; i < n; i++)
+				c[i] = buckets[i].sum();
+
+			return c;
+		}
+
+		double mean() {
+			long c = count.sum();
+			return c == 0 ? 0 : total.sum() / (double) c;
+		}
+
+		void reset() {
+			for (int i = 0; i < buckets.length; i++)
+				buckets[i].reset();
+
+			total.reset();
+			count.reset();
+		}
+	}
+}
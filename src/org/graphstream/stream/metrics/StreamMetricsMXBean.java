@@ -0,0 +1,96 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link StreamMetrics}.
+ * 
+ * <p>
+ * Histograms are arrays of counts where the entry {@code i} counts the
+ * durations between 2<sup>i</sup> and 2<sup>i+1</sup> nanoseconds.
+ * </p>
+ */
+public interface StreamMetricsMXBean {
+	/**
+	 * Count of events received, by type of event.
+	 */
+	Map<String, Long> getEventsIn();
+
+	/**
+	 * Count of events forwarded, by type of event.
+	 */
+	Map<String, Long> getEventsOut();
+
+	/**
+	 * Total count of events received.
+	 */
+	long getEventInCount();
+
+	/**
+	 * Total count of events forwarded.
+	 */
+	long getEventOutCount();
+
+	/**
+	 * Count of events waiting in the queue, for queued pipes.
+	 */
+	long getQueueDepth();
+
+	/**
+	 * Largest count of events seen waiting in the queue.
+	 */
+	long getMaxQueueDepth();
+
+	/**
+	 * Durations of the pumps which processed events, for queued pipes.
+	 */
+	long[] getPumpLatencyHistogram();
+
+	/**
+	 * Mean duration of a pump, in microseconds.
+	 */
+	double getMeanPumpLatency();
+
+	/**
+	 * Durations of the calls to the sinks, one per event.
+	 */
+	long[] getSinkCallbackHistogram();
+
+	/**
+	 * Mean duration of the calls to the sinks for one event, in microseconds.
+	 */
+	double getMeanSinkCallbackTime();
+
+	/**
+	 * Reset all the counters.
+	 */
+	void reset();
+}
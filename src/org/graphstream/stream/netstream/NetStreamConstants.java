@@ -720,6 +720,103 @@ public class NetStreamConstants {
 	 */
 	public static int EVENT_DEL_EDGE_ATTR = 0x1e;
 
+	//
+	// ----------------------------------
+	// Protocol extensions
+	// ----------------------------------
+	//
+
+	/**
+	 * A frame carrying several events of the same source. The source id and the
+	 * time id of the first event follow the command, as for other events. The
+	 * frame is then filled with events, each made of its command (1 byte), the
+	 * difference between its time id and the one of the previous event (signed
+	 * varint) and its content.
+	 *
+	 * Only sent to peers which announced {@link #EVENT_ACCEPTS_BATCH}.
+	 */
+	public static int EVENT_BATCH = 0x20;
+
+	/**
+	 * Announces that the sender of this frame can decode {@link #EVENT_BATCH}
+	 * frames. Nothing follows the command, so that older receivers, which stop
+	 * reading unknown frames after the command, skip it entirely.
+	 */
+	public static int EVENT_ACCEPTS_BATCH = 0x21;
+
+	/**
+	 * Capability flag of {@link #EVENT_ACCEPTS_BATCH}, see
+	 * {@link org.graphstream.stream.binary.ByteEncoder#setPeerCapabilities(int)}.
+	 */
+	public static final int CAPABILITY_BATCH = 0x01;
+
+	/**
+	 * Announces that the sender of this frame can decode events using a string
+	 * dictionary, see {@link #EVENT_FLAG_DICTIONARY}. Nothing follows the
+	 * command.
+	 */
+	public static int EVENT_ACCEPTS_DICTIONARY = 0x22;
+
+	/**
+	 * Capability flag of {@link #EVENT_ACCEPTS_DICTIONARY}.
+	 */
+	public static final int CAPABILITY_DICTIONARY = 0x02;
+
+	/**
+	 * Empties the string dictionary of the receiver. Followed by the maximum
+	 * number of strings of the dictionary (unsigned varint). Only sent to peers
+	 * which announced {@link #EVENT_ACCEPTS_DICTIONARY}.
+	 */
+	public static int EVENT_DICTIONARY_RESET = 0x23;
+
+	/**
+	 * Set on the command of an event whose element ids and attribute names are
+	 * dictionary strings, including the events of a batch. A dictionary string
+	 * starts with an unsigned varint tag. If the lowest bit of the tag is set,
+	 * the rest of the tag is the code of a string already received. Otherwise
+	 * the rest of the tag is the UTF-8 length of the string which follows, and
+	 * the string is added to the dictionary. Strings get codes 0, 1, ... in the
+	 * order they are received and, once the dictionary is full, replace the
+	 * oldest one. The source id and the string values are not affected.
+	 */
+	public static final int EVENT_FLAG_DICTIONARY = 0x80;
+
+	/**
+	 * Ends a snapshot of the stream, such as the replay sent to a new peer. The
+	 * source id and the time id of the last event included in the snapshot follow
+	 * the command, as for other events. The events which follow are the ones sent
+	 * after this event.
+	 *
+	 * Only sent to peers which announced an extension, since they skip the frames
+	 * they do not know.
+	 */
+	public static int EVENT_SNAPSHOT = 0x24;
+
+	/**
+	 * Asks the receiver to resume a session. Followed by the session id
+	 * (TYPE_STRING format), then the number of sources (unsigned varint) and, for
+	 * each of them, its id (TYPE_STRING format) and the time id of the last event
+	 * received from it (unsigned varint). Sent as the first frame of a new
+	 * connection, so that the receiver knows what to send.
+	 */
+	public static int EVENT_RESUME = 0x25;
+
+	/**
+	 * Gives the receiver the id of its session. Followed by the same content as
+	 * {@link #EVENT_RESUME}, the time ids being the ones of the last events the
+	 * receiver is up to date with.
+	 *
+	 * Only sent to peers which announced an extension or asked to resume a
+	 * session.
+	 */
+	public static int EVENT_SESSION = 0x26;
+
+	/**
+	 * Capability flag of a peer which asked to resume a session, and so
+	 * understands {@link #EVENT_SESSION}.
+	 */
+	public static final int CAPABILITY_SESSION = 0x04;
+
 	// Values types
 
 	public static int TYPE_UNKNOWN = 0x00;
@@ -33,12 +33,16 @@
 package org.graphstream.stream.netstream;
 
 import org.graphstream.stream.binary.ByteDecoder;
+import org.graphstream.stream.binary.InvalidFrameException;
 import org.graphstream.stream.SourceBase;
 
 import static org.graphstream.stream.netstream.NetStreamUtils.*;
 
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
 import java.util.logging.Logger;
 
 /**
@@ -47,6 +51,82 @@ import java.util.logging.Logger;
 public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	private static final Logger LOGGER = Logger.getLogger(NetStreamDecoder.class.getName());
 
+	/**
+	 * Default maximum size of the dictionary a peer can ask for, see
+	 * {@link #setMaxDictionaryEntries(int)}.
+	 */
+	public static final int DEFAULT_MAX_DICTIONARY_ENTRIES = 1 << 16;
+
+	/**
+	 * Called when a peer announces a protocol extension.
+	 */
+	protected IntConsumer capabilityListener;
+
+	/**
+	 * Called when a snapshot ends.
+	 */
+	protected SnapshotListener snapshotListener;
+
+	/**
+	 * Called when session messages are received.
+	 */
+	protected SessionListener sessionListener;
+
+	/**
+	 * Strings received since the last {@link NetStreamConstants#EVENT_DICTIONARY_RESET},
+	 * null if none was received.
+	 */
+	protected String[] dictionary;
+	protected int dictionaryNext;
+
+	/**
+	 * Largest dictionary a peer can ask for.
+	 */
+	protected int maxDictionaryEntries = DEFAULT_MAX_DICTIONARY_ENTRIES;
+
+	/**
+	 * True while decoding an event which uses the dictionary.
+	 */
+	protected boolean dictionaryEvent;
+
+	/**
+	 * True to decode arrays of numbers and booleans as arrays of primitives.
+	 */
+	protected boolean primitiveArrays;
+
+	/**
+	 * Array receiving the bytes of strings read from direct buffers.
+	 */
+	private byte[] scratch = new byte[256];
+
+	/**
+	 * Decodes arrays of numbers and booleans as arrays of primitives, such as
+	 * {@code double[]}, instead of arrays of boxed values, such as
+	 * {@code Double[]}. This avoids creating an object per item of the arrays, for
+	 * example for node positions.
+	 *
+	 * @param primitiveArrays
+	 *            true to decode arrays of primitives
+	 */
+	public void setPrimitiveArrays(boolean primitiveArrays) {
+		this.primitiveArrays = primitiveArrays;
+	}
+
+	/**
+	 * Sets the largest dictionary a peer can ask for with
+	 * {@link NetStreamConstants#EVENT_DICTIONARY_RESET}. Larger dictionaries are
+	 * refused with an {@link InvalidFrameException}, rather than allocated.
+	 *
+	 * @param maxEntries
+	 *            maximum number of strings of the dictionary
+	 */
+	public void setMaxDictionaryEntries(int maxEntries) {
+		if (maxEntries < 0)
+			throw new IllegalArgumentException("dictionary size can not be negative");
+
+		maxDictionaryEntries = maxEntries;
+	}
+
 	@Override
 	public boolean validate(ByteBuffer buffer) {
 		if (buffer.position() >= 4) {
@@ -57,50 +137,301 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 		return false;
 	}
 
+	@Override
+	public boolean hasEvent(ByteBuffer buffer) {
+		int size = getEventSize(buffer);
+		return size >= 0 && buffer.remaining() >= size;
+	}
+
+	@Override
+	public int getEventSize(ByteBuffer buffer) {
+		if (buffer.remaining() < 4)
+			return -1;
+
+		// Negative sizes are invalid, and must not be taken for an unknown size.
+		return Math.max(buffer.getInt(buffer.position()), 0);
+	}
+
+	/**
+	 * Decodes a frame and dispatches its events.
+	 *
+	 * @throws InvalidFrameException
+	 *             if the frame breaks the protocol, such as an unknown dictionary
+	 *             code; the frame is skipped but the channel should be closed
+	 */
 	@Override
 	public void decode(ByteBuffer bb) {
+		int start = bb.position();
+		int size = 0;
+
 		try {
-			int size = bb.getInt();
-			String streamId = NetStreamUtils.decodeString(bb);
-			int cmd = bb.get();
-
-			if (cmd == NetStreamConstants.EVENT_ADD_NODE) {
-				serve_EVENT_ADD_NODE(bb);
-			} else if ((cmd & 0xFF) == (NetStreamConstants.EVENT_DEL_NODE & 0xFF)) {
-				serve_DEL_NODE(bb);
-			} else if (cmd == NetStreamConstants.EVENT_ADD_EDGE) {
-				serve_EVENT_ADD_EDGE(bb);
-			} else if (cmd == NetStreamConstants.EVENT_DEL_EDGE) {
-				serve_EVENT_DEL_EDGE(bb);
-			} else if (cmd == NetStreamConstants.EVENT_STEP) {
-				serve_EVENT_STEP(bb);
-			} else if (cmd == NetStreamConstants.EVENT_CLEARED) {
-				serve_EVENT_CLEARED(bb);
-			} else if (cmd == NetStreamConstants.EVENT_ADD_GRAPH_ATTR) {
-				serve_EVENT_ADD_GRAPH_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_CHG_GRAPH_ATTR) {
-				serve_EVENT_CHG_GRAPH_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_DEL_GRAPH_ATTR) {
-				serve_EVENT_DEL_GRAPH_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_ADD_NODE_ATTR) {
-				serve_EVENT_ADD_NODE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_CHG_NODE_ATTR) {
-				serve_EVENT_CHG_NODE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_DEL_NODE_ATTR) {
-				serve_EVENT_DEL_NODE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_ADD_EDGE_ATTR) {
-				serve_EVENT_ADD_EDGE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_CHG_EDGE_ATTR) {
-				serve_EVENT_CHG_EDGE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_DEL_EDGE_ATTR) {
-				serve_EVENT_DEL_EDGE_ATTR(bb);
-			} else if (cmd == NetStreamConstants.EVENT_END) {
+			size = bb.getInt();
+			String streamId = readString(bb);
+			int cmd = bb.get() & 0xFF;
+
+			if (cmd == NetStreamConstants.EVENT_END) {
 				LOGGER.info("NetStreamReceiver : Client properly ended the connection.");
+			} else if (cmd == NetStreamConstants.EVENT_ACCEPTS_BATCH) {
+				if (capabilityListener != null)
+					capabilityListener.accept(NetStreamConstants.CAPABILITY_BATCH);
+			} else if (cmd == NetStreamConstants.EVENT_ACCEPTS_DICTIONARY) {
+				if (capabilityListener != null)
+					capabilityListener.accept(NetStreamConstants.CAPABILITY_DICTIONARY);
+			} else if (cmd == NetStreamConstants.EVENT_DICTIONARY_RESET) {
+				serve_EVENT_DICTIONARY_RESET(bb);
+			} else if (cmd == NetStreamConstants.EVENT_BATCH) {
+				serve_EVENT_BATCH(bb, start + size);
+			} else if (cmd == NetStreamConstants.EVENT_SNAPSHOT) {
+				serve_EVENT_SNAPSHOT(bb);
+			} else if (cmd == NetStreamConstants.EVENT_RESUME) {
+				serve_EVENT_RESUME(bb);
+			} else if (cmd == NetStreamConstants.EVENT_SESSION) {
+				serve_EVENT_SESSION(bb);
+			} else if (isEvent(cmd & ~NetStreamConstants.EVENT_FLAG_DICTIONARY)) {
+				String sourceId = readString(bb);
+				long timeId = decodeUnsignedVarint(bb);
+
+				decodeEvent(cmd, sourceId, timeId, bb);
 			} else {
 				LOGGER.warning("NetStreamReceiver: Don't know this command: " + cmd);
 			}
 		} catch (BufferUnderflowException e) {
 			LOGGER.warning("bad buffer");
+		} finally {
+			// Skip what was not read, such as the content of unknown commands.
+			if (size > 0 && start + size <= bb.limit())
+				bb.position(start + size);
+		}
+	}
+
+	@Override
+	public ByteBuffer getCapabilities() {
+		ByteBuffer bb = ByteBuffer.allocate(12);
+		bb.putInt(6).put((byte) 0).put((byte) NetStreamConstants.EVENT_ACCEPTS_BATCH);
+		bb.putInt(6).put((byte) 0).put((byte) NetStreamConstants.EVENT_ACCEPTS_DICTIONARY);
+		bb.rewind();
+
+		return bb;
+	}
+
+	@Override
+	public void setCapabilityListener(IntConsumer listener) {
+		capabilityListener = listener;
+	}
+
+	@Override
+	public void setSnapshotListener(SnapshotListener listener) {
+		snapshotListener = listener;
+	}
+
+	@Override
+	public void setSessionListener(SessionListener listener) {
+		sessionListener = listener;
+	}
+
+	protected boolean isEvent(int cmd) {
+		return cmd >= NetStreamConstants.EVENT_ADD_NODE && cmd <= NetStreamConstants.EVENT_DEL_EDGE_ATTR;
+	}
+
+	/**
+	 * Decodes the content of an event, once its source id and time id are known.
+	 *
+	 * @return false if the event could not be decoded, in which case the rest of
+	 *         the frame is skipped
+	 */
+	protected boolean decodeEvent(int cmd, String sourceId, long timeId, ByteBuffer bb) {
+		dictionaryEvent = (cmd & NetStreamConstants.EVENT_FLAG_DICTIONARY) != 0;
+		cmd &= ~NetStreamConstants.EVENT_FLAG_DICTIONARY;
+
+		if (dictionaryEvent && dictionary == null) {
+			LOGGER.warning("NetStreamReceiver: dictionary used before being reset");
+			return false;
+		}
+
+		if (cmd == NetStreamConstants.EVENT_ADD_NODE) {
+			serve_EVENT_ADD_NODE(sourceId, timeId, bb);
+		} else if ((cmd & 0xFF) == (NetStreamConstants.EVENT_DEL_NODE & 0xFF)) {
+			serve_DEL_NODE(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_ADD_EDGE) {
+			serve_EVENT_ADD_EDGE(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_DEL_EDGE) {
+			serve_EVENT_DEL_EDGE(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_STEP) {
+			serve_EVENT_STEP(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_CLEARED) {
+			serve_EVENT_CLEARED(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_ADD_GRAPH_ATTR) {
+			serve_EVENT_ADD_GRAPH_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_CHG_GRAPH_ATTR) {
+			serve_EVENT_CHG_GRAPH_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_DEL_GRAPH_ATTR) {
+			serve_EVENT_DEL_GRAPH_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_ADD_NODE_ATTR) {
+			serve_EVENT_ADD_NODE_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_CHG_NODE_ATTR) {
+			serve_EVENT_CHG_NODE_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_DEL_NODE_ATTR) {
+			serve_EVENT_DEL_NODE_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_ADD_EDGE_ATTR) {
+			serve_EVENT_ADD_EDGE_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_CHG_EDGE_ATTR) {
+			serve_EVENT_CHG_EDGE_ATTR(sourceId, timeId, bb);
+		} else if (cmd == NetStreamConstants.EVENT_DEL_EDGE_ATTR) {
+			serve_EVENT_DEL_EDGE_ATTR(sourceId, timeId, bb);
+		} else {
+			LOGGER.warning("NetStreamReceiver: Don't know this command: " + cmd);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads an element id or an attribute name, which is a dictionary string if
+	 * the current event uses the dictionary.
+	 *
+	 * @see NetStreamConstants#EVENT_FLAG_DICTIONARY
+	 */
+	protected String decodeId(ByteBuffer bb) {
+		if (!dictionaryEvent)
+			return readString(bb);
+
+		long tag = decodeUnsignedVarint(bb);
+
+		if ((tag & 1) != 0) {
+			long code = tag >>> 1;
+
+			// Codes are given in order, and only reused once all have been given.
+			if (code >= dictionary.length || dictionary[(int) code] == null)
+				throw new InvalidFrameException(String.format("unknown dictionary code %d", code));
+
+			return dictionary[(int) code];
+		}
+
+		String s = readString(bb, (int) (tag >>> 1));
+
+		dictionary[dictionaryNext] = s;
+		dictionaryNext = (dictionaryNext + 1) % dictionary.length;
+
+		return s;
+	}
+
+	/**
+	 * Reads a string prefixed by its length.
+	 */
+	protected String readString(ByteBuffer bb) {
+		return readString(bb, (int) decodeUnsignedVarint(bb));
+	}
+
+	/**
+	 * Reads a string of the given UTF-8 length, straight from the buffer if it is
+	 * backed by an array, or through a scratch array otherwise.
+	 */
+	protected String readString(ByteBuffer bb, int len) {
+		if (!bb.hasArray() && scratch.length < len)
+			scratch = new byte[Math.max(len, 2 * scratch.length)];
+
+		return decodeUTF8(bb, len, scratch);
+	}
+
+	/**
+	 * Reads the type of an attribute value, then the value.
+	 */
+	protected Object decodeAttributeValue(ByteBuffer bb) {
+		int valueType = decodeType(bb);
+
+		return primitiveArrays ? decodePrimitiveValue(bb, valueType) : decodeValue(bb, valueType);
+	}
+
+	/**
+	 * @see NetStreamConstants#EVENT_DICTIONARY_RESET
+	 */
+	protected void serve_EVENT_DICTIONARY_RESET(ByteBuffer bb) {
+		LOGGER.finest("NetStreamServer: Received EVENT_DICTIONARY_RESET command.");
+
+		long maxEntries = decodeUnsignedVarint(bb);
+
+		if (maxEntries > maxDictionaryEntries)
+			throw new InvalidFrameException(
+					String.format("dictionary of %d strings, at most %d allowed", maxEntries, maxDictionaryEntries));
+
+		dictionary = maxEntries > 0 ? new String[(int) maxEntries] : null;
+		dictionaryNext = 0;
+	}
+
+	/**
+	 * @see NetStreamConstants#EVENT_SNAPSHOT
+	 */
+	protected void serve_EVENT_SNAPSHOT(ByteBuffer bb) {
+		LOGGER.finest("NetStreamServer: Received EVENT_SNAPSHOT command.");
+
+		String sourceId = readString(bb);
+		long timeId = decodeUnsignedVarint(bb);
+
+		if (snapshotListener != null)
+			snapshotListener.snapshotEnded(sourceId, timeId);
+	}
+
+	/**
+	 * A peer asking to resume a session also understands the session frames.
+	 *
+	 * @see NetStreamConstants#EVENT_RESUME
+	 */
+	protected void serve_EVENT_RESUME(ByteBuffer bb) {
+		LOGGER.finest("NetStreamServer: Received EVENT_RESUME command.");
+
+		String sessionId = readString(bb);
+		Map<String, Long> timeIds = readTimeIds(bb);
+
+		if (capabilityListener != null)
+			capabilityListener.accept(NetStreamConstants.CAPABILITY_SESSION);
+
+		if (sessionListener != null)
+			sessionListener.resumeRequested(sessionId, timeIds);
+	}
+
+	/**
+	 * @see NetStreamConstants#EVENT_SESSION
+	 */
+	protected void serve_EVENT_SESSION(ByteBuffer bb) {
+		LOGGER.finest("NetStreamServer: Received EVENT_SESSION command.");
+
+		String sessionId = readString(bb);
+		Map<String, Long> timeIds = readTimeIds(bb);
+
+		if (sessionListener != null)
+			sessionListener.sessionStarted(sessionId, timeIds);
+	}
+
+	private Map<String, Long> readTimeIds(ByteBuffer bb) {
+		int count = (int) decodeUnsignedVarint(bb);
+		Map<String, Long> timeIds = new HashMap<>();
+
+		for (int i = 0; i < count; i++) {
+			String sourceId = readString(bb);
+			timeIds.put(sourceId, decodeUnsignedVarint(bb));
+		}
+
+		return timeIds;
+	}
+
+	/**
+	 * @param end
+	 *            position of the end of the frame
+	 * @see NetStreamConstants#EVENT_BATCH
+	 */
+	protected void serve_EVENT_BATCH(ByteBuffer bb, int end) {
+		LOGGER.finest("NetStreamServer: Received EVENT_BATCH command.");
+
+		String sourceId = readString(bb);
+		long timeId = decodeUnsignedVarint(bb);
+
+		while (bb.position() < end) {
+			int cmd = bb.get() & 0xFF;
+			timeId += decodeVarint(bb);
+
+			if (!decodeEvent(cmd, sourceId, timeId, bb))
+				return;
 		}
 	}
 
@@ -108,13 +439,11 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	 * @param bb
 	 * @see NetStreamConstants#EVENT_DEL_EDGE
 	 */
-	protected void serve_EVENT_DEL_EDGE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_DEL_EDGE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received DEL_EDGE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String edgeId = decodeString(bb);
-		String attrId = decodeString(bb);
+		String edgeId = decodeId(bb);
+		String attrId = decodeId(bb);
 
 		sendEdgeAttributeRemoved(sourceId, timeId, edgeId, attrId);
 	}
@@ -122,17 +451,13 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_CHG_EDGE_ATTR
 	 */
-	protected void serve_EVENT_CHG_EDGE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_CHG_EDGE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received CHG_EDGE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String edgeId = decodeString(bb);
-		String attrId = decodeString(bb);
-		int oldValueType = decodeType(bb);
-		Object oldValue = decodeValue(bb, oldValueType);
-		int newValueType = decodeType(bb);
-		Object newValue = decodeValue(bb, newValueType);
+		String edgeId = decodeId(bb);
+		String attrId = decodeId(bb);
+		Object oldValue = decodeAttributeValue(bb);
+		Object newValue = decodeAttributeValue(bb);
 
 		sendEdgeAttributeChanged(sourceId, timeId, edgeId, attrId, oldValue, newValue);
 
@@ -141,14 +466,12 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_ADD_EDGE_ATTR
 	 */
-	protected void serve_EVENT_ADD_EDGE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_ADD_EDGE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received ADD_EDGE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String edgeId = decodeString(bb);
-		String attrId = decodeString(bb);
-		Object value = decodeValue(bb, decodeType(bb));
+		String edgeId = decodeId(bb);
+		String attrId = decodeId(bb);
+		Object value = decodeAttributeValue(bb);
 
 		sendEdgeAttributeAdded(sourceId, timeId, edgeId, attrId, value);
 
@@ -157,13 +480,11 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_DEL_NODE_ATTR
 	 */
-	protected void serve_EVENT_DEL_NODE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_DEL_NODE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received DEL_NODE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String nodeId = decodeString(bb);
-		String attrId = decodeString(bb);
+		String nodeId = decodeId(bb);
+		String attrId = decodeId(bb);
 
 		sendNodeAttributeRemoved(sourceId, timeId, nodeId, attrId);
 
@@ -172,17 +493,13 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_CHG_NODE_ATTR
 	 */
-	protected void serve_EVENT_CHG_NODE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_CHG_NODE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_CHG_NODE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String nodeId = decodeString(bb);
-		String attrId = decodeString(bb);
-		int oldValueType = decodeType(bb);
-		Object oldValue = decodeValue(bb, oldValueType);
-		int newValueType = decodeType(bb);
-		Object newValue = decodeValue(bb, newValueType);
+		String nodeId = decodeId(bb);
+		String attrId = decodeId(bb);
+		Object oldValue = decodeAttributeValue(bb);
+		Object newValue = decodeAttributeValue(bb);
 
 		sendNodeAttributeChanged(sourceId, timeId, nodeId, attrId, oldValue, newValue);
 	}
@@ -190,14 +507,12 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_ADD_NODE_ATTR
 	 */
-	protected void serve_EVENT_ADD_NODE_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_ADD_NODE_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_ADD_NODE_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String nodeId = decodeString(bb);
-		String attrId = decodeString(bb);
-		Object value = decodeValue(bb, decodeType(bb));
+		String nodeId = decodeId(bb);
+		String attrId = decodeId(bb);
+		Object value = decodeAttributeValue(bb);
 
 		sendNodeAttributeAdded(sourceId, timeId, nodeId, attrId, value);
 	}
@@ -205,12 +520,10 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_DEL_GRAPH_ATTR
 	 */
-	protected void serve_EVENT_DEL_GRAPH_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_DEL_GRAPH_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_DEL_GRAPH_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String attrId = decodeString(bb);
+		String attrId = decodeId(bb);
 
 		sendGraphAttributeRemoved(sourceId, timeId, attrId);
 	}
@@ -218,16 +531,12 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_CHG_GRAPH_ATTR
 	 */
-	protected void serve_EVENT_CHG_GRAPH_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_CHG_GRAPH_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_CHG_GRAPH_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String attrId = decodeString(bb);
-		int oldValueType = decodeType(bb);
-		Object oldValue = decodeValue(bb, oldValueType);
-		int newValueType = decodeType(bb);
-		Object newValue = decodeValue(bb, newValueType);
+		String attrId = decodeId(bb);
+		Object oldValue = decodeAttributeValue(bb);
+		Object newValue = decodeAttributeValue(bb);
 
 		sendGraphAttributeChanged(sourceId, timeId, attrId, oldValue, newValue);
 	}
@@ -235,13 +544,11 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_ADD_GRAPH_ATTR
 	 */
-	protected void serve_EVENT_ADD_GRAPH_ATTR(ByteBuffer bb) {
+	protected void serve_EVENT_ADD_GRAPH_ATTR(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_ADD_GRAPH_ATTR command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String attrId = decodeString(bb);
-		Object value = decodeValue(bb, decodeType(bb));
+		String attrId = decodeId(bb);
+		Object value = decodeAttributeValue(bb);
 
 		LOGGER.finest(String.format("NetStreamServer | EVENT_ADD_GRAPH_ATTR | %s=%s", attrId, value.toString()));
 
@@ -251,23 +558,17 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_CLEARED
 	 */
-	protected void serve_EVENT_CLEARED(ByteBuffer bb) {
+	protected void serve_EVENT_CLEARED(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_CLEARED command.");
-
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-
 		sendGraphCleared(sourceId, timeId);
 	}
 
 	/**
 	 * @see NetStreamConstants#EVENT_STEP
 	 */
-	protected void serve_EVENT_STEP(ByteBuffer bb) {
+	protected void serve_EVENT_STEP(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_STEP command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
 		double time = decodeDouble(bb);
 
 		sendStepBegins(sourceId, timeId, time);
@@ -276,12 +577,10 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_DEL_EDGE
 	 */
-	protected void serve_EVENT_DEL_EDGE(ByteBuffer bb) {
+	protected void serve_EVENT_DEL_EDGE(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_DEL_EDGE command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String edgeId = decodeString(bb);
+		String edgeId = decodeId(bb);
 
 		sendEdgeRemoved(sourceId, timeId, edgeId);
 	}
@@ -289,14 +588,12 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_ADD_EDGE
 	 */
-	protected void serve_EVENT_ADD_EDGE(ByteBuffer bb) {
+	protected void serve_EVENT_ADD_EDGE(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received ADD_EDGE command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String edgeId = decodeString(bb);
-		String from = decodeString(bb);
-		String to = decodeString(bb);
+		String edgeId = decodeId(bb);
+		String from = decodeId(bb);
+		String to = decodeId(bb);
 		boolean directed = decodeBoolean(bb);
 
 		sendEdgeAdded(sourceId, timeId, edgeId, from, to, directed);
@@ -305,12 +602,10 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_DEL_NODE
 	 */
-	protected void serve_DEL_NODE(ByteBuffer bb) {
+	protected void serve_DEL_NODE(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received DEL_NODE command.");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String nodeId = decodeString(bb);
+		String nodeId = decodeId(bb);
 
 		sendNodeRemoved(sourceId, timeId, nodeId);
 	}
@@ -318,12 +613,10 @@ public class NetStreamDecoder extends SourceBase implements ByteDecoder {
 	/**
 	 * @see NetStreamConstants#EVENT_ADD_NODE
 	 */
-	protected void serve_EVENT_ADD_NODE(ByteBuffer bb) {
+	protected void serve_EVENT_ADD_NODE(String sourceId, long timeId, ByteBuffer bb) {
 		LOGGER.finest("NetStreamServer: Received EVENT_ADD_NODE command");
 
-		String sourceId = decodeString(bb);
-		long timeId = decodeUnsignedVarint(bb);
-		String nodeId = decodeString(bb);
+		String nodeId = decodeId(bb);
 
 		sendNodeAdded(sourceId, timeId, nodeId);
 	}
@@ -36,27 +36,144 @@ import org.graphstream.stream.binary.ByteEncoder;
 import static org.graphstream.stream.netstream.NetStreamUtils.*;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
+ * Encodes events using the NetStream protocol.
+ * 
+ * <p>
+ * Events are written directly in an output buffer reused from one event to the
+ * next, which grows when an event does not fit. Sizes are computed before
+ * writing, so that encoding does not allocate once the buffer is large enough.
+ * Transports must consume, or copy, the buffer before returning from
+ * {@link ByteEncoder.Transport#send(ByteBuffer)}.
+ * </p>
+ * 
+ * <p>
+ * With {@link #setBatching(int, long, TimeUnit)}, consecutive events of the same
+ * source are grouped in {@link NetStreamConstants#EVENT_BATCH} frames, sent when
+ * they reach a size or a delay. Batches are only used while the peers have
+ * announced they can decode them, see {@link #setPeerCapabilities(int)}.
+ * </p>
+ * 
+ * <p>
+ * With {@link #setDictionary(int)}, element ids and attribute names are sent
+ * once, then replaced by a code, see
+ * {@link NetStreamConstants#EVENT_FLAG_DICTIONARY}. As batches, the dictionary
+ * is only used while the peers have announced they can decode it.
+ * </p>
+ * 
  * @since 22/01/16.
  */
 public class NetStreamEncoder implements ByteEncoder {
 	private static final Logger LOGGER = Logger.getLogger(NetStreamEncoder.class.getName());
 
+	/**
+	 * Initial capacity of the output buffer.
+	 */
+	public static final int INITIAL_BUFFER_SIZE = 256;
+
 	protected final List<Transport> transportList;
 	protected String sourceId;
 	protected ByteBuffer sourceIdBuff;
 	protected ByteBuffer streamBuffer;
 
+	/**
+	 * Buffer in which events are encoded.
+	 */
+	protected ByteBuffer outBuffer;
+
+	/**
+	 * True if the output buffer is allocated outside of the heap.
+	 */
+	protected final boolean direct;
+
+	/**
+	 * Size from which a batch is sent, zero if batching is disabled.
+	 */
+	protected int batchMaxSize;
+
+	/**
+	 * Maximum time, in nanoseconds, an event waits in a batch. Zero if batches are
+	 * only sent when full.
+	 */
+	protected long batchMaxDelay;
+
+	/**
+	 * Capabilities of the peers, none until they are announced with
+	 * {@link #setPeerCapabilities(int)}.
+	 */
+	protected int peerCapabilities = 0;
+
+	/**
+	 * Source id of the batch being filled in the output buffer, null if there is
+	 * none.
+	 */
+	protected String batchSourceId;
+
+	/**
+	 * Time id of the last event of the batch.
+	 */
+	protected long batchTimeId;
+
+	private ScheduledExecutorService flusher;
+	private ScheduledFuture<?> scheduledFlush;
+
+	/**
+	 * Maximum number of strings in the dictionary, zero if it is disabled.
+	 */
+	protected int dictionaryMaxEntries;
+
+	/**
+	 * True if the events currently encoded use the dictionary.
+	 */
+	protected boolean dictionaryActive;
+
+	/**
+	 * Codes of the strings in the dictionary, and strings of each code. When the
+	 * dictionary is full, the oldest string is replaced, as the decoder does.
+	 */
+	protected HashMap<String, Integer> dictionaryCodes;
+	protected String[] dictionaryStrings;
+	protected int dictionaryNext;
+
+	/**
+	 * Codes decided while computing the size of an event, used when the event is
+	 * written. -1 means the string is written and added to the dictionary.
+	 */
+	private int[] idCodes = new int[8];
+	private int idCount, idRead;
+
 	public NetStreamEncoder(Transport... transports) {
 		this("default", transports);
 	}
 
 	public NetStreamEncoder(String stream, Transport... transports) {
+		this(stream, false, transports);
+	}
+
+	/**
+	 * @param stream
+	 *            the stream id
+	 * @param direct
+	 *            true to encode in a direct buffer, which avoids a copy when the
+	 *            transport writes to a channel
+	 * @param transports
+	 *            the initial transports
+	 */
+	public NetStreamEncoder(String stream, boolean direct, Transport... transports) {
+		this.direct = direct;
 		streamBuffer = encodeString(stream);
+		outBuffer = allocate(INITIAL_BUFFER_SIZE);
 		transportList = new LinkedList<>();
 
 		if (transports != null) {
@@ -85,34 +202,431 @@ public class NetStreamEncoder implements ByteEncoder {
 		return value;
 	}
 
+	/**
+	 * Size of an encoded value, logging a warning if it can not be encoded.
+	 *
+	 * @return the size of the value, or -1 if it can not be encoded
+	 */
+	protected int getValueSize(Object value, int valueType) {
+		int size = NetStreamUtils.getValueSize(value, valueType);
+
+		if (size < 0)
+			LOGGER.warning(String.format("unknown value type %d, event dropped", valueType));
+
+		return size;
+	}
+
+	/**
+	 * Groups events in batch frames. Batches are only sent once the peers have
+	 * announced {@link NetStreamConstants#CAPABILITY_BATCH}, see
+	 * {@link #setPeerCapabilities(int)}.
+	 *
+	 * @param maxSize
+	 *            size, in bytes, from which a batch is sent
+	 * @param maxDelay
+	 *            maximum time an event waits in a batch, zero to only send full
+	 *            batches
+	 * @param unit
+	 *            unit of the delay
+	 */
+	public synchronized void setBatching(int maxSize, long maxDelay, TimeUnit unit) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("batch size must be positive");
+
+		flush();
+
+		batchMaxSize = maxSize;
+		batchMaxDelay = unit.toNanos(maxDelay);
+
+		if (batchMaxDelay > 0 && flusher == null) {
+			flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "netstream-flusher");
+				t.setDaemon(true);
+				return t;
+			});
+		} else if (batchMaxDelay == 0 && flusher != null) {
+			flusher.shutdown();
+			flusher = null;
+		}
+	}
+
+	/**
+	 * Sends the current batch and goes back to one frame per event.
+	 */
+	public synchronized void disableBatching() {
+		flush();
+
+		batchMaxSize = 0;
+
+		if (flusher != null) {
+			flusher.shutdown();
+			flusher = null;
+		}
+	}
+
+	/**
+	 * True if events are currently grouped in batches.
+	 */
+	public synchronized boolean isBatching() {
+		return batchMaxSize > 0 && (peerCapabilities & NetStreamConstants.CAPABILITY_BATCH) != 0;
+	}
+
+	@Override
+	public synchronized void setPeerCapabilities(int capabilities) {
+		if ((capabilities & NetStreamConstants.CAPABILITY_BATCH) == 0)
+			flush();
+
+		peerCapabilities = capabilities;
+		updateDictionary();
+	}
+
+	/**
+	 * Replaces element ids and attribute names by codes once they have been sent.
+	 * Codes are only used once the peers have announced
+	 * {@link NetStreamConstants#CAPABILITY_DICTIONARY}, see
+	 * {@link #setPeerCapabilities(int)}.
+	 *
+	 * @param maxEntries
+	 *            maximum number of strings remembered, zero to disable the
+	 *            dictionary
+	 */
+	public synchronized void setDictionary(int maxEntries) {
+		if (maxEntries < 0)
+			throw new IllegalArgumentException("dictionary size can not be negative");
+
+		if (maxEntries != dictionaryMaxEntries) {
+			dictionaryMaxEntries = maxEntries;
+			dictionaryActive = false;
+			updateDictionary();
+		}
+	}
+
+	/**
+	 * Empties the dictionary, if it is in use, and tells the decoders to empty
+	 * theirs.
+	 */
+	@Override
+	public synchronized void resetDictionary() {
+		if (dictionaryActive) {
+			dictionaryActive = false;
+			updateDictionary();
+		}
+	}
+
+	/**
+	 * True if element ids and attribute names are currently sent as codes.
+	 */
+	public synchronized boolean isDictionaryActive() {
+		return dictionaryActive;
+	}
+
+	/**
+	 * Starts or stops using the dictionary according to the settings and to the
+	 * capabilities of the peers. When it starts, the dictionary is empty and the
+	 * decoders are told to reset theirs.
+	 */
+	protected void updateDictionary() {
+		boolean active = dictionaryMaxEntries > 0 && (peerCapabilities & NetStreamConstants.CAPABILITY_DICTIONARY) != 0;
+
+		if (active && !dictionaryActive) {
+			flush();
+
+			dictionaryCodes = new HashMap<>();
+			dictionaryStrings = new String[dictionaryMaxEntries];
+			dictionaryNext = 0;
+
+			int size = 4 + streamBuffer.capacity() + 1 + getVarintSize(dictionaryMaxEntries);
+
+			outBuffer.clear();
+			ensureCapacity(size);
+			outBuffer.putInt(size);
+			outBuffer.put(streamBuffer.array(), 0, streamBuffer.capacity())
+					.put((byte) NetStreamConstants.EVENT_DICTIONARY_RESET);
+			putUnsignedVarint(outBuffer, dictionaryMaxEntries);
+			sendFrame(outBuffer);
+		} else if (!active) {
+			dictionaryCodes = null;
+			dictionaryStrings = null;
+		}
+
+		dictionaryActive = active;
+	}
+
+	/**
+	 * Size of an element id or an attribute name. With the dictionary, this
+	 * decides whether the string is sent or replaced by its code, so the strings
+	 * of an event must be sized in the order they are then written with
+	 * {@link #putId(ByteBuffer, String)}.
+	 */
+	protected int getIdSize(String id) {
+		if (!dictionaryActive)
+			return getStringSize(id);
+
+		if (idRead == idCount)
+			idRead = idCount = 0;
+
+		if (idCount == idCodes.length)
+			idCodes = Arrays.copyOf(idCodes, 2 * idCount);
+
+		Integer code = dictionaryCodes.get(id);
+
+		if (code != null) {
+			idCodes[idCount++] = code;
+			return getVarintSize(((long) code << 1) | 1);
+		}
+
+		String evicted = dictionaryStrings[dictionaryNext];
+
+		if (evicted != null)
+			dictionaryCodes.remove(evicted);
+
+		dictionaryStrings[dictionaryNext] = id;
+		dictionaryCodes.put(id, dictionaryNext);
+		dictionaryNext = (dictionaryNext + 1) % dictionaryStrings.length;
+		idCodes[idCount++] = -1;
+
+		int length = getUTF8Length(id);
+		return getVarintSize((long) length << 1) + length;
+	}
+
+	/**
+	 * Writes an element id or an attribute name, as decided by
+	 * {@link #getIdSize(String)}.
+	 */
+	protected void putId(ByteBuffer buffer, String id) {
+		if (!dictionaryActive) {
+			putString(buffer, id);
+			return;
+		}
+
+		int code = idCodes[idRead++];
+
+		if (code >= 0) {
+			putUnsignedVarint(buffer, ((long) code << 1) | 1);
+		} else {
+			putUnsignedVarint(buffer, (long) getUTF8Length(id) << 1);
+			putUTF8(buffer, id);
+		}
+	}
+
+	/**
+	 * Sends the current batch, if any.
+	 */
+	@Override
+	public synchronized void flush() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+
+		if (batchSourceId == null)
+			return;
+
+		batchSourceId = null;
+		outBuffer.putInt(0, outBuffer.position());
+		sendFrame(outBuffer);
+	}
+
+	/**
+	 * Sends the current batch, then a {@link NetStreamConstants#EVENT_SNAPSHOT}
+	 * frame if the peers announced an extension.
+	 */
+	@Override
+	public synchronized void endSnapshot(String sourceId, long timeId) {
+		if (!peersSkipUnknownFrames())
+			return;
+
+		flush();
+		setSourceId(sourceId);
+
+		int size = 4 + streamBuffer.capacity() + 1 + sourceIdBuff.capacity() + getVarintSize(timeId);
+
+		outBuffer.clear();
+		ensureCapacity(size);
+		outBuffer.putInt(size);
+		putHeader(outBuffer, NetStreamConstants.EVENT_SNAPSHOT, timeId);
+		sendFrame(outBuffer);
+	}
+
+	/**
+	 * Sends the current batch, then a {@link NetStreamConstants#EVENT_SESSION}
+	 * frame if the peers announced an extension.
+	 */
+	@Override
+	public synchronized void startSession(String sessionId, Map<String, Long> timeIds) {
+		if (peersSkipUnknownFrames())
+			sendSession(NetStreamConstants.EVENT_SESSION, sessionId, timeIds);
+	}
+
+	/**
+	 * Sends the current batch, then a {@link NetStreamConstants#EVENT_RESUME}
+	 * frame.
+	 */
+	@Override
+	public synchronized void resumeSession(String sessionId, Map<String, Long> timeIds) {
+		sendSession(NetStreamConstants.EVENT_RESUME, sessionId, timeIds);
+	}
+
+	private void sendSession(int command, String sessionId, Map<String, Long> timeIds) {
+		flush();
+
+		int size = 4 + streamBuffer.capacity() + 1 + getStringSize(sessionId) + getVarintSize(timeIds.size());
+
+		for (Map.Entry<String, Long> entry : timeIds.entrySet())
+			size += getStringSize(entry.getKey()) + getVarintSize(entry.getValue());
+
+		outBuffer.clear();
+		ensureCapacity(size);
+		outBuffer.putInt(size);
+		outBuffer.put(streamBuffer.array(), 0, streamBuffer.capacity()).put((byte) command);
+		putString(outBuffer, sessionId);
+		putUnsignedVarint(outBuffer, timeIds.size());
+
+		for (Map.Entry<String, Long> entry : timeIds.entrySet()) {
+			putString(outBuffer, entry.getKey());
+			putUnsignedVarint(outBuffer, entry.getValue());
+		}
+
+		sendFrame(outBuffer);
+	}
+
+	/**
+	 * True if the peers announced an extension, and then skip the frames they do
+	 * not know.
+	 */
+	protected boolean peersSkipUnknownFrames() {
+		return (peerCapabilities & (NetStreamConstants.CAPABILITY_BATCH | NetStreamConstants.CAPABILITY_DICTIONARY
+				| NetStreamConstants.CAPABILITY_SESSION)) != 0;
+	}
+
+	/**
+	 * Sends an event to the transports. The event is read from the start of the
+	 * buffer to its current position. In batching mode, the event stays in the
+	 * output buffer until the batch is sent.
+	 *
+	 * @param event
+	 *            the buffer containing the event
+	 */
 	protected void doSend(ByteBuffer event) {
+		if (batchSourceId != null && event == outBuffer) {
+			if (event.position() >= batchMaxSize)
+				flush();
+		} else {
+			sendFrame(event);
+		}
+	}
+
+	private void sendFrame(ByteBuffer frame) {
+		frame.flip();
+
 		for (Transport transport : transportList) {
-			event.rewind();
-			transport.send(event);
+			frame.rewind();
+			transport.send(frame);
 		}
 	}
 
+	/**
+	 * Prepares the output buffer for an event, and writes the header of the event.
+	 * The caller then writes the content of the event, which must be exactly
+	 * {@code messageSize} bytes long, and calls {@link #doSend(ByteBuffer)}.
+	 *
+	 * @return the output buffer, positioned after the header
+	 */
 	protected ByteBuffer getAndPrepareBuffer(String sourceId, long timeId, int eventType, int messageSize) {
-		if (!sourceId.equals(this.sourceId)) {
-			this.sourceId = sourceId;
-			sourceIdBuff = encodeString(sourceId);
-		}
+		if (dictionaryActive)
+			eventType |= NetStreamConstants.EVENT_FLAG_DICTIONARY;
 
-		streamBuffer.rewind();
-		sourceIdBuff.rewind();
+		if (isBatching())
+			return appendToBatch(sourceId, timeId, eventType, messageSize);
 
-		int size = 4 + +streamBuffer.capacity() // stream
+		setSourceId(sourceId);
+
+		int size = 4 + streamBuffer.capacity() // stream
 				+ 1 // CMD
 				+ sourceIdBuff.capacity() // source id
 				+ getVarintSize(timeId) // timeId
 				+ messageSize;
 
-		ByteBuffer bb = ByteBuffer.allocate(size);
-		bb.putInt(size).put(streamBuffer).put((byte) eventType).put(sourceIdBuff).put(encodeUnsignedVarint(timeId));
+		outBuffer.clear();
+
+		ByteBuffer bb = ensureCapacity(size);
+
+		bb.putInt(size);
+		putHeader(bb, eventType, timeId);
 
 		return bb;
 	}
 
+	/**
+	 * Prepares the output buffer for an event added to the current batch, opening
+	 * a new batch if needed.
+	 */
+	protected ByteBuffer appendToBatch(String sourceId, long timeId, int eventType, int messageSize) {
+		if (batchSourceId != null && (!batchSourceId.equals(sourceId)
+				|| outBuffer.position() + 1 + getSignedVarintSize(timeId - batchTimeId) + messageSize > batchMaxSize))
+			flush();
+
+		if (batchSourceId == null) {
+			setSourceId(sourceId);
+
+			outBuffer.clear();
+			ensureCapacity(4 + streamBuffer.capacity() + 1 + sourceIdBuff.capacity() + getVarintSize(timeId));
+
+			// The size is set when the batch is sent.
+			outBuffer.putInt(0);
+			putHeader(outBuffer, NetStreamConstants.EVENT_BATCH, timeId);
+
+			batchSourceId = sourceId;
+			batchTimeId = timeId;
+
+			if (flusher != null)
+				scheduledFlush = flusher.schedule(this::flush, batchMaxDelay, TimeUnit.NANOSECONDS);
+		}
+
+		long delta = timeId - batchTimeId;
+		ByteBuffer bb = ensureCapacity(outBuffer.position() + 1 + getSignedVarintSize(delta) + messageSize);
+
+		bb.put((byte) eventType);
+		putSignedVarint(bb, delta);
+		batchTimeId = timeId;
+
+		return bb;
+	}
+
+	private void setSourceId(String sourceId) {
+		if (!sourceId.equals(this.sourceId)) {
+			this.sourceId = sourceId;
+			sourceIdBuff = encodeString(sourceId);
+		}
+	}
+
+	private void putHeader(ByteBuffer bb, int eventType, long timeId) {
+		bb.put(streamBuffer.array(), 0, streamBuffer.capacity()).put((byte) eventType).put(sourceIdBuff.array(), 0,
+				sourceIdBuff.capacity());
+		putUnsignedVarint(bb, timeId);
+	}
+
+	/**
+	 * Returns the output buffer, replaced by a larger one if it can not hold the
+	 * given number of bytes. The capacity at least doubles on each growth, and the
+	 * bytes before the position are kept.
+	 */
+	protected ByteBuffer ensureCapacity(int size) {
+		if (outBuffer.capacity() < size) {
+			ByteBuffer bigger = allocate(Math.max(size, 2 * outBuffer.capacity()));
+
+			outBuffer.flip();
+			bigger.put(outBuffer);
+			outBuffer = bigger;
+		}
+
+		return outBuffer;
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -120,18 +634,22 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * org.graphstream.stream.AttributeSink#graphAttributeAdded(java.lang.String ,
 	 * long, java.lang.String, java.lang.Object)
 	 */
-	public void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
-		ByteBuffer attrBuff = encodeString(attribute);
+	public synchronized void graphAttributeAdded(String sourceId, long timeId, String attribute, Object value) {
 		int valueType = getType(value);
-		ByteBuffer valueBuff = getEncodedValue(value, valueType);
+		int valueSize = getValueSize(value, valueType);
 
-		int innerSize = attrBuff.capacity() // attribute id
+		if (valueSize < 0)
+			return;
+
+		int innerSize = getIdSize(attribute) // attribute id
 				+ 1 // attr type
-				+ valueBuff.capacity();
+				+ valueSize;
 
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_ADD_GRAPH_ATTR, innerSize);
 
-		buff.put(attrBuff).put((byte) valueType).put(valueBuff);
+		putId(buff, attribute);
+		buff.put((byte) valueType);
+		putValue(buff, value, valueType);
 
 		doSend(buff);
 	}
@@ -142,27 +660,31 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.AttributeSink#graphAttributeChanged(java.lang.
 	 * String, long, java.lang.String, java.lang.Object, java.lang.Object)
 	 */
-	public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
+	public synchronized void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
 			Object newValue) {
-		ByteBuffer attrBuff = encodeString(attribute);
 		int oldValueType = getType(oldValue);
 		int newValueType = getType(newValue);
+		int oldValueSize = getValueSize(oldValue, oldValueType);
+		int newValueSize = getValueSize(newValue, newValueType);
 
-		ByteBuffer oldValueBuff = getEncodedValue(oldValue, oldValueType);
-		ByteBuffer newValueBuff = getEncodedValue(newValue, newValueType);
+		if (oldValueSize < 0 || newValueSize < 0)
+			return;
 
-		int innerSize = attrBuff.capacity() + // attribute id
+		int innerSize = getIdSize(attribute) + // attribute id
 				1 + // attr type
-				oldValueBuff.capacity() + // attr value
+				oldValueSize + // attr value
 				1 + // attr type
-				newValueBuff.capacity(); // attr value
+				newValueSize; // attr value
 
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_CHG_GRAPH_ATTR, innerSize);
 
-		buff.put(attrBuff).put((byte) oldValueType).put(oldValueBuff).put((byte) newValueType).put(newValueBuff);
+		putId(buff, attribute);
+		buff.put((byte) oldValueType);
+		putValue(buff, oldValue, oldValueType);
+		buff.put((byte) newValueType);
+		putValue(buff, newValue, newValueType);
 
 		doSend(buff);
-
 	}
 
 	/*
@@ -171,16 +693,13 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.AttributeSink#graphAttributeRemoved(java.lang.
 	 * String, long, java.lang.String)
 	 */
-	public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
-		ByteBuffer attrBuff = encodeString(attribute);
-
-		int innerSize = attrBuff.capacity();
+	public synchronized void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
+		int innerSize = getIdSize(attribute);
 
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_DEL_GRAPH_ATTR, innerSize);
-		buff.put(attrBuff);
+		putId(buff, attribute);
 
 		doSend(buff);
-
 	}
 
 	/*
@@ -190,22 +709,8 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * org.graphstream.stream.AttributeSink#nodeAttributeAdded(java.lang.String,
 	 * long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
-	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
-		ByteBuffer nodeBuff = encodeString(nodeId);
-		ByteBuffer attrBuff = encodeString(attribute);
-		int valueType = getType(value);
-		ByteBuffer valueBuff = getEncodedValue(value, valueType);
-
-		int innerSize = nodeBuff.capacity() + // nodeId
-				attrBuff.capacity() + // attribute
-				1 + // value type
-				valueBuff.capacity();
-
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_ADD_NODE_ATTR, innerSize);
-
-		buff.put(nodeBuff).put(attrBuff).put((byte) valueType).put(valueBuff);
-
-		doSend(buff);
+	public synchronized void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		elementAttributeAdded(NetStreamConstants.EVENT_ADD_NODE_ATTR, sourceId, timeId, nodeId, attribute, value);
 	}
 
 	/*
@@ -215,30 +720,10 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * org.graphstream.stream.AttributeSink#nodeAttributeChanged(java.lang.String ,
 	 * long, java.lang.String, java.lang.String, java.lang.Object, java.lang.Object)
 	 */
-	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
+	public synchronized void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
-		ByteBuffer nodeBuff = encodeString(nodeId);
-		ByteBuffer attrBuff = encodeString(attribute);
-
-		int oldValueType = getType(oldValue);
-		int newValueType = getType(newValue);
-
-		ByteBuffer oldValueBuff = getEncodedValue(oldValue, oldValueType);
-		ByteBuffer newValueBuff = getEncodedValue(newValue, newValueType);
-
-		int innerSize = nodeBuff.capacity() + // nodeId
-				attrBuff.capacity() + // attribute
-				1 + // value type
-				oldValueBuff.capacity() + // value
-				1 + // value type
-				newValueBuff.capacity();
-
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_CHG_NODE_ATTR, innerSize);
-
-		buff.put(nodeBuff).put(attrBuff).put((byte) oldValueType).put(oldValueBuff).put((byte) newValueType)
-				.put(newValueBuff);
-
-		doSend(buff);
+		elementAttributeChanged(NetStreamConstants.EVENT_CHG_NODE_ATTR, sourceId, timeId, nodeId, attribute,
+				oldValue, newValue);
 	}
 
 	/*
@@ -248,18 +733,8 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * org.graphstream.stream.AttributeSink#nodeAttributeRemoved(java.lang.String ,
 	 * long, java.lang.String, java.lang.String)
 	 */
-	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
-		ByteBuffer nodeBuff = encodeString(nodeId);
-		ByteBuffer attrBuff = encodeString(attribute);
-
-		int innerSize = nodeBuff.capacity() + // nodeId
-				attrBuff.capacity(); // attribute
-
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_DEL_NODE_ATTR, innerSize);
-
-		buff.put(nodeBuff).put(attrBuff);
-
-		doSend(buff);
+	public synchronized void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		elementAttributeRemoved(NetStreamConstants.EVENT_DEL_NODE_ATTR, sourceId, timeId, nodeId, attribute);
 	}
 
 	/*
@@ -269,76 +744,95 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * org.graphstream.stream.AttributeSink#edgeAttributeAdded(java.lang.String,
 	 * long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
-	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
-		ByteBuffer edgeBuff = encodeString(edgeId);
-		ByteBuffer attrBuff = encodeString(attribute);
+	public synchronized void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		elementAttributeAdded(NetStreamConstants.EVENT_ADD_EDGE_ATTR, sourceId, timeId, edgeId, attribute, value);
+	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.graphstream.stream.AttributeSink#edgeAttributeChanged(java.lang.String ,
+	 * long, java.lang.String, java.lang.String, java.lang.Object, java.lang.Object)
+	 */
+	public synchronized void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
+			Object newValue) {
+		elementAttributeChanged(NetStreamConstants.EVENT_CHG_EDGE_ATTR, sourceId, timeId, edgeId, attribute,
+				oldValue, newValue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.graphstream.stream.AttributeSink#edgeAttributeRemoved(java.lang.String ,
+	 * long, java.lang.String, java.lang.String)
+	 */
+	public synchronized void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		elementAttributeRemoved(NetStreamConstants.EVENT_DEL_EDGE_ATTR, sourceId, timeId, edgeId, attribute);
+	}
+
+	protected void elementAttributeAdded(int eventType, String sourceId, long timeId, String elementId,
+			String attribute, Object value) {
 		int valueType = getType(value);
+		int valueSize = getValueSize(value, valueType);
 
-		ByteBuffer valueBuff = getEncodedValue(value, valueType);
+		if (valueSize < 0)
+			return;
 
-		int innerSize = edgeBuff.capacity() + // nodeId
-				attrBuff.capacity() + // attribute
+		int innerSize = getIdSize(elementId) + // element id
+				getIdSize(attribute) + // attribute
 				1 + // value type
-				valueBuff.capacity(); // value
+				valueSize; // value
 
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_ADD_EDGE_ATTR, innerSize);
+		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, eventType, innerSize);
 
-		buff.put(edgeBuff).put(attrBuff).put((byte) valueType) // value type
-				.put(valueBuff);
+		putId(buff, elementId);
+		putId(buff, attribute);
+		buff.put((byte) valueType);
+		putValue(buff, value, valueType);
 
 		doSend(buff);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 *
-	 * @see
-	 * org.graphstream.stream.AttributeSink#edgeAttributeChanged(java.lang.String ,
-	 * long, java.lang.String, java.lang.String, java.lang.Object, java.lang.Object)
-	 */
-	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
-			Object newValue) {
-		ByteBuffer edgeBuff = encodeString(edgeId);
-		ByteBuffer attrBuff = encodeString(attribute);
+	protected void elementAttributeChanged(int eventType, String sourceId, long timeId, String elementId,
+			String attribute, Object oldValue, Object newValue) {
 		int oldValueType = getType(oldValue);
 		int newValueType = getType(newValue);
+		int oldValueSize = getValueSize(oldValue, oldValueType);
+		int newValueSize = getValueSize(newValue, newValueType);
 
-		ByteBuffer oldValueBuff = getEncodedValue(oldValue, oldValueType);
-		ByteBuffer newValueBuff = getEncodedValue(newValue, newValueType);
+		if (oldValueSize < 0 || newValueSize < 0)
+			return;
 
-		int innerSize = edgeBuff.capacity() + // nodeId
-				attrBuff.capacity() + // attribute
+		int innerSize = getIdSize(elementId) + // element id
+				getIdSize(attribute) + // attribute
 				1 + // value type
-				oldValueBuff.capacity() + // value
+				oldValueSize + // value
 				1 + // value type
-				newValueBuff.capacity(); // value
+				newValueSize; // value
 
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_CHG_EDGE_ATTR, innerSize);
+		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, eventType, innerSize);
 
-		buff.put(edgeBuff).put(attrBuff).put((byte) oldValueType).put(oldValueBuff).put((byte) newValueType)
-				.put(newValueBuff);
+		putId(buff, elementId);
+		putId(buff, attribute);
+		buff.put((byte) oldValueType);
+		putValue(buff, oldValue, oldValueType);
+		buff.put((byte) newValueType);
+		putValue(buff, newValue, newValueType);
 
 		doSend(buff);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 *
-	 * @see
-	 * org.graphstream.stream.AttributeSink#edgeAttributeRemoved(java.lang.String ,
-	 * long, java.lang.String, java.lang.String)
-	 */
-	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
-		ByteBuffer edgeBuff = encodeString(edgeId);
-		ByteBuffer attrBuff = encodeString(attribute);
-
-		int innerSize = edgeBuff.capacity() + // nodeId
-				attrBuff.capacity(); // attribute
+	protected void elementAttributeRemoved(int eventType, String sourceId, long timeId, String elementId,
+			String attribute) {
+		int innerSize = getIdSize(elementId) + // element id
+				getIdSize(attribute); // attribute
 
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_DEL_EDGE_ATTR, innerSize);
+		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, eventType, innerSize);
 
-		buff.put(edgeBuff).put(attrBuff);
+		putId(buff, elementId);
+		putId(buff, attribute);
 
 		doSend(buff);
 	}
@@ -349,15 +843,8 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.ElementSink#nodeAdded(java.lang.String, long,
 	 * java.lang.String)
 	 */
-	public void nodeAdded(String sourceId, long timeId, String nodeId) {
-		ByteBuffer nodeBuff = encodeString(nodeId);
-
-		int innerSize = nodeBuff.capacity();
-
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_ADD_NODE, innerSize);
-		buff.put(nodeBuff);
-
-		doSend(buff);
+	public synchronized void nodeAdded(String sourceId, long timeId, String nodeId) {
+		elementEvent(NetStreamConstants.EVENT_ADD_NODE, sourceId, timeId, nodeId);
 	}
 
 	/*
@@ -366,15 +853,8 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.ElementSink#nodeRemoved(java.lang.String, long,
 	 * java.lang.String)
 	 */
-	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
-		ByteBuffer nodeBuff = encodeString(nodeId);
-
-		int innerSize = nodeBuff.capacity();
-
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_DEL_NODE, innerSize);
-		buff.put(nodeBuff);
-
-		doSend(buff);
+	public synchronized void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		elementEvent(NetStreamConstants.EVENT_DEL_NODE, sourceId, timeId, nodeId);
 	}
 
 	/*
@@ -383,20 +863,19 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.ElementSink#edgeAdded(java.lang.String, long,
 	 * java.lang.String, java.lang.String, java.lang.String, boolean)
 	 */
-	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+	public synchronized void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
-		ByteBuffer edgeBuff = encodeString(edgeId);
-		ByteBuffer fromNodeBuff = encodeString(fromNodeId);
-		ByteBuffer toNodeBuff = encodeString(toNodeId);
-
-		int innerSize = edgeBuff.capacity() + // edge
-				fromNodeBuff.capacity() + // from nodeId
-				toNodeBuff.capacity() + // to nodeId
+		int innerSize = getIdSize(edgeId) + // edge
+				getIdSize(fromNodeId) + // from nodeId
+				getIdSize(toNodeId) + // to nodeId
 				1; // direction
 
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_ADD_EDGE, innerSize);
 
-		buff.put(edgeBuff).put(fromNodeBuff).put(toNodeBuff).put((byte) (!directed ? 0 : 1));
+		putId(buff, edgeId);
+		putId(buff, fromNodeId);
+		putId(buff, toNodeId);
+		buff.put((byte) (!directed ? 0 : 1));
 
 		doSend(buff);
 	}
@@ -407,13 +886,13 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.ElementSink#edgeRemoved(java.lang.String, long,
 	 * java.lang.String)
 	 */
-	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
-		ByteBuffer edgeBuff = encodeString(edgeId);
-
-		int innerSize = edgeBuff.capacity();
+	public synchronized void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		elementEvent(NetStreamConstants.EVENT_DEL_EDGE, sourceId, timeId, edgeId);
+	}
 
-		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_DEL_EDGE, innerSize);
-		buff.put(edgeBuff);
+	protected void elementEvent(int eventType, String sourceId, long timeId, String elementId) {
+		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, eventType, getIdSize(elementId));
+		putId(buff, elementId);
 
 		doSend(buff);
 	}
@@ -423,7 +902,7 @@ public class NetStreamEncoder implements ByteEncoder {
 	 *
 	 * @see org.graphstream.stream.ElementSink#graphCleared(java.lang.String, long)
 	 */
-	public void graphCleared(String sourceId, long timeId) {
+	public synchronized void graphCleared(String sourceId, long timeId) {
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_CLEARED, 0);
 		doSend(buff);
 	}
@@ -434,7 +913,7 @@ public class NetStreamEncoder implements ByteEncoder {
 	 * @see org.graphstream.stream.ElementSink#stepBegins(java.lang.String, long,
 	 * double)
 	 */
-	public void stepBegins(String sourceId, long timeId, double step) {
+	public synchronized void stepBegins(String sourceId, long timeId, double step) {
 		ByteBuffer buff = getAndPrepareBuffer(sourceId, timeId, NetStreamConstants.EVENT_STEP, 8);
 		buff.putDouble(step);
 
@@ -34,11 +34,14 @@ package org.graphstream.stream.netstream;
 import org.graphstream.stream.binary.ByteDecoder;
 import org.graphstream.stream.binary.ByteEncoder;
 import org.graphstream.stream.binary.ByteFactory;
+import org.graphstream.stream.binary.InvalidFrameException;
 
 import java.lang.reflect.Array;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -48,6 +51,13 @@ public class NetStreamUtils {
 	private static ByteBuffer NULL_BUFFER = ByteBuffer.allocate(0);
 	private static final Logger LOGGER = Logger.getLogger(NetStreamUtils.class.getName());
 
+	/**
+	 * Size of the batches and number of dictionary strings used by the snapshot
+	 * encoders of the default factory, with peers supporting them.
+	 */
+	public static final int SNAPSHOT_BATCH_SIZE = 16384;
+	public static final int SNAPSHOT_DICTIONARY_SIZE = 4096;
+
 	public static ByteFactory getDefaultNetStreamFactory() {
 		return new ByteFactory() {
 			@Override
@@ -55,6 +65,14 @@ public class NetStreamUtils {
 				return new NetStreamEncoder();
 			}
 
+			@Override
+			public ByteEncoder createSnapshotEncoder() {
+				NetStreamEncoder encoder = new NetStreamEncoder();
+				encoder.setBatching(SNAPSHOT_BATCH_SIZE, 0, TimeUnit.SECONDS);
+				encoder.setDictionary(SNAPSHOT_DICTIONARY_SIZE);
+				return encoder;
+			}
+
 			@Override
 			public ByteDecoder createByteDecoder() {
 				return new NetStreamDecoder();
@@ -71,10 +89,22 @@ public class NetStreamUtils {
 		Class<?> valueClass = value.getClass();
 		boolean isArray = valueClass.isArray();
 		if (isArray) {
-			if (Array.getLength(value) > 0) {
+			if (Array.getLength(value) == 0) {
+				return NetStreamConstants.TYPE_ARRAY;
+			} else if (valueClass.getComponentType().isPrimitive()) {
 				valueClass = Array.get(value, 0).getClass();
 			} else {
-				return NetStreamConstants.TYPE_ARRAY;
+				// Arrays of objects are typed only if all their items have the
+				// same class.
+				Object[] items = (Object[]) value;
+				valueClass = items[0] == null ? null : items[0].getClass();
+
+				for (int i = 0; i < items.length && valueClass != null; i++)
+					if (items[i] == null || items[i].getClass() != valueClass)
+						return NetStreamConstants.TYPE_ARRAY;
+
+				if (valueClass == null)
+					return NetStreamConstants.TYPE_ARRAY;
 			}
 		}
 		if (valueClass.equals(Boolean.class)) {
@@ -514,6 +544,338 @@ public class NetStreamUtils {
 		return b;
 	}
 
+	//
+	// IN-PLACE ENCODING METHODS
+	//
+	// These methods write directly into a buffer large enough to hold the
+	// value, whose size is given by the matching get...Size() method. The bytes
+	// are the same as the ones produced by the encode...() methods.
+	//
+
+	/**
+	 * Number of bytes of the UTF-8 encoding of a string, without its length
+	 * prefix. Unpaired surrogates are counted as the replacement '?', as
+	 * {@link String#getBytes(Charset)} does.
+	 *
+	 * @param s
+	 *            the string
+	 * @return the UTF-8 length of the string
+	 */
+	public static int getUTF8Length(String s) {
+		int n = s.length();
+		int length = n;
+
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+
+			if (c < 0x80)
+				continue;
+
+			if (c < 0x800)
+				length += 1;
+			else if (!Character.isSurrogate(c))
+				length += 2;
+			else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				// Four bytes for the two chars.
+				length += 2;
+				i++;
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Number of bytes of an encoded string, including its length prefix.
+	 *
+	 * @param s
+	 *            the string
+	 * @return size of the encoded string
+	 */
+	public static int getStringSize(String s) {
+		int length = getUTF8Length(s);
+		return getVarintSize(length) + length;
+	}
+
+	public static void putUnsignedVarint(ByteBuffer buffer, long number) {
+		putVarint(buffer, number, getVarintSize(number));
+	}
+
+	/**
+	 * Number of bytes of a signed varint, as written by
+	 * {@link #putSignedVarint(ByteBuffer, long)}.
+	 */
+	public static int getSignedVarintSize(long number) {
+		return getVarintSize(zigzag(number));
+	}
+
+	/**
+	 * Writes a signed varint, readable with {@link #decodeVarint(ByteBuffer)}.
+	 */
+	public static void putSignedVarint(ByteBuffer buffer, long number) {
+		putUnsignedVarint(buffer, zigzag(number));
+	}
+
+	/**
+	 * Writes a string, prefixed by its UTF-8 length, without intermediate byte
+	 * array.
+	 *
+	 * @param buffer
+	 *            the output buffer
+	 * @param s
+	 *            the string to write
+	 */
+	public static void putString(ByteBuffer buffer, String s) {
+		putUnsignedVarint(buffer, getUTF8Length(s));
+		putUTF8(buffer, s);
+	}
+
+	/**
+	 * Writes the UTF-8 bytes of a string, without its length.
+	 *
+	 * @param buffer
+	 *            the output buffer
+	 * @param s
+	 *            the string to write
+	 */
+	public static void putUTF8(ByteBuffer buffer, String s) {
+		int n = s.length();
+
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (!Character.isSurrogate(c)) {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+
+				buffer.put((byte) (0xF0 | (cp >> 18)));
+				buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (cp & 0x3F)));
+			} else {
+				buffer.put((byte) '?');
+			}
+		}
+	}
+
+	/**
+	 * Number of bytes of an encoded value, without its type.
+	 *
+	 * @param value
+	 *            the value
+	 * @param valueType
+	 *            type of the value, as given by {@link #getType(Object)}
+	 * @return size of the encoded value, or -1 if the type can not be encoded
+	 */
+	public static int getValueSize(Object value, int valueType) {
+		if (NetStreamConstants.TYPE_NULL == valueType) {
+			return 0;
+		} else if (NetStreamConstants.TYPE_BOOLEAN == valueType || NetStreamConstants.TYPE_BYTE == valueType) {
+			return 1;
+		} else if (NetStreamConstants.TYPE_SHORT == valueType || NetStreamConstants.TYPE_INT == valueType
+				|| NetStreamConstants.TYPE_LONG == valueType) {
+			return getVarintSize(zigzag(((Number) value).longValue()));
+		} else if (NetStreamConstants.TYPE_FLOAT == valueType) {
+			return 4;
+		} else if (NetStreamConstants.TYPE_DOUBLE == valueType) {
+			return 8;
+		} else if (NetStreamConstants.TYPE_STRING == valueType) {
+			return getStringSize((String) value);
+		} else if (!isArrayType(valueType)) {
+			return -1;
+		}
+
+		int length = Array.getLength(value);
+		int size = getVarintSize(length);
+
+		if (value instanceof short[] && NetStreamConstants.TYPE_SHORT_ARRAY == valueType) {
+			for (short item : (short[]) value)
+				size += getVarintSize(zigzagArrayItem(item));
+		} else if (value instanceof int[] && NetStreamConstants.TYPE_INT_ARRAY == valueType) {
+			for (int item : (int[]) value)
+				size += getVarintSize(zigzagArrayItem(item));
+		} else if (value instanceof long[] && NetStreamConstants.TYPE_LONG_ARRAY == valueType) {
+			for (long item : (long[]) value)
+				size += getVarintSize(zigzagArrayItem(item));
+		} else if (NetStreamConstants.TYPE_BOOLEAN_ARRAY == valueType || NetStreamConstants.TYPE_BYTE_ARRAY == valueType) {
+			size += length;
+		} else if (NetStreamConstants.TYPE_FLOAT_ARRAY == valueType) {
+			size += 4 * length;
+		} else if (NetStreamConstants.TYPE_DOUBLE_ARRAY == valueType) {
+			size += 8 * length;
+		} else if (NetStreamConstants.TYPE_STRING_ARRAY == valueType) {
+			for (int i = 0; i < length; i++)
+				size += getStringSize((String) arrayItem(value, i));
+		} else if (NetStreamConstants.TYPE_ARRAY == valueType) {
+			for (int i = 0; i < length; i++) {
+				Object item = arrayItem(value, i);
+				int itemSize = getValueSize(item, getType(item));
+
+				if (itemSize < 0)
+					return -1;
+
+				size += 1 + itemSize;
+			}
+		} else {
+			// short, int and long arrays
+			for (int i = 0; i < length; i++)
+				size += getVarintSize(zigzagArrayItem(((Number) arrayItem(value, i)).longValue()));
+		}
+
+		return size;
+	}
+
+	/**
+	 * Writes a value, without its type. The type must be one for which
+	 * {@link #getValueSize(Object, int)} does not return -1.
+	 *
+	 * @param buffer
+	 *            the output buffer
+	 * @param value
+	 *            the value
+	 * @param valueType
+	 *            type of the value, as given by {@link #getType(Object)}
+	 */
+	public static void putValue(ByteBuffer buffer, Object value, int valueType) {
+		if (NetStreamConstants.TYPE_NULL == valueType) {
+			return;
+		} else if (NetStreamConstants.TYPE_BOOLEAN == valueType) {
+			buffer.put((byte) ((Boolean) value ? 1 : 0));
+		} else if (NetStreamConstants.TYPE_BYTE == valueType) {
+			buffer.put((Byte) value);
+		} else if (NetStreamConstants.TYPE_SHORT == valueType || NetStreamConstants.TYPE_INT == valueType
+				|| NetStreamConstants.TYPE_LONG == valueType) {
+			putUnsignedVarint(buffer, zigzag(((Number) value).longValue()));
+		} else if (NetStreamConstants.TYPE_FLOAT == valueType) {
+			buffer.putFloat((Float) value);
+		} else if (NetStreamConstants.TYPE_DOUBLE == valueType) {
+			buffer.putDouble((Double) value);
+		} else if (NetStreamConstants.TYPE_STRING == valueType) {
+			putString(buffer, (String) value);
+		} else if (!putPrimitiveArray(buffer, value, valueType)) {
+			int length = Array.getLength(value);
+
+			putUnsignedVarint(buffer, length);
+
+			for (int i = 0; i < length; i++)
+				putArrayItem(buffer, arrayItem(value, i), valueType);
+		}
+	}
+
+	/**
+	 * Writes an array of primitives of the given type without boxing its items.
+	 *
+	 * @return false if the value is not an array of primitives of this type
+	 */
+	private static boolean putPrimitiveArray(ByteBuffer buffer, Object value, int valueType) {
+		if (value instanceof double[] && NetStreamConstants.TYPE_DOUBLE_ARRAY == valueType) {
+			double[] a = (double[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (double item : a)
+				buffer.putDouble(item);
+		} else if (value instanceof float[] && NetStreamConstants.TYPE_FLOAT_ARRAY == valueType) {
+			float[] a = (float[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (float item : a)
+				buffer.putFloat(item);
+		} else if (value instanceof long[] && NetStreamConstants.TYPE_LONG_ARRAY == valueType) {
+			long[] a = (long[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (long item : a)
+				putUnsignedVarint(buffer, zigzagArrayItem(item));
+		} else if (value instanceof int[] && NetStreamConstants.TYPE_INT_ARRAY == valueType) {
+			int[] a = (int[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (int item : a)
+				putUnsignedVarint(buffer, zigzagArrayItem(item));
+		} else if (value instanceof short[] && NetStreamConstants.TYPE_SHORT_ARRAY == valueType) {
+			short[] a = (short[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (short item : a)
+				putUnsignedVarint(buffer, zigzagArrayItem(item));
+		} else if (value instanceof byte[] && NetStreamConstants.TYPE_BYTE_ARRAY == valueType) {
+			byte[] a = (byte[]) value;
+			putUnsignedVarint(buffer, a.length);
+			buffer.put(a);
+		} else if (value instanceof boolean[] && NetStreamConstants.TYPE_BOOLEAN_ARRAY == valueType) {
+			boolean[] a = (boolean[]) value;
+			putUnsignedVarint(buffer, a.length);
+
+			for (boolean item : a)
+				buffer.put((byte) (item ? 1 : 0));
+		} else {
+			return false;
+		}
+
+		return true;
+	}
+
+	private static void putArrayItem(ByteBuffer buffer, Object item, int arrayType) {
+		if (NetStreamConstants.TYPE_BOOLEAN_ARRAY == arrayType) {
+			buffer.put((byte) ((Boolean) item ? 1 : 0));
+		} else if (NetStreamConstants.TYPE_BYTE_ARRAY == arrayType) {
+			buffer.put((Byte) item);
+		} else if (NetStreamConstants.TYPE_FLOAT_ARRAY == arrayType) {
+			buffer.putFloat((Float) item);
+		} else if (NetStreamConstants.TYPE_DOUBLE_ARRAY == arrayType) {
+			buffer.putDouble((Double) item);
+		} else if (NetStreamConstants.TYPE_STRING_ARRAY == arrayType) {
+			putString(buffer, (String) item);
+		} else if (NetStreamConstants.TYPE_ARRAY == arrayType) {
+			int itemType = getType(item);
+			buffer.put((byte) itemType);
+			putValue(buffer, item, itemType);
+		} else {
+			// short, int and long arrays
+			putUnsignedVarint(buffer, zigzagArrayItem(((Number) item).longValue()));
+		}
+	}
+
+	private static boolean isArrayType(int valueType) {
+		return NetStreamConstants.TYPE_BOOLEAN_ARRAY == valueType || NetStreamConstants.TYPE_BYTE_ARRAY == valueType
+				|| NetStreamConstants.TYPE_SHORT_ARRAY == valueType || NetStreamConstants.TYPE_INT_ARRAY == valueType
+				|| NetStreamConstants.TYPE_LONG_ARRAY == valueType || NetStreamConstants.TYPE_FLOAT_ARRAY == valueType
+				|| NetStreamConstants.TYPE_DOUBLE_ARRAY == valueType
+				|| NetStreamConstants.TYPE_STRING_ARRAY == valueType || NetStreamConstants.TYPE_ARRAY == valueType;
+	}
+
+	/**
+	 * Item of an array. Object arrays are read directly, other arrays through
+	 * reflection, which boxes the item. Arrays of primitives are written without
+	 * this method when their type matches their items.
+	 */
+	private static Object arrayItem(Object array, int index) {
+		return array instanceof Object[] ? ((Object[]) array)[index] : Array.get(array, index);
+	}
+
+	/**
+	 * Signed number to unsigned varint, as done by {@link #encodeVarint(Object)}.
+	 */
+	private static long zigzag(long data) {
+		return data >= 0 ? (data << 1) : ((Math.abs(data) << 1) ^ 1);
+	}
+
+	/**
+	 * Signed number to unsigned varint, as done by
+	 * {@link #encodeVarintArray(Object)}, which encodes zero as "minus zero".
+	 */
+	private static long zigzagArrayItem(long data) {
+		return data > 0 ? (data << 1) : ((Math.abs(data) << 1) ^ 1);
+	}
+
 	//
 	// DECODING METHODS
 	//
@@ -572,13 +934,128 @@ public class NetStreamUtils {
 		return null;
 	}
 
+	/**
+	 * Same as {@link #decodeValue(ByteBuffer, int)}, but arrays of numbers and
+	 * booleans are decoded as arrays of primitives (for example {@code double[]}
+	 * instead of {@code Double[]}), which avoids boxing each item.
+	 *
+	 * @param bb
+	 *            the input buffer
+	 * @param valueType
+	 *            type of the value
+	 * @return the value
+	 */
+	public static Object decodePrimitiveValue(ByteBuffer bb, int valueType) {
+		if (NetStreamConstants.TYPE_DOUBLE_ARRAY == valueType) {
+			return decodePrimitiveDoubleArray(bb);
+		} else if (NetStreamConstants.TYPE_FLOAT_ARRAY == valueType) {
+			return decodePrimitiveFloatArray(bb);
+		} else if (NetStreamConstants.TYPE_INT_ARRAY == valueType) {
+			return decodePrimitiveIntArray(bb);
+		} else if (NetStreamConstants.TYPE_LONG_ARRAY == valueType) {
+			return decodePrimitiveLongArray(bb);
+		} else if (NetStreamConstants.TYPE_SHORT_ARRAY == valueType) {
+			return decodePrimitiveShortArray(bb);
+		} else if (NetStreamConstants.TYPE_BYTE_ARRAY == valueType) {
+			return decodePrimitiveByteArray(bb);
+		} else if (NetStreamConstants.TYPE_BOOLEAN_ARRAY == valueType) {
+			return decodePrimitiveBooleanArray(bb);
+		}
+
+		return decodeValue(bb, valueType);
+	}
+
+	/**
+	 * Reads the length of an array, checking that the buffer holds enough bytes
+	 * for its items before the array is allocated.
+	 *
+	 * @param bb
+	 *            the input buffer
+	 * @param itemSize
+	 *            minimum number of bytes of an item
+	 * @return the length of the array
+	 * @throws InvalidFrameException
+	 *             if the items can not fit in the rest of the buffer
+	 */
+	public static int decodeArrayLength(ByteBuffer bb, int itemSize) {
+		long length = decodeUnsignedVarint(bb);
+
+		if (length > bb.remaining() / itemSize)
+			throw new InvalidFrameException(
+					String.format("array of %d items in %d bytes", length, bb.remaining()));
+
+		return (int) length;
+	}
+
+	public static double[] decodePrimitiveDoubleArray(ByteBuffer bb) {
+		double[] res = new double[decodeArrayLength(bb, 8)];
+
+		bb.asDoubleBuffer().get(res);
+		bb.position(bb.position() + 8 * res.length);
+
+		return res;
+	}
+
+	public static float[] decodePrimitiveFloatArray(ByteBuffer bb) {
+		float[] res = new float[decodeArrayLength(bb, 4)];
+
+		bb.asFloatBuffer().get(res);
+		bb.position(bb.position() + 4 * res.length);
+
+		return res;
+	}
+
+	public static int[] decodePrimitiveIntArray(ByteBuffer bb) {
+		int[] res = new int[decodeArrayLength(bb, 1)];
+
+		for (int i = 0; i < res.length; i++)
+			res[i] = (int) decodeVarint(bb);
+
+		return res;
+	}
+
+	public static long[] decodePrimitiveLongArray(ByteBuffer bb) {
+		long[] res = new long[decodeArrayLength(bb, 1)];
+
+		for (int i = 0; i < res.length; i++)
+			res[i] = decodeVarint(bb);
+
+		return res;
+	}
+
+	public static short[] decodePrimitiveShortArray(ByteBuffer bb) {
+		short[] res = new short[decodeArrayLength(bb, 1)];
+
+		for (int i = 0; i < res.length; i++)
+			res[i] = (short) decodeVarint(bb);
+
+		return res;
+	}
+
+	public static byte[] decodePrimitiveByteArray(ByteBuffer bb) {
+		byte[] res = new byte[decodeArrayLength(bb, 1)];
+
+		bb.get(res);
+
+		return res;
+	}
+
+	public static boolean[] decodePrimitiveBooleanArray(ByteBuffer bb) {
+		boolean[] res = new boolean[decodeArrayLength(bb, 1)];
+
+		for (int i = 0; i < res.length; i++)
+			res[i] = bb.get() != 0;
+
+		return res;
+	}
+
 	/**
 	 * @param bb
 	 * @return
 	 */
 	public static Object[] decodeArray(ByteBuffer bb) {
 
-		int len = (int) decodeUnsignedVarint(bb);
+		int len = decodeArrayLength(bb, 1);
 
 		Object[] array = new Object[len];
 		for (int i = 0; i < len; i++) {
@@ -590,12 +1067,7 @@ public class NetStreamUtils {
 
 	public static String decodeString(ByteBuffer bb) {
 		try {
-			int len = (int) decodeUnsignedVarint(bb);
-			byte[] data = new byte[len];
-
-			bb.get(data);
-
-			return new String(data, Charset.forName("UTF-8"));
+			return decodeUTF8(bb, (int) decodeUnsignedVarint(bb));
 		} catch (BufferUnderflowException e) {
 			LOGGER.info("decodeString: could not decode string");
 			e.printStackTrace();
@@ -604,8 +1076,53 @@ public class NetStreamUtils {
 		return null;
 	}
 
+	/**
+	 * Reads a string of the given UTF-8 length.
+	 *
+	 * @param bb
+	 *            the input buffer
+	 * @param len
+	 *            number of bytes of the string
+	 * @return the string
+	 */
+	public static String decodeUTF8(ByteBuffer bb, int len) {
+		return decodeUTF8(bb, len, null);
+	}
+
+	/**
+	 * Reads a string of the given UTF-8 length. Strings of buffers backed by an
+	 * array are built from this array, without copying their bytes first. For
+	 * other buffers, the bytes are copied in the scratch array if it is large
+	 * enough.
+	 *
+	 * @param bb
+	 *            the input buffer
+	 * @param len
+	 *            number of bytes of the string
+	 * @param scratch
+	 *            array used to copy the bytes of the string, may be null
+	 * @return the string
+	 */
+	public static String decodeUTF8(ByteBuffer bb, int len, byte[] scratch) {
+		if (len < 0 || len > bb.remaining())
+			throw new BufferUnderflowException();
+
+		if (bb.hasArray()) {
+			int position = bb.position();
+
+			bb.position(position + len);
+			return new String(bb.array(), bb.arrayOffset() + position, len, StandardCharsets.UTF_8);
+		}
+
+		byte[] data = scratch != null && scratch.length >= len ? scratch : new byte[len];
+
+		bb.get(data, 0, len);
+
+		return new String(data, 0, len, StandardCharsets.UTF_8);
+	}
+
 	public static String[] decodeStringArray(ByteBuffer bb) {
-		int len = (int) decodeUnsignedVarint(bb);
+		int len = decodeArrayLength(bb, 1);
 		String[] array = new String[len];
 		for (int i = 0; i < len; i++) {
 			array[i] = decodeString(bb);
@@ -641,23 +1158,19 @@ public class NetStreamUtils {
 
 	public static long decodeUnsignedVarint(ByteBuffer bb) {
 		try {
-			int size = 0;
-			long[] data = new long[9];
+			long number = 0;
+			int shift = 0;
+			byte b;
 
 			do {
-				data[size] = bb.get();
-
-				size++;
+				// A long fits in ten bytes.
+				if (shift == 70)
+					throw new InvalidFrameException("varint longer than ten bytes");
 
-				// int bt =data[size-1];
-				// if (bt < 0) bt = (bt & 127) + (bt & 128);
-				// System.out.println("test "+bt+" -> "+(data[size - 1]& 128) );
-			} while ((data[size - 1] & 128) == 128);
-			long number = 0;
-
-			for (int i = 0; i < size; i++) {
-				number ^= (data[i] & 127L) << (i * 7L);
-			}
+				b = bb.get();
+				number |= (b & 127L) << shift;
+				shift += 7;
+			} while ((b & 128) == 128);
 
 			return number;
 
@@ -695,7 +1208,7 @@ public class NetStreamUtils {
 	}
 
 	public static Integer[] decodeIntArray(ByteBuffer bb) {
-		int len = (int) decodeUnsignedVarint(bb);
+		int len = decodeArrayLength(bb, 1);
 
 		Integer[] res = new Integer[len];
 		for (int i = 0; i < len; i++) {
@@ -708,7 +1221,7 @@ public class NetStreamUtils {
 
 	public static Boolean[] decodeBooleanArray(ByteBuffer bb) {
 		try {
-			int len = (int) decodeUnsignedVarint(bb);
+			int len = decodeArrayLength(bb, 1);
 			Boolean[] res = new Boolean[len];
 
 			for (int i = 0; i < len; i++) {
@@ -727,7 +1240,7 @@ public class NetStreamUtils {
 
 	public static Byte[] decodeByteArray(ByteBuffer bb) {
 		try {
-			int len = (int) decodeUnsignedVarint(bb);
+			int len = decodeArrayLength(bb, 1);
 			Byte[] res = new Byte[len];
 
 			for (int i = 0; i < len; i++) {
@@ -745,7 +1258,7 @@ public class NetStreamUtils {
 
 	public static Double[] decodeDoubleArray(ByteBuffer bb) {
 		try {
-			int len = (int) decodeUnsignedVarint(bb);
+			int len = decodeArrayLength(bb, 8);
 			Double[] res = new Double[len];
 
 			for (int i = 0; i < len; i++) {
@@ -763,7 +1276,7 @@ public class NetStreamUtils {
 
 	public static Float[] decodeFloatArray(ByteBuffer bb) {
 		try {
-			int len = (int) decodeUnsignedVarint(bb);
+			int len = decodeArrayLength(bb, 4);
 			Float[] res = new Float[len];
 
 			for (int i = 0; i < len; i++) {
@@ -780,7 +1293,7 @@ public class NetStreamUtils {
 	}
 
 	public static Long[] decodeLongArray(ByteBuffer bb) {
-		int len = (int) decodeUnsignedVarint(bb);
+		int len = decodeArrayLength(bb, 1);
 		Long[] res = new Long[len];
 
 		for (int i = 0; i < len; i++) {
@@ -791,7 +1304,7 @@ public class NetStreamUtils {
 	}
 
 	public static Short[] decodeShortArray(ByteBuffer bb) {
-		int len = (int) decodeUnsignedVarint(bb);
+		int len = decodeArrayLength(bb, 1);
 		Short[] res = new Short[len];
 
 		for (int i = 0; i < len; i++) {
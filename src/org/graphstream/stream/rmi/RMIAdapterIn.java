@@ -72,4 +72,84 @@ public interface RMIAdapterIn extends Remote {
 	void nodeRemoved(String graphId, long timeId, String nodeId) throws RemoteException;
 
 	void stepBegins(String graphId, long timeId, double step) throws RemoteException;
+
+	/**
+	 * Receives several events in one call. The events are handled in the order of
+	 * the array, see {@link RMISink#setBatching(int, long, java.util.concurrent.TimeUnit)}.
+	 * By default, each event is passed to the matching method of this interface.
+	 *
+	 * @param events
+	 *            the events, flattened as opcode, source id, time id and arguments
+	 */
+	default void events(Object[] events) throws RemoteException {
+		int i = 0;
+
+		while (i < events.length) {
+			byte op = (Byte) events[i++];
+			String graphId = (String) events[i++];
+			long timeId = (Long) events[i++];
+
+			switch (op) {
+			case RMIBatch.NODE_ADDED:
+				nodeAdded(graphId, timeId, (String) events[i++]);
+				break;
+			case RMIBatch.NODE_REMOVED:
+				nodeRemoved(graphId, timeId, (String) events[i++]);
+				break;
+			case RMIBatch.EDGE_ADDED:
+				edgeAdded(graphId, timeId, (String) events[i], (String) events[i + 1], (String) events[i + 2],
+						(Boolean) events[i + 3]);
+				i += 4;
+				break;
+			case RMIBatch.EDGE_REMOVED:
+				edgeRemoved(graphId, timeId, (String) events[i++]);
+				break;
+			case RMIBatch.STEP_BEGINS:
+				stepBegins(graphId, timeId, (Double) events[i++]);
+				break;
+			case RMIBatch.GRAPH_CLEARED:
+				graphCleared(graphId, timeId);
+				break;
+			case RMIBatch.GRAPH_ATTRIBUTE_ADDED:
+				graphAttributeAdded(graphId, timeId, (String) events[i], events[i + 1]);
+				i += 2;
+				break;
+			case RMIBatch.GRAPH_ATTRIBUTE_CHANGED:
+				graphAttributeChanged(graphId, timeId, (String) events[i], events[i + 1], events[i + 2]);
+				i += 3;
+				break;
+			case RMIBatch.GRAPH_ATTRIBUTE_REMOVED:
+				graphAttributeRemoved(graphId, timeId, (String) events[i++]);
+				break;
+			case RMIBatch.NODE_ATTRIBUTE_ADDED:
+				nodeAttributeAdded(graphId, timeId, (String) events[i], (String) events[i + 1], events[i + 2]);
+				i += 3;
+				break;
+			case RMIBatch.NODE_ATTRIBUTE_CHANGED:
+				nodeAttributeChanged(graphId, timeId, (String) events[i], (String) events[i + 1], events[i + 2],
+						events[i + 3]);
+				i += 4;
+				break;
+			case RMIBatch.NODE_ATTRIBUTE_REMOVED:
+				nodeAttributeRemoved(graphId, timeId, (String) events[i], (String) events[i + 1]);
+				i += 2;
+				break;
+			case RMIBatch.EDGE_ATTRIBUTE_ADDED:
+				edgeAttributeAdded(graphId, timeId, (String) events[i], (String) events[i + 1], events[i + 2]);
+				i += 3;
+				break;
+			case RMIBatch.EDGE_ATTRIBUTE_CHANGED:
+				edgeAttributeChanged(graphId, timeId, (String) events[i], (String) events[i + 1], events[i + 2],
+						events[i + 3]);
+				i += 4;
+				break;
+			case RMIBatch.EDGE_ATTRIBUTE_REMOVED:
+				edgeAttributeRemoved(graphId, timeId, (String) events[i], (String) events[i + 1]);
+				i += 2;
+				break;
+			default:
+				throw new RemoteException("unknown event " + op + " in batch");
+			}
+		}
+	}
 }
@@ -0,0 +1,61 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.rmi;
+
+/**
+ * Layout of the batches sent by {@link RMISink} to
+ * {@link RMIAdapterIn#events(Object[])}.
+ * 
+ * <p>
+ * A batch is a flat array of events. Each event starts with its opcode (a
+ * {@link Byte}), the source id and the time id (a {@link Long}), followed by
+ * the arguments of the matching {@link org.graphstream.stream.Sink} method, in
+ * the same order.
+ * </p>
+ */
+final class RMIBatch {
+	static final byte NODE_ADDED = 1;
+	static final byte NODE_REMOVED = 2;
+	static final byte EDGE_ADDED = 3;
+	static final byte EDGE_REMOVED = 4;
+	static final byte STEP_BEGINS = 5;
+	static final byte GRAPH_CLEARED = 6;
+	static final byte GRAPH_ATTRIBUTE_ADDED = 7;
+	static final byte GRAPH_ATTRIBUTE_CHANGED = 8;
+	static final byte GRAPH_ATTRIBUTE_REMOVED = 9;
+	static final byte NODE_ATTRIBUTE_ADDED = 10;
+	static final byte NODE_ATTRIBUTE_CHANGED = 11;
+	static final byte NODE_ATTRIBUTE_REMOVED = 12;
+	static final byte EDGE_ATTRIBUTE_ADDED = 13;
+	static final byte EDGE_ATTRIBUTE_CHANGED = 14;
+	static final byte EDGE_ATTRIBUTE_REMOVED = 15;
+
+	private RMIBatch() {
+	}
+}
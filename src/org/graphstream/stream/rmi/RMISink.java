@@ -36,7 +36,13 @@ package org.graphstream.stream.rmi;
 import java.rmi.Naming;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.graphstream.stream.Sink;
 
@@ -45,6 +51,34 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 
 	ConcurrentHashMap<String, RMIAdapterIn> inputs;
 
+	/**
+	 * Events waiting to be sent, laid out as described in {@link RMIBatch}. Null
+	 * when batching is disabled.
+	 */
+	private volatile ArrayList<Object> batch;
+
+	/**
+	 * Number of events in the batch, and the number that triggers a flush.
+	 */
+	private int batchEvents;
+	private int maxBatchEvents;
+
+	/**
+	 * Maximum time, in nanoseconds, an event stays in the batch. Zero if batches
+	 * are only flushed by size.
+	 */
+	private long maxBatchDelay;
+
+	private ScheduledExecutorService flusher;
+	private ScheduledFuture<?> scheduledFlush;
+
+	/**
+	 * Held while batches are sent, so that they are received in order. The lock
+	 * of the sink is only held to take the events out of the batch, not during
+	 * the remote calls. When both are needed, this one is taken first.
+	 */
+	private final Object sendLock = new Object();
+
 	public RMISink() throws RemoteException {
 		super();
 		inputs = new ConcurrentHashMap<String, RMIAdapterIn>();
@@ -79,7 +113,159 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 			inputs.remove(url);
 	}
 
+	/**
+	 * Registers an input without looking it up in the RMI registry. The input can
+	 * be a stub obtained by other means, or a local object.
+	 *
+	 * @param url
+	 *            the key of the input, used to unregister it
+	 * @param in
+	 *            the input
+	 */
+	public void register(String url, RMIAdapterIn in) {
+		inputs.put(url, in);
+	}
+
+	/**
+	 * Buffers the events and sends them to the inputs in one remote call per
+	 * batch, instead of one call per event. A batch is sent when it holds the
+	 * given number of events, when the oldest event has waited for the given
+	 * delay, or when {@link #flush()} is called. Events are received in the order
+	 * they were sent.
+	 *
+	 * @param maxEvents
+	 *            number of events that triggers the sending of a batch
+	 * @param maxDelay
+	 *            maximum time an event is buffered, zero to only send full
+	 *            batches
+	 * @param unit
+	 *            unit of the delay
+	 */
+	public void setBatching(int maxEvents, long maxDelay, TimeUnit unit) {
+		if (maxEvents < 1)
+			throw new IllegalArgumentException("batch size must be positive");
+
+		synchronized (sendLock) {
+			Object[] events;
+
+			synchronized (this) {
+				events = takeBatch();
+
+				maxBatchEvents = maxEvents;
+				maxBatchDelay = unit.toNanos(maxDelay);
+
+				if (batch == null)
+					batch = new ArrayList<>();
+
+				if (maxBatchDelay > 0 && flusher == null) {
+					flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+						Thread t = new Thread(r, "rmi-sink-flusher");
+						t.setDaemon(true);
+						return t;
+					});
+				} else if (maxBatchDelay == 0 && flusher != null) {
+					flusher.shutdown();
+					flusher = null;
+				}
+			}
+
+			send(events);
+		}
+	}
+
+	/**
+	 * Sends the buffered events and goes back to one remote call per event.
+	 */
+	public void disableBatching() {
+		synchronized (sendLock) {
+			Object[] events;
+
+			synchronized (this) {
+				events = takeBatch();
+				batch = null;
+
+				if (flusher != null) {
+					flusher.shutdown();
+					flusher = null;
+				}
+			}
+
+			send(events);
+		}
+	}
+
+	/**
+	 * Sends the buffered events, if any.
+	 */
+	public void flush() {
+		synchronized (sendLock) {
+			send(takeBatch());
+		}
+	}
+
+	/**
+	 * Empties the batch.
+	 * 
+	 * @return the buffered events, or null if there is none
+	 */
+	private synchronized Object[] takeBatch() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+
+		if (batch == null || batchEvents == 0)
+			return null;
+
+		Object[] events = batch.toArray();
+		batch.clear();
+		batchEvents = 0;
+
+		return events;
+	}
+
+	private void send(Object[] events) {
+		if (events == null)
+			return;
+
+		for (RMIAdapterIn in : inputs.values()) {
+			try {
+				in.events(events);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Appends an event to the batch, and sends the batch if it is full. Returns
+	 * false if batching has been disabled in the meantime, in which case the
+	 * event must be sent directly.
+	 */
+	private boolean buffer(Object... event) {
+		boolean full;
+
+		synchronized (this) {
+			if (batch == null)
+				return false;
+
+			Collections.addAll(batch, event);
+			full = ++batchEvents >= maxBatchEvents;
+
+			if (!full && batchEvents == 1 && flusher != null)
+				scheduledFlush = flusher.schedule(this::flush, maxBatchDelay, TimeUnit.NANOSECONDS);
+		}
+
+		if (full)
+			flush();
+
+		return true;
+	}
+
 	public void edgeAttributeAdded(String graphId, long timeId, String edgeId, String attribute, Object value) {
+		if (batch != null && buffer(RMIBatch.EDGE_ATTRIBUTE_ADDED, graphId, timeId, edgeId, attribute, value))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.edgeAttributeAdded(graphId, timeId, edgeId, attribute, value);
@@ -91,6 +277,10 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 
 	public void edgeAttributeChanged(String graphId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
+		if (batch != null && buffer(RMIBatch.EDGE_ATTRIBUTE_CHANGED, graphId, timeId, edgeId, attribute, oldValue,
+				newValue))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.edgeAttributeChanged(graphId, timeId, edgeId, attribute, oldValue, newValue);
@@ -101,6 +291,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void edgeAttributeRemoved(String graphId, long timeId, String edgeId, String attribute) {
+		if (batch != null && buffer(RMIBatch.EDGE_ATTRIBUTE_REMOVED, graphId, timeId, edgeId, attribute))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.edgeAttributeRemoved(graphId, timeId, edgeId, attribute);
@@ -111,6 +304,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void graphAttributeAdded(String graphId, long timeId, String attribute, Object value) {
+		if (batch != null && buffer(RMIBatch.GRAPH_ATTRIBUTE_ADDED, graphId, timeId, attribute, value))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.graphAttributeAdded(graphId, timeId, attribute, value);
@@ -121,6 +317,10 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void graphAttributeChanged(String graphId, long timeId, String attribute, Object oldValue, Object newValue) {
+		if (batch != null && buffer(RMIBatch.GRAPH_ATTRIBUTE_CHANGED, graphId, timeId, attribute, oldValue,
+				newValue))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.graphAttributeChanged(graphId, timeId, attribute, oldValue, newValue);
@@ -131,6 +331,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void graphAttributeRemoved(String graphId, long timeId, String attribute) {
+		if (batch != null && buffer(RMIBatch.GRAPH_ATTRIBUTE_REMOVED, graphId, timeId, attribute))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.graphAttributeRemoved(graphId, timeId, attribute);
@@ -141,6 +344,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void nodeAttributeAdded(String graphId, long timeId, String nodeId, String attribute, Object value) {
+		if (batch != null && buffer(RMIBatch.NODE_ATTRIBUTE_ADDED, graphId, timeId, nodeId, attribute, value))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.nodeAttributeAdded(graphId, timeId, nodeId, attribute, value);
@@ -152,6 +358,10 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 
 	public void nodeAttributeChanged(String graphId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
+		if (batch != null && buffer(RMIBatch.NODE_ATTRIBUTE_CHANGED, graphId, timeId, nodeId, attribute, oldValue,
+				newValue))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.nodeAttributeChanged(graphId, timeId, nodeId, attribute, oldValue, newValue);
@@ -162,6 +372,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void nodeAttributeRemoved(String graphId, long timeId, String nodeId, String attribute) {
+		if (batch != null && buffer(RMIBatch.NODE_ATTRIBUTE_REMOVED, graphId, timeId, nodeId, attribute))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.nodeAttributeRemoved(graphId, timeId, nodeId, attribute);
@@ -173,6 +386,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 
 	public void edgeAdded(String graphId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
+		if (batch != null && buffer(RMIBatch.EDGE_ADDED, graphId, timeId, edgeId, fromNodeId, toNodeId, directed))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.edgeAdded(graphId, timeId, edgeId, fromNodeId, toNodeId, directed);
@@ -183,6 +399,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void edgeRemoved(String graphId, long timeId, String edgeId) {
+		if (batch != null && buffer(RMIBatch.EDGE_REMOVED, graphId, timeId, edgeId))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.edgeRemoved(graphId, timeId, edgeId);
@@ -193,6 +412,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void graphCleared(String graphId, long timeId) {
+		if (batch != null && buffer(RMIBatch.GRAPH_CLEARED, graphId, timeId))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.graphCleared(graphId, timeId);
@@ -203,6 +425,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void nodeAdded(String graphId, long timeId, String nodeId) {
+		if (batch != null && buffer(RMIBatch.NODE_ADDED, graphId, timeId, nodeId))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.nodeAdded(graphId, timeId, nodeId);
@@ -213,6 +438,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void nodeRemoved(String graphId, long timeId, String nodeId) {
+		if (batch != null && buffer(RMIBatch.NODE_REMOVED, graphId, timeId, nodeId))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.nodeRemoved(graphId, timeId, nodeId);
@@ -223,6 +451,9 @@ public class RMISink extends UnicastRemoteObject implements RMIAdapterOut, Sink
 	}
 
 	public void stepBegins(String graphId, long timeId, double step) {
+		if (batch != null && buffer(RMIBatch.STEP_BEGINS, graphId, timeId, step))
+			return;
+
 		for (RMIAdapterIn in : inputs.values()) {
 			try {
 				in.stepBegins(graphId, timeId, step);
@@ -34,7 +34,9 @@
 package org.graphstream.stream.sync;
 
 import java.security.AccessControlException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 public class SinkTime {
 	/**
@@ -99,4 +101,13 @@ public class SinkTime {
 	public boolean isNewEvent(String sourceId, long timeId) {
 		return disableSync || setTimeFor(sourceId, timeId);
 	}
+
+	/**
+	 * Last time id received from each source.
+	 * 
+	 * @return a read-only view of the times
+	 */
+	public Map<String, Long> getTimes() {
+		return Collections.unmodifiableMap(times);
+	}
 }
\ No newline at end of file
@@ -86,6 +86,10 @@ public class SourceTime {
 		return sinkTime;
 	}
 
+	public long getCurrentTimeId() {
+		return currentTimeId;
+	}
+
 	public String getSourceId() {
 		return sourceId;
 	}
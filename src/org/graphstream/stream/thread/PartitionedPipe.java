@@ -0,0 +1,918 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.stream.thread;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.graphstream.stream.Sink;
+import org.graphstream.stream.Source;
+import org.graphstream.stream.metrics.StreamMetrics;
+import org.graphstream.util.jfr.FlightEvents;
+
+/**
+ * Pipe spreading the processing of graph events over several worker threads.
+ * 
+ * <p>
+ * Events are partitioned by the identifier of the element they concern: all
+ * events of a given node (or edge) are handled by the same partition, in the
+ * order they were produced. Each partition owns its own stage, a sink created
+ * by the factory given at construction, and a worker thread feeding it. Stages
+ * are thus never shared between threads and do not need to be thread-safe.
+ * </p>
+ * 
+ * <pre>
+ *                         +--> partition 0 (stage) --+
+ *                         |                          |
+ *   Source ---> PartitionedPipe ---> partition 1 (stage) ----> pump() ---> Sink
+ *                         |                          |
+ *                         +--> partition N (stage) --+
+ * </pre>
+ * 
+ * <p>
+ * Structural dependencies between elements are honored across partitions:
+ * <ul>
+ * <li>an "edge added" event is not processed before the "node added" events
+ * of its extremities;</li>
+ * <li>a "node removed" event is not processed before all the events
+ * previously sent to the other partitions (and thus the removal of its
+ * edges);</li>
+ * <li>graph level events (graph attributes, steps and clear) are barriers:
+ * they are handed to every stage once all the previous events have been
+ * processed, and no later event is processed before them.</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>
+ * If a stage is also a {@link org.graphstream.stream.Source}, its output is
+ * merged back, otherwise the events it received are forwarded once it handled
+ * them. A stage must send its output while handling an event, from its worker
+ * thread: events sent from another thread are rejected. Outputs are merged in the order of the events that produced them, so
+ * the merged stream keeps the order (and the time ids) of the input stream.
+ * Like with {@link ThreadProxyPipe}, the merged stream is dispatched to the
+ * sinks of this pipe by calling {@link #pump()} in the sink thread. Graph level
+ * events are forwarded only once, from the first partition.
+ * </p>
+ * 
+ * <p>
+ * Workers are launched by {@link #start()} and terminated by {@link #stop()}.
+ * </p>
+ */
+public class PartitionedPipe extends ThreadProxyPipe {
+
+	/**
+	 * class level logger
+	 */
+	private static final Logger logger = Logger.getLogger(PartitionedPipe.class.getSimpleName());
+
+	/**
+	 * The partitions, each one with its own worker and stage.
+	 */
+	protected final Partition[] partitions;
+
+	/**
+	 * Partitions in charge of the events, in the order the events were received.
+	 * Used to merge the outputs back in the same order. Guarded by
+	 * {@link #lock}.
+	 */
+	protected final LinkedList<Partition> order;
+
+	/**
+	 * Count of events posted to the first partition when the last barrier was
+	 * sent, 0 if no barrier has been sent.
+	 */
+	protected long lastBarrier;
+
+	/**
+	 * Used by workers to wait the progress of other partitions.
+	 */
+	protected final ReentrantLock progressLock;
+	protected final Condition progressed;
+	protected final AtomicInteger waitingWorkers;
+
+	/**
+	 * Create a new pipe where each partition forwards the events it receives
+	 * without any processing.
+	 * 
+	 * @param partitionCount
+	 *            number of partitions and worker threads
+	 */
+	public PartitionedPipe(int partitionCount) {
+		this(partitionCount, null);
+	}
+
+	/**
+	 * Create a new pipe.
+	 * 
+	 * @param partitionCount
+	 *            number of partitions and worker threads
+	 * @param stageFactory
+	 *            called once per partition to create its stage, can be null
+	 */
+	public PartitionedPipe(int partitionCount, Supplier<? extends Sink> stageFactory) {
+		if (partitionCount < 1)
+			throw new IllegalArgumentException("at least one partition is needed");
+
+		this.order = new LinkedList<Partition>();
+		this.progressLock = new ReentrantLock();
+		this.progressed = progressLock.newCondition();
+		this.waitingWorkers = new AtomicInteger(0);
+		this.lastBarrier = 0;
+		this.partitions = new Partition[partitionCount];
+
+		for (int i = 0; i < partitionCount; i++)
+			partitions[i] = new Partition(i, stageFactory == null ? null : stageFactory.get());
+	}
+
+	/**
+	 * Number of partitions of this pipe.
+	 * 
+	 * @return the partition count
+	 */
+	public int getPartitionCount() {
+		return partitions.length;
+	}
+
+	/**
+	 * Stage of a partition.
+	 * 
+	 * @param partition
+	 *            index of the partition
+	 * @return the stage created for this partition, or null if the partition
+	 *         just forwards events
+	 */
+	public Sink getStage(int partition) {
+		return partitions[partition].stage;
+	}
+
+	/**
+	 * Index of the partition handling the events of an element.
+	 * 
+	 * @param elementId
+	 *            node or edge identifier
+	 * @return the index of the partition
+	 */
+	public int partitionOf(String elementId) {
+		return (elementId.hashCode() & 0x7FFFFFFF) % partitions.length;
+	}
+
+	/**
+	 * Starts the worker threads.
+	 */
+	public synchronized void start() {
+		for (Partition p : partitions) {
+			if (p.thread != null) {
+				logger.warning("Already started.");
+				return;
+			}
+		}
+
+		for (Partition p : partitions) {
+			p.alive = true;
+			p.thread = new Thread(p, String.format("%s-partition#%d", getClass().getSimpleName(), p.index));
+			p.thread.setDaemon(true);
+			p.thread.start();
+		}
+	}
+
+	/**
+	 * Stops the workers once they have processed all the events they received,
+	 * and wait for their end.
+	 * 
+	 * @throws InterruptedException
+	 *             if an interruption occurred while waiting for the end of the
+	 *             workers.
+	 */
+	public synchronized void stop() throws InterruptedException {
+		for (Partition p : partitions) {
+			p.lock.lock();
+
+			try {
+				p.alive = false;
+				p.notEmpty.signal();
+			} finally {
+				p.lock.unlock();
+			}
+		}
+
+		for (Partition p : partitions) {
+			if (p.thread != null) {
+				p.thread.join();
+				p.thread = null;
+			}
+		}
+	}
+
+	/**
+	 * Dispatch the outputs of the partitions that are ready, in the order of
+	 * the input events. This method must be called regularly in the sink
+	 * thread.
+	 */
+	@Override
+	public void pump() {
+		StreamMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		Object flight = FlightEvents.beginPump(this);
+		int processed = 0;
+		LinkedList<GraphEvents> readyEvents = new LinkedList<GraphEvents>();
+		LinkedList<Object[]> readyData = new LinkedList<Object[]>();
+
+		do {
+			lock.lock();
+
+			try {
+				collect(readyEvents, readyData);
+
+				if (metrics != null)
+					metrics.queueDepth(order.size());
+			} finally {
+				lock.unlock();
+			}
+
+			while (!readyEvents.isEmpty()) {
+				GraphEvents e = readyEvents.poll();
+
+				processMessage(e, readyData.poll());
+				processed++;
+
+				if (metrics != null)
+					metrics.eventOut(e);
+			}
+		} while (hasReadyOutput());
+
+		if (metrics != null && processed > 0)
+			metrics.pumped(System.nanoTime() - start);
+
+		FlightEvents.endPump(flight, processed);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.thread.ThreadProxyPipe#blockingPump(long)
+	 */
+	@Override
+	public void blockingPump(long timeout) throws InterruptedException {
+		lock.lock();
+
+		try {
+			if (timeout > 0)
+				while (!isReady())
+					notEmpty.await(timeout, TimeUnit.MILLISECONDS);
+			else
+				while (!isReady())
+					notEmpty.await();
+		} finally {
+			lock.unlock();
+		}
+
+		pump();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.thread.ThreadProxyPipe#hasPostRemaining()
+	 */
+	@Override
+	public boolean hasPostRemaining() {
+		lock.lock();
+
+		try {
+			return !order.isEmpty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("partitioned-proxy(from %s, %d partitions)", from, partitions.length);
+	}
+
+	/**
+	 * Checks, under {@link #lock}, if the output of the next input event is
+	 * available.
+	 */
+	protected boolean isReady() {
+		Partition p = order.peek();
+		return p != null && p.completed > 0;
+	}
+
+	protected boolean hasReadyOutput() {
+		lock.lock();
+
+		try {
+			return isReady();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves, under {@link #lock}, the available outputs to the given lists.
+	 */
+	protected void collect(LinkedList<GraphEvents> readyEvents, LinkedList<Object[]> readyData) {
+		while (isReady()) {
+			Partition p = order.poll();
+			GraphEvents e;
+
+			while ((e = p.outEvents.poll()) != null) {
+				readyEvents.add(e);
+				readyData.add(p.outData.poll());
+			}
+
+			// Remove the end of message mark.
+			p.outData.poll();
+			p.completed--;
+		}
+	}
+
+	/**
+	 * Post an event to the partition of an element.
+	 */
+	protected void route(String elementId, GraphEvents e, Object... data) {
+		Partition p = partitions[partitionOf(elementId)];
+		enqueue(p, withBarrier(p, null), true, e, data);
+	}
+
+	/**
+	 * Post an event to the partition of an element once all the events
+	 * previously posted to some other partitions have been processed. If
+	 * dependencies is null, all partitions are waited for.
+	 */
+	protected void routeAfter(String elementId, String[] dependencies, GraphEvents e, Object... data) {
+		Partition p = partitions[partitionOf(elementId)];
+		long[] waitFor = new long[partitions.length];
+
+		if (dependencies == null) {
+			for (int i = 0; i < partitions.length; i++)
+				waitFor[i] = partitions[i].posted;
+		} else {
+			for (String dependency : dependencies) {
+				int i = partitionOf(dependency);
+				waitFor[i] = partitions[i].posted;
+			}
+		}
+
+		waitFor[p.index] = 0;
+		enqueue(p, withBarrier(p, waitFor), true, e, data);
+	}
+
+	/**
+	 * Post a graph level event to all partitions, as a barrier. Only the output
+	 * of the first partition is merged.
+	 */
+	protected void broadcast(GraphEvents e, Object... data) {
+		long[] waitFor = new long[partitions.length];
+
+		for (int i = 0; i < partitions.length; i++)
+			waitFor[i] = partitions[i].posted;
+
+		for (Partition p : partitions) {
+			long[] w = waitFor.clone();
+			w[p.index] = 0;
+
+			enqueue(p, w, p.index == 0, e, data);
+		}
+
+		lastBarrier = partitions[0].posted;
+	}
+
+	protected void enqueue(Partition p, long[] waitFor, boolean merged, GraphEvents e, Object[] data) {
+		if (merged) {
+			lock.lock();
+
+			try {
+				order.add(p);
+
+				if (metrics != null) {
+					metrics.eventIn(e);
+					metrics.queueDepth(order.size());
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		p.enqueue(new Message(e, data, waitFor, merged));
+	}
+
+	/**
+	 * Make sure the first event a partition receives after a barrier is not
+	 * processed before the barrier has been processed by the first partition.
+	 */
+	protected long[] withBarrier(Partition p, long[] waitFor) {
+		if (p.index > 0 && p.barrierSeen < lastBarrier) {
+			if (waitFor == null)
+				waitFor = new long[partitions.length];
+
+			waitFor[0] = Math.max(waitFor[0], lastBarrier);
+			p.barrierSeen = lastBarrier;
+		}
+
+		return waitFor;
+	}
+
+	/**
+	 * Block until the partitions have processed the given count of events.
+	 */
+	protected void await(long[] waitFor) throws InterruptedException {
+		for (int i = 0; i < waitFor.length; i++) {
+			Partition p = partitions[i];
+
+			if (p.processed >= waitFor[i])
+				continue;
+
+			progressLock.lock();
+			waitingWorkers.incrementAndGet();
+
+			try {
+				while (p.processed < waitFor[i])
+					progressed.await();
+			} finally {
+				waitingWorkers.decrementAndGet();
+				progressLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Wake up the workers waiting for the progress of a partition.
+	 */
+	protected void signalProgress() {
+		if (waitingWorkers.get() > 0) {
+			progressLock.lock();
+
+			try {
+				progressed.signalAll();
+			} finally {
+				progressLock.unlock();
+			}
+		}
+	}
+
+	public void edgeAttributeAdded(String graphId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object value) {
+		if (maybeUnregister())
+			return;
+
+		route(edgeId, GraphEvents.ADD_EDGE_ATTR, graphId, timeId, edgeId, attribute, value, edgeIndex);
+	}
+
+	public void edgeAttributeChanged(String graphId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
+		if (maybeUnregister())
+			return;
+
+		route(edgeId, GraphEvents.CHG_EDGE_ATTR, graphId, timeId, edgeId, attribute, oldValue, newValue, edgeIndex);
+	}
+
+	public void edgeAttributeRemoved(String graphId, long timeId, int edgeIndex, String edgeId, String attribute) {
+		if (maybeUnregister())
+			return;
+
+		route(edgeId, GraphEvents.DEL_EDGE_ATTR, graphId, timeId, edgeId, attribute, edgeIndex);
+	}
+
+	public void graphAttributeAdded(String graphId, long timeId, String attribute, Object value) {
+		if (maybeUnregister())
+			return;
+
+		broadcast(GraphEvents.ADD_GRAPH_ATTR, graphId, timeId, attribute, value);
+	}
+
+	public void graphAttributeChanged(String graphId, long timeId, String attribute, Object oldValue, Object newValue) {
+		if (maybeUnregister())
+			return;
+
+		broadcast(GraphEvents.CHG_GRAPH_ATTR, graphId, timeId, attribute, oldValue, newValue);
+	}
+
+	public void graphAttributeRemoved(String graphId, long timeId, String attribute) {
+		if (maybeUnregister())
+			return;
+
+		broadcast(GraphEvents.DEL_GRAPH_ATTR, graphId, timeId, attribute);
+	}
+
+	public void nodeAttributeAdded(String graphId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object value) {
+		if (maybeUnregister())
+			return;
+
+		route(nodeId, GraphEvents.ADD_NODE_ATTR, graphId, timeId, nodeId, attribute, value, nodeIndex);
+	}
+
+	public void nodeAttributeChanged(String graphId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
+		if (maybeUnregister())
+			return;
+
+		route(nodeId, GraphEvents.CHG_NODE_ATTR, graphId, timeId, nodeId, attribute, oldValue, newValue, nodeIndex);
+	}
+
+	public void nodeAttributeRemoved(String graphId, long timeId, int nodeIndex, String nodeId, String attribute) {
+		if (maybeUnregister())
+			return;
+
+		route(nodeId, GraphEvents.DEL_NODE_ATTR, graphId, timeId, nodeId, attribute, nodeIndex);
+	}
+
+	public void edgeAdded(String graphId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+		if (maybeUnregister())
+			return;
+
+		routeAfter(edgeId, new String[] { fromNodeId, toNodeId }, GraphEvents.ADD_EDGE, graphId, timeId, edgeId,
+				fromNodeId, toNodeId, directed, edgeIndex, fromNodeIndex, toNodeIndex);
+	}
+
+	public void edgeRemoved(String graphId, long timeId, int edgeIndex, String edgeId) {
+		if (maybeUnregister())
+			return;
+
+		route(edgeId, GraphEvents.DEL_EDGE, graphId, timeId, edgeId, edgeIndex);
+	}
+
+	public void graphCleared(String graphId, long timeId) {
+		if (maybeUnregister())
+			return;
+
+		broadcast(GraphEvents.CLEARED, graphId, timeId);
+	}
+
+	public void nodeAdded(String graphId, long timeId, String nodeId) {
+		if (maybeUnregister())
+			return;
+
+		route(nodeId, GraphEvents.ADD_NODE, graphId, timeId, nodeId);
+	}
+
+	public void nodeRemoved(String graphId, long timeId, int nodeIndex, String nodeId) {
+		if (maybeUnregister())
+			return;
+
+		routeAfter(nodeId, null, GraphEvents.DEL_NODE, graphId, timeId, nodeId, nodeIndex);
+	}
+
+	public void stepBegins(String graphId, long timeId, double step) {
+		if (maybeUnregister())
+			return;
+
+		broadcast(GraphEvents.STEP, graphId, timeId, step);
+	}
+
+	/**
+	 * An event waiting in the message box of a partition.
+	 */
+	protected static class Message {
+		final GraphEvents event;
+		final Object[] data;
+
+		/**
+		 * Count of events each partition must have processed before this one, or
+		 * null if there is no dependency.
+		 */
+		final long[] waitFor;
+
+		/**
+		 * True if the output of this event has to be merged.
+		 */
+		final boolean merged;
+
+		Message(GraphEvents event, Object[] data, long[] waitFor, boolean merged) {
+			this.event = event;
+			this.data = data;
+			this.waitFor = waitFor;
+			this.merged = merged;
+		}
+	}
+
+	/**
+	 * A partition: a message box, a worker thread and a stage. The partition
+	 * reuses the message dispatching of {@link ThreadProxyPipe} to feed its
+	 * stage.
+	 */
+	protected class Partition extends ThreadProxyPipe implements Runnable {
+		protected final int index;
+		protected final Sink stage;
+
+		protected final LinkedList<Message> messages;
+
+		/**
+		 * Outputs of the processed events, each one terminated by a null event.
+		 * Guarded by the lock of the enclosing pipe.
+		 */
+		protected final LinkedList<GraphEvents> outEvents;
+		protected final LinkedList<Object[]> outData;
+
+		/**
+		 * Count of terminated outputs waiting to be merged. Guarded by the lock of
+		 * the enclosing pipe.
+		 */
+		protected int completed;
+
+		/**
+		 * Message being processed by the worker.
+		 */
+		protected Message current;
+
+		/**
+		 * Count of events posted to this partition. Only modified by the source
+		 * thread.
+		 */
+		protected volatile long posted;
+
+		/**
+		 * Count of events processed by the worker.
+		 */
+		protected volatile long processed;
+
+		/**
+		 * Last barrier the worker of this partition is known to wait for. Only
+		 * used by the source thread.
+		 */
+		protected long barrierSeen;
+
+		protected volatile boolean alive;
+		protected Thread thread;
+
+		Partition(int index, Sink stage) {
+			this.index = index;
+			this.stage = stage;
+			this.messages = new LinkedList<Message>();
+			this.outEvents = new LinkedList<GraphEvents>();
+			this.outData = new LinkedList<Object[]>();
+			this.completed = 0;
+			this.current = null;
+			this.posted = 0;
+			this.processed = 0;
+			this.barrierSeen = 0;
+			this.alive = false;
+			this.thread = null;
+
+			Output output = new Output(this);
+
+			if (stage == null) {
+				addSink(output);
+			} else if (stage instanceof Source) {
+				addSink(stage);
+				((Source) stage).addSink(output);
+			} else {
+				addSink(stage);
+				addSink(output);
+			}
+		}
+
+		void enqueue(Message m) {
+			lock.lock();
+
+			try {
+				messages.add(m);
+				posted++;
+
+				notEmpty.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Called by the worker, through the stage, for each event produced.
+		 */
+		void output(GraphEvents e, Object... data) {
+			if (!checkWorker().merged)
+				return;
+
+			PartitionedPipe.this.lock.lock();
+
+			try {
+				outEvents.add(e);
+				outData.add(data);
+			} finally {
+				PartitionedPipe.this.lock.unlock();
+			}
+		}
+
+		void complete() {
+			if (!checkWorker().merged)
+				return;
+
+			PartitionedPipe.this.lock.lock();
+
+			try {
+				outEvents.add(null);
+				outData.add(null);
+				completed++;
+
+				PartitionedPipe.this.notEmpty.signalAll();
+			} finally {
+				PartitionedPipe.this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Message being processed, checking that the output of the stage comes
+		 * from the worker of the partition.
+		 */
+		Message checkWorker() {
+			Message m = current;
+
+			if (m == null || Thread.currentThread() != thread)
+				throw new IllegalStateException(String.format(
+						"the stage of partition %d emitted an event outside of its worker thread", index));
+
+			return m;
+		}
+
+		public void run() {
+			try {
+				while (true) {
+					lock.lock();
+
+					try {
+						while (alive && messages.isEmpty())
+							notEmpty.await();
+
+						current = messages.poll();
+					} finally {
+						lock.unlock();
+					}
+
+					if (current == null)
+						break;
+
+					if (current.waitFor != null)
+						await(current.waitFor);
+
+					try {
+						processMessage(current.event, current.data);
+					} catch (RuntimeException ex) {
+						logger.log(Level.WARNING,
+								String.format("Partition %d failed to process %s.", index, current.event), ex);
+					}
+
+					complete();
+					processed++;
+					signalProgress();
+				}
+			} catch (InterruptedException ex) {
+				logger.warning(String.format("Partition %d interrupted.", index));
+			}
+		}
+	}
+
+	/**
+	 * Receives the output of the stage of a partition.
+	 */
+	protected static class Output implements Sink {
+		protected final Partition partition;
+
+		Output(Partition partition) {
+			this.partition = partition;
+		}
+
+		public void edgeAttributeAdded(String graphId, long timeId, String edgeId, String attribute, Object value) {
+			edgeAttributeAdded(graphId, timeId, -1, edgeId, attribute, value);
+		}
+
+		public void edgeAttributeAdded(String graphId, long timeId, int edgeIndex, String edgeId, String attribute,
+				Object value) {
+			partition.output(GraphEvents.ADD_EDGE_ATTR, graphId, timeId, edgeId, attribute, value, edgeIndex);
+		}
+
+		public void edgeAttributeChanged(String graphId, long timeId, String edgeId, String attribute,
+				Object oldValue, Object newValue) {
+			edgeAttributeChanged(graphId, timeId, -1, edgeId, attribute, oldValue, newValue);
+		}
+
+		public void edgeAttributeChanged(String graphId, long timeId, int edgeIndex, String edgeId,
+				String attribute, Object oldValue, Object newValue) {
+			partition.output(GraphEvents.CHG_EDGE_ATTR, graphId, timeId, edgeId, attribute, oldValue, newValue,
+					edgeIndex);
+		}
+
+		public void edgeAttributeRemoved(String graphId, long timeId, String edgeId, String attribute) {
+			edgeAttributeRemoved(graphId, timeId, -1, edgeId, attribute);
+		}
+
+		public void edgeAttributeRemoved(String graphId, long timeId, int edgeIndex, String edgeId,
+				String attribute) {
+			partition.output(GraphEvents.DEL_EDGE_ATTR, graphId, timeId, edgeId, attribute, edgeIndex);
+		}
+
+		public void graphAttributeAdded(String graphId, long timeId, String attribute, Object value) {
+			partition.output(GraphEvents.ADD_GRAPH_ATTR, graphId, timeId, attribute, value);
+		}
+
+		public void graphAttributeChanged(String graphId, long timeId, String attribute, Object oldValue,
+				Object newValue) {
+			partition.output(GraphEvents.CHG_GRAPH_ATTR, graphId, timeId, attribute, oldValue, newValue);
+		}
+
+		public void graphAttributeRemoved(String graphId, long timeId, String attribute) {
+			partition.output(GraphEvents.DEL_GRAPH_ATTR, graphId, timeId, attribute);
+		}
+
+		public void nodeAttributeAdded(String graphId, long timeId, String nodeId, String attribute, Object value) {
+			nodeAttributeAdded(graphId, timeId, -1, nodeId, attribute, value);
+		}
+
+		public void nodeAttributeAdded(String graphId, long timeId, int nodeIndex, String nodeId, String attribute,
+				Object value) {
+			partition.output(GraphEvents.ADD_NODE_ATTR, graphId, timeId, nodeId, attribute, value, nodeIndex);
+		}
+
+		public void nodeAttributeChanged(String graphId, long timeId, String nodeId, String attribute,
+				Object oldValue, Object newValue) {
+			nodeAttributeChanged(graphId, timeId, -1, nodeId, attribute, oldValue, newValue);
+		}
+
+		public void nodeAttributeChanged(String graphId, long timeId, int nodeIndex, String nodeId,
+				String attribute, Object oldValue, Object newValue) {
+			partition.output(GraphEvents.CHG_NODE_ATTR, graphId, timeId, nodeId, attribute, oldValue, newValue,
+					nodeIndex);
+		}
+
+		public void nodeAttributeRemoved(String graphId, long timeId, String nodeId, String attribute) {
+			nodeAttributeRemoved(graphId, timeId, -1, nodeId, attribute);
+		}
+
+		public void nodeAttributeRemoved(String graphId, long timeId, int nodeIndex, String nodeId,
+				String attribute) {
+			partition.output(GraphEvents.DEL_NODE_ATTR, graphId, timeId, nodeId, attribute, nodeIndex);
+		}
+
+		public void edgeAdded(String graphId, long timeId, String edgeId, String fromNodeId, String toNodeId,
+				boolean directed) {
+			edgeAdded(graphId, timeId, -1, edgeId, -1, fromNodeId, -1, toNodeId, directed);
+		}
+
+		public void edgeAdded(String graphId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+				String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+			partition.output(GraphEvents.ADD_EDGE, graphId, timeId, edgeId, fromNodeId, toNodeId, directed,
+					edgeIndex, fromNodeIndex, toNodeIndex);
+		}
+
+		public void edgeRemoved(String graphId, long timeId, String edgeId) {
+			edgeRemoved(graphId, timeId, -1, edgeId);
+		}
+
+		public void edgeRemoved(String graphId, long timeId, int edgeIndex, String edgeId) {
+			partition.output(GraphEvents.DEL_EDGE, graphId, timeId, edgeId, edgeIndex);
+		}
+
+		public void graphCleared(String graphId, long timeId) {
+			partition.output(GraphEvents.CLEARED, graphId, timeId);
+		}
+
+		public void nodeAdded(String graphId, long timeId, String nodeId) {
+			partition.output(GraphEvents.ADD_NODE, graphId, timeId, nodeId);
+		}
+
+		public void nodeRemoved(String graphId, long timeId, String nodeId) {
+			nodeRemoved(graphId, timeId, -1, nodeId);
+		}
+
+		public void nodeRemoved(String graphId, long timeId, int nodeIndex, String nodeId) {
+			partition.output(GraphEvents.DEL_NODE, graphId, timeId, nodeId, nodeIndex);
+		}
+
+		public void stepBegins(String graphId, long timeId, double step) {
+			partition.output(GraphEvents.STEP, graphId, timeId, step);
+		}
+	}
+}
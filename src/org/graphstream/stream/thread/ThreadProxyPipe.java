@@ -36,12 +36,16 @@
 package org.graphstream.stream.thread;
 
 import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.AbstractElement.AttributeChangeEvent;
+import org.graphstream.stream.AttributeSink;
 import org.graphstream.stream.ProxyPipe;
 import org.graphstream.stream.Replayable;
 import org.graphstream.stream.Replayable.Controller;
 import org.graphstream.stream.Sink;
 import org.graphstream.stream.Source;
 import org.graphstream.stream.SourceBase;
+import org.graphstream.stream.metrics.StreamMetrics;
+import org.graphstream.util.jfr.FlightEvents;
 
 import java.util.LinkedList;
 import java.util.concurrent.TimeUnit;
@@ -123,6 +127,11 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	 */
 	protected boolean unregisterWhenPossible = false;
 
+	/**
+	 * Metrics of this proxy, null if it is not measured.
+	 */
+	protected StreamMetrics metrics = null;
+
 	public ThreadProxyPipe() {
 		this.events = new LinkedList<GraphEvents>();
 		this.eventsData = new LinkedList<Object[]>();
@@ -235,13 +244,36 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	@Override
 	public String toString() {
 		String dest = "nil";
+		AttributeSink[] sinks = attrSinks;
 
-		if (attrSinks.size() > 0)
-			dest = attrSinks.get(0).toString();
+		if (sinks.length > 0)
+			dest = sinks[0].toString();
 
 		return String.format("thread-proxy(from %s to %s)", from, dest);
 	}
 
+	/**
+	 * Measure the events going through this proxy: events received and
+	 * processed, count of events waiting in the message box and duration of the
+	 * pumps. This should be set before events are sent to the proxy. Proxies
+	 * without metrics are not measured.
+	 * 
+	 * @param metrics
+	 *            the metrics to update, or null to stop measuring
+	 */
+	public void setMetrics(StreamMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Metrics of this proxy.
+	 * 
+	 * @return the metrics, or null if this proxy is not measured
+	 */
+	public StreamMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Ask the proxy to unregister from the event input source (stop receive events)
 	 * as soon as possible (when the next event will occur in the graph).
@@ -256,22 +288,7 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	 * called.
 	 */
 	public void pump() {
-		GraphEvents e = null;
-		Object[] data = null;
-
-		do {
-			lock.lock();
-
-			try {
-				e = events.poll();
-				data = eventsData.poll();
-			} finally {
-				lock.unlock();
-			}
-
-			if (e != null)
-				processMessage(e, data);
-		} while (e != null);
+		processPending();
 	}
 
 	/*
@@ -284,9 +301,6 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	}
 
 	public void blockingPump(long timeout) throws InterruptedException {
-		GraphEvents e;
-		Object[] data;
-
 		lock.lock();
 
 		try {
@@ -300,19 +314,46 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			lock.unlock();
 		}
 
+		processPending();
+	}
+
+	/**
+	 * Process the events of the message box, until it is empty.
+	 */
+	protected void processPending() {
+		StreamMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		Object flight = FlightEvents.beginPump(this);
+		int processed = 0;
+		GraphEvents e;
+		Object[] data;
+
 		do {
 			lock.lock();
 
 			try {
 				e = events.poll();
 				data = eventsData.poll();
+
+				if (metrics != null)
+					metrics.queueDepth(events.size());
 			} finally {
 				lock.unlock();
 			}
 
-			if (e != null)
+			if (e != null) {
 				processMessage(e, data);
+				processed++;
+
+				if (metrics != null)
+					metrics.eventOut(e);
+			}
 		} while (e != null);
+
+		if (metrics != null && processed > 0)
+			metrics.pumped(System.nanoTime() - start);
+
+		FlightEvents.endPump(flight, processed);
 	}
 
 	public boolean hasPostRemaining() {
@@ -331,7 +372,7 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	/**
 	 * Set of events sent via the message box.
 	 */
-	protected static enum GraphEvents {
+	public static enum GraphEvents {
 		ADD_NODE, DEL_NODE, ADD_EDGE, DEL_EDGE, STEP, CLEARED, ADD_GRAPH_ATTR, CHG_GRAPH_ATTR, DEL_GRAPH_ATTR, ADD_NODE_ATTR, CHG_NODE_ATTR, DEL_NODE_ATTR, ADD_EDGE_ATTR, CHG_EDGE_ATTR, DEL_EDGE_ATTR
 	};
 
@@ -352,6 +393,11 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			events.add(e);
 			eventsData.add(data);
 
+			if (metrics != null) {
+				metrics.eventIn(e);
+				metrics.queueDepth(events.size());
+			}
+
 			notEmpty.signal();
 		} finally {
 			lock.unlock();
@@ -359,25 +405,39 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	}
 
 	public void edgeAttributeAdded(String graphId, long timeId, String edgeId, String attribute, Object value) {
+		edgeAttributeAdded(graphId, timeId, -1, edgeId, attribute, value);
+	}
+
+	public void edgeAttributeAdded(String graphId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object value) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.ADD_EDGE_ATTR, graphId, timeId, edgeId, attribute, value);
+		post(GraphEvents.ADD_EDGE_ATTR, graphId, timeId, edgeId, attribute, value, edgeIndex);
 	}
 
 	public void edgeAttributeChanged(String graphId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
+		edgeAttributeChanged(graphId, timeId, -1, edgeId, attribute, oldValue, newValue);
+	}
+
+	public void edgeAttributeChanged(String graphId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.CHG_EDGE_ATTR, graphId, timeId, edgeId, attribute, oldValue, newValue);
+		post(GraphEvents.CHG_EDGE_ATTR, graphId, timeId, edgeId, attribute, oldValue, newValue, edgeIndex);
 	}
 
 	public void edgeAttributeRemoved(String graphId, long timeId, String edgeId, String attribute) {
+		edgeAttributeRemoved(graphId, timeId, -1, edgeId, attribute);
+	}
+
+	public void edgeAttributeRemoved(String graphId, long timeId, int edgeIndex, String edgeId, String attribute) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.DEL_EDGE_ATTR, graphId, timeId, edgeId, attribute);
+		post(GraphEvents.DEL_EDGE_ATTR, graphId, timeId, edgeId, attribute, edgeIndex);
 	}
 
 	public void graphAttributeAdded(String graphId, long timeId, String attribute, Object value) {
@@ -402,40 +462,64 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	}
 
 	public void nodeAttributeAdded(String graphId, long timeId, String nodeId, String attribute, Object value) {
+		nodeAttributeAdded(graphId, timeId, -1, nodeId, attribute, value);
+	}
+
+	public void nodeAttributeAdded(String graphId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object value) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.ADD_NODE_ATTR, graphId, timeId, nodeId, attribute, value);
+		post(GraphEvents.ADD_NODE_ATTR, graphId, timeId, nodeId, attribute, value, nodeIndex);
 	}
 
 	public void nodeAttributeChanged(String graphId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
+		nodeAttributeChanged(graphId, timeId, -1, nodeId, attribute, oldValue, newValue);
+	}
+
+	public void nodeAttributeChanged(String graphId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.CHG_NODE_ATTR, graphId, timeId, nodeId, attribute, oldValue, newValue);
+		post(GraphEvents.CHG_NODE_ATTR, graphId, timeId, nodeId, attribute, oldValue, newValue, nodeIndex);
 	}
 
 	public void nodeAttributeRemoved(String graphId, long timeId, String nodeId, String attribute) {
+		nodeAttributeRemoved(graphId, timeId, -1, nodeId, attribute);
+	}
+
+	public void nodeAttributeRemoved(String graphId, long timeId, int nodeIndex, String nodeId, String attribute) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.DEL_NODE_ATTR, graphId, timeId, nodeId, attribute);
+		post(GraphEvents.DEL_NODE_ATTR, graphId, timeId, nodeId, attribute, nodeIndex);
 	}
 
 	public void edgeAdded(String graphId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
+		edgeAdded(graphId, timeId, -1, edgeId, -1, fromNodeId, -1, toNodeId, directed);
+	}
+
+	public void edgeAdded(String graphId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.ADD_EDGE, graphId, timeId, edgeId, fromNodeId, toNodeId, directed);
+		post(GraphEvents.ADD_EDGE, graphId, timeId, edgeId, fromNodeId, toNodeId, directed, edgeIndex, fromNodeIndex,
+				toNodeIndex);
 	}
 
 	public void edgeRemoved(String graphId, long timeId, String edgeId) {
+		edgeRemoved(graphId, timeId, -1, edgeId);
+	}
+
+	public void edgeRemoved(String graphId, long timeId, int edgeIndex, String edgeId) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.DEL_EDGE, graphId, timeId, edgeId);
+		post(GraphEvents.DEL_EDGE, graphId, timeId, edgeId, edgeIndex);
 	}
 
 	public void graphCleared(String graphId, long timeId) {
@@ -453,10 +537,14 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	}
 
 	public void nodeRemoved(String graphId, long timeId, String nodeId) {
+		nodeRemoved(graphId, timeId, -1, nodeId);
+	}
+
+	public void nodeRemoved(String graphId, long timeId, int nodeIndex, String nodeId) {
 		if (maybeUnregister())
 			return;
 
-		post(GraphEvents.DEL_NODE, graphId, timeId, nodeId);
+		post(GraphEvents.DEL_NODE, graphId, timeId, nodeId, nodeIndex);
 	}
 
 	public void stepBegins(String graphId, long timeId, double step) {
@@ -471,6 +559,7 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 	protected void processMessage(GraphEvents e, Object[] data) {
 		String graphId, elementId, attribute;
 		Long timeId;
+		int index;
 		Object newValue, oldValue;
 
 		switch (e) {
@@ -485,8 +574,9 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			graphId = (String) data[0];
 			timeId = (Long) data[1];
 			elementId = (String) data[2];
+			index = (Integer) data[3];
 
-			sendNodeRemoved(graphId, timeId, elementId);
+			sendNodeRemoved(graphId, timeId, index, elementId);
 			break;
 		case ADD_EDGE:
 			graphId = (String) data[0];
@@ -496,15 +586,19 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			String fromId = (String) data[3];
 			String toId = (String) data[4];
 			boolean directed = (Boolean) data[5];
+			index = (Integer) data[6];
+			int fromIndex = (Integer) data[7];
+			int toIndex = (Integer) data[8];
 
-			sendEdgeAdded(graphId, timeId, elementId, fromId, toId, directed);
+			sendEdgeAdded(graphId, timeId, index, elementId, fromIndex, fromId, toIndex, toId, directed);
 			break;
 		case DEL_EDGE:
 			graphId = (String) data[0];
 			timeId = (Long) data[1];
 			elementId = (String) data[2];
+			index = (Integer) data[3];
 
-			sendEdgeRemoved(graphId, timeId, elementId);
+			sendEdgeRemoved(graphId, timeId, index, elementId);
 			break;
 		case STEP:
 			graphId = (String) data[0];
@@ -544,8 +638,10 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			elementId = (String) data[2];
 			attribute = (String) data[3];
 			newValue = data[4];
+			index = (Integer) data[5];
 
-			sendEdgeAttributeAdded(graphId, timeId, elementId, attribute, newValue);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.EDGE, attribute,
+					AttributeChangeEvent.ADD, null, newValue);
 			break;
 		case CHG_EDGE_ATTR:
 			graphId = (String) data[0];
@@ -554,16 +650,20 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			attribute = (String) data[3];
 			oldValue = data[4];
 			newValue = data[5];
+			index = (Integer) data[6];
 
-			sendEdgeAttributeChanged(graphId, timeId, elementId, attribute, oldValue, newValue);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.EDGE, attribute,
+					AttributeChangeEvent.CHANGE, oldValue, newValue);
 			break;
 		case DEL_EDGE_ATTR:
 			graphId = (String) data[0];
 			timeId = (Long) data[1];
 			elementId = (String) data[2];
 			attribute = (String) data[3];
+			index = (Integer) data[4];
 
-			sendEdgeAttributeRemoved(graphId, timeId, elementId, attribute);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.EDGE, attribute,
+					AttributeChangeEvent.REMOVE, null, null);
 			break;
 		case ADD_NODE_ATTR:
 			graphId = (String) data[0];
@@ -571,8 +671,10 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			elementId = (String) data[2];
 			attribute = (String) data[3];
 			newValue = data[4];
+			index = (Integer) data[5];
 
-			sendNodeAttributeAdded(graphId, timeId, elementId, attribute, newValue);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.NODE, attribute,
+					AttributeChangeEvent.ADD, null, newValue);
 			break;
 		case CHG_NODE_ATTR:
 			graphId = (String) data[0];
@@ -581,16 +683,20 @@ public class ThreadProxyPipe extends SourceBase implements ProxyPipe {
 			attribute = (String) data[3];
 			oldValue = data[4];
 			newValue = data[5];
+			index = (Integer) data[6];
 
-			sendNodeAttributeChanged(graphId, timeId, elementId, attribute, oldValue, newValue);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.NODE, attribute,
+					AttributeChangeEvent.CHANGE, oldValue, newValue);
 			break;
 		case DEL_NODE_ATTR:
 			graphId = (String) data[0];
 			timeId = (Long) data[1];
 			elementId = (String) data[2];
 			attribute = (String) data[3];
+			index = (Integer) data[4];
 
-			sendNodeAttributeRemoved(graphId, timeId, elementId, attribute);
+			sendAttributeChangedEvent(graphId, timeId, index, elementId, ElementType.NODE, attribute,
+					AttributeChangeEvent.REMOVE, null, null);
 			break;
 		case CLEARED:
 			graphId = (String) data[0];
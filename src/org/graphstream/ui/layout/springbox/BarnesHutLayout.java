@@ -40,6 +40,7 @@ import org.graphstream.stream.sync.SinkTime;
 import org.graphstream.ui.geom.Point3;
 import org.graphstream.ui.graphicGraph.GraphPosLengthUtils;
 import org.graphstream.ui.layout.Layout;
+import org.graphstream.util.jfr.FlightEvents;
 import org.miv.pherd.ParticleBox;
 import org.miv.pherd.ParticleBoxListener;
 import org.miv.pherd.ntree.Anchor;
@@ -484,6 +485,7 @@ public abstract class BarnesHutLayout extends SourceBase implements Layout, Part
 	}
 
 	public void compute() {
+		Object flight = FlightEvents.beginLayoutStep(this);
 		long t1;
 
 		computeArea();
@@ -509,6 +511,8 @@ public abstract class BarnesHutLayout extends SourceBase implements Layout, Part
 		printStats();
 		time++;
 		lastStepTime = System.currentTimeMillis() - t1;
+
+		FlightEvents.endLayoutStep(flight, nodes.getParticleCount(), nodeMoveCount);
 	}
 
 	/**
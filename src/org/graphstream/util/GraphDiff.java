@@ -36,7 +36,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -49,6 +52,7 @@ import org.graphstream.graph.implementations.AdjacencyListGraph;
 import org.graphstream.stream.Sink;
 import org.graphstream.stream.file.FileSinkDGS;
 import org.graphstream.stream.file.FileSourceDGS;
+import org.graphstream.stream.sync.SourceTime;
 
 public class GraphDiff {
 	protected static enum ElementType {
@@ -139,6 +143,45 @@ public class GraphDiff {
 		bridge = new Bridge(g);
 	}
 
+	/**
+	 * Start to record changes received as events, from a source which is not a
+	 * graph. If a record is already started, then it will be ended.
+	 * 
+	 * <p>
+	 * As there is no graph to look at, old values of removed attributes and
+	 * extremities of removed edges are not known. Such a diff can be applied
+	 * but can not be fully reversed.
+	 * </p>
+	 * 
+	 * @return the sink to which the events to record have to be sent.
+	 */
+	public Sink start() {
+		if (bridge != null)
+			end();
+
+		bridge = new Bridge(null);
+		return bridge;
+	}
+
+	/**
+	 * Start to record changes of a graph, received as events from the caller
+	 * instead of listening to the graph. Events have to be sent while the graph
+	 * is in the state preceding them, as a graph does with its own sinks:
+	 * removals before the removed elements disappear. If a record is already
+	 * started, then it will be ended.
+	 * 
+	 * @param g
+	 *            the graph whose changes are recorded
+	 * @return the sink to which the events to record have to be sent.
+	 */
+	public Sink record(Graph g) {
+		if (bridge != null)
+			end();
+
+		bridge = new Bridge(g, false);
+		return bridge;
+	}
+
 	/**
 	 * Stop to record changes. If there is no record, calling this method has no
 	 * effect.
@@ -157,6 +200,46 @@ public class GraphDiff {
 		events.clear();
 	}
 
+	/**
+	 * Number of recorded changes.
+	 * 
+	 * @return the count of events of this diff
+	 */
+	public int size() {
+		return events.size();
+	}
+
+	/**
+	 * Reduce the recorded changes to their net effect. Elements added and
+	 * removed are dropped with all their changes, and only the last value of
+	 * each attribute is kept. Steps and clear events are kept in place, changes
+	 * are only compacted between them.
+	 * 
+	 * <p>
+	 * In each compacted sequence, removals come first (edges, then nodes),
+	 * followed by additions (nodes, then edges) and then by attribute changes
+	 * of the other elements and of the graph.
+	 * </p>
+	 */
+	public void compact() {
+		LinkedList<Event> compacted = new LinkedList<Event>();
+		Compactor compactor = new Compactor();
+
+		for (Event e : events) {
+			if (e instanceof StepBegins || e instanceof GraphCleared) {
+				compactor.flush(compacted);
+				compacted.add(e);
+			} else {
+				compactor.push(e);
+			}
+		}
+
+		compactor.flush(compacted);
+
+		events.clear();
+		events.addAll(compacted);
+	}
+
 	/**
 	 * Considering this object is a diff between g1 and g2, calling this method will
 	 * applied changes on g1 such that g1 will look like g2.
@@ -169,8 +252,23 @@ public class GraphDiff {
 	}
 
 	public void apply(String sourceId, Sink g1) {
-		for (int i = 0; i < events.size(); i++)
-			events.get(i).apply(sourceId, i, g1);
+		int i = 0;
+
+		for (Event e : events)
+			e.apply(sourceId, i++, g1);
+	}
+
+	/**
+	 * Same as {@link #apply(Sink)} but events are stamped using the given source
+	 * time, so that diffs can be applied one after the other on the same sink.
+	 * 
+	 * @param time
+	 *            source id and time of the events
+	 * @param g1
+	 */
+	public void apply(SourceTime time, Sink g1) {
+		for (Event e : events)
+			e.apply(time.getSourceId(), time.newEvent(), g1);
 	}
 
 	/**
@@ -717,6 +815,9 @@ public class GraphDiff {
 		public GraphCleared(Graph g) {
 			this.data = null;
 
+			if (g == null)
+				return;
+
 			try {
 				FileSinkDGS sink = new FileSinkDGS();
 				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
@@ -748,6 +849,9 @@ public class GraphDiff {
 		 * .Graph)
 		 */
 		public void reverse(String sourceId, long timeId, Sink g) {
+			if (data == null)
+				return;
+
 			try {
 				ByteArrayInputStream bytes = new ByteArrayInputStream(this.data);
 				GZIPInputStream in = new GZIPInputStream(bytes);
@@ -774,17 +878,271 @@ public class GraphDiff {
 		}
 	}
 
+	/**
+	 * Net effect of a sequence of changes on an attribute.
+	 */
+	private static class AttributeState {
+		/**
+		 * True if the attribute exists before the sequence.
+		 */
+		boolean existed;
+		Object oldValue;
+
+		/**
+		 * True if the attribute exists after the sequence.
+		 */
+		boolean present;
+		Object value;
+
+		AttributeState(boolean existed, Object oldValue, boolean present, Object value) {
+			this.existed = existed;
+			this.oldValue = oldValue;
+			this.present = present;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Net effect of a sequence of changes on an element.
+	 */
+	private class ElementState {
+		final ElementType type;
+		final String id;
+
+		/**
+		 * Removal of the element as it was before the sequence, and the removal
+		 * of its attributes, or null if the element is not removed.
+		 */
+		Event removal;
+		final ArrayList<Event> removedAttributes = new ArrayList<Event>();
+
+		/**
+		 * Addition of the element, or null if the element has not been added
+		 * during the sequence.
+		 */
+		Event addition;
+
+		final LinkedHashMap<String, AttributeState> attributes = new LinkedHashMap<String, AttributeState>();
+
+		ElementState(ElementType type, String id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		/**
+		 * @return false if the element does not exist at this point of the
+		 *         sequence.
+		 */
+		boolean exists() {
+			return removal == null || addition != null;
+		}
+
+		void added(Event e) {
+			addition = e;
+			attributes.clear();
+		}
+
+		/**
+		 * @return false if the element has no effect anymore.
+		 */
+		boolean removed(Event e) {
+			if (addition != null) {
+				addition = null;
+				attributes.clear();
+
+				return removal != null;
+			}
+
+			for (Map.Entry<String, AttributeState> entry : attributes.entrySet()) {
+				if (entry.getValue().existed)
+					removedAttributes.add(new AttributeRemoved(type, id, entry.getKey(), entry.getValue().oldValue));
+			}
+
+			attributes.clear();
+			removal = e;
+
+			return true;
+		}
+
+		void attributeAdded(String key, Object value) {
+			AttributeState a = attributes.get(key);
+
+			if (a == null) {
+				attributes.put(key, new AttributeState(false, null, true, value));
+			} else {
+				a.present = true;
+				a.value = value;
+			}
+		}
+
+		void attributeChanged(String key, Object oldValue, Object newValue) {
+			AttributeState a = attributes.get(key);
+
+			if (a == null) {
+				attributes.put(key, new AttributeState(true, oldValue, true, newValue));
+			} else {
+				a.present = true;
+				a.value = newValue;
+			}
+		}
+
+		void attributeRemoved(String key, Object oldValue) {
+			AttributeState a = attributes.get(key);
+
+			if (a == null)
+				attributes.put(key, new AttributeState(true, oldValue, false, null));
+			else if (!a.existed)
+				attributes.remove(key);
+			else
+				a.present = false;
+		}
+
+		void flushRemoval(LinkedList<Event> out) {
+			if (removal != null) {
+				out.addAll(removedAttributes);
+				out.add(removal);
+			}
+		}
+
+		void flushAttributes(LinkedList<Event> out) {
+			for (Map.Entry<String, AttributeState> entry : attributes.entrySet()) {
+				AttributeState a = entry.getValue();
+
+				if (a.existed && a.present)
+					out.add(new AttributeChanged(type, id, entry.getKey(), a.value, a.oldValue));
+				else if (a.present)
+					out.add(new AttributeAdded(type, id, entry.getKey(), a.value));
+				else if (a.existed)
+					out.add(new AttributeRemoved(type, id, entry.getKey(), a.oldValue));
+			}
+		}
+	}
+
+	/**
+	 * Reduce a sequence of events to its net effect.
+	 */
+	private class Compactor {
+		final LinkedHashMap<String, ElementState> nodes = new LinkedHashMap<String, ElementState>();
+		final LinkedHashMap<String, ElementState> edges = new LinkedHashMap<String, ElementState>();
+		final ElementState graph = new ElementState(ElementType.GRAPH, null);
+
+		ElementState state(ElementType type, String id) {
+			if (type == ElementType.GRAPH)
+				return graph;
+
+			LinkedHashMap<String, ElementState> states = type == ElementType.NODE ? nodes : edges;
+			ElementState state = states.get(id);
+
+			if (state == null) {
+				state = new ElementState(type, id);
+				states.put(id, state);
+			}
+
+			return state;
+		}
+
+		void removed(ElementType type, String id, Event e) {
+			if (!state(type, id).removed(e))
+				(type == ElementType.NODE ? nodes : edges).remove(id);
+		}
+
+		void push(Event e) {
+			if (e instanceof NodeRemoved) {
+				removed(ElementType.NODE, ((NodeRemoved) e).nodeId, e);
+			} else if (e instanceof NodeAdded) {
+				state(ElementType.NODE, ((NodeAdded) e).nodeId).added(e);
+			} else if (e instanceof EdgeRemoved) {
+				removed(ElementType.EDGE, ((EdgeRemoved) e).edgeId, e);
+			} else if (e instanceof EdgeAdded) {
+				state(ElementType.EDGE, ((EdgeAdded) e).edgeId).added(e);
+			} else if (e instanceof ElementEvent) {
+				ElementEvent ee = (ElementEvent) e;
+				ElementState state = state(ee.type, ee.elementId);
+
+				if (!state.exists())
+					return;
+
+				if (e instanceof AttributeAdded) {
+					AttributeAdded a = (AttributeAdded) e;
+					state.attributeAdded(a.attrId, a.value);
+				} else if (e instanceof AttributeChanged) {
+					AttributeChanged a = (AttributeChanged) e;
+					state.attributeChanged(a.attrId, a.oldValue, a.newValue);
+				} else if (e instanceof AttributeRemoved) {
+					AttributeRemoved a = (AttributeRemoved) e;
+					state.attributeRemoved(a.attrId, a.oldValue);
+				}
+			}
+		}
+
+		void flush(LinkedList<Event> out) {
+			for (ElementState state : edges.values())
+				state.flushRemoval(out);
+
+			for (ElementState state : nodes.values())
+				state.flushRemoval(out);
+
+			for (ElementState state : nodes.values()) {
+				if (state.addition != null) {
+					out.add(state.addition);
+					state.flushAttributes(out);
+				}
+			}
+
+			for (ElementState state : edges.values()) {
+				if (state.addition != null) {
+					out.add(state.addition);
+					state.flushAttributes(out);
+				}
+			}
+
+			for (ElementState state : nodes.values()) {
+				if (state.addition == null)
+					state.flushAttributes(out);
+			}
+
+			for (ElementState state : edges.values()) {
+				if (state.addition == null)
+					state.flushAttributes(out);
+			}
+
+			graph.flushAttributes(out);
+
+			nodes.clear();
+			edges.clear();
+			graph.attributes.clear();
+		}
+	}
+
 	private class Bridge implements Sink {
 		Graph g;
 
+		/**
+		 * Last step seen, used when the graph is not listened to.
+		 */
+		double step;
+
+		/**
+		 * True if this bridge is a sink of the graph.
+		 */
+		boolean listening;
+
 		Bridge(Graph g) {
+			this(g, true);
+		}
 
+		Bridge(Graph g, boolean listen) {
 			this.g = g;
-			g.addSink(this);
+			this.step = g == null ? 0 : g.getStep();
+			this.listening = listen && g != null;
+
+			if (listening)
+				g.addSink(this);
 		}
 
 		void end() {
-			g.removeSink(this);
+			if (listening)
+				g.removeSink(this);
 		}
 
 		/*
@@ -808,7 +1166,7 @@ public class GraphDiff {
 		public void graphAttributeChanged(String sourceId, long timeId, String attribute, Object oldValue,
 				Object newValue) {
 			Event e;
-			e = new AttributeChanged(ElementType.GRAPH, null, attribute, newValue, g.getAttribute(attribute));
+			e = new AttributeChanged(ElementType.GRAPH, null, attribute, newValue, oldValue);
 			events.add(e);
 		}
 
@@ -820,7 +1178,7 @@ public class GraphDiff {
 		 */
 		public void graphAttributeRemoved(String sourceId, long timeId, String attribute) {
 			Event e;
-			e = new AttributeRemoved(ElementType.GRAPH, null, attribute, g.getAttribute(attribute));
+			e = new AttributeRemoved(ElementType.GRAPH, null, attribute, g == null ? null : g.getAttribute(attribute));
 			events.add(e);
 		}
 
@@ -846,8 +1204,7 @@ public class GraphDiff {
 		public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 				Object newValue) {
 			Event e;
-			e = new AttributeChanged(ElementType.NODE, nodeId, attribute, newValue,
-					g.getNode(nodeId).getAttribute(attribute));
+			e = new AttributeChanged(ElementType.NODE, nodeId, attribute, newValue, oldValue);
 			events.add(e);
 		}
 
@@ -859,7 +1216,8 @@ public class GraphDiff {
 		 */
 		public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
 			Event e;
-			e = new AttributeRemoved(ElementType.NODE, nodeId, attribute, g.getNode(nodeId).getAttribute(attribute));
+			e = new AttributeRemoved(ElementType.NODE, nodeId, attribute,
+					g == null ? null : g.getNode(nodeId).getAttribute(attribute));
 			events.add(e);
 		}
 
@@ -885,8 +1243,7 @@ public class GraphDiff {
 		public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 				Object newValue) {
 			Event e;
-			e = new AttributeChanged(ElementType.EDGE, edgeId, attribute, newValue,
-					g.getEdge(edgeId).getAttribute(attribute));
+			e = new AttributeChanged(ElementType.EDGE, edgeId, attribute, newValue, oldValue);
 			events.add(e);
 		}
 
@@ -898,7 +1255,8 @@ public class GraphDiff {
 		 */
 		public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
 			Event e;
-			e = new AttributeRemoved(ElementType.EDGE, edgeId, attribute, g.getEdge(edgeId).getAttribute(attribute));
+			e = new AttributeRemoved(ElementType.EDGE, edgeId, attribute,
+					g == null ? null : g.getEdge(edgeId).getAttribute(attribute));
 			events.add(e);
 		}
 
@@ -921,9 +1279,10 @@ public class GraphDiff {
 		 * java.lang.String)
 		 */
 		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
-			Node n = g.getNode(nodeId);
-
-			n.attributeKeys().forEach(key -> nodeAttributeRemoved(sourceId, timeId, nodeId, key));
+			if (g != null) {
+				Node n = g.getNode(nodeId);
+				n.attributeKeys().forEach(key -> nodeAttributeRemoved(sourceId, timeId, nodeId, key));
+			}
 
 			Event e;
 			e = new NodeRemoved(nodeId);
@@ -950,12 +1309,18 @@ public class GraphDiff {
 		 * java.lang.String)
 		 */
 		public void edgeRemoved(String sourceId, long timeId, String edgeId) {
-			Edge edge = g.getEdge(edgeId);
+			Event e;
 
-			edge.attributeKeys().forEach(key -> edgeAttributeRemoved(sourceId, timeId, edgeId, key));
+			if (g == null) {
+				e = new EdgeRemoved(edgeId, null, null, false);
+			} else {
+				Edge edge = g.getEdge(edgeId);
+				edge.attributeKeys().forEach(key -> edgeAttributeRemoved(sourceId, timeId, edgeId, key));
+
+				e = new EdgeRemoved(edgeId, edge.getSourceNode().getId(), edge.getTargetNode().getId(),
+						edge.isDirected());
+			}
 
-			Event e;
-			e = new EdgeRemoved(edgeId, edge.getSourceNode().getId(), edge.getTargetNode().getId(), edge.isDirected());
 			events.add(e);
 		}
 
@@ -976,8 +1341,11 @@ public class GraphDiff {
 		 * double)
 		 */
 		public void stepBegins(String sourceId, long timeId, double step) {
-			Event e = new StepBegins(g.getStep(), step);
+			// A graph which is not listened to may already be at the new step.
+			Event e = new StepBegins(listening ? g.getStep() : this.step, step);
 			events.add(e);
+
+			this.step = step;
 		}
 	}
 
@@ -31,12 +31,18 @@
  */
 package org.graphstream.util;
 
+import java.util.ArrayList;
+
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.AbstractElement.AttributeChangeEvent;
+import org.graphstream.stream.AttributeSink;
+import org.graphstream.stream.ElementSink;
 import org.graphstream.stream.Pipe;
+import org.graphstream.stream.Sink;
 import org.graphstream.stream.SourceBase;
+import org.graphstream.stream.TransactionListener;
 import org.graphstream.stream.sync.SinkTime;
 
 /**
@@ -52,6 +58,13 @@ public class GraphListeners extends SourceBase implements Pipe {
 
 	Graph g;
 
+	/**
+	 * Changes of the current transaction, null if there is no transaction.
+	 */
+	GraphDiff transaction;
+	Sink transactionRecorder;
+	boolean rollingBack;
+
 	public GraphListeners(Graph g) {
 		super(g.getId());
 
@@ -62,66 +75,351 @@ public class GraphListeners extends SourceBase implements Pipe {
 		this.dnSourceId = null;
 		this.dnTimeId = Long.MIN_VALUE;
 		this.g = g;
+		this.transaction = null;
+		this.transactionRecorder = null;
+		this.rollingBack = false;
 	}
 
 	public long newEvent() {
 		return sourceTime.newEvent();
 	}
 
+	/**
+	 * Open a transaction: changes of the graph are applied immediately, but
+	 * their events are held until the transaction is committed, and recorded so
+	 * that they can be undone.
+	 * 
+	 * @throws IllegalStateException
+	 *             if a transaction is already open, or if the graph is sending
+	 *             events to its sinks
+	 */
+	public void beginTransaction() {
+		if (transaction != null)
+			throw new IllegalStateException("a transaction is already open");
+		if (eventProcessing)
+			throw new IllegalStateException("cannot open a transaction while sending events");
+
+		transaction = new GraphDiff();
+		transactionRecorder = transaction.record(g);
+
+		// Events are queued until the end of the transaction, as they are
+		// when sinks send events back while they are notified.
+		eventProcessing = true;
+	}
+
+	/**
+	 * Send the events of the current transaction to the sinks. Sinks
+	 * implementing {@link TransactionListener} are told where the transaction
+	 * begins and ends.
+	 * 
+	 * @throws IllegalStateException
+	 *             if there is no open transaction
+	 */
+	public void commit() {
+		endTransaction();
+
+		ArrayList<TransactionListener> transactionListeners = getTransactionListeners();
+
+		for (TransactionListener l : transactionListeners)
+			l.transactionBegins(sourceId, eventQueue.size());
+
+		try {
+			manageEvents();
+		} finally {
+			eventProcessing = false;
+		}
+
+		for (TransactionListener l : transactionListeners)
+			l.transactionEnds(sourceId);
+	}
+
+	/**
+	 * Undo the changes of the current transaction. Its events are dropped and
+	 * sinks see nothing of the transaction.
+	 * 
+	 * @throws IllegalStateException
+	 *             if there is no open transaction
+	 */
+	public void rollback() {
+		GraphDiff diff = endTransaction();
+
+		eventQueue.clear();
+		rollingBack = true;
+
+		try {
+			diff.reverse(g);
+		} finally {
+			rollingBack = false;
+			eventProcessing = false;
+		}
+	}
+
+	/**
+	 * @return true if a transaction is open
+	 */
+	public boolean isInTransaction() {
+		return transaction != null;
+	}
+
+	/**
+	 * Attribute events are only produced if someone is interested in them:
+	 * otherwise neither the time id nor the event are created.
+	 * 
+	 * @return true if there is an attribute sink or an open transaction
+	 */
+	protected boolean hasAttributeListeners() {
+		return attrSinks.length > 0 || transactionRecorder != null;
+	}
+
+	/**
+	 * @return true if there is an element sink or an open transaction
+	 * @see #hasAttributeListeners()
+	 */
+	protected boolean hasElementListeners() {
+		return eltsSinks.length > 0 || transactionRecorder != null;
+	}
+
+	private ArrayList<TransactionListener> getTransactionListeners() {
+		ArrayList<TransactionListener> l = new ArrayList<TransactionListener>();
+
+		for (AttributeSink sink : attrSinks)
+			if (sink instanceof TransactionListener)
+				l.add((TransactionListener) sink);
+
+		for (ElementSink sink : eltsSinks)
+			if (sink instanceof TransactionListener && !l.contains(sink))
+				l.add((TransactionListener) sink);
+
+		return l;
+	}
+
+	private GraphDiff endTransaction() {
+		if (transaction == null)
+			throw new IllegalStateException("no open transaction");
+
+		GraphDiff diff = transaction;
+		diff.end();
+
+		transaction = null;
+		transactionRecorder = null;
+
+		return diff;
+	}
+
+	// Events are recorded when they are sent, while the graph is in the state
+	// preceding them, and not when they are actually dispatched to the sinks.
+
+	@Override
+	public void sendNodeAdded(String sourceId, long timeId, String nodeId) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.nodeAdded(sourceId, timeId, nodeId);
+
+		super.sendNodeAdded(sourceId, timeId, nodeId);
+	}
+
+	@Override
+	public void sendNodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.nodeRemoved(sourceId, timeId, nodeId);
+
+		super.sendNodeRemoved(sourceId, timeId, nodeIndex, nodeId);
+	}
+
+	@Override
+	public void sendEdgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+
+		super.sendEdgeAdded(sourceId, timeId, edgeIndex, edgeId, fromNodeIndex, fromNodeId, toNodeIndex, toNodeId,
+				directed);
+	}
+
+	@Override
+	public void sendEdgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.edgeRemoved(sourceId, timeId, edgeId);
+
+		super.sendEdgeRemoved(sourceId, timeId, edgeIndex, edgeId);
+	}
+
+	@Override
+	public void sendGraphCleared(String sourceId, long timeId) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.graphCleared(sourceId, timeId);
+
+		super.sendGraphCleared(sourceId, timeId);
+	}
+
+	@Override
+	public void sendStepBegins(String sourceId, long timeId, double step) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			transactionRecorder.stepBegins(sourceId, timeId, step);
+
+		super.sendStepBegins(sourceId, timeId, step);
+	}
+
+	@Override
+	public void sendAttributeChangedEvent(String sourceId, long timeId, int eltIndex, String eltId,
+			ElementType eltType, String attribute, AttributeChangeEvent event, Object oldValue, Object newValue) {
+		if (rollingBack)
+			return;
+		if (transactionRecorder != null)
+			recordAttributeChange(sourceId, timeId, eltId, eltType, attribute, event, oldValue, newValue);
+
+		super.sendAttributeChangedEvent(sourceId, timeId, eltIndex, eltId, eltType, attribute, event, oldValue,
+				newValue);
+	}
+
+	private void recordAttributeChange(String sourceId, long timeId, String eltId, ElementType eltType,
+			String attribute, AttributeChangeEvent event, Object oldValue, Object newValue) {
+		Sink r = transactionRecorder;
+
+		switch (event) {
+		case ADD:
+			if (eltType == ElementType.NODE)
+				r.nodeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+			else if (eltType == ElementType.EDGE)
+				r.edgeAttributeAdded(sourceId, timeId, eltId, attribute, newValue);
+			else
+				r.graphAttributeAdded(sourceId, timeId, attribute, newValue);
+			break;
+		case CHANGE:
+			if (eltType == ElementType.NODE)
+				r.nodeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+			else if (eltType == ElementType.EDGE)
+				r.edgeAttributeChanged(sourceId, timeId, eltId, attribute, oldValue, newValue);
+			else
+				r.graphAttributeChanged(sourceId, timeId, attribute, oldValue, newValue);
+			break;
+		case REMOVE:
+			if (eltType == ElementType.NODE)
+				r.nodeAttributeRemoved(sourceId, timeId, eltId, attribute);
+			else if (eltType == ElementType.EDGE)
+				r.edgeAttributeRemoved(sourceId, timeId, eltId, attribute);
+			else
+				r.graphAttributeRemoved(sourceId, timeId, attribute);
+			break;
+		}
+	}
+
 	public void sendAttributeChangedEvent(String eltId, ElementType eltType, String attribute,
 			AttributeChangeEvent event, Object oldValue, Object newValue) {
+		sendAttributeChangedEvent(-1, eltId, eltType, attribute, event, oldValue, newValue);
+	}
+
+	public void sendAttributeChangedEvent(int eltIndex, String eltId, ElementType eltType, String attribute,
+			AttributeChangeEvent event, Object oldValue, Object newValue) {
 		//
 		// Attributes with name beginnig with a dot are hidden.
 		//
-		if (passYourWay || attribute.charAt(0) == '.')
+		if (passYourWay || !hasAttributeListeners() || attribute.charAt(0) == '.')
 			return;
 
-		sendAttributeChangedEvent(sourceId, newEvent(), eltId, eltType, attribute, event, oldValue, newValue);
+		sendAttributeChangedEvent(sourceId, newEvent(), eltIndex, eltId, eltType, attribute, event, oldValue,
+				newValue);
 	}
 
 	public void sendNodeAdded(String nodeId) {
-		if (passYourWay)
+		if (passYourWay || !hasElementListeners())
 			return;
 
 		sendNodeAdded(sourceId, newEvent(), nodeId);
 	}
 
 	public void sendNodeRemoved(String nodeId) {
+		sendNodeRemoved(-1, nodeId);
+	}
+
+	public void sendNodeRemoved(int nodeIndex, String nodeId) {
+		if (!hasElementListeners())
+			return;
+
 		if (dnSourceId != null) {
-			sendNodeRemoved(dnSourceId, dnTimeId, nodeId);
+			sendNodeRemoved(dnSourceId, dnTimeId, nodeIndex, nodeId);
 		} else {
-			sendNodeRemoved(sourceId, newEvent(), nodeId);
+			sendNodeRemoved(sourceId, newEvent(), nodeIndex, nodeId);
 		}
 	}
 
 	public void sendEdgeAdded(String edgeId, String source, String target, boolean directed) {
-		if (passYourWayAE)
+		sendEdgeAdded(-1, edgeId, -1, source, -1, target, directed);
+	}
+
+	public void sendEdgeAdded(int edgeIndex, String edgeId, int sourceIndex, String source, int targetIndex,
+			String target, boolean directed) {
+		if (passYourWayAE || !hasElementListeners())
 			return;
 
-		sendEdgeAdded(sourceId, newEvent(), edgeId, source, target, directed);
+		sendEdgeAdded(sourceId, newEvent(), edgeIndex, edgeId, sourceIndex, source, targetIndex, target, directed);
 	}
 
 	public void sendEdgeRemoved(String edgeId) {
-		if (passYourWay)
+		sendEdgeRemoved(-1, edgeId);
+	}
+
+	public void sendEdgeRemoved(int edgeIndex, String edgeId) {
+		if (passYourWay || !hasElementListeners())
 			return;
 
-		sendEdgeRemoved(sourceId, newEvent(), edgeId);
+		sendEdgeRemoved(sourceId, newEvent(), edgeIndex, edgeId);
 	}
 
 	public void sendGraphCleared() {
-		if (passYourWay)
+		if (passYourWay || !hasElementListeners())
 			return;
 
 		sendGraphCleared(sourceId, newEvent());
 	}
 
 	public void sendStepBegins(double step) {
-		if (passYourWay)
+		if (passYourWay || !hasElementListeners())
 			return;
 
 		sendStepBegins(sourceId, newEvent(), step);
 	}
 
+	// Elements are resolved by index when the source gives one, which avoids
+	// hashing their identifier. This works when this graph mirrors the source,
+	// since both then keep their elements at the same indices. The index is
+	// only a hint and the identifier is checked. Indices of this graph are only
+	// forwarded, and elements only handled by reference, for events that came
+	// with indices: graphs that do not index their elements never get some.
+
+	private Node getNode(int index, String id) {
+		if (index >= 0 && index < g.getNodeCount()) {
+			Node node = g.getNode(index);
+
+			if (node.getId().equals(id))
+				return node;
+		}
+
+		return g.getNode(id);
+	}
+
+	private Edge getEdge(int index, String id) {
+		if (index >= 0 && index < g.getEdgeCount()) {
+			Edge edge = g.getEdge(index);
+
+			if (edge.getId().equals(id))
+				return edge;
+		}
+
+		return g.getEdge(id);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -129,8 +427,14 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * .String, long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
 	public void edgeAttributeAdded(String sourceId, long timeId, String edgeId, String attribute, Object value) {
+		edgeAttributeAdded(sourceId, timeId, -1, edgeId, attribute, value);
+	}
+
+	@Override
+	public void edgeAttributeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object value) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Edge edge = g.getEdge(edgeId);
+			Edge edge = getEdge(edgeIndex, edgeId);
 			if (edge != null) {
 				passYourWay = true;
 
@@ -140,7 +444,8 @@ public class GraphListeners extends SourceBase implements Pipe {
 					passYourWay = false;
 				}
 
-				sendEdgeAttributeAdded(sourceId, timeId, edgeId, attribute, value);
+				sendAttributeChangedEvent(sourceId, timeId, edgeIndex < 0 ? -1 : edge.getIndex(), edgeId,
+						ElementType.EDGE, attribute, AttributeChangeEvent.ADD, null, value);
 			}
 		}
 	}
@@ -154,8 +459,14 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 */
 	public void edgeAttributeChanged(String sourceId, long timeId, String edgeId, String attribute, Object oldValue,
 			Object newValue) {
+		edgeAttributeChanged(sourceId, timeId, -1, edgeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public void edgeAttributeChanged(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute,
+			Object oldValue, Object newValue) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Edge edge = g.getEdge(edgeId);
+			Edge edge = getEdge(edgeIndex, edgeId);
 			if (edge != null) {
 				passYourWay = true;
 
@@ -168,7 +479,8 @@ public class GraphListeners extends SourceBase implements Pipe {
 					passYourWay = false;
 				}
 
-				sendEdgeAttributeChanged(sourceId, timeId, edgeId, attribute, oldValue, newValue);
+				sendAttributeChangedEvent(sourceId, timeId, edgeIndex < 0 ? -1 : edge.getIndex(), edgeId,
+						ElementType.EDGE, attribute, AttributeChangeEvent.CHANGE, oldValue, newValue);
 			}
 		}
 	}
@@ -180,10 +492,16 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * .String, long, java.lang.String, java.lang.String)
 	 */
 	public void edgeAttributeRemoved(String sourceId, long timeId, String edgeId, String attribute) {
+		edgeAttributeRemoved(sourceId, timeId, -1, edgeId, attribute);
+	}
+
+	@Override
+	public void edgeAttributeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId, String attribute) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Edge edge = g.getEdge(edgeId);
+			Edge edge = getEdge(edgeIndex, edgeId);
 			if (edge != null) {
-				sendEdgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+				sendAttributeChangedEvent(sourceId, timeId, edgeIndex < 0 ? -1 : edge.getIndex(), edgeId,
+						ElementType.EDGE, attribute, AttributeChangeEvent.REMOVE, null, null);
 				passYourWay = true;
 
 				try {
@@ -266,8 +584,14 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * .String, long, java.lang.String, java.lang.String, java.lang.Object)
 	 */
 	public void nodeAttributeAdded(String sourceId, long timeId, String nodeId, String attribute, Object value) {
+		nodeAttributeAdded(sourceId, timeId, -1, nodeId, attribute, value);
+	}
+
+	@Override
+	public void nodeAttributeAdded(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object value) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Node node = g.getNode(nodeId);
+			Node node = getNode(nodeIndex, nodeId);
 			if (node != null) {
 				passYourWay = true;
 
@@ -277,7 +601,8 @@ public class GraphListeners extends SourceBase implements Pipe {
 					passYourWay = false;
 				}
 
-				sendNodeAttributeAdded(sourceId, timeId, nodeId, attribute, value);
+				sendAttributeChangedEvent(sourceId, timeId, nodeIndex < 0 ? -1 : node.getIndex(), nodeId,
+						ElementType.NODE, attribute, AttributeChangeEvent.ADD, null, value);
 			}
 		}
 	}
@@ -291,8 +616,14 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 */
 	public void nodeAttributeChanged(String sourceId, long timeId, String nodeId, String attribute, Object oldValue,
 			Object newValue) {
+		nodeAttributeChanged(sourceId, timeId, -1, nodeId, attribute, oldValue, newValue);
+	}
+
+	@Override
+	public void nodeAttributeChanged(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute,
+			Object oldValue, Object newValue) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Node node = g.getNode(nodeId);
+			Node node = getNode(nodeIndex, nodeId);
 			if (node != null) {
 				passYourWay = true;
 
@@ -305,7 +636,8 @@ public class GraphListeners extends SourceBase implements Pipe {
 					passYourWay = false;
 				}
 
-				sendNodeAttributeChanged(sourceId, timeId, nodeId, attribute, oldValue, newValue);
+				sendAttributeChangedEvent(sourceId, timeId, nodeIndex < 0 ? -1 : node.getIndex(), nodeId,
+						ElementType.NODE, attribute, AttributeChangeEvent.CHANGE, oldValue, newValue);
 			}
 		}
 	}
@@ -317,10 +649,16 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * .String, long, java.lang.String, java.lang.String)
 	 */
 	public void nodeAttributeRemoved(String sourceId, long timeId, String nodeId, String attribute) {
+		nodeAttributeRemoved(sourceId, timeId, -1, nodeId, attribute);
+	}
+
+	@Override
+	public void nodeAttributeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId, String attribute) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			Node node = g.getNode(nodeId);
+			Node node = getNode(nodeIndex, nodeId);
 			if (node != null) {
-				sendNodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+				sendAttributeChangedEvent(sourceId, timeId, nodeIndex < 0 ? -1 : node.getIndex(), nodeId,
+						ElementType.NODE, attribute, AttributeChangeEvent.REMOVE, null, null);
 				passYourWay = true;
 
 				try {
@@ -340,16 +678,38 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 */
 	public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId,
 			boolean directed) {
+		edgeAdded(sourceId, timeId, -1, edgeId, -1, fromNodeId, -1, toNodeId, directed);
+	}
+
+	@Override
+	public void edgeAdded(String sourceId, long timeId, int edgeIndex, String edgeId, int fromNodeIndex,
+			String fromNodeId, int toNodeIndex, String toNodeId, boolean directed) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
+			Node from = null, to = null;
+			Edge edge;
+
+			if (fromNodeIndex >= 0 && toNodeIndex >= 0) {
+				from = getNode(fromNodeIndex, fromNodeId);
+				to = getNode(toNodeIndex, toNodeId);
+			}
+
+
 			passYourWayAE = true;
 
 			try {
-				g.addEdge(edgeId, fromNodeId, toNodeId, directed);
+				if (from != null && to != null)
+					edge = g.addEdge(edgeId, from, to, directed);
+				else
+					edge = g.addEdge(edgeId, fromNodeId, toNodeId, directed);
 			} finally {
 				passYourWayAE = false;
 			}
 
-			sendEdgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+			if (edge == null || from == null || to == null)
+				sendEdgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId, directed);
+			else
+				sendEdgeAdded(sourceId, timeId, edge.getIndex(), edgeId, from.getIndex(), fromNodeId, to.getIndex(),
+						toNodeId, directed);
 		}
 	}
 
@@ -360,12 +720,22 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * java.lang.String)
 	 */
 	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		edgeRemoved(sourceId, timeId, -1, edgeId);
+	}
+
+	@Override
+	public void edgeRemoved(String sourceId, long timeId, int edgeIndex, String edgeId) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
-			sendEdgeRemoved(sourceId, timeId, edgeId);
+			Edge edge = edgeIndex < 0 ? null : getEdge(edgeIndex, edgeId);
+
+			sendEdgeRemoved(sourceId, timeId, edge == null ? -1 : edge.getIndex(), edgeId);
 			passYourWay = true;
 
 			try {
-				g.removeEdge(edgeId);
+				if (edge == null)
+					g.removeEdge(edgeId);
+				else
+					g.removeEdge(edge);
 			} finally {
 				passYourWay = false;
 			}
@@ -417,13 +787,23 @@ public class GraphListeners extends SourceBase implements Pipe {
 	 * java.lang.String)
 	 */
 	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		nodeRemoved(sourceId, timeId, -1, nodeId);
+	}
+
+	@Override
+	public void nodeRemoved(String sourceId, long timeId, int nodeIndex, String nodeId) {
 		if (sinkTime.isNewEvent(sourceId, timeId)) {
+			Node node = nodeIndex < 0 ? null : getNode(nodeIndex, nodeId);
+
 			// sendNodeRemoved(sourceId, timeId, nodeId);
 			dnSourceId = sourceId;
 			dnTimeId = timeId;
 
 			try {
-				g.removeNode(nodeId);
+				if (node == null)
+					g.removeNode(nodeId);
+				else
+					g.removeNode(node);
 			} finally {
 				dnSourceId = null;
 				dnTimeId = Long.MIN_VALUE;
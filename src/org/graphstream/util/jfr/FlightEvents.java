@@ -0,0 +1,373 @@
+/*
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+
+/**
+ * @since 2026-10-19
+ */
+package org.graphstream.util.jfr;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java Flight Recorder events of GraphStream.
+ * 
+ * <p>
+ * Hot operations (file reads, pumps of thread proxies, layout steps, batches
+ * of edge additions and binary transfers) are recorded as JFR events in the
+ * "GraphStream" category, so that a recording shows the activity of graphs
+ * along with the JVM metrics. They can be enabled or tuned like any other
+ * event, for example with a threshold on their duration.
+ * </p>
+ * 
+ * <p>
+ * The JFR API is only available on recent runtimes. This class does not
+ * refer to it directly: when it is missing, or when an event is disabled,
+ * {@code begin*()} methods return null and {@code end*()} methods do nothing.
+ * Instrumented code should thus keep the returned object and pass it back
+ * without looking at it.
+ * </p>
+ */
+public final class FlightEvents {
+	/**
+	 * True if the JFR API is available.
+	 */
+	public static final boolean AVAILABLE = isJFRAvailable();
+
+	/**
+	 * Count of edge additions grouped in one event.
+	 */
+	public static final int EDGE_BATCH_SIZE = 1024;
+
+	/**
+	 * Time, in milliseconds, after which a batch of edge additions is recorded
+	 * even if it is not full, so that a graph which stops adding edges does not
+	 * keep its last batch forever.
+	 */
+	public static final long EDGE_BATCH_MAX_MILLIS = 100;
+
+	private FlightEvents() {
+	}
+
+	private static boolean isJFRAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, FlightEvents.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Begin reading a file.
+	 * 
+	 * @param source
+	 *            the file source
+	 * @param operation
+	 *            the read operation
+	 * @return the event, or null if it is not recorded
+	 */
+	public static Object beginFileRead(Object source, String operation) {
+		return AVAILABLE ? Recorder.beginFileRead(source, operation) : null;
+	}
+
+	/**
+	 * End reading a file.
+	 * 
+	 * @param events
+	 *            count of events read
+	 */
+	public static void endFileRead(Object event, long events) {
+		if (event != null)
+			Recorder.endFileRead(event, events);
+	}
+
+	/**
+	 * Begin pumping the events of a proxy.
+	 * 
+	 * @param proxy
+	 *            the proxy
+	 * @return the event, or null if it is not recorded
+	 */
+	public static Object beginPump(Object proxy) {
+		return AVAILABLE ? Recorder.beginPump(proxy) : null;
+	}
+
+	/**
+	 * End pumping events. Pumps which did not process any event are not
+	 * committed.
+	 * 
+	 * @param events
+	 *            count of events processed
+	 */
+	public static void endPump(Object event, int events) {
+		if (event != null && events > 0)
+			Recorder.endPump(event, events);
+	}
+
+	/**
+	 * Begin a step of a layout.
+	 * 
+	 * @param layout
+	 *            the layout
+	 * @return the event, or null if it is not recorded
+	 */
+	public static Object beginLayoutStep(Object layout) {
+		return AVAILABLE ? Recorder.beginLayoutStep(layout) : null;
+	}
+
+	/**
+	 * End a step of a layout.
+	 * 
+	 * @param nodes
+	 *            count of nodes laid out
+	 * @param movedNodes
+	 *            count of nodes which moved
+	 */
+	public static void endLayoutStep(Object event, int nodes, int movedNodes) {
+		if (event != null)
+			Recorder.endLayoutStep(event, nodes, movedNodes);
+	}
+
+	/**
+	 * Begin a batch of edge additions. The event has no duration: only the time
+	 * spent adding the edges is recorded, not the time between the additions.
+	 * The batch is recorded once it holds {@link #EDGE_BATCH_SIZE} edges, or
+	 * {@link #EDGE_BATCH_MAX_MILLIS} after it began, by another thread if the
+	 * graph is idle.
+	 * 
+	 * @param graphId
+	 *            the graph
+	 * @return the batch, or null if it is not recorded
+	 */
+	public static Object beginEdgeBatch(String graphId) {
+		return AVAILABLE ? Recorder.beginEdgeBatch(graphId) : null;
+	}
+
+	/**
+	 * Add an edge to a batch.
+	 * 
+	 * @param nanos
+	 *            time spent adding the edge
+	 * @return false if the batch was already recorded, in which case the edge
+	 *         has to be added to a new batch
+	 */
+	public static boolean addToEdgeBatch(Object batch, long nanos) {
+		return batch != null && Recorder.addToEdgeBatch(batch, nanos);
+	}
+
+	/**
+	 * Record a batch of edge additions before it is full.
+	 */
+	public static void endEdgeBatch(Object batch) {
+		if (batch != null)
+			Recorder.endEdgeBatch(batch);
+	}
+
+	/**
+	 * Begin a binary transfer.
+	 * 
+	 * @param direction
+	 *            "send" or "receive"
+	 * @return the event, or null if it is not recorded
+	 */
+	public static Object beginTransfer(String direction) {
+		return AVAILABLE ? Recorder.beginTransfer(direction) : null;
+	}
+
+	/**
+	 * End a binary transfer.
+	 * 
+	 * @param bytes
+	 *            count of bytes transferred
+	 * @param channels
+	 *            count of channels involved
+	 */
+	public static void endTransfer(Object event, int bytes, int channels) {
+		if (event != null)
+			Recorder.endTransfer(event, bytes, channels);
+	}
+
+	/**
+	 * Access to the event classes, only loaded if the JFR API is available.
+	 */
+	private static class Recorder {
+		static Object beginFileRead(Object source, String operation) {
+			FileReadEvent e = new FileReadEvent();
+
+			if (!e.isEnabled())
+				return null;
+
+			e.source = source.getClass().getName();
+			e.operation = operation;
+			e.begin();
+
+			return e;
+		}
+
+		static void endFileRead(Object event, long events) {
+			FileReadEvent e = (FileReadEvent) event;
+			e.events = events;
+			e.commit();
+		}
+
+		static Object beginPump(Object proxy) {
+			PumpEvent e = new PumpEvent();
+
+			if (!e.isEnabled())
+				return null;
+
+			e.proxy = proxy.getClass().getName();
+			e.begin();
+
+			return e;
+		}
+
+		static void endPump(Object event, int events) {
+			PumpEvent e = (PumpEvent) event;
+			e.events = events;
+			e.commit();
+		}
+
+		static Object beginLayoutStep(Object layout) {
+			LayoutStepEvent e = new LayoutStepEvent();
+
+			if (!e.isEnabled())
+				return null;
+
+			e.layout = layout.getClass().getName();
+			e.begin();
+
+			return e;
+		}
+
+		static void endLayoutStep(Object event, int nodes, int movedNodes) {
+			LayoutStepEvent e = (LayoutStepEvent) event;
+			e.nodes = nodes;
+			e.movedNodes = movedNodes;
+			e.commit();
+		}
+
+		/**
+		 * Records the batches of edge additions of idle graphs.
+		 */
+		private static ScheduledExecutorService timer;
+
+		static Object beginEdgeBatch(String graphId) {
+			EdgeBatchEvent e = new EdgeBatchEvent();
+
+			if (!e.isEnabled())
+				return null;
+
+			e.graph = graphId;
+
+			EdgeBatch batch = new EdgeBatch(e);
+			timer().schedule(batch::end, EDGE_BATCH_MAX_MILLIS, TimeUnit.MILLISECONDS);
+
+			return batch;
+		}
+
+		static boolean addToEdgeBatch(Object batch, long nanos) {
+			return ((EdgeBatch) batch).add(nanos);
+		}
+
+		static void endEdgeBatch(Object batch) {
+			((EdgeBatch) batch).end();
+		}
+
+		private static synchronized ScheduledExecutorService timer() {
+			if (timer == null) {
+				timer = new ScheduledThreadPoolExecutor(1, task -> {
+					Thread t = new Thread(task, "graphstream-flight-events");
+					t.setDaemon(true);
+					return t;
+				});
+			}
+
+			return timer;
+		}
+
+		/**
+		 * Edges added by the thread of a graph, recorded by this thread or by the
+		 * timer.
+		 */
+		private static class EdgeBatch {
+			final EdgeBatchEvent event;
+			int edges;
+			long work;
+			boolean ended;
+
+			EdgeBatch(EdgeBatchEvent event) {
+				this.event = event;
+			}
+
+			synchronized boolean add(long nanos) {
+				if (ended)
+					return false;
+
+				edges++;
+				work += nanos;
+
+				if (edges == EDGE_BATCH_SIZE)
+					end();
+
+				return true;
+			}
+
+			synchronized void end() {
+				if (ended)
+					return;
+
+				ended = true;
+
+				if (edges > 0) {
+					event.edges = edges;
+					event.work = work;
+					event.commit();
+				}
+			}
+		}
+
+		static Object beginTransfer(String direction) {
+			TransferEvent e = new TransferEvent();
+
+			if (!e.isEnabled())
+				return null;
+
+			e.direction = direction;
+			e.begin();
+
+			return e;
+		}
+
+		static void endTransfer(Object event, int bytes, int channels) {
+			TransferEvent e = (TransferEvent) event;
+			e.bytes = bytes;
+			e.channels = channels;
+			e.commit();
+		}
+	}
+}